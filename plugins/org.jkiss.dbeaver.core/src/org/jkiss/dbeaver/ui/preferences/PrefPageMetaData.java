@@ -46,6 +46,8 @@ public class PrefPageMetaData extends TargetPrefPage
     private Button caseSensitiveNamesCheck;
     private Button serverSideFiltersCheck;
     private Button addExtraDDLInfo;
+    private Button metaSnapshotCacheCheck;
+    private Spinner metaPrefetchConnectionsSpinner;
 
     public PrefPageMetaData()
     {
@@ -61,7 +63,9 @@ public class PrefPageMetaData extends TargetPrefPage
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
             store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
             store.contains(ModelPreferences.META_DISABLE_EXTRA_READ) ||
-            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS)
+            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+            store.contains(ModelPreferences.META_SNAPSHOT_CACHE) ||
+            store.contains(ModelPreferences.META_PREFETCH_CONNECTIONS)
             ;
     }
 
@@ -141,6 +145,19 @@ public class PrefPageMetaData extends TargetPrefPage
                 CoreMessages.pref_page_database_general_checkbox_show_row_count_tip,
                 false,
                 1);
+            metaSnapshotCacheCheck = UIUtils.createCheckbox(
+                performanceGroup,
+                CoreMessages.pref_page_database_general_checkbox_meta_snapshot_cache,
+                CoreMessages.pref_page_database_general_checkbox_meta_snapshot_cache_tip,
+                false,
+                1);
+            metaPrefetchConnectionsSpinner = UIUtils.createLabelSpinner(
+                UIUtils.createComposite(performanceGroup, 2),
+                CoreMessages.pref_page_database_general_meta_prefetch_connections,
+                CoreMessages.pref_page_database_general_meta_prefetch_connections_tip,
+                0,
+                0,
+                16);
         }
 
         return composite;
@@ -158,6 +175,8 @@ public class PrefPageMetaData extends TargetPrefPage
             disableExtraMetadataRead.setSelection(store.getBoolean(ModelPreferences.META_DISABLE_EXTRA_READ));
             addExtraDDLInfo.setSelection(store.getBoolean(ModelPreferences.META_EXTRA_DDL_INFO));
             serverSideFiltersCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+            metaSnapshotCacheCheck.setSelection(store.getBoolean(ModelPreferences.META_SNAPSHOT_CACHE));
+            metaPrefetchConnectionsSpinner.setSelection(store.getInt(ModelPreferences.META_PREFETCH_CONNECTIONS));
 
         } catch (Exception e) {
             log.warn(e);
@@ -177,6 +196,8 @@ public class PrefPageMetaData extends TargetPrefPage
             store.setValue(ModelPreferences.META_DISABLE_EXTRA_READ, disableExtraMetadataRead.getSelection());
             store.setValue(ModelPreferences.META_EXTRA_DDL_INFO, addExtraDDLInfo.getSelection());
             store.setValue(ModelPreferences.META_USE_SERVER_SIDE_FILTERS, serverSideFiltersCheck.getSelection());
+            store.setValue(ModelPreferences.META_SNAPSHOT_CACHE, metaSnapshotCacheCheck.getSelection());
+            store.setValue(ModelPreferences.META_PREFETCH_CONNECTIONS, metaPrefetchConnectionsSpinner.getSelection());
 
         } catch (Exception e) {
             log.warn(e);
@@ -193,6 +214,8 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_DISABLE_EXTRA_READ);
         store.setToDefault(ModelPreferences.META_USE_SERVER_SIDE_FILTERS);
         store.setToDefault(ModelPreferences.META_EXTRA_DDL_INFO);
+        store.setToDefault(ModelPreferences.META_SNAPSHOT_CACHE);
+        store.setToDefault(ModelPreferences.META_PREFETCH_CONNECTIONS);
     }
 
     @Override
@@ -206,6 +229,8 @@ public class PrefPageMetaData extends TargetPrefPage
         disableExtraMetadataRead.setSelection(store.getDefaultBoolean(ModelPreferences.META_DISABLE_EXTRA_READ));
         addExtraDDLInfo.setSelection(store.getDefaultBoolean(ModelPreferences.META_EXTRA_DDL_INFO));
         serverSideFiltersCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+        metaSnapshotCacheCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_SNAPSHOT_CACHE));
+        metaPrefetchConnectionsSpinner.setSelection(store.getDefaultInt(ModelPreferences.META_PREFETCH_CONNECTIONS));
         super.performDefaults();
     }
 
@@ -47,6 +47,8 @@ public class DTUIMessages extends NLS {
     public static String database_consumer_wizard_performance_group_label;
     public static String database_consumer_wizard_transactions_checkbox_label;
     public static String database_consumer_wizard_commit_spinner_label;
+    public static String database_consumer_wizard_parallel_writers_label;
+    public static String database_consumer_wizard_parallel_writers_tip;
     public static String database_consumer_wizard_general_group_label;
     public static String database_consumer_wizard_table_checkbox_label;
     public static String database_consumer_wizard_final_message_checkbox_label;
@@ -63,6 +65,8 @@ public class DTUIMessages extends NLS {
     public static String database_consumer_wizard_ignore_duplicate_rows_tip;
     public static String database_consumer_wizard_use_bulk_load_label;
     public static String database_consumer_wizard_use_bulk_load_description;
+    public static String database_consumer_wizard_stream_bulk_load_label;
+    public static String database_consumer_wizard_stream_bulk_load_description;
     public static String database_consumer_wizard_on_duplicate_key_insert_method_text;
     public static String database_consumer_wizard_link_label_replace_method_wiki;
     public static String database_consumer_wizard_label_replace_method_not_supported;
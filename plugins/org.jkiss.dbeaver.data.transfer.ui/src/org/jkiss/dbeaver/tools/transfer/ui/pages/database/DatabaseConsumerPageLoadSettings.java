@@ -73,6 +73,7 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
     private Button useBatchCheck;
     private Button ignoreDuplicateRows;
     private Button useBulkLoadCheck;
+    private Button streamBulkLoadCheck;
     private List<SQLDialectInsertReplaceMethod> availableInsertMethodsDescriptors;
     private final Map<String, EventProcessorComposite<?>> processors = new HashMap<>();
 
@@ -223,6 +224,13 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
             gd.widthHint = UIUtils.getFontHeight(commitAfterEdit) * 6;
             commitAfterEdit.setLayoutData(gd);
 
+            final Text parallelWritersEdit = UIUtils.createLabelText(performanceSettings, DTUIMessages.database_consumer_wizard_parallel_writers_label, String.valueOf(settings.getParallelWriters()), SWT.BORDER);
+            parallelWritersEdit.setToolTipText(DTUIMessages.database_consumer_wizard_parallel_writers_tip);
+            parallelWritersEdit.addModifyListener(e -> settings.setParallelWriters(CommonUtils.toInt(parallelWritersEdit.getText(), 1)));
+            gd = new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1);
+            gd.widthHint = UIUtils.getFontHeight(parallelWritersEdit) * 6;
+            parallelWritersEdit.setLayoutData(gd);
+
             final Button useMultiRowInsert = UIUtils.createCheckbox(performanceSettings, DTUIMessages.database_consumer_wizard_checkbox_multi_insert_label, DTUIMessages.database_consumer_wizard_checkbox_multi_insert_description, settings.isUseMultiRowInsert(), 1);
             if (useBatchCheck != null && (
                 (!useBatchCheck.isDisposed() && useBatchCheck.getSelection()) ||
@@ -345,6 +353,21 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
                         }
                     }
                     onDuplicateKeyInsertMethods.setEnabled(!checkSelection);
+                    streamBulkLoadCheck.setEnabled(checkSelection);
+                }
+            });
+
+            streamBulkLoadCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                DTUIMessages.database_consumer_wizard_stream_bulk_load_label,
+                DTUIMessages.database_consumer_wizard_stream_bulk_load_description,
+                settings.isStreamBulkLoad(),
+                4);
+            streamBulkLoadCheck.setEnabled(settings.isUseBulkLoad());
+            streamBulkLoadCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setStreamBulkLoad(streamBulkLoadCheck.getSelection());
                 }
             });
         }
@@ -437,6 +460,7 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
                 disableButton(useBulkLoadCheck);
                 settings.setUseBulkLoad(false);
             }
+            streamBulkLoadCheck.setEnabled(useBulkLoadCheck.getSelection());
         }
 
         loadInsertMethods();
@@ -43,11 +43,14 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
 
     private static final int EXTRACT_TYPE_SINGLE_QUERY = 0;
     private static final int EXTRACT_TYPE_SEGMENTS = 1;
+    private static final int EXTRACT_TYPE_KEY_RANGES = 2;
 
     private Text threadsNumText;
     private Combo rowsExtractType;
     private Label segmentSizeLabel;
     private Text segmentSizeText;
+    private Label splitThreadsLabel;
+    private Text splitThreadsText;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
     private Button selectedColumnsOnlyCheckbox;
@@ -96,13 +99,15 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 rowsExtractType.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
                 rowsExtractType.setItems(
                     DTMessages.data_transfer_wizard_output_combo_extract_type_item_single_query,
-                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments);
+                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments,
+                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_key_ranges);
                 rowsExtractType.addSelectionListener(new SelectionAdapter() {
                     @Override
                     public void widgetSelected(SelectionEvent e) {
                         switch (rowsExtractType.getSelectionIndex()) {
                             case EXTRACT_TYPE_SEGMENTS: settings.setExtractType(DatabaseProducerSettings.ExtractType.SEGMENTS); break;
                             case EXTRACT_TYPE_SINGLE_QUERY: settings.setExtractType(DatabaseProducerSettings.ExtractType.SINGLE_QUERY); break;
+                            case EXTRACT_TYPE_KEY_RANGES: settings.setExtractType(DatabaseProducerSettings.ExtractType.KEY_RANGES); break;
                         }
                         updatePageCompletion();
                     }
@@ -120,6 +125,21 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 });
                 segmentSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
                 ((GridData)segmentSizeText.getLayoutData()).widthHint = UIUtils.getFontHeight(segmentSizeText) * 10;
+
+                splitThreadsLabel = UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_split_threads);
+                splitThreadsLabel.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+                splitThreadsText = new Text(generalSettings, SWT.BORDER);
+                splitThreadsText.setToolTipText(DTMessages.data_transfer_wizard_output_label_split_threads_tip);
+                splitThreadsText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+                splitThreadsText.addModifyListener(e -> {
+                    try {
+                        settings.setSplitThreads(Integer.parseInt(splitThreadsText.getText()));
+                    } catch (NumberFormatException e1) {
+                        // just skip it
+                    }
+                });
+                splitThreadsText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+                ((GridData)splitThreadsText.getLayoutData()).widthHint = UIUtils.getFontHeight(splitThreadsText) * 5;
             }
 
             newConnectionCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_new_connection, DTUIMessages.database_producer_page_extract_settings_new_connection_checkbox_tooltip, true, 4);
@@ -232,9 +252,11 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
+            splitThreadsText.setText(String.valueOf(settings.getSplitThreads()));
             switch (settings.getExtractType()) {
                 case SINGLE_QUERY: rowsExtractType.select(EXTRACT_TYPE_SINGLE_QUERY); break;
                 case SEGMENTS: rowsExtractType.select(EXTRACT_TYPE_SEGMENTS); break;
+                case KEY_RANGES: rowsExtractType.select(EXTRACT_TYPE_KEY_RANGES); break;
             }
         }
         fetchSizeText.setText(String.valueOf(settings.getFetchSize()));
@@ -254,13 +276,10 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
     {
         if (rowsExtractType != null) {
             int selectionIndex = rowsExtractType.getSelectionIndex();
-            if (selectionIndex == EXTRACT_TYPE_SEGMENTS) {
-                segmentSizeLabel.setEnabled(true);
-                segmentSizeText.setEnabled(true);
-            } else {
-                segmentSizeLabel.setEnabled(false);
-                segmentSizeText.setEnabled(false);
-            }
+            segmentSizeLabel.setEnabled(selectionIndex == EXTRACT_TYPE_SEGMENTS);
+            segmentSizeText.setEnabled(selectionIndex == EXTRACT_TYPE_SEGMENTS);
+            splitThreadsLabel.setEnabled(selectionIndex == EXTRACT_TYPE_KEY_RANGES);
+            splitThreadsText.setEnabled(selectionIndex == EXTRACT_TYPE_KEY_RANGES);
         }
         return true;
     }
@@ -45,6 +45,7 @@ import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings.BlobFileCo
 import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings.DataFileConflictBehavior;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings.LobExtractType;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.compress.StreamCompressionFormat;
 import org.jkiss.dbeaver.tools.transfer.ui.IDataTransferEventProcessorConfigurator;
 import org.jkiss.dbeaver.tools.transfer.ui.controls.EventProcessorComposite;
 import org.jkiss.dbeaver.tools.transfer.ui.internal.DTUIMessages;
@@ -167,6 +168,8 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
     private Text directoryText;
     private Text fileNameText;
     private Button compressCheckbox;
+    private Button writeInBackgroundCheckbox;
+    private Combo compressionFormatCombo;
     private Button clipboardCheck;
     private Button singleFileCheck;
     private Button showFinalMessageCheckbox;
@@ -267,6 +270,29 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
                     updateControlsEnablement();
                 }
             });
+            compressionFormatCombo = UIUtils.createLabelCombo(generalSettings, DTMessages.data_transfer_wizard_output_label_compression_format, SWT.DROP_DOWN | SWT.READ_ONLY);
+            for (StreamCompressionFormat format : StreamCompressionFormat.values()) {
+                compressionFormatCombo.add(format.getTitle());
+            }
+            compressionFormatCombo.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setCompressionFormat(StreamCompressionFormat.values()[compressionFormatCombo.getSelectionIndex()]);
+                }
+            });
+            writeInBackgroundCheckbox = UIUtils.createCheckbox(
+                generalSettings,
+                DTMessages.data_transfer_wizard_output_checkbox_write_in_background,
+                DTMessages.data_transfer_wizard_output_checkbox_write_in_background_tip,
+                false,
+                2
+            );
+            writeInBackgroundCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setWriteInBackground(writeInBackgroundCheckbox.getSelection());
+                }
+            });
 
             {
                 Composite outFilesSettings = UIUtils.createComposite(generalSettings, 3);
@@ -420,6 +446,8 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
         directoryText.setEnabled(!clipboard);
         fileNameText.setEnabled(!clipboard);
         compressCheckbox.setEnabled(!clipboard && !singleFileCheck.getSelection());
+        compressionFormatCombo.setEnabled(compressCheckbox.isEnabled() && compressCheckbox.getSelection());
+        writeInBackgroundCheckbox.setEnabled(!clipboard);
         if (compressCheckbox.getSelection() && dataFileConflictBehaviorSelector.getValue().equals(DataFileConflictBehavior.APPEND)) {
             dataFileConflictBehaviorSelector.setValue(DataFileConflictBehavior.PATCHNAME);
         }
@@ -449,6 +477,8 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
         directoryText.setText(CommonUtils.toString(settings.getOutputFolder()));
         fileNameText.setText(CommonUtils.toString(settings.getOutputFilePattern()));
         compressCheckbox.setSelection(settings.isCompressResults());
+        compressionFormatCombo.select(settings.getCompressionFormat().ordinal());
+        writeInBackgroundCheckbox.setSelection(settings.isWriteInBackground());
         splitFilesCheckbox.setSelection(settings.isSplitOutFiles());
         maximumFileSizeText.setText(String.valueOf(settings.getMaxOutFileSize()));
         encodingCombo.setText(CommonUtils.toString(settings.getOutputEncoding()));
@@ -56,6 +56,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
     private boolean openNewConnections = true;
     private boolean useTransactions = true;
     private int commitAfterRows = 10000;
+    private int parallelWriters = 1;
     private boolean transferAutoGeneratedColumns = true;
     private boolean truncateBeforeLoad = false;
     private boolean openTableOnFinish = true;
@@ -65,6 +66,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
     private boolean disableUsingBatches = false;
     private boolean ignoreDuplicateRows;
     private boolean useBulkLoad = false;
+    private boolean streamBulkLoad = false;
     private String onDuplicateKeyInsertMethodId;
     private boolean disableReferentialIntegrity;
     private final Map<String, Map<String, Object>> eventProcessors = new HashMap<>();
@@ -202,6 +204,17 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         this.commitAfterRows = commitAfterRows;
     }
 
+    /**
+     * Number of connections used to insert rows in parallel. Values less than 2 disable parallel load.
+     */
+    public int getParallelWriters() {
+        return parallelWriters;
+    }
+
+    public void setParallelWriters(int parallelWriters) {
+        this.parallelWriters = parallelWriters;
+    }
+
     public boolean isUseBulkLoad() {
         return useBulkLoad;
     }
@@ -210,6 +223,14 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         this.useBulkLoad = useBulkLoad;
     }
 
+    public boolean isStreamBulkLoad() {
+        return streamBulkLoad;
+    }
+
+    public void setStreamBulkLoad(boolean streamBulkLoad) {
+        this.streamBulkLoad = streamBulkLoad;
+    }
+
     @Nullable
     public DBPDataSource getTargetDataSource(DatabaseMappingObject attrMapping) {
         DBSObjectContainer container = getContainer();
@@ -232,6 +253,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         useTransactions = CommonUtils.getBoolean(settings.get("useTransactions"), useTransactions);
         onDuplicateKeyInsertMethodId = CommonUtils.toString(settings.get("onDuplicateKeyMethod"), onDuplicateKeyInsertMethodId);
         commitAfterRows = CommonUtils.toInt(settings.get("commitAfterRows"), commitAfterRows);
+        parallelWriters = CommonUtils.toInt(settings.get("parallelWriters"), parallelWriters);
         useMultiRowInsert = CommonUtils.getBoolean(settings.get("useMultiRowInsert"), useMultiRowInsert);
         multiRowInsertBatch = CommonUtils.toInt(settings.get("multiRowInsertBatch"), multiRowInsertBatch);
         skipBindValues = CommonUtils.getBoolean(settings.get("skipBindValues"), skipBindValues);
@@ -240,6 +262,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         transferAutoGeneratedColumns = CommonUtils.getBoolean(settings.get("transferAutoGeneratedColumns"), transferAutoGeneratedColumns);
         disableReferentialIntegrity = CommonUtils.getBoolean(settings.get("disableReferentialIntegrity"), disableReferentialIntegrity);
         useBulkLoad = CommonUtils.getBoolean(settings.get("useBulkLoad"), useBulkLoad);
+        streamBulkLoad = CommonUtils.getBoolean(settings.get("streamBulkLoad"), streamBulkLoad);
         truncateBeforeLoad = CommonUtils.getBoolean(settings.get("truncateBeforeLoad"), truncateBeforeLoad);
         openTableOnFinish = CommonUtils.getBoolean(settings.get("openTableOnFinish"), openTableOnFinish);
 
@@ -305,6 +328,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         settings.put("openNewConnections", openNewConnections);
         settings.put("useTransactions", useTransactions);
         settings.put("commitAfterRows", commitAfterRows);
+        settings.put("parallelWriters", parallelWriters);
         settings.put("useMultiRowInsert", useMultiRowInsert);
         settings.put("multiRowInsertBatch", multiRowInsertBatch);
         settings.put("skipBindValues", skipBindValues);
@@ -314,6 +338,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         settings.put("transferAutoGeneratedColumns", transferAutoGeneratedColumns);
         settings.put("disableReferentialIntegrity", disableReferentialIntegrity);
         settings.put("useBulkLoad", useBulkLoad);
+        settings.put("streamBulkLoad", streamBulkLoad);
         settings.put("truncateBeforeLoad", truncateBeforeLoad);
         settings.put("openTableOnFinish", openTableOnFinish);
 
@@ -344,6 +369,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         if (useTransactions) {
             DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_commit_after, commitAfterRows);
         }
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_parallel_writers, parallelWriters);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_multi_insert, useMultiRowInsert);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_multi_insert_batch, multiRowInsertBatch);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_skip_bind_values, skipBindValues);
@@ -353,6 +379,9 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_transfer_auto_generated_columns, transferAutoGeneratedColumns);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_referential_integrity, disableReferentialIntegrity);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_bulk_load, useBulkLoad);
+        if (useBulkLoad) {
+            DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_stream_bulk_load, streamBulkLoad);
+        }
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_truncate_before_load, truncateBeforeLoad);
 
         return summary.toString();
@@ -0,0 +1,509 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.impl.AbstractResultSet;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a single table with several parallel queries.
+ * Table is split by ranges of the leading column of its unique key, each range is read in its own isolated context.
+ * Rows of all ranges are passed to the consumer in the caller thread, ranges are interleaved.
+ */
+class DatabaseKeyRangeReader {
+
+    private static final Log log = Log.getLog(DatabaseKeyRangeReader.class);
+
+    private static final int ROW_BATCH_SIZE = 200;
+    private static final int MAX_QUEUED_BATCHES = 64;
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final DBSDataContainer dataContainer;
+    private final DBSEntity entity;
+    private final DBSEntityAttribute keyAttribute;
+    private final DBCExecutionContext baseContext;
+    @Nullable
+    private final DBDDataFilter dataFilter;
+    @Nullable
+    private final String defaultCatalog;
+    @Nullable
+    private final String defaultSchema;
+
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(MAX_QUEUED_BATCHES);
+    private final DBCStatistics statistics = new DBCStatistics();
+    private volatile boolean stopped;
+    private volatile Throwable error;
+
+    private DatabaseKeyRangeReader(
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyAttribute,
+        @NotNull DBCExecutionContext baseContext,
+        @Nullable DBDDataFilter dataFilter,
+        @Nullable String defaultCatalog,
+        @Nullable String defaultSchema
+    ) {
+        this.dataContainer = dataContainer;
+        this.entity = entity;
+        this.keyAttribute = keyAttribute;
+        this.baseContext = baseContext;
+        this.dataFilter = dataFilter;
+        this.defaultCatalog = defaultCatalog;
+        this.defaultSchema = defaultSchema;
+    }
+
+    /**
+     * Creates reader for the specified container.
+     * Returns null if container can't be split by key ranges (not a table, no numeric or date unique key,
+     * LOB columns, or filter which can't be combined with range conditions or requires ordered output).
+     */
+    @Nullable
+    static DatabaseKeyRangeReader create(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBCExecutionContext baseContext,
+        @Nullable DBDDataFilter dataFilter,
+        @Nullable String defaultCatalog,
+        @Nullable String defaultSchema
+    ) throws DBException {
+        if (!(dataContainer instanceof DBSEntity entity) || baseContext.getDataSource().getInfo().isDynamicMetadata()) {
+            return null;
+        }
+        if (dataFilter != null && (dataFilter.isAnyConstraint() || dataFilter.isUseDisjunctiveNormalForm()) && dataFilter.hasFilters()) {
+            return null;
+        }
+        if (dataFilter != null && dataFilter.hasOrdering()) {
+            // Rows of different ranges are interleaved, so requested order can't be kept
+            return null;
+        }
+        List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+        if (identifier.isEmpty()) {
+            return null;
+        }
+        DBSEntityAttribute keyAttribute = identifier.get(0);
+        if (keyAttribute.getDataKind() != DBPDataKind.NUMERIC && keyAttribute.getDataKind() != DBPDataKind.DATETIME) {
+            return null;
+        }
+        for (DBSEntityAttribute attr : CommonUtils.safeCollection(entity.getAttributes(monitor))) {
+            if (attr.getDataKind() == DBPDataKind.CONTENT) {
+                // LOB values are bound to the reader's session and can't be passed to another thread
+                return null;
+            }
+        }
+        return new DatabaseKeyRangeReader(dataContainer, entity, keyAttribute, baseContext, dataFilter, defaultCatalog, defaultSchema);
+    }
+
+    /**
+     * Reads all ranges and passes rows to the consumer.
+     * Returns null if key values don't allow to make more than one range. In this case nothing is read.
+     */
+    @Nullable
+    DBCStatistics readData(
+        @NotNull DBCSession session,
+        @NotNull IDataTransferConsumer<?, ?> consumer,
+        long readFlags,
+        int fetchSize,
+        int rangeCount
+    ) throws DBException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        List<String> conditions = makeRangeConditions(session, rangeCount);
+        if (conditions.size() < 2) {
+            return null;
+        }
+        List<RangeReaderJob> jobs = new ArrayList<>(conditions.size());
+        for (int i = 0; i < conditions.size(); i++) {
+            jobs.add(new RangeReaderJob(i + 1, conditions.get(i), readFlags, fetchSize));
+        }
+        for (RangeReaderJob job : jobs) {
+            job.schedule();
+        }
+        try {
+            replayRows(session, consumer, monitor, jobs.size());
+        } finally {
+            stopped = true;
+            queue.clear();
+            for (RangeReaderJob job : jobs) {
+                job.cancel();
+            }
+            for (RangeReaderJob job : jobs) {
+                try {
+                    job.join();
+                } catch (InterruptedException e) {
+                    log.debug("Interrupted while waiting for range reader", e);
+                }
+            }
+        }
+        if (error != null) {
+            if (error instanceof DBException dbe) {
+                throw dbe;
+            }
+            throw new DBCException("Error reading data range", error);
+        }
+        return statistics;
+    }
+
+    private void replayRows(
+        @NotNull DBCSession session,
+        @NotNull IDataTransferConsumer<?, ?> consumer,
+        @NotNull DBRProgressMonitor monitor,
+        int activeRanges
+    ) throws DBException {
+        RangeResultSet resultSet = null;
+        long rowCount = 0;
+        try {
+            while (activeRanges > 0) {
+                if (monitor.isCanceled()) {
+                    throw new DBCException("Data read canceled");
+                }
+                if (error != null) {
+                    return;
+                }
+                Object item;
+                try {
+                    item = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    throw new DBCException("Data read interrupted", e);
+                }
+                if (item == null) {
+                    continue;
+                }
+                if (item instanceof RangeEnd) {
+                    activeRanges--;
+                } else if (item instanceof DBCResultSetMetaData meta) {
+                    if (resultSet == null) {
+                        resultSet = new RangeResultSet(session, meta);
+                        consumer.fetchStart(session, resultSet, -1, -1);
+                    }
+                } else if (item instanceof RowBatch batch) {
+                    for (Object[] row : batch.rows) {
+                        resultSet.row = row;
+                        consumer.fetchRow(session, resultSet);
+                        rowCount++;
+                        if (rowCount % 100 == 0) {
+                            monitor.subTask(rowCount + " rows exported");
+                            monitor.worked(100);
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (resultSet != null) {
+                consumer.fetchEnd(session, resultSet);
+            }
+        }
+    }
+
+    @NotNull
+    private List<String> makeRangeConditions(@NotNull DBCSession session, int rangeCount) throws DBCException {
+        DBPDataSource dataSource = session.getDataSource();
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        StringBuilder query = new StringBuilder();
+        query.append("SELECT MIN(").append(keyName).append("),MAX(").append(keyName).append(") FROM ");
+        query.append(DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML));
+        // Split only the rows which will be actually read
+        SQLUtils.appendQueryConditions(dataSource, query, null, dataFilter);
+
+        Object minValue = null, maxValue = null;
+        AbstractExecutionSource source = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), this);
+        try (DBCStatement dbStatement = DBUtils.makeStatement(source, session, DBCStatementType.QUERY, query.toString(), 0, 0)) {
+            if (dbStatement.executeStatement()) {
+                try (DBCResultSet rs = dbStatement.openResultSet()) {
+                    if (rs != null && rs.nextRow()) {
+                        minValue = rs.getAttributeValue(0);
+                        maxValue = rs.getAttributeValue(1);
+                    }
+                }
+            }
+        }
+
+        List<String> boundaries = new ArrayList<>();
+        if (minValue instanceof Number minNumber && maxValue instanceof Number maxNumber) {
+            BigDecimal min = toBigDecimal(minNumber);
+            BigDecimal max = toBigDecimal(maxNumber);
+            boolean integral = isIntegral(minNumber) && isIntegral(maxNumber);
+            BigDecimal step = max.subtract(min).divide(BigDecimal.valueOf(rangeCount), 10, RoundingMode.DOWN);
+            for (int i = 1; i < rangeCount; i++) {
+                BigDecimal boundary = min.add(step.multiply(BigDecimal.valueOf(i)));
+                if (integral) {
+                    boundary = boundary.setScale(0, RoundingMode.FLOOR);
+                }
+                addBoundary(boundaries, boundary.stripTrailingZeros().toPlainString());
+            }
+        } else if (minValue instanceof java.util.Date minDate && maxValue instanceof java.util.Date maxDate) {
+            long min = minDate.getTime();
+            long step = (maxDate.getTime() - min) / rangeCount;
+            for (int i = 1; i < rangeCount && step > 0; i++) {
+                addBoundary(boundaries, SQLUtils.convertValueToSQL(dataSource, keyAttribute, new Timestamp(min + step * i)));
+            }
+        }
+
+        List<String> conditions = new ArrayList<>();
+        if (boundaries.isEmpty()) {
+            return conditions;
+        }
+        // Ranges are contiguous, so every row (including NULL keys of non-PK identifiers) gets into exactly one range
+        conditions.add("(" + keyName + " < " + boundaries.get(0) + " OR " + keyName + " IS NULL)");
+        for (int i = 1; i < boundaries.size(); i++) {
+            conditions.add(keyName + " >= " + boundaries.get(i - 1) + " AND " + keyName + " < " + boundaries.get(i));
+        }
+        conditions.add(keyName + " >= " + boundaries.get(boundaries.size() - 1));
+        return conditions;
+    }
+
+    private static void addBoundary(@NotNull List<String> boundaries, @NotNull String boundary) {
+        if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+            boundaries.add(boundary);
+        }
+    }
+
+    @NotNull
+    private static BigDecimal toBigDecimal(@NotNull Number value) {
+        if (value instanceof BigDecimal bd) {
+            return bd;
+        } else if (value instanceof BigInteger bi) {
+            return new BigDecimal(bi);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(value.doubleValue());
+        } else {
+            return BigDecimal.valueOf(value.longValue());
+        }
+    }
+
+    private static boolean isIntegral(@NotNull Number value) {
+        if (value instanceof BigDecimal bd) {
+            return bd.scale() <= 0;
+        }
+        return !(value instanceof Double || value instanceof Float);
+    }
+
+    @NotNull
+    private DBDDataFilter makeRangeFilter(@NotNull String condition) {
+        DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        if (CommonUtils.isEmpty(filter.getWhere())) {
+            filter.setWhere(condition);
+        } else {
+            filter.setWhere("(" + filter.getWhere() + ") AND (" + condition + ")");
+        }
+        return filter;
+    }
+
+    private void putItem(@NotNull Object item) throws DBCException {
+        try {
+            while (!queue.offer(item, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    throw new DBCException("Data read stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Data read interrupted", e);
+        }
+    }
+
+    private static class RowBatch {
+        private final List<Object[]> rows = new ArrayList<>(ROW_BATCH_SIZE);
+    }
+
+    private static class RangeEnd {
+    }
+
+    private class RangeReaderJob extends AbstractJob {
+        private final String condition;
+        private final long readFlags;
+        private final int fetchSize;
+
+        RangeReaderJob(int index, @NotNull String condition, long readFlags, int fetchSize) {
+            super("Read " + entity.getName() + " range " + index);
+            this.condition = condition;
+            this.readFlags = readFlags;
+            this.fetchSize = fetchSize;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                DBCExecutionContext context = DBUtils.getObjectOwnerInstance(entity).openIsolatedContext(
+                    monitor, "Data transfer range reader", baseContext);
+                try {
+                    DBExecUtils.setExecutionContextDefaults(monitor, context.getDataSource(), context, defaultCatalog, null, defaultSchema);
+                    try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Read data range")) {
+                        session.enableLogging(false);
+                        DBCStatistics rangeStatistics = dataContainer.readData(
+                            new AbstractExecutionSource(dataContainer, context, DatabaseKeyRangeReader.this),
+                            session,
+                            new RangeDataReceiver(),
+                            makeRangeFilter(condition),
+                            -1,
+                            -1,
+                            readFlags,
+                            fetchSize);
+                        synchronized (statistics) {
+                            statistics.accumulate(rangeStatistics);
+                        }
+                    }
+                } finally {
+                    context.close();
+                }
+                putItem(new RangeEnd());
+            } catch (Throwable e) {
+                if (!stopped) {
+                    error = e;
+                    stopped = true;
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private class RangeDataReceiver implements DBDDataReceiver {
+        private List<? extends DBCAttributeMetaData> attributes;
+        private DBDValueHandler[] valueHandlers;
+        private RowBatch batch = new RowBatch();
+
+        @Override
+        public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            DBCResultSetMetaData meta = resultSet.getMeta();
+            attributes = meta.getAttributes();
+            valueHandlers = new DBDValueHandler[attributes.size()];
+            for (int i = 0; i < valueHandlers.length; i++) {
+                valueHandlers[i] = DBUtils.findValueHandler(session, attributes.get(i));
+            }
+            putItem(meta);
+        }
+
+        @Override
+        public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            Object[] row = new Object[valueHandlers.length];
+            for (int i = 0; i < valueHandlers.length; i++) {
+                row[i] = valueHandlers[i].fetchValueObject(session, resultSet, attributes.get(i), i);
+            }
+            batch.rows.add(row);
+            if (batch.rows.size() >= ROW_BATCH_SIZE) {
+                putItem(batch);
+                batch = new RowBatch();
+            }
+        }
+
+        @Override
+        public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            if (!batch.rows.isEmpty()) {
+                putItem(batch);
+                batch = new RowBatch();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Result set which exposes rows read by range readers to the consumer
+     */
+    private static class RangeResultSet extends AbstractResultSet<DBCSession, DBCStatement> {
+        private final DBCResultSetMetaData meta;
+        private Object[] row;
+
+        RangeResultSet(@NotNull DBCSession session, @NotNull DBCResultSetMetaData meta) {
+            super(session, null);
+            this.meta = meta;
+        }
+
+        @Override
+        public Object getAttributeValue(int index) throws DBCException {
+            if (index < 0 || index >= row.length) {
+                throw new DBCException("Bad attribute index: " + index);
+            }
+            return row[index];
+        }
+
+        @Override
+        public Object getAttributeValue(String name) throws DBCException {
+            List<? extends DBCAttributeMetaData> attributes = meta.getAttributes();
+            for (int i = 0; i < attributes.size(); i++) {
+                if (attributes.get(i).getLabel().equalsIgnoreCase(name)) {
+                    return getAttributeValue(i);
+                }
+            }
+            throw new DBCException("Attribute '" + name + "' not found");
+        }
+
+        @Override
+        public boolean nextRow() {
+            return false;
+        }
+
+        @Override
+        public boolean moveTo(int position) {
+            return false;
+        }
+
+        @NotNull
+        @Override
+        public DBCResultSetMetaData getMeta() {
+            return meta;
+        }
+
+        @Override
+        public Object getFeature(String name) {
+            if (FEATURE_NAME_LOCAL.equals(name)) {
+                return true;
+            }
+            return super.getFeature(name);
+        }
+
+        @Override
+        public void close() {
+            row = null;
+        }
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.List;
+
+/**
+ * Reads table by segments using keyset (seek) pagination.
+ * Each segment is ordered by the table unique key and starts after the last key of the previous segment,
+ * so the database doesn't need to skip rows like it does with OFFSET.
+ */
+class DatabaseKeysetReader {
+
+    private static final Log log = Log.getLog(DatabaseKeysetReader.class);
+
+    private final DBSDataContainer dataContainer;
+    private final List<? extends DBSEntityAttribute> keyAttributes;
+    @Nullable
+    private final DBDDataFilter dataFilter;
+
+    private DatabaseKeysetReader(
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull List<? extends DBSEntityAttribute> keyAttributes,
+        @Nullable DBDDataFilter dataFilter
+    ) {
+        this.dataContainer = dataContainer;
+        this.keyAttributes = keyAttributes;
+        this.dataFilter = dataFilter;
+    }
+
+    /**
+     * Creates reader for the specified container.
+     * Returns null if container has no suitable unique key or if data filter defines its own ordering.
+     */
+    @Nullable
+    static DatabaseKeysetReader create(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter
+    ) throws DBException {
+        if (!(dataContainer instanceof DBSEntity entity)) {
+            return null;
+        }
+        if (dataFilter != null &&
+            (dataFilter.hasOrdering() || ((dataFilter.isAnyConstraint() || dataFilter.isUseDisjunctiveNormalForm()) && dataFilter.hasFilters()))) {
+            return null;
+        }
+        List<? extends DBSEntityAttribute> keyAttributes = DBUtils.getBestTableIdentifier(monitor, entity);
+        if (keyAttributes.isEmpty()) {
+            return null;
+        }
+        for (DBSEntityAttribute attr : keyAttributes) {
+            // Nullable keys can't be compared, date/time literals may lose precision
+            if (!attr.isRequired() || (attr.getDataKind() != DBPDataKind.NUMERIC && attr.getDataKind() != DBPDataKind.STRING)) {
+                return null;
+            }
+        }
+        return new DatabaseKeysetReader(dataContainer, keyAttributes, dataFilter);
+    }
+
+    @NotNull
+    DBCStatistics readData(
+        @NotNull DBCExecutionSource source,
+        @NotNull DBCSession session,
+        @NotNull DBDDataReceiver dataReceiver,
+        long readFlags,
+        int fetchSize,
+        int segmentSize
+    ) throws DBException {
+        DBCStatistics totalStatistics = new DBCStatistics();
+        DBPDataSource dataSource = session.getDataSource();
+        Object[] lastKey = null;
+        long offset = 0;
+        for (; ; ) {
+            KeyTrackingReceiver receiver = new KeyTrackingReceiver(dataReceiver);
+            DBCStatistics statistics = dataContainer.readData(
+                source, session, receiver, makeSegmentFilter(dataSource, lastKey), offset, segmentSize, readFlags, fetchSize);
+            if (statistics == null) {
+                break;
+            }
+            totalStatistics.accumulate(statistics);
+            if (statistics.getRowsFetched() < segmentSize) {
+                // Done
+                break;
+            }
+            if (receiver.lastKey != null) {
+                lastKey = receiver.lastKey;
+            } else {
+                // Key columns are not in the result set. Continue with offsets, ordering is still stable.
+                if (offset == 0) {
+                    log.debug("Key columns not found in '" + dataContainer.getName() + "' result set. Use offset pagination.");
+                }
+                offset += statistics.getRowsFetched();
+            }
+        }
+        return totalStatistics;
+    }
+
+    @NotNull
+    private DBDDataFilter makeSegmentFilter(@NotNull DBPDataSource dataSource, @Nullable Object[] lastKey) {
+        DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        StringBuilder order = new StringBuilder();
+        for (DBSEntityAttribute attr : keyAttributes) {
+            if (order.length() > 0) order.append(',');
+            order.append(DBUtils.getQuotedIdentifier(attr));
+        }
+        filter.setOrder(order.toString());
+        if (lastKey != null) {
+            // (k1,k2) > (v1,v2) expanded to k1 > v1 OR (k1 = v1 AND k2 > v2), row value comparison isn't supported everywhere
+            StringBuilder condition = new StringBuilder();
+            for (int i = 0; i < keyAttributes.size(); i++) {
+                if (i > 0) condition.append(" OR ");
+                condition.append('(');
+                for (int k = 0; k <= i; k++) {
+                    if (k > 0) condition.append(" AND ");
+                    DBSEntityAttribute attr = keyAttributes.get(k);
+                    condition.append(DBUtils.getQuotedIdentifier(attr))
+                        .append(k == i ? " > " : " = ")
+                        .append(SQLUtils.convertValueToSQL(dataSource, attr, lastKey[k]));
+                }
+                condition.append(')');
+            }
+            if (CommonUtils.isEmpty(filter.getWhere())) {
+                filter.setWhere(condition.toString());
+            } else {
+                filter.setWhere("(" + filter.getWhere() + ") AND (" + condition + ")");
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Passes rows to the target receiver and remembers key values of the last row
+     */
+    private class KeyTrackingReceiver implements DBDDataReceiver {
+        private final DBDDataReceiver target;
+        private int[] keyIndexes;
+        private DBCAttributeMetaData[] keyMeta;
+        private DBDValueHandler[] keyHandlers;
+        private Object[] lastKey;
+
+        KeyTrackingReceiver(@NotNull DBDDataReceiver target) {
+            this.target = target;
+        }
+
+        @Override
+        public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            target.fetchStart(session, resultSet, offset, maxRows);
+
+            List<? extends DBCAttributeMetaData> attributes = resultSet.getMeta().getAttributes();
+            int[] indexes = new int[keyAttributes.size()];
+            DBCAttributeMetaData[] metas = new DBCAttributeMetaData[indexes.length];
+            DBDValueHandler[] handlers = new DBDValueHandler[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = -1;
+                String keyName = keyAttributes.get(i).getName();
+                for (int k = 0; k < attributes.size(); k++) {
+                    if (keyName.equalsIgnoreCase(attributes.get(k).getName())) {
+                        indexes[i] = k;
+                        metas[i] = attributes.get(k);
+                        handlers[i] = DBUtils.findValueHandler(session, metas[i]);
+                        break;
+                    }
+                }
+                if (indexes[i] < 0) {
+                    return;
+                }
+            }
+            keyIndexes = indexes;
+            keyMeta = metas;
+            keyHandlers = handlers;
+        }
+
+        @Override
+        public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            target.fetchRow(session, resultSet);
+            if (keyIndexes != null) {
+                Object[] key = new Object[keyIndexes.length];
+                for (int i = 0; i < keyIndexes.length; i++) {
+                    key[i] = keyHandlers[i].fetchValueObject(session, resultSet, keyMeta[i], keyIndexes[i]);
+                }
+                lastKey = key;
+            }
+        }
+
+        @Override
+        public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            target.fetchEnd(session, resultSet);
+        }
+
+        @Override
+        public void close() {
+            target.close();
+        }
+    }
+
+}
@@ -0,0 +1,251 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulatorExt;
+import org.jkiss.dbeaver.model.struct.rdb.DBSManipulationType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts rows into the target table using several isolated connections.
+ * <p>
+ * Rows are collected into batches of "commit after rows" size by the consumer thread.
+ * Each batch is inserted and committed by one of the writer jobs, so batches are loaded in parallel
+ * and the order of rows in the target table is not preserved.
+ * Writer errors are not interactive: the first error stops the load.
+ * <p>
+ * Writer sessions are set up the same way as the primary consumer session.
+ * Referential integrity is changed by the task on the table or server level before the consumer starts,
+ * so writer connections opened later are covered as well.
+ */
+class DatabaseParallelLoader {
+
+    private static final Log log = Log.getLog(DatabaseParallelLoader.class);
+
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final List<Object[]> END_OF_DATA = new ArrayList<>();
+
+    private final DBSDataManipulator targetObject;
+    private final DBSAttributeBase[] attributes;
+    private final DBCExecutionContext baseContext;
+    private final DatabaseConsumerSettings settings;
+    private final Map<String, Object> insertOptions;
+    private final Map<String, Object> executeOptions;
+    private final DBCStatistics statistics;
+    private final int batchSize;
+
+    private final BlockingQueue<List<Object[]>> batchQueue;
+    private final List<WriterJob> writers = new ArrayList<>();
+    private List<Object[]> currentBatch;
+    private volatile boolean stopped;
+    private volatile Throwable error;
+
+    DatabaseParallelLoader(
+        @NotNull DBSDataManipulator targetObject,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionContext baseContext,
+        @NotNull DatabaseConsumerSettings settings,
+        @NotNull Map<String, Object> insertOptions,
+        @NotNull Map<String, Object> executeOptions,
+        @NotNull DBCStatistics statistics,
+        int writerCount
+    ) {
+        this.targetObject = targetObject;
+        this.attributes = attributes;
+        this.baseContext = baseContext;
+        this.settings = settings;
+        this.insertOptions = insertOptions;
+        this.executeOptions = executeOptions;
+        this.statistics = statistics;
+        this.batchSize = Math.max(settings.getCommitAfterRows(), 1);
+        this.batchQueue = new ArrayBlockingQueue<>(writerCount);
+        for (int i = 0; i < writerCount; i++) {
+            writers.add(new WriterJob(i + 1));
+        }
+        this.currentBatch = new ArrayList<>(batchSize);
+    }
+
+    void start() {
+        for (WriterJob writer : writers) {
+            writer.schedule();
+        }
+    }
+
+    void addRow(@NotNull Object[] row) throws DBCException {
+        currentBatch.add(row);
+        if (currentBatch.size() >= batchSize) {
+            putBatch(currentBatch);
+            currentBatch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Flushes remaining rows and waits for all writers
+     */
+    void finish() throws DBCException {
+        try {
+            if (!currentBatch.isEmpty()) {
+                putBatch(currentBatch);
+                currentBatch = new ArrayList<>();
+            }
+            for (int i = 0; i < writers.size(); i++) {
+                putBatch(END_OF_DATA);
+            }
+            joinWriters();
+        } finally {
+            stopped = true;
+        }
+        checkError();
+    }
+
+    /**
+     * Stops all writers. Rows which were not inserted yet are discarded.
+     */
+    void close() {
+        stopped = true;
+        batchQueue.clear();
+        joinWriters();
+    }
+
+    private void joinWriters() {
+        for (WriterJob writer : writers) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for data writer", e);
+            }
+        }
+    }
+
+    private void putBatch(@NotNull List<Object[]> batch) throws DBCException {
+        try {
+            while (!batchQueue.offer(batch, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                checkError();
+                if (stopped) {
+                    throw new DBCException("Data load stopped");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Data load interrupted", e);
+        }
+        checkError();
+    }
+
+    private void checkError() throws DBCException {
+        Throwable e = error;
+        if (e != null) {
+            if (e instanceof DBCException dbe) {
+                throw dbe;
+            }
+            throw new DBCException("Error inserting rows", e);
+        }
+    }
+
+    private class WriterJob extends AbstractJob {
+        WriterJob(int index) {
+            super("Load " + targetObject.getName() + " (writer " + index + ")");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                DBCExecutionContext context = DBUtils.getObjectOwnerInstance(targetObject).openIsolatedContext(
+                    monitor, "Data transfer writer", baseContext);
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Data load")) {
+                    session.enableLogging(false);
+                    if (!loadBatches(monitor, session) && !stopped) {
+                        error = new DBCException("Data load canceled");
+                        stopped = true;
+                    }
+                } finally {
+                    context.close();
+                }
+            } catch (Throwable e) {
+                if (!stopped) {
+                    error = e;
+                    stopped = true;
+                }
+            }
+            return Status.OK_STATUS;
+        }
+
+        /**
+         * Returns true if all batches were loaded
+         */
+        private boolean loadBatches(@NotNull DBRProgressMonitor monitor, @NotNull DBCSession session) throws DBException, InterruptedException {
+            boolean commitBatches = DatabaseTransferConsumer.initTargetSession(monitor, session, settings) != null &&
+                settings.isUseTransactions();
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+            AbstractExecutionSource executionSource = new AbstractExecutionSource(targetObject, session.getExecutionContext(), this);
+            if (targetObject instanceof DBSDataManipulatorExt manipulatorExt) {
+                manipulatorExt.beforeDataChange(session, DBSManipulationType.INSERT, attributes, executionSource);
+            }
+            try (DBSDataManipulator.ExecuteBatch executeBatch = targetObject.insertData(
+                session, attributes, null, executionSource, insertOptions)) {
+                while (!stopped && !monitor.isCanceled()) {
+                    List<Object[]> batch = batchQueue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (batch == null) {
+                        continue;
+                    }
+                    if (batch == END_OF_DATA) {
+                        return true;
+                    }
+                    for (Object[] row : batch) {
+                        executeBatch.add(row);
+                    }
+                    executeBatch(session, executeBatch);
+                    if (commitBatches) {
+                        txnManager.commit(session);
+                    }
+                }
+                return false;
+            } finally {
+                if (targetObject instanceof DBSDataManipulatorExt manipulatorExt) {
+                    manipulatorExt.afterDataChange(session, DBSManipulationType.INSERT, attributes, executionSource);
+                }
+            }
+        }
+
+        private void executeBatch(@NotNull DBCSession session, @NotNull DBSDataManipulator.ExecuteBatch executeBatch) throws DBCException {
+            DBCStatistics batchStatistics = executeBatch.execute(session, executeOptions);
+            synchronized (statistics) {
+                statistics.accumulate(batchStatistics);
+            }
+        }
+    }
+
+}
@@ -78,6 +78,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private DBCSession targetSession;
     private DBSDataManipulator.ExecuteBatch executeBatch;
     private DBSDataBulkLoader.BulkLoadManager bulkLoadManager;
+    private DatabaseParallelLoader parallelLoader;
     private long rowsExported = 0;
     private boolean ignoreErrors = false;
 
@@ -186,12 +187,14 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         AbstractExecutionSource executionSource = new AbstractExecutionSource(containerMapping.getSource(), targetContext, this);
 
         DBSDataManipulator targetObject = getTargetObject();
+        boolean truncated = false;
         if (targetObject != null && !isPreview && offset <= 0 && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
             // Truncate target tables
             // Note: all implementations support truncate in some way (e.g. DELETE FROM)
             // even if DBSDataManipulator.FEATURE_DATA_TRUNCATE is reported to be not supported.
             try {
                 targetObject.truncateData(targetSession, executionSource);
+                truncated = true;
             } catch (DBCFeatureNotSupportedException e) {
                 log.warn("Table '" + targetObject.getName() + "' doesn't support truncate operation");
             }
@@ -284,6 +287,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         Map<String, Object> options = new HashMap<>();
         options.put(DBSDataManipulator.OPTION_USE_MULTI_INSERT, settings.isUseMultiRowInsert());
         options.put(DBSDataManipulator.OPTION_SKIP_BIND_VALUES, settings.isSkipBindValues());
+        options.put(DBSDataBulkLoader.OPTION_STREAM_DATA, settings.isStreamBulkLoad());
 
         if (!isPreview && targetObject != null) {
             if (settings.isUseBulkLoad()) {
@@ -297,7 +301,23 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                     }
                 }
             }
-            if (bulkLoadManager == null) {
+            if (bulkLoadManager == null && isParallelLoadEnabled(targetObject)) {
+                if (truncated) {
+                    // Writers use their own connections. Their inserts would wait for the table lock
+                    // held by uncommitted truncate forever, so it is committed before they start.
+                    commitTargetSession();
+                }
+                parallelLoader = new DatabaseParallelLoader(
+                    targetObject,
+                    attributes,
+                    targetContext,
+                    settings,
+                    options,
+                    createExecuteOptions(),
+                    statistics,
+                    settings.getParallelWriters());
+                parallelLoader.start();
+            } else if (bulkLoadManager == null) {
                 if (targetObject instanceof DBSDataManipulatorExt) {
                     ((DBSDataManipulatorExt) targetObject).beforeDataChange(targetSession, DBSManipulationType.INSERT, attributes, executionSource);
                 }
@@ -314,6 +334,27 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         }
     }
 
+    /**
+     * Parallel load uses a separate connection per writer, so it is possible only when
+     * new connections are allowed and each batch can be committed independently.
+     */
+    private boolean isParallelLoadEnabled(@NotNull DBSDataManipulator targetObject) {
+        return settings.getParallelWriters() > 1 &&
+            useIsolatedConnection &&
+            settings.isUseTransactions() &&
+            !settings.isDisableUsingBatches() &&
+            !settings.isIgnoreDuplicateRows() &&
+            !(targetObject instanceof DBSDocumentContainer) &&
+            !targetContext.getDataSource().getInfo().isDynamicMetadata();
+    }
+
+    private void commitTargetSession() throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(targetSession.getExecutionContext());
+        if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
+            txnManager.commit(targetSession);
+        }
+    }
+
     private boolean isSkipColumn(DBDAttributeBinding attr) {
         return attr.isPseudoAttribute() ||
             (!settings.isTransferAutoGeneratedColumns() && attr.isAutoGenerated()) ||
@@ -388,6 +429,14 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             }
         }
 
+        if (parallelLoader != null) {
+            parallelLoader.addRow(rowValues);
+            rowsExported++;
+            if (DBFetchProgress.monitorFetchProgress(rowsExported)) {
+                targetSession.getProgressMonitor().subTask("Insert rows (" + rowsExported + ")");
+            }
+            return;
+        }
         if (bulkLoadManager != null) {
             bulkLoadManager.addRow(targetSession, rowValues);
         } else {
@@ -424,28 +473,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                     targetSession.getProgressMonitor().subTask("Insert rows (" + rowsExported + ")");
                 }
 
-                Map<String, Object> options = new HashMap<>();
-                options.put(DBSDataManipulator.OPTION_DISABLE_BATCHES, disableUsingBatches);
-                options.put(DBSDataManipulator.OPTION_MULTI_INSERT_BATCH_SIZE, settings.getMultiRowInsertBatch());
-                options.put(DBSDataManipulator.OPTION_SKIP_BIND_VALUES, settings.isSkipBindValues());
-
-                boolean onDuplicateKeyCaseOn = settings.getOnDuplicateKeyInsertMethodId() != null &&
-                    !settings.getOnDuplicateKeyInsertMethodId().equals(DBSDataManipulator.INSERT_NONE_METHOD);
-                if (onDuplicateKeyCaseOn) {
-                    String insertMethodId = settings.getOnDuplicateKeyInsertMethodId();
-                    if (!CommonUtils.isEmpty(insertMethodId)) {
-                        SQLDialectInsertReplaceMethod insertReplaceMethod =
-                            DBWorkbench.getPlatform().getSQLDialectRegistry().getInsertReplaceMethod(insertMethodId);
-                        if (insertReplaceMethod != null) {
-                            try {
-                                DBDInsertReplaceMethod insertMethod = insertReplaceMethod.createInsertMethod();
-                                options.put(DBSDataManipulator.OPTION_INSERT_REPLACE_METHOD, insertMethod);
-                            } catch (DBException e) {
-                                log.debug("Can't get insert replace method", e);
-                            }
-                        }
-                    }
-                }
+                Map<String, Object> options = createExecuteOptions();
 
                 boolean retryInsert;
                 do {
@@ -509,8 +537,40 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         }
     }
 
+    @NotNull
+    private Map<String, Object> createExecuteOptions() {
+        Map<String, Object> options = new HashMap<>();
+        options.put(DBSDataManipulator.OPTION_DISABLE_BATCHES, settings.isDisableUsingBatches());
+        options.put(DBSDataManipulator.OPTION_MULTI_INSERT_BATCH_SIZE, settings.getMultiRowInsertBatch());
+        options.put(DBSDataManipulator.OPTION_SKIP_BIND_VALUES, settings.isSkipBindValues());
+
+        boolean onDuplicateKeyCaseOn = settings.getOnDuplicateKeyInsertMethodId() != null &&
+            !settings.getOnDuplicateKeyInsertMethodId().equals(DBSDataManipulator.INSERT_NONE_METHOD);
+        if (onDuplicateKeyCaseOn) {
+            String insertMethodId = settings.getOnDuplicateKeyInsertMethodId();
+            if (!CommonUtils.isEmpty(insertMethodId)) {
+                SQLDialectInsertReplaceMethod insertReplaceMethod =
+                    DBWorkbench.getPlatform().getSQLDialectRegistry().getInsertReplaceMethod(insertMethodId);
+                if (insertReplaceMethod != null) {
+                    try {
+                        DBDInsertReplaceMethod insertMethod = insertReplaceMethod.createInsertMethod();
+                        options.put(DBSDataManipulator.OPTION_INSERT_REPLACE_METHOD, insertMethod);
+                    } catch (DBException e) {
+                        log.debug("Can't get insert replace method", e);
+                    }
+                }
+            }
+        }
+        return options;
+    }
+
     @Override
     public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        if (parallelLoader != null) {
+            targetSession.getProgressMonitor().subTask("Wait for data writers");
+            parallelLoader.finish();
+            return;
+        }
         try {
             if (rowsExported > 0) {
                 insertBatch(true);
@@ -557,20 +617,37 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         targetSession.enableLogging(false);
 
         if (!isPreview) {
-            DBCTransactionManager txnManager = DBUtils.getTransactionManager(targetSession.getExecutionContext());
-            if (txnManager != null && txnManager.isSupportsTransactions()) {
-                oldAutoCommit = txnManager.isAutoCommit();
-                if (settings.isUseTransactions()) {
-                    if (oldAutoCommit) {
-                        txnManager.setAutoCommit(monitor, false);
-                    }
-                } else {
-                    if (!oldAutoCommit) {
-                        txnManager.setAutoCommit(monitor, true);
-                    }
-                }
+            oldAutoCommit = initTargetSession(monitor, targetSession, settings);
+        }
+    }
+
+    /**
+     * Switches the auto-commit mode of the target session according to the transaction settings.
+     * The same setup is used by the primary session and by the sessions of parallel writers.
+     *
+     * @return previous auto-commit mode or null if transactions are not supported
+     */
+    @Nullable
+    static Boolean initTargetSession(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession session,
+        @NotNull DatabaseConsumerSettings settings
+    ) throws DBException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager == null || !txnManager.isSupportsTransactions()) {
+            return null;
+        }
+        boolean autoCommit = txnManager.isAutoCommit();
+        if (settings.isUseTransactions()) {
+            if (autoCommit) {
+                txnManager.setAutoCommit(monitor, false);
+            }
+        } else {
+            if (!autoCommit) {
+                txnManager.setAutoCommit(monitor, true);
             }
         }
+        return autoCommit;
     }
 
     private DBSObject checkTargetContainer(DBRProgressMonitor monitor) throws DBException {
@@ -590,6 +667,16 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     }
 
     private void closeExporter() {
+        if (parallelLoader != null) {
+            parallelLoader.close();
+            parallelLoader = null;
+        }
+        // Bulk load may still hold the target connection (e.g. unfinished streaming COPY),
+        // so it is aborted before the session is used or closed
+        if (bulkLoadManager != null) {
+            bulkLoadManager.close();
+            bulkLoadManager = null;
+        }
         if (!isPreview && targetSession != null && oldAutoCommit != null) {
             try {
                 DBCTransactionManager txnManager = DBUtils.getTransactionManager(targetSession.getExecutionContext());
@@ -613,11 +700,6 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             targetContext.close();
             targetContext = null;
         }
-
-        if (bulkLoadManager != null) {
-            bulkLoadManager.close();
-            bulkLoadManager = null;
-        }
     }
 
     @Override
@@ -266,9 +266,30 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             monitor.subTask("Read data");
 
                             // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                            DatabaseKeyRangeReader rangeReader = null;
+                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.KEY_RANGES && !selectiveExportFromUI && settings.getSplitThreads() > 1) {
+                                rangeReader = DatabaseKeyRangeReader.create(monitor, dataContainer, context, dataFilter, defaultCatalog, defaultSchema);
+                                if (rangeReader == null) {
+                                    log.debug("Table '" + dataContainer.getName() + "' can't be split by key ranges. Read it with single query.");
+                                }
+                            }
+                            DatabaseKeysetReader keysetReader = null;
+                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SEGMENTS && !selectiveExportFromUI) {
+                                keysetReader = DatabaseKeysetReader.create(monitor, dataContainer, dataFilter);
+                            }
+                            DBCStatistics rangeStatistics = null;
+                            if (rangeReader != null) {
+                                rangeStatistics = rangeReader.readData(session, consumer, readFlags, settings.getFetchSize(), settings.getSplitThreads());
+                            }
+                            if (rangeStatistics != null) {
+                                producerStatistics.accumulate(rangeStatistics);
+                            } else if (settings.getExtractType() != DatabaseProducerSettings.ExtractType.SEGMENTS) {
                                 // Just do it in single query
                                 producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                            } else if (keysetReader != null) {
+                                // Read all data by segments, each segment starts after the last key of the previous one
+                                producerStatistics.accumulate(keysetReader.readData(
+                                    transferSource, session, consumer, readFlags, settings.getFetchSize(), settings.getSegmentSize()));
                             } else {
                                 // Read all data by segments
                                 long offset = 0;
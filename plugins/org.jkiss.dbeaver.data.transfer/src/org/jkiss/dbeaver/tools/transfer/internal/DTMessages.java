@@ -32,6 +32,9 @@ public class DTMessages extends NLS {
     public static String data_transfer_wizard_job_task_export_table_data;
     public static String data_transfer_wizard_job_task_retrieve;
     public static String data_transfer_wizard_output_checkbox_compress;
+    public static String data_transfer_wizard_output_label_compression_format;
+    public static String data_transfer_wizard_output_checkbox_write_in_background;
+    public static String data_transfer_wizard_output_checkbox_write_in_background_tip;
     public static String data_transfer_wizard_output_checkbox_split_files;
     public static String data_transfer_wizard_output_checkbox_split_files_tip;
     public static String data_transfer_wizard_output_checkbox_new_connection;
@@ -39,6 +42,7 @@ public class DTMessages extends NLS {
     public static String data_transfer_wizard_output_checkbox_selected_columns_only;
     public static String data_transfer_wizard_output_checkbox_selected_rows_only;
     public static String data_transfer_wizard_output_combo_extract_type_item_by_segments;
+    public static String data_transfer_wizard_output_combo_extract_type_item_by_key_ranges;
     public static String data_transfer_wizard_output_combo_extract_type_item_single_query;
     public static String data_transfer_wizard_output_description;
     public static String data_transfer_wizard_output_dialog_directory_message;
@@ -58,6 +62,8 @@ public class DTMessages extends NLS {
     public static String data_transfer_wizard_output_label_insert_bom_tooltip;
     public static String data_transfer_wizard_output_label_max_threads;
     public static String data_transfer_wizard_output_label_segment_size;
+    public static String data_transfer_wizard_output_label_split_threads;
+    public static String data_transfer_wizard_output_label_split_threads_tip;
     public static String data_transfer_wizard_output_label_add_to_end_of_file;
     public static String data_transfer_wizard_output_label_add_to_end_of_file_tip;
     public static String data_transfer_wizard_output_error_empty_output_directory;
@@ -133,6 +139,7 @@ public class DTMessages extends NLS {
     public static String sql_script_task_page_settings_option_auto_commit;
     public static String database_consumer_settings_option_use_transactions;
     public static String database_consumer_settings_option_commit_after;
+    public static String database_consumer_settings_option_parallel_writers;
     public static String database_consumer_settings_option_use_multi_insert;
     public static String database_consumer_settings_option_multi_insert_batch;
     public static String database_consumer_settings_option_skip_bind_values;
@@ -142,6 +149,7 @@ public class DTMessages extends NLS {
     public static String database_consumer_settings_option_transfer_auto_generated_columns;
     public static String database_consumer_settings_option_disable_referential_integrity;
     public static String database_consumer_settings_option_use_bulk_load;
+    public static String database_consumer_settings_option_stream_bulk_load;
     public static String database_consumer_settings_option_truncate_before_load;
 
     public static String data_transfer_settings_title_find_producer;
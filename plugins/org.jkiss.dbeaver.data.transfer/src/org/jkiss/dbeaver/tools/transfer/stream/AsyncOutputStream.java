@@ -0,0 +1,232 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Output stream which writes data to the target stream in a background job.
+ * <p>
+ * Data is collected in buffers, filled buffers are passed to the writer job through a bounded queue,
+ * so compression and disk writes of the target stream do not block the caller.
+ * {@link #flush()} does not wait for the target stream, all data is written on {@link #finish()} or {@link #close()}.
+ */
+public class AsyncOutputStream extends OutputStream {
+
+    private static final Log log = Log.getLog(AsyncOutputStream.class);
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_QUEUE_SIZE = 4;
+
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final Buffer END_OF_DATA = new Buffer(0);
+
+    private final OutputStream out;
+    private final BlockingQueue<Buffer> filledBuffers;
+    private final BlockingQueue<Buffer> freeBuffers;
+    private final WriterJob writerJob;
+
+    private Buffer current;
+    private boolean finished;
+    private volatile Throwable error;
+
+    public AsyncOutputStream(@NotNull OutputStream out, @NotNull String name) {
+        this(out, name, DEFAULT_BUFFER_SIZE, DEFAULT_QUEUE_SIZE);
+    }
+
+    public AsyncOutputStream(@NotNull OutputStream out, @NotNull String name, int bufferSize, int queueSize) {
+        this.out = out;
+        this.filledBuffers = new ArrayBlockingQueue<>(queueSize + 1);
+        // One buffer is filled by the caller, one is written by the writer job
+        this.freeBuffers = new ArrayBlockingQueue<>(queueSize + 2);
+        for (int i = 0; i < queueSize + 1; i++) {
+            freeBuffers.add(new Buffer(bufferSize));
+        }
+        this.current = new Buffer(bufferSize);
+        this.writerJob = new WriterJob(name);
+        this.writerJob.schedule();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkOpen();
+        if (current.length == current.data.length) {
+            submitCurrent();
+        }
+        current.data[current.length++] = (byte) b;
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        checkOpen();
+        while (len > 0) {
+            if (current.length == current.data.length) {
+                submitCurrent();
+            }
+            int count = Math.min(len, current.data.length - current.length);
+            System.arraycopy(b, off, current.data, current.length, count);
+            current.length += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Only reports errors of the writer job. Buffered data is written when buffer is full.
+     */
+    @Override
+    public void flush() throws IOException {
+        checkError();
+    }
+
+    /**
+     * Writes all buffered data to the target stream and stops the writer job.
+     * Target stream is flushed but not closed.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            if (current.length > 0) {
+                submitCurrent();
+            }
+            putBuffer(END_OF_DATA);
+            writerJob.join();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while waiting for writer");
+        } finally {
+            finished = true;
+        }
+        checkError();
+    }
+
+    /**
+     * Stops the writer job. Data which is not written yet is discarded, target stream is not closed.
+     * May be called after {@link #finish()}, e.g. if it has failed.
+     */
+    public void abort() {
+        finished = true;
+        filledBuffers.clear();
+        filledBuffers.offer(END_OF_DATA);
+        try {
+            writerJob.join();
+        } catch (InterruptedException e) {
+            log.debug("Interrupted while waiting for writer", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void submitCurrent() throws IOException {
+        Buffer next;
+        try {
+            while ((next = freeBuffers.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) == null) {
+                checkError();
+            }
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while waiting for writer");
+        }
+        putBuffer(current);
+        next.length = 0;
+        current = next;
+    }
+
+    private void putBuffer(@NotNull Buffer buffer) throws IOException {
+        try {
+            while (!filledBuffers.offer(buffer, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                checkError();
+            }
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while waiting for writer");
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (finished) {
+            throw new IOException("Stream is closed");
+        }
+        checkError();
+    }
+
+    private void checkError() throws IOException {
+        Throwable e = error;
+        if (e != null) {
+            // Error may be reported several times (e.g. by write and close), so always wrap it
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static class Buffer {
+        private final byte[] data;
+        private int length;
+
+        Buffer(int size) {
+            this.data = new byte[size];
+        }
+    }
+
+    private class WriterJob extends AbstractJob {
+        WriterJob(@NotNull String name) {
+            super(name);
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                while (true) {
+                    Buffer buffer = filledBuffers.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (buffer == null) {
+                        continue;
+                    }
+                    if (buffer == END_OF_DATA) {
+                        out.flush();
+                        break;
+                    }
+                    out.write(buffer.data, 0, buffer.length);
+                    freeBuffers.add(buffer);
+                }
+            } catch (Throwable e) {
+                log.debug("Error writing data", e);
+                error = e;
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -55,6 +55,10 @@ import org.jkiss.dbeaver.tools.transfer.serialize.SerializerContext;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings.BlobFileConflictBehavior;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings.ConsumerRuntimeParameters;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings.DataFileConflictBehavior;
+import org.jkiss.dbeaver.tools.transfer.stream.compress.BlockCompressorOutputStream;
+import org.jkiss.dbeaver.tools.transfer.stream.compress.GzipBlockOutputStream;
+import org.jkiss.dbeaver.tools.transfer.stream.compress.LZ4FrameOutputStream;
+import org.jkiss.dbeaver.tools.transfer.stream.compress.StreamCompressionFormat;
 import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
@@ -122,6 +126,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     };
 
     public static final int OUT_FILE_BUFFER_SIZE = 100000;
+    private static final int COMPRESSION_THREADS = Math.min(Runtime.getRuntime().availableProcessors(), 8);
 
     private IStreamDataExporter processor;
     private StreamConsumerSettings settings;
@@ -132,6 +137,8 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     private OutputStream outputStream;
     private ZipOutputStream zipStream;
+    private BlockCompressorOutputStream compressorStream;
+    private AsyncOutputStream asyncStream;
     private PrintWriter writer;
     private int multiFileNumber;
     private long bytesWritten = 0;
@@ -158,6 +165,21 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         return statStream == null ? 0 : statStream.getBytesWritten();
     }
 
+    /**
+     * Returns size of the current output file used for file split.
+     * For compressed files it is the compressed size. Data which is still being compressed in background
+     * is estimated by compression ratio of already written blocks.
+     */
+    private long getOutputFileSize() {
+        if (compressorStream != null) {
+            return compressorStream.estimateCompressedSize(bytesWritten);
+        }
+        if (zipStream != null) {
+            return getBytesWritten();
+        }
+        return bytesWritten;
+    }
+
     @Override
     public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
         if (!initialized) {
@@ -200,7 +222,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             // Check for file split
             if (settings.isSplitOutFiles() && !parameters.isBinary && !firstRow) {
                 writer.flush();
-                if (bytesWritten >= settings.getMaxOutFileSize()) {
+                if (getOutputFileSize() >= settings.getMaxOutFileSize()) {
                     // First add footer for the previous file
                     exportFooterInFile(session.getProgressMonitor());
                     // Make new file with the header
@@ -382,7 +404,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                 openOutputStreams(session.getProgressMonitor());
             }
         } catch (IOException e) {
-            closeExporter();
+            try {
+                closeExporter();
+            } catch (IOException e1) {
+                e.addSuppressed(e1);
+            }
             throw new DBCException("Data transfer IO error", e);
         }
 
@@ -394,7 +420,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
-    private void closeExporter() {
+    private void closeExporter() throws IOException {
         if (exportSite != null) {
             try {
                 exportSite.flush();
@@ -510,10 +536,22 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         this.outputStream = this.statStream = new StatOutputStream(outputStream);
 
         if (settings.isCompressResults()) {
-            log.debug("\tUse ZIP compression");
-            this.zipStream = new ZipOutputStream(this.outputStream);
-            this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
-            this.outputStream = zipStream;
+            final StreamCompressionFormat compressionFormat = settings.getCompressionFormat();
+            log.debug("\tUse " + compressionFormat.getTitle() + " compression");
+            switch (compressionFormat) {
+                case ZIP -> {
+                    this.zipStream = new ZipOutputStream(this.outputStream);
+                    this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
+                    this.outputStream = zipStream;
+                }
+                case GZIP -> this.outputStream = this.compressorStream = new GzipBlockOutputStream(this.outputStream, COMPRESSION_THREADS);
+                case LZ4 -> this.outputStream = this.compressorStream = new LZ4FrameOutputStream(this.outputStream, COMPRESSION_THREADS);
+            }
+        }
+
+        if (settings.isWriteInBackground()) {
+            // Compression and disk writes are performed in background
+            this.outputStream = this.asyncStream = new AsyncOutputStream(this.outputStream, "Write " + outputFile.getFileName());
         }
 
         // If we need to split files - use stream wrapper to calculate file size
@@ -538,33 +576,54 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
-    private void closeOutputStreams() {
+    private void closeOutputStreams() throws IOException {
         log.debug("\tClose output stream");
-        if (this.writer != null) {
-            this.writer.flush();
-        }
+        try {
+            // PrintWriter doesn't throw exceptions, it only flushes data and reports error state
+            boolean writerError = this.writer != null && this.writer.checkError();
 
-        // Finish zip stream
-        if (zipStream != null) {
-            try {
-                zipStream.closeEntry();
-            } catch (IOException e) {
-                log.debug(e);
+            // Wait for background writer before finishing underlying streams
+            if (asyncStream != null) {
+                asyncStream.finish();
             }
-            try {
+            if (writerError) {
+                throw new IOException("Error writing output data");
+            }
+
+            // Finish zip stream
+            if (zipStream != null) {
+                zipStream.closeEntry();
                 zipStream.finish();
-            } catch (IOException e) {
-                log.debug(e);
             }
-            zipStream = null;
-        }
 
-        if (outputStream != null) {
-            try {
+            // Finish block compression, compressed blocks may still be in progress
+            if (compressorStream != null) {
+                compressorStream.finish();
+            }
+
+            if (outputStream != null) {
                 outputStream.flush();
-            } catch (IOException e) {
-                log.debug(e);
             }
+        } finally {
+            abortOutputStreams();
+        }
+    }
+
+    /**
+     * Stops background writer and compression jobs and closes the output file.
+     * Data which was not finished yet is discarded.
+     */
+    private void abortOutputStreams() {
+        if (asyncStream != null) {
+            asyncStream.abort();
+            asyncStream = null;
+        }
+        zipStream = null;
+        if (compressorStream != null) {
+            compressorStream.abort();
+            compressorStream = null;
+        }
+        if (outputStream != null) {
             ContentUtils.close(outputStream);
             outputStream = null;
         }
@@ -625,10 +684,22 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     @Override
     public void finishTransfer(@NotNull DBRProgressMonitor monitor, @Nullable Throwable error, @Nullable DBTTask task, boolean last) {
-        if (!last && error == null) {
+        if (error != null) {
+            // Output is incomplete anyway, just release the file and stop background jobs
+            try {
+                closeExporter();
+            } catch (IOException e) {
+                log.debug("Error closing output after failed transfer", e);
+            }
+        } else if (!last) {
             exportFooterInFile(monitor);
 
-            closeExporter();
+            try {
+                closeExporter();
+            } catch (IOException e) {
+                // Reported as transfer error by the transfer job
+                throw new UncheckedIOException("Error writing output file " + outputFile, e);
+            }
             return;
         }
 
@@ -789,7 +860,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
         String fileName = getOutputFileName(suffix);
         if (settings.isCompressResults()) {
-            fileName += ".zip";
+            fileName += "." + settings.getCompressionFormat().getExtension();
         }
         return dir.resolve(fileName);
     }
@@ -45,12 +45,21 @@ public class StreamTransferResultSet implements DBCResultSet {
 
     private static final Log log = Log.getLog(StreamTransferResultSet.class);
 
+    /**
+     * Stream row which values are decoded on demand.
+     * Consumer reads only mapped attributes, so values of skipped attributes are never decoded.
+     */
+    public interface LazyStreamRow {
+        Object getValue(int index) throws DBCException;
+    }
+
     private final DBCSession session;
     private final DBCStatement statement;
     private final StreamEntityMapping entityMapping;
     private final List<DBCAttributeMetaData> metaAttrs;
     // Stream row: values in source attributes order
     private Object[] streamRow;
+    private LazyStreamRow lazyStreamRow;
     private final List<StreamDataImporterColumnInfo> attributeMappings;
     private DateTimeFormatter dateTimeFormat;
     private ZoneId dateTimeZoneId;
@@ -71,6 +80,12 @@ public class StreamTransferResultSet implements DBCResultSet {
 
     public void setStreamRow(Object[] streamRow) {
         this.streamRow = streamRow;
+        this.lazyStreamRow = null;
+    }
+
+    public void setStreamRow(@NotNull LazyStreamRow streamRow) {
+        this.streamRow = null;
+        this.lazyStreamRow = streamRow;
     }
 
     @Override
@@ -87,7 +102,7 @@ public class StreamTransferResultSet implements DBCResultSet {
     public Object getAttributeValue(int index) throws DBCException {
         StreamDataImporterColumnInfo attr = this.attributeMappings.get(index);
 
-        Object value = streamRow[index];
+        Object value = lazyStreamRow != null ? lazyStreamRow.getValue(index) : streamRow[index];
         if (value != null && dateTimeFormat != null && attr.getDataKind() == DBPDataKind.DATETIME && !(value instanceof Date)) {
             // Convert string to timestamp
             try {
@@ -0,0 +1,332 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.compress;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Output stream which splits data into blocks and compresses them independently in several jobs.
+ * <p>
+ * Compressed blocks are written to the target stream in the original order.
+ * At most two blocks per thread are kept in memory, caller is blocked while the oldest block is compressed.
+ * {@link #flush()} does not cut the current block, so it doesn't affect compression ratio.
+ */
+public abstract class BlockCompressorOutputStream extends OutputStream {
+
+    private static final Log log = Log.getLog(BlockCompressorOutputStream.class);
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final Block END_OF_DATA = new Block(0);
+
+    private final OutputStream out;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final BlockingQueue<Block> compressQueue;
+    private final Deque<Block> writeQueue = new ArrayDeque<>();
+    private final List<CompressJob> jobs = new ArrayList<>();
+
+    private Block current;
+    private boolean headerWritten;
+    private boolean finished;
+    private long blockCount;
+    private long completedInput;
+    private long completedOutput;
+    private volatile Throwable error;
+
+    protected BlockCompressorOutputStream(@NotNull OutputStream out, int blockSize, int threads) {
+        this.out = out;
+        this.blockSize = blockSize;
+        this.maxPendingBlocks = Math.max(1, threads) * 2;
+        this.compressQueue = new LinkedBlockingQueue<>();
+        this.current = new Block(blockSize);
+        if (threads > 1) {
+            for (int i = 0; i < threads; i++) {
+                CompressJob job = new CompressJob("Compress data (" + (i + 1) + ")");
+                jobs.add(job);
+                job.schedule();
+            }
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Writes format header. Called once before the first block.
+     */
+    protected void writeHeader(@NotNull OutputStream out) throws IOException {
+    }
+
+    /**
+     * Compresses a single block. Called concurrently from several threads.
+     * Result must include block framing and must be decodable independently of other blocks.
+     */
+    @NotNull
+    protected abstract byte[] compressBlock(@NotNull byte[] data, int length) throws IOException;
+
+    /**
+     * Writes format trailer. Called once after the last block.
+     */
+    protected void writeTrailer(@NotNull OutputStream out, long blockCount) throws IOException {
+    }
+
+    /**
+     * Called in the caller thread for all data in the original order (e.g. to calculate content checksum).
+     */
+    protected void processInput(@NotNull byte[] data, int offset, int length) {
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkOpen();
+        if (current.length == current.data.length) {
+            submitCurrent();
+        }
+        current.data[current.length++] = (byte) b;
+        processInput(current.data, current.length - 1, 1);
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        checkOpen();
+        while (len > 0) {
+            if (current.length == current.data.length) {
+                submitCurrent();
+            }
+            int count = Math.min(len, current.data.length - current.length);
+            System.arraycopy(b, off, current.data, current.length, count);
+            processInput(current.data, current.length, count);
+            current.length += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Writes already compressed blocks and flushes the target stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        writeCompletedBlocks(false);
+        out.flush();
+    }
+
+    /**
+     * Compresses and writes all remaining data and the format trailer. Target stream is flushed but not closed.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            checkError();
+            if (current.length > 0) {
+                submitCurrent();
+            }
+            writeCompletedBlocks(true);
+            if (!headerWritten) {
+                writeHeader(out);
+                headerWritten = true;
+            }
+            writeTrailer(out, blockCount);
+            out.flush();
+        } finally {
+            finished = true;
+            stopJobs();
+        }
+    }
+
+    /**
+     * Stops compression jobs. Data which is not written yet is discarded, target stream is not closed.
+     * May be called after {@link #finish()}, e.g. if it has failed.
+     */
+    public void abort() {
+        finished = true;
+        compressQueue.clear();
+        writeQueue.clear();
+        stopJobs();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Estimates compressed size of the specified amount of input data.
+     * Compression ratio of already written blocks is used for data which is not compressed yet.
+     */
+    public synchronized long estimateCompressedSize(long inputSize) {
+        if (completedInput == 0 || inputSize <= completedInput) {
+            return completedOutput;
+        }
+        return completedOutput + (long) ((double) (inputSize - completedInput) * completedOutput / completedInput);
+    }
+
+    private synchronized void addCompleted(long input, long output) {
+        completedInput += input;
+        completedOutput += output;
+    }
+
+    private void submitCurrent() throws IOException {
+        Block block = current;
+        if (jobs.isEmpty()) {
+            block.compressed = compressBlock(block.data, block.length);
+            block.done.countDown();
+        } else {
+            compressQueue.add(block);
+        }
+        writeQueue.add(block);
+        current = new Block(blockSize);
+        writeCompletedBlocks(false);
+        while (writeQueue.size() >= maxPendingBlocks) {
+            writeBlock(waitForBlock(writeQueue.peek()));
+            writeQueue.poll();
+        }
+    }
+
+    private void writeCompletedBlocks(boolean wait) throws IOException {
+        while (!writeQueue.isEmpty()) {
+            Block block = writeQueue.peek();
+            if (wait) {
+                waitForBlock(block);
+            } else if (block.done.getCount() > 0) {
+                break;
+            }
+            checkError();
+            writeBlock(block);
+            writeQueue.poll();
+        }
+    }
+
+    @NotNull
+    private Block waitForBlock(@NotNull Block block) throws IOException {
+        try {
+            while (!block.done.await(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                checkError();
+            }
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while waiting for compression");
+        }
+        checkError();
+        return block;
+    }
+
+    private void writeBlock(@NotNull Block block) throws IOException {
+        if (!headerWritten) {
+            writeHeader(out);
+            headerWritten = true;
+        }
+        out.write(block.compressed);
+        blockCount++;
+        addCompleted(block.length, block.compressed.length);
+    }
+
+    private void stopJobs() {
+        for (int i = 0; i < jobs.size(); i++) {
+            compressQueue.add(END_OF_DATA);
+        }
+        for (CompressJob job : jobs) {
+            try {
+                job.join();
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for compression job", e);
+            }
+        }
+        jobs.clear();
+    }
+
+    private void checkOpen() throws IOException {
+        if (finished) {
+            throw new IOException("Stream is closed");
+        }
+        checkError();
+    }
+
+    private void checkError() throws IOException {
+        Throwable e = error;
+        if (e != null) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static class Block {
+        private final byte[] data;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private int length;
+        private volatile byte[] compressed;
+
+        Block(int size) {
+            this.data = new byte[size];
+        }
+    }
+
+    private class CompressJob extends AbstractJob {
+        CompressJob(@NotNull String name) {
+            super(name);
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                while (error == null) {
+                    Block block = compressQueue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (block == null) {
+                        continue;
+                    }
+                    if (block == END_OF_DATA) {
+                        break;
+                    }
+                    block.compressed = compressBlock(block.data, block.length);
+                    block.done.countDown();
+                }
+            } catch (Throwable e) {
+                log.debug("Error compressing data", e);
+                error = e;
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.compress;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Parallel gzip compressor.
+ * <p>
+ * Each block is written as a separate gzip member. Concatenated members form a valid gzip file
+ * (RFC 1952), it can be decompressed by gzip/pigz and by {@link java.util.zip.GZIPInputStream}.
+ */
+public class GzipBlockOutputStream extends BlockCompressorOutputStream {
+
+    public GzipBlockOutputStream(@NotNull OutputStream out, int threads) {
+        this(out, DEFAULT_BLOCK_SIZE, threads);
+    }
+
+    public GzipBlockOutputStream(@NotNull OutputStream out, int blockSize, int threads) {
+        super(out, blockSize, threads);
+    }
+
+    @NotNull
+    @Override
+    protected byte[] compressBlock(@NotNull byte[] data, int length) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, 64 * 1024)) {
+            gzip.write(data, 0, length);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    protected void writeTrailer(@NotNull OutputStream out, long blockCount) throws IOException {
+        if (blockCount == 0) {
+            // Empty file still must contain one member
+            out.write(compressBlock(new byte[0], 0));
+        }
+    }
+
+}
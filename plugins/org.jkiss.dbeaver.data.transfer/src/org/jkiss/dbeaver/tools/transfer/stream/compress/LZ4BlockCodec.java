@@ -0,0 +1,198 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.compress;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+
+/**
+ * LZ4 block format encoder and decoder.
+ * <p>
+ * Encoder uses single-probe hash table (the same strategy as the reference "fast" compressor),
+ * decoder supports matches which refer to data preceding the block (linked blocks).
+ */
+public class LZ4BlockCodec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 65535;
+    private static final int HASH_LOG = 16;
+    private static final int HASH_MULTIPLIER = 0x9E3779B1;
+
+    private LZ4BlockCodec() {
+    }
+
+    /**
+     * Maximum size of compressed data
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses source data into the target buffer, which must have at least {@link #maxCompressedLength(int)} bytes.
+     * Returns compressed size.
+     */
+    public static int compress(@NotNull byte[] src, int srcOffset, int srcLength, @NotNull byte[] dst, int dstOffset) {
+        final int srcEnd = srcOffset + srcLength;
+        int dp = dstOffset;
+        int anchor = srcOffset;
+        if (srcLength >= MF_LIMIT + 1) {
+            // Positions are stored relative to the source offset plus one, zero means empty slot
+            final int[] hashTable = new int[1 << HASH_LOG];
+            final int matchLimit = srcEnd - LAST_LITERALS;
+            final int searchLimit = srcEnd - MF_LIMIT;
+            int sp = srcOffset + 1;
+            hashTable[hash(src, srcOffset)] = 1;
+            while (sp < searchLimit) {
+                int h = hash(src, sp);
+                int ref = hashTable[h] - 1 + srcOffset;
+                hashTable[h] = sp - srcOffset + 1;
+                if (ref < srcOffset || sp - ref > MAX_DISTANCE || XXHash32.readIntLE(src, ref) != XXHash32.readIntLE(src, sp)) {
+                    sp++;
+                    continue;
+                }
+                // Extend match backwards
+                while (sp > anchor && ref > srcOffset && src[sp - 1] == src[ref - 1]) {
+                    sp--;
+                    ref--;
+                }
+                // Extend match forwards
+                int matchEnd = sp + MIN_MATCH;
+                int refEnd = ref + MIN_MATCH;
+                while (matchEnd < matchLimit && src[matchEnd] == src[refEnd]) {
+                    matchEnd++;
+                    refEnd++;
+                }
+                dp = writeSequence(src, anchor, sp - anchor, sp - ref, matchEnd - sp, dst, dp);
+                anchor = sp = matchEnd;
+                if (sp < searchLimit) {
+                    hashTable[hash(src, sp - 2)] = sp - 2 - srcOffset + 1;
+                }
+            }
+        }
+        // Last literals
+        return writeLiterals(src, anchor, srcEnd - anchor, dst, dp) - dstOffset;
+    }
+
+    /**
+     * Decompresses block into the target buffer.
+     * Matches may refer to data preceding dstOffset (up to 64Kb, for linked blocks).
+     * Returns decompressed size.
+     */
+    public static int decompress(@NotNull byte[] src, int srcOffset, int srcLength, @NotNull byte[] dst, int dstOffset, int dstLimit) throws IOException {
+        final int srcEnd = srcOffset + srcLength;
+        int sp = srcOffset;
+        int dp = dstOffset;
+        try {
+            while (sp < srcEnd) {
+                int token = src[sp++] & 0xFF;
+                // Literals
+                int literalLength = token >>> 4;
+                if (literalLength == 15) {
+                    int b;
+                    do {
+                        b = src[sp++] & 0xFF;
+                        literalLength += b;
+                    } while (b == 255);
+                }
+                if (dp + literalLength > dstLimit || sp + literalLength > srcEnd) {
+                    throw new IOException("Malformed LZ4 block: literals out of bounds");
+                }
+                System.arraycopy(src, sp, dst, dp, literalLength);
+                sp += literalLength;
+                dp += literalLength;
+                if (sp == srcEnd) {
+                    // Last sequence has no match
+                    break;
+                }
+                // Match
+                int offset = (src[sp] & 0xFF) | (src[sp + 1] & 0xFF) << 8;
+                sp += 2;
+                int matchLength = token & 0x0F;
+                if (matchLength == 15) {
+                    int b;
+                    do {
+                        b = src[sp++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                int ref = dp - offset;
+                if (offset == 0 || ref < 0 || dp + matchLength > dstLimit) {
+                    throw new IOException("Malformed LZ4 block: match out of bounds");
+                }
+                if (offset >= matchLength) {
+                    System.arraycopy(dst, ref, dst, dp, matchLength);
+                    dp += matchLength;
+                } else {
+                    // Overlapped copy
+                    for (int i = 0; i < matchLength; i++) {
+                        dst[dp++] = dst[ref++];
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Malformed LZ4 block: unexpected end of data", e);
+        }
+        return dp - dstOffset;
+    }
+
+    private static int hash(byte[] data, int offset) {
+        return (XXHash32.readIntLE(data, offset) * HASH_MULTIPLIER) >>> (32 - HASH_LOG);
+    }
+
+    private static int writeSequence(byte[] src, int literalOffset, int literalLength, int matchOffset, int matchLength, byte[] dst, int dp) {
+        int tokenPos = dp++;
+        int token = Math.min(literalLength, 15) << 4;
+        if (literalLength >= 15) {
+            dp = writeLength(literalLength - 15, dst, dp);
+        }
+        System.arraycopy(src, literalOffset, dst, dp, literalLength);
+        dp += literalLength;
+        dst[dp++] = (byte) matchOffset;
+        dst[dp++] = (byte) (matchOffset >>> 8);
+        int extraMatch = matchLength - MIN_MATCH;
+        token |= Math.min(extraMatch, 15);
+        if (extraMatch >= 15) {
+            dp = writeLength(extraMatch - 15, dst, dp);
+        }
+        dst[tokenPos] = (byte) token;
+        return dp;
+    }
+
+    private static int writeLiterals(byte[] src, int literalOffset, int literalLength, byte[] dst, int dp) {
+        dst[dp++] = (byte) (Math.min(literalLength, 15) << 4);
+        if (literalLength >= 15) {
+            dp = writeLength(literalLength - 15, dst, dp);
+        }
+        System.arraycopy(src, literalOffset, dst, dp, literalLength);
+        return dp + literalLength;
+    }
+
+    private static int writeLength(int length, byte[] dst, int dp) {
+        while (length >= 255) {
+            dst[dp++] = (byte) 255;
+            length -= 255;
+        }
+        dst[dp++] = (byte) length;
+        return dp;
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.compress;
+
+import org.jkiss.code.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * LZ4 frame format decoder. Supports linked and independent blocks, block and content checksums
+ * and concatenated frames.
+ */
+public class LZ4FrameInputStream extends InputStream {
+
+    private static final int SKIPPABLE_MAGIC = 0x184D2A50;
+    private static final int SKIPPABLE_MAGIC_MASK = 0xFFFFFFF0;
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final XXHash32 contentHash = new XXHash32();
+    private final byte[] intBuffer = new byte[8];
+
+    private int flags;
+    private int blockMaxSize;
+    private byte[] compressed = new byte[0];
+    // Decompressed data. Linked blocks keep previous 64Kb at the start of the buffer.
+    private byte[] buffer = new byte[0];
+    private int position;
+    private int limit;
+    private boolean inFrame;
+    private boolean eof;
+
+    public LZ4FrameInputStream(@NotNull InputStream in) throws IOException {
+        this.in = in;
+        if (!readFrameHeader()) {
+            throw new EOFException("Empty LZ4 stream");
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(@NotNull byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int count = Math.min(len, limit - position);
+        System.arraycopy(buffer, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean ensureData() throws IOException {
+        while (position >= limit) {
+            if (eof) {
+                return false;
+            }
+            if (!inFrame) {
+                if (!readFrameHeader()) {
+                    eof = true;
+                    return false;
+                }
+            }
+            readBlock();
+        }
+        return true;
+    }
+
+    private boolean readFrameHeader() throws IOException {
+        while (true) {
+            int b = in.read();
+            if (b < 0) {
+                return false;
+            }
+            intBuffer[0] = (byte) b;
+            readFully(intBuffer, 1, 3);
+            int magic = XXHash32.readIntLE(intBuffer, 0);
+            if ((magic & SKIPPABLE_MAGIC_MASK) == SKIPPABLE_MAGIC) {
+                readFully(intBuffer, 0, 4);
+                skipFully(XXHash32.readIntLE(intBuffer, 0) & 0xFFFFFFFFL);
+                continue;
+            }
+            if (magic != LZ4FrameOutputStream.MAGIC) {
+                throw new IOException("Bad LZ4 frame magic number: " + Integer.toHexString(magic));
+            }
+            break;
+        }
+        byte[] descriptor = new byte[14];
+        readFully(descriptor, 0, 2);
+        flags = descriptor[0] & 0xFF;
+        if ((flags & 0xC0) != LZ4FrameOutputStream.FLAG_VERSION) {
+            throw new IOException("Unsupported LZ4 frame version");
+        }
+        if ((flags & LZ4FrameOutputStream.FLAG_DICTIONARY_ID) != 0) {
+            throw new IOException("LZ4 frames with dictionary are not supported");
+        }
+        int blockSizeId = (descriptor[1] >> 4) & 0x07;
+        if (blockSizeId < 4) {
+            throw new IOException("Bad LZ4 block size id: " + blockSizeId);
+        }
+        int length = 2;
+        if ((flags & LZ4FrameOutputStream.FLAG_CONTENT_SIZE) != 0) {
+            readFully(descriptor, length, 8);
+            length += 8;
+        }
+        int headerChecksum = in.read();
+        if (headerChecksum < 0) {
+            throw new EOFException("Unexpected end of LZ4 frame header");
+        }
+        if (((XXHash32.hash(descriptor, 0, length, 0) >> 8) & 0xFF) != headerChecksum) {
+            throw new IOException("LZ4 frame header checksum mismatch");
+        }
+
+        blockMaxSize = 1 << (8 + 2 * blockSizeId);
+        if (compressed.length < blockMaxSize) {
+            compressed = new byte[blockMaxSize];
+            buffer = new byte[WINDOW_SIZE + blockMaxSize];
+        }
+        position = limit = 0;
+        contentHash.reset();
+        inFrame = true;
+        return true;
+    }
+
+    private void readBlock() throws IOException {
+        readFully(intBuffer, 0, 4);
+        int blockHeader = XXHash32.readIntLE(intBuffer, 0);
+        if (blockHeader == 0) {
+            // End mark
+            if ((flags & LZ4FrameOutputStream.FLAG_CONTENT_CHECKSUM) != 0) {
+                readFully(intBuffer, 0, 4);
+                if (XXHash32.readIntLE(intBuffer, 0) != contentHash.getValue()) {
+                    throw new IOException("LZ4 content checksum mismatch");
+                }
+            }
+            inFrame = false;
+            return;
+        }
+        boolean uncompressed = (blockHeader & LZ4FrameOutputStream.UNCOMPRESSED_BLOCK) != 0;
+        int blockLength = blockHeader & ~LZ4FrameOutputStream.UNCOMPRESSED_BLOCK;
+        if (blockLength > blockMaxSize) {
+            throw new IOException("LZ4 block is too large: " + blockLength);
+        }
+        readFully(compressed, 0, blockLength);
+        if ((flags & LZ4FrameOutputStream.FLAG_BLOCK_CHECKSUM) != 0) {
+            readFully(intBuffer, 0, 4);
+            if (XXHash32.readIntLE(intBuffer, 0) != XXHash32.hash(compressed, 0, blockLength, 0)) {
+                throw new IOException("LZ4 block checksum mismatch");
+            }
+        }
+
+        int start = 0;
+        if ((flags & LZ4FrameOutputStream.FLAG_BLOCK_INDEPENDENCE) == 0) {
+            // Keep the last 64Kb of previous data as dictionary
+            start = Math.min(limit, WINDOW_SIZE);
+            System.arraycopy(buffer, limit - start, buffer, 0, start);
+        }
+        int decodedLength;
+        if (uncompressed) {
+            System.arraycopy(compressed, 0, buffer, start, blockLength);
+            decodedLength = blockLength;
+        } else {
+            decodedLength = LZ4BlockCodec.decompress(compressed, 0, blockLength, buffer, start, start + blockMaxSize);
+        }
+        contentHash.update(buffer, start, decodedLength);
+        position = start;
+        limit = start + decodedLength;
+    }
+
+    private void readFully(byte[] data, int offset, int length) throws IOException {
+        while (length > 0) {
+            int count = in.read(data, offset, length);
+            if (count < 0) {
+                throw new EOFException("Unexpected end of LZ4 stream");
+            }
+            offset += count;
+            length -= count;
+        }
+    }
+
+    private void skipFully(long length) throws IOException {
+        while (length > 0) {
+            long count = in.skip(length);
+            if (count <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("Unexpected end of LZ4 stream");
+                }
+                count = 1;
+            }
+            length -= count;
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.compress;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Parallel LZ4 compressor. Writes LZ4 frame format with independent blocks and content checksum,
+ * which can be decompressed by the lz4 command line tool.
+ */
+public class LZ4FrameOutputStream extends BlockCompressorOutputStream {
+
+    static final int MAGIC = 0x184D2204;
+    static final int FLAG_VERSION = 0x40;
+    static final int FLAG_BLOCK_INDEPENDENCE = 0x20;
+    static final int FLAG_BLOCK_CHECKSUM = 0x10;
+    static final int FLAG_CONTENT_SIZE = 0x08;
+    static final int FLAG_CONTENT_CHECKSUM = 0x04;
+    static final int FLAG_DICTIONARY_ID = 0x01;
+    static final int UNCOMPRESSED_BLOCK = 0x80000000;
+
+    private final XXHash32 contentHash = new XXHash32();
+
+    public LZ4FrameOutputStream(@NotNull OutputStream out, int threads) {
+        this(out, DEFAULT_BLOCK_SIZE, threads);
+    }
+
+    /**
+     * Block size must be one of 64Kb, 256Kb, 1Mb or 4Mb
+     */
+    public LZ4FrameOutputStream(@NotNull OutputStream out, int blockSize, int threads) {
+        super(out, blockSize, threads);
+        getBlockSizeId(blockSize);
+    }
+
+    @Override
+    protected void writeHeader(@NotNull OutputStream out) throws IOException {
+        byte[] header = new byte[7];
+        writeIntLE(header, 0, MAGIC);
+        header[4] = (byte) (FLAG_VERSION | FLAG_BLOCK_INDEPENDENCE | FLAG_CONTENT_CHECKSUM);
+        header[5] = (byte) (getBlockSizeId(getBlockSize()) << 4);
+        header[6] = (byte) (XXHash32.hash(header, 4, 2, 0) >> 8);
+        out.write(header);
+    }
+
+    @Override
+    protected void processInput(@NotNull byte[] data, int offset, int length) {
+        contentHash.update(data, offset, length);
+    }
+
+    @NotNull
+    @Override
+    protected byte[] compressBlock(@NotNull byte[] data, int length) {
+        byte[] block = new byte[4 + LZ4BlockCodec.maxCompressedLength(length)];
+        int compressedLength = LZ4BlockCodec.compress(data, 0, length, block, 4);
+        if (compressedLength >= length) {
+            // Incompressible data is stored as is
+            writeIntLE(block, 0, length | UNCOMPRESSED_BLOCK);
+            System.arraycopy(data, 0, block, 4, length);
+            return Arrays.copyOf(block, 4 + length);
+        }
+        writeIntLE(block, 0, compressedLength);
+        return Arrays.copyOf(block, 4 + compressedLength);
+    }
+
+    @Override
+    protected void writeTrailer(@NotNull OutputStream out, long blockCount) throws IOException {
+        byte[] trailer = new byte[8];
+        // End mark
+        writeIntLE(trailer, 0, 0);
+        writeIntLE(trailer, 4, contentHash.getValue());
+        out.write(trailer);
+    }
+
+    static int getBlockSizeId(int blockSize) {
+        return switch (blockSize) {
+            case 64 * 1024 -> 4;
+            case 256 * 1024 -> 5;
+            case 1024 * 1024 -> 6;
+            case 4 * 1024 * 1024 -> 7;
+            default -> throw new IllegalArgumentException("Unsupported LZ4 block size: " + blockSize);
+        };
+    }
+
+    static void writeIntLE(byte[] data, int offset, int value) {
+        data[offset] = (byte) value;
+        data[offset + 1] = (byte) (value >>> 8);
+        data[offset + 2] = (byte) (value >>> 16);
+        data[offset + 3] = (byte) (value >>> 24);
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.compress;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Compression format of exported files
+ */
+public enum StreamCompressionFormat {
+    ZIP("ZIP", "zip", new byte[]{0x50, 0x4B, 0x03, 0x04}),
+    GZIP("GZip", "gz", new byte[]{0x1F, (byte) 0x8B}),
+    LZ4("LZ4", "lz4", new byte[]{0x04, 0x22, 0x4D, 0x18});
+
+    private static final byte[] ZSTD_SIGNATURE = {0x28, (byte) 0xB5, 0x2F, (byte) 0xFD};
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final String title;
+    private final String extension;
+    private final byte[] signature;
+
+    StreamCompressionFormat(@NotNull String title, @NotNull String extension, @NotNull byte[] signature) {
+        this.title = title;
+        this.extension = extension;
+        this.signature = signature;
+    }
+
+    @NotNull
+    public String getTitle() {
+        return title;
+    }
+
+    @NotNull
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Opens decompressing stream. For ZIP archives the first entry is read.
+     */
+    @NotNull
+    public InputStream openInputStream(@NotNull InputStream stream) throws IOException {
+        return switch (this) {
+            // Reads concatenated members as well
+            case GZIP -> new GZIPInputStream(stream, READ_BUFFER_SIZE);
+            case LZ4 -> new LZ4FrameInputStream(stream);
+            case ZIP -> {
+                ZipInputStream zipStream = new ZipInputStream(stream);
+                if (zipStream.getNextEntry() == null) {
+                    throw new IOException("Empty ZIP archive");
+                }
+                yield zipStream;
+            }
+        };
+    }
+
+    /**
+     * Detects compression format by the stream signature. Stream must support mark.
+     * Returns null for uncompressed data.
+     */
+    @Nullable
+    public static StreamCompressionFormat detectFormat(@NotNull InputStream stream) throws IOException {
+        byte[] header = new byte[4];
+        stream.mark(header.length);
+        int length = 0;
+        try {
+            while (length < header.length) {
+                int count = stream.read(header, length, header.length - length);
+                if (count < 0) {
+                    break;
+                }
+                length += count;
+            }
+        } finally {
+            stream.reset();
+        }
+        for (StreamCompressionFormat format : values()) {
+            if (startsWith(header, length, format.signature)) {
+                return format;
+            }
+        }
+        if (startsWith(header, length, ZSTD_SIGNATURE)) {
+            throw new IOException("Zstandard compressed files are not supported");
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int length, byte[] prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.compress;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Streaming xxHash32 implementation. Used by LZ4 frame format for header and content checksums.
+ */
+public class XXHash32 {
+
+    private static final int PRIME1 = 0x9E3779B1;
+    private static final int PRIME2 = 0x85EBCA77;
+    private static final int PRIME3 = 0xC2B2AE3D;
+    private static final int PRIME4 = 0x27D4EB2F;
+    private static final int PRIME5 = 0x165667B1;
+
+    private final int seed;
+    private final byte[] stripe = new byte[16];
+    private int stripeLength;
+    private long totalLength;
+    private int v1, v2, v3, v4;
+
+    public XXHash32() {
+        this(0);
+    }
+
+    public XXHash32(int seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    public void reset() {
+        v1 = seed + PRIME1 + PRIME2;
+        v2 = seed + PRIME2;
+        v3 = seed;
+        v4 = seed - PRIME1;
+        stripeLength = 0;
+        totalLength = 0;
+    }
+
+    public void update(@NotNull byte[] data, int offset, int length) {
+        totalLength += length;
+        if (stripeLength > 0) {
+            int count = Math.min(length, 16 - stripeLength);
+            System.arraycopy(data, offset, stripe, stripeLength, count);
+            stripeLength += count;
+            offset += count;
+            length -= count;
+            if (stripeLength < 16) {
+                return;
+            }
+            processStripe(stripe, 0);
+            stripeLength = 0;
+        }
+        int end = offset + length;
+        for (; offset + 16 <= end; offset += 16) {
+            processStripe(data, offset);
+        }
+        if (offset < end) {
+            System.arraycopy(data, offset, stripe, 0, end - offset);
+            stripeLength = end - offset;
+        }
+    }
+
+    public int getValue() {
+        int h;
+        if (totalLength >= 16) {
+            h = Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7) + Integer.rotateLeft(v3, 12) + Integer.rotateLeft(v4, 18);
+        } else {
+            h = seed + PRIME5;
+        }
+        h += (int) totalLength;
+        return finish(h, stripe, 0, stripeLength);
+    }
+
+    public static int hash(@NotNull byte[] data, int offset, int length, int seed) {
+        XXHash32 hash = new XXHash32(seed);
+        hash.update(data, offset, length);
+        return hash.getValue();
+    }
+
+    private void processStripe(byte[] data, int offset) {
+        v1 = round(v1, readIntLE(data, offset));
+        v2 = round(v2, readIntLE(data, offset + 4));
+        v3 = round(v3, readIntLE(data, offset + 8));
+        v4 = round(v4, readIntLE(data, offset + 12));
+    }
+
+    private static int round(int acc, int lane) {
+        acc += lane * PRIME2;
+        acc = Integer.rotateLeft(acc, 13);
+        return acc * PRIME1;
+    }
+
+    private static int finish(int h, byte[] data, int offset, int length) {
+        int end = offset + length;
+        for (; offset + 4 <= end; offset += 4) {
+            h += readIntLE(data, offset) * PRIME3;
+            h = Integer.rotateLeft(h, 17) * PRIME4;
+        }
+        for (; offset < end; offset++) {
+            h += (data[offset] & 0xFF) * PRIME5;
+            h = Integer.rotateLeft(h, 11) * PRIME1;
+        }
+        h ^= h >>> 15;
+        h *= PRIME2;
+        h ^= h >>> 13;
+        h *= PRIME3;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    static int readIntLE(byte[] data, int offset) {
+        return (data[offset] & 0xFF) |
+            (data[offset + 1] & 0xFF) << 8 |
+            (data[offset + 2] & 0xFF) << 16 |
+            (data[offset + 3] & 0xFF) << 24;
+    }
+
+}
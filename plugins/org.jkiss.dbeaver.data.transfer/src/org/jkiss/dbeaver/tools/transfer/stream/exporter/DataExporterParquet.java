@@ -0,0 +1,210 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetCompression;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileWriter;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Apache Parquet exporter.
+ * Writes flat files with typed columns, values are written in columnar row groups.
+ */
+public class DataExporterParquet extends StreamExporterAbstract {
+
+    private static final String PROP_COMPRESSION = "compression";
+    private static final String PROP_ROW_GROUP_SIZE = "rowGroupSize";
+
+    private static final int MAX_DECIMAL_PRECISION = 38;
+    private static final int MAX_UNSIGNED_BIGINT_PRECISION = 20;
+
+    private DBDAttributeBinding[] columns;
+    private ParquetColumn[] parquetColumns;
+    private ParquetFileWriter writer;
+    private ParquetCompression compression;
+    private long rowGroupSize;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        compression = CommonUtils.valueOf(
+            ParquetCompression.class,
+            CommonUtils.toString(site.getProperties().get(PROP_COMPRESSION)),
+            ParquetCompression.SNAPPY);
+        int rowGroupSizeMb = CommonUtils.toInt(site.getProperties().get(PROP_ROW_GROUP_SIZE), 64);
+        rowGroupSize = rowGroupSizeMb > 0 ? rowGroupSizeMb * 1024L * 1024L : ParquetFileWriter.DEFAULT_ROW_GROUP_SIZE;
+    }
+
+    @Override
+    public void dispose() {
+        if (writer != null) {
+            writer.dispose();
+            writer = null;
+        }
+        super.dispose();
+    }
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException {
+        columns = getSite().getAttributes();
+        parquetColumns = new ParquetColumn[columns.length];
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < columns.length; i++) {
+            DBDAttributeBinding column = columns[i];
+            String name = CommonUtils.isEmpty(column.getLabel()) ? column.getName() : column.getLabel();
+            // Parquet readers resolve columns by name, so it must be unique
+            String uniqueName = name;
+            for (int index = 2; !names.add(uniqueName); index++) {
+                uniqueName = name + "_" + index;
+            }
+            parquetColumns[i] = createColumn(uniqueName, column);
+        }
+        writer = new ParquetFileWriter(
+            getOutputStream(),
+            List.of(parquetColumns),
+            compression,
+            rowGroupSize,
+            ParquetFileWriter.DEFAULT_PAGE_SIZE,
+            GeneralUtils.getProductTitle());
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = getParquetValue(session.getProgressMonitor(), i, row[i]);
+        }
+        writer.writeRow(values);
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (writer != null) {
+            writer.finish();
+        }
+    }
+
+    private Object getParquetValue(@NotNull DBRProgressMonitor monitor, int index, Object value) throws DBException {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        ParquetColumn parquetColumn = parquetColumns[index];
+        if (value instanceof DBDContent content) {
+            if (parquetColumn.getLogicalType() == ParquetColumn.LogicalType.STRING) {
+                return ContentUtils.getContentStringValue(monitor, content);
+            }
+            return ContentUtils.getContentBinaryValue(monitor, content);
+        }
+        if (parquetColumn.getLogicalType() == ParquetColumn.LogicalType.STRING && !(value instanceof String)) {
+            return getValueDisplayString(columns[index], value);
+        }
+        return value;
+    }
+
+    @NotNull
+    private static ParquetColumn createColumn(@NotNull String name, @NotNull DBDAttributeBinding attribute) {
+        switch (attribute.getDataKind()) {
+            case BOOLEAN:
+                return new ParquetColumn(name, ParquetColumn.PhysicalType.BOOLEAN, ParquetColumn.LogicalType.NONE);
+            case NUMERIC:
+                switch (attribute.getTypeID()) {
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.INT32, ParquetColumn.LogicalType.NONE);
+                    case Types.INTEGER:
+                        // Unsigned values don't fit into signed type of the same size
+                        if (isUnsigned(attribute)) {
+                            return new ParquetColumn(name, ParquetColumn.PhysicalType.INT64, ParquetColumn.LogicalType.NONE);
+                        }
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.INT32, ParquetColumn.LogicalType.NONE);
+                    case Types.BIGINT:
+                        if (isUnsigned(attribute)) {
+                            return ParquetColumn.decimal(name, MAX_UNSIGNED_BIGINT_PRECISION, 0);
+                        }
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.INT64, ParquetColumn.LogicalType.NONE);
+                    case Types.REAL:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.FLOAT, ParquetColumn.LogicalType.NONE);
+                    case Types.FLOAT:
+                    case Types.DOUBLE:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.DOUBLE, ParquetColumn.LogicalType.NONE);
+                    case Types.DECIMAL:
+                    case Types.NUMERIC: {
+                        int precision = CommonUtils.toInt(attribute.getPrecision());
+                        int scale = CommonUtils.toInt(attribute.getScale());
+                        if (precision > 0 && precision <= MAX_DECIMAL_PRECISION && scale >= 0 && scale <= precision) {
+                            return ParquetColumn.decimal(name, precision, scale);
+                        }
+                        break;
+                    }
+                    default:
+                        break;
+                }
+                // Numbers with unknown precision are written as strings to avoid precision loss
+                return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.STRING);
+            case DATETIME:
+                switch (attribute.getTypeID()) {
+                    case Types.DATE:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.INT32, ParquetColumn.LogicalType.DATE);
+                    case Types.TIME:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.INT64, ParquetColumn.LogicalType.TIME_MICROS);
+                    case Types.TIMESTAMP:
+                        return ParquetColumn.timestamp(name, false);
+                    case Types.TIMESTAMP_WITH_TIMEZONE:
+                        return ParquetColumn.timestamp(name, true);
+                    default:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.STRING);
+                }
+            case BINARY:
+                return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.NONE);
+            case CONTENT:
+                switch (attribute.getTypeID()) {
+                    case Types.BLOB:
+                    case Types.LONGVARBINARY:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.NONE);
+                    default:
+                        return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.STRING);
+                }
+            default:
+                return new ParquetColumn(name, ParquetColumn.PhysicalType.BYTE_ARRAY, ParquetColumn.LogicalType.STRING);
+        }
+    }
+
+    private static boolean isUnsigned(@NotNull DBDAttributeBinding attribute) {
+        String typeName = attribute.getTypeName();
+        return typeName != null && typeName.toUpperCase(Locale.ENGLISH).contains("UNSIGNED");
+    }
+
+}
@@ -0,0 +1,290 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * CSV reader which scans memory-mapped file.
+ * <p>
+ * Records are parsed on raw bytes, fields are kept as offsets in the mapped buffer
+ * and are decoded into strings only when requested.
+ * Large files are mapped by windows, window is moved forward when current record crosses its end.
+ * Only ASCII-compatible encodings are supported (delimiter, quote, escape and line feed characters must be single bytes).
+ */
+public class CSVMappedReader implements Closeable {
+
+    public static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final int delimiter;
+    private final int quoteChar;
+    private final int escapeChar;
+    private final long fileSize;
+    private long windowSize;
+
+    private MappedByteBuffer buffer;
+    // File position of the buffer start
+    private long bufferOffset;
+    // Position of the next record in the buffer
+    private int position;
+
+    // Current record fields. Offsets are relative to the buffer start.
+    private int fieldCount;
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private boolean[] fieldQuoted = new boolean[16];
+    private boolean pending;
+
+    private byte[] decodeBuffer = new byte[256];
+
+    public CSVMappedReader(@NotNull Path file, @NotNull Charset charset, char delimiter, char quoteChar, char escapeChar) throws IOException {
+        this(file, charset, delimiter, quoteChar, escapeChar, DEFAULT_WINDOW_SIZE);
+    }
+
+    public CSVMappedReader(@NotNull Path file, @NotNull Charset charset, char delimiter, char quoteChar, char escapeChar, long windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.charset = charset;
+        this.delimiter = delimiter;
+        this.quoteChar = quoteChar;
+        this.escapeChar = escapeChar == quoteChar ? -1 : escapeChar;
+        this.windowSize = windowSize;
+        try {
+            this.fileSize = channel.size();
+            mapWindow(0);
+            if (StandardCharsets.UTF_8.equals(charset) && startsWith(UTF8_BOM)) {
+                position = UTF8_BOM.length;
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads next non-empty record. Returns false at the end of file.
+     */
+    public boolean nextRecord() throws IOException {
+        while (true) {
+            if (bufferOffset + position >= fileSize) {
+                fieldCount = 0;
+                return false;
+            }
+            if (scanRecord()) {
+                if (fieldCount == 1 && fieldStart[0] == fieldEnd[0] && !fieldQuoted[0]) {
+                    // Empty line
+                    continue;
+                }
+                return true;
+            }
+            // Record crosses the window end
+            long recordOffset = bufferOffset + position;
+            if (recordOffset == bufferOffset && bufferOffset + buffer.limit() < fileSize) {
+                // Record is longer than the window
+                windowSize = Math.min(windowSize * 2, Integer.MAX_VALUE);
+            }
+            mapWindow(recordOffset);
+        }
+    }
+
+    /**
+     * Returns true if the last record ends inside quotes
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Returns field length in bytes (including quotes).
+     */
+    public int getFieldLength(int index) {
+        return fieldEnd[index] - fieldStart[index];
+    }
+
+    /**
+     * Decodes field value. Surrounding quotes are removed, doubled and escaped quotes are unescaped.
+     */
+    @Nullable
+    public String getField(int index) {
+        if (index >= fieldCount) {
+            return null;
+        }
+        int start = fieldStart[index];
+        int length = fieldEnd[index] - start;
+        if (length == 0) {
+            return "";
+        }
+        if (decodeBuffer.length < length) {
+            decodeBuffer = new byte[Math.max(length, decodeBuffer.length * 2)];
+        }
+        if (!fieldQuoted[index]) {
+            buffer.get(start, decodeBuffer, 0, length);
+            return new String(decodeBuffer, 0, length, charset);
+        }
+        int count = 0;
+        boolean inQuotes = false;
+        int end = start + length;
+        for (int i = start; i < end; i++) {
+            int b = buffer.get(i) & 0xFF;
+            if (b == escapeChar && i + 1 < end) {
+                int next = buffer.get(i + 1) & 0xFF;
+                if (next == quoteChar || next == escapeChar) {
+                    decodeBuffer[count++] = (byte) next;
+                    i++;
+                    continue;
+                }
+            }
+            if (b == quoteChar) {
+                if (inQuotes && i + 1 < end && (buffer.get(i + 1) & 0xFF) == quoteChar) {
+                    // Doubled quote
+                    decodeBuffer[count++] = (byte) b;
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+                continue;
+            }
+            decodeBuffer[count++] = (byte) b;
+        }
+        return new String(decodeBuffer, 0, count, charset);
+    }
+
+    /**
+     * Decodes all fields of the current record
+     */
+    @NotNull
+    public String[] getFields() {
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = getField(i);
+        }
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    /**
+     * Scans record starting at the current position.
+     * Returns false if record is not complete and the end of buffer is not the end of file.
+     */
+    private boolean scanRecord() {
+        final int limit = buffer.limit();
+        final boolean lastWindow = bufferOffset + limit >= fileSize;
+        int pos = position;
+        int start = pos;
+        boolean inQuotes = false;
+        boolean quoted = false;
+        fieldCount = 0;
+        pending = false;
+        while (pos < limit) {
+            int b = buffer.get(pos) & 0xFF;
+            if (b == escapeChar && pos + 1 < limit) {
+                int next = buffer.get(pos + 1) & 0xFF;
+                if (next == quoteChar || next == escapeChar) {
+                    quoted = true;
+                    pos += 2;
+                    continue;
+                }
+            }
+            if (b == quoteChar) {
+                inQuotes = !inQuotes;
+                quoted = true;
+            } else if (!inQuotes) {
+                if (b == delimiter) {
+                    addField(start, pos, quoted);
+                    start = pos + 1;
+                    quoted = false;
+                } else if (b == '\n' || b == '\r') {
+                    if (b == '\r' && pos + 1 >= limit && !lastWindow) {
+                        // Can't check for CRLF
+                        return false;
+                    }
+                    addField(start, pos, quoted);
+                    if (b == '\r' && pos + 1 < limit && buffer.get(pos + 1) == '\n') {
+                        pos++;
+                    }
+                    position = pos + 1;
+                    return true;
+                }
+            }
+            pos++;
+        }
+        if (!lastWindow) {
+            return false;
+        }
+        // Last record without line feed
+        addField(start, limit, quoted);
+        pending = inQuotes;
+        position = limit;
+        return true;
+    }
+
+    private void addField(int start, int end, boolean quoted) {
+        if (fieldCount == fieldStart.length) {
+            int newSize = fieldCount * 2;
+            fieldStart = Arrays.copyOf(fieldStart, newSize);
+            fieldEnd = Arrays.copyOf(fieldEnd, newSize);
+            fieldQuoted = Arrays.copyOf(fieldQuoted, newSize);
+        }
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = end;
+        fieldQuoted[fieldCount] = quoted;
+        fieldCount++;
+    }
+
+    private void mapWindow(long offset) throws IOException {
+        long size = Math.min(windowSize, fileSize - offset);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        bufferOffset = offset;
+        position = 0;
+    }
+
+    private boolean startsWith(@NotNull byte[] prefix) {
+        if (buffer.limit() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,323 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits CSV stream into chunks at record boundaries and parses chunks in parallel.
+ * <p>
+ * Stream is read sequentially by the calling thread, which tracks quotes state to find record boundaries.
+ * Chunks are parsed by worker jobs, parsed rows are passed to the row consumer in the calling thread,
+ * either in the original order or in the order of chunks completion.
+ * Only ASCII-compatible encodings are supported (quote, escape and line feed characters must be single bytes).
+ */
+public class CSVParallelReader {
+
+    private static final Log log = Log.getLog(CSVParallelReader.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int READ_BLOCK_SIZE = 256 * 1024;
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    public interface ChunkParser {
+        /**
+         * Parses chunk of complete CSV records. Called from worker threads.
+         */
+        @NotNull
+        List<Object[]> parseChunk(@NotNull byte[] data, int length, boolean firstChunk) throws IOException;
+    }
+
+    public interface RowConsumer {
+        /**
+         * Consumes parsed row. Returns false to stop reading.
+         */
+        boolean consumeRow(@NotNull Object[] row) throws DBException;
+    }
+
+    private final InputStream inputStream;
+    private final int quoteChar;
+    private final int escapeChar;
+    private final int threadCount;
+    private final boolean preserveOrder;
+    private final int chunkSize;
+    private final ChunkParser parser;
+
+    private final BlockingQueue<Chunk> chunkQueue;
+    private final BlockingQueue<ChunkResult> resultQueue = new LinkedBlockingQueue<>();
+    private volatile boolean stopped;
+    private volatile Throwable error;
+
+    // Record boundaries scanner state
+    private boolean inQuotes;
+    private boolean escaped;
+    private boolean pendingCarriageReturn;
+
+    public CSVParallelReader(
+        @NotNull InputStream inputStream,
+        char quoteChar,
+        char escapeChar,
+        int threadCount,
+        boolean preserveOrder,
+        int chunkSize,
+        @NotNull ChunkParser parser
+    ) {
+        this.inputStream = inputStream;
+        this.quoteChar = quoteChar;
+        this.escapeChar = escapeChar == quoteChar ? -1 : escapeChar;
+        this.threadCount = threadCount;
+        this.preserveOrder = preserveOrder;
+        this.chunkSize = chunkSize;
+        this.parser = parser;
+        this.chunkQueue = new ArrayBlockingQueue<>(threadCount * 2);
+    }
+
+    /**
+     * Reads the whole stream (or until consumer returns false or monitor is canceled).
+     */
+    public void read(@NotNull DBRProgressMonitor monitor, @NotNull RowConsumer consumer) throws DBException, IOException {
+        List<ParserJob> jobs = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            ParserJob job = new ParserJob(i + 1);
+            jobs.add(job);
+            job.schedule();
+        }
+        ResultDispatcher dispatcher = new ResultDispatcher(consumer);
+        try {
+            byte[] buffer = new byte[Math.max(chunkSize, READ_BLOCK_SIZE) + READ_BLOCK_SIZE];
+            int length = 0;
+            int scanned = 0;
+            int boundary = 0;
+            long chunkIndex = 0;
+            for (; ; ) {
+                if (monitor.isCanceled() || dispatcher.finished) {
+                    break;
+                }
+                checkError();
+                if (buffer.length - length < READ_BLOCK_SIZE) {
+                    // No record boundary in the current buffer (very long record) - grow buffer
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int count = inputStream.read(buffer, length, READ_BLOCK_SIZE);
+                if (count < 0) {
+                    if (length > 0) {
+                        submitChunk(new Chunk(chunkIndex++, Arrays.copyOf(buffer, length), length));
+                    }
+                    break;
+                }
+                length += count;
+                for (; scanned < length; scanned++) {
+                    int b = buffer[scanned] & 0xFF;
+                    if (pendingCarriageReturn) {
+                        pendingCarriageReturn = false;
+                        if (b != '\n') {
+                            // Old Mac line delimiter
+                            boundary = scanned;
+                        }
+                    }
+                    if (escaped) {
+                        escaped = false;
+                        if (b == quoteChar || b == escapeChar) {
+                            // Escaped quote or escape character
+                            continue;
+                        }
+                    }
+                    if (b == escapeChar) {
+                        escaped = true;
+                    } else if (b == quoteChar) {
+                        inQuotes = !inQuotes;
+                    } else if (!inQuotes) {
+                        if (b == '\n') {
+                            boundary = scanned + 1;
+                        } else if (b == '\r') {
+                            pendingCarriageReturn = true;
+                        }
+                    }
+                }
+                if (boundary >= chunkSize || (boundary > 0 && buffer.length - length < READ_BLOCK_SIZE)) {
+                    submitChunk(new Chunk(chunkIndex++, Arrays.copyOf(buffer, boundary), boundary));
+                    System.arraycopy(buffer, boundary, buffer, 0, length - boundary);
+                    length -= boundary;
+                    scanned -= boundary;
+                    boundary = 0;
+                }
+                dispatcher.dispatchAvailable(false);
+            }
+            stopWorkers(jobs.size());
+            while (!dispatcher.finished && dispatcher.nextIndex < chunkIndex && !monitor.isCanceled()) {
+                checkError();
+                dispatcher.dispatchAvailable(true);
+            }
+            checkError();
+        } finally {
+            stopped = true;
+            chunkQueue.clear();
+            resultQueue.clear();
+            for (ParserJob job : jobs) {
+                try {
+                    job.join();
+                } catch (InterruptedException e) {
+                    log.debug("Interrupted while waiting for CSV parser", e);
+                }
+            }
+        }
+    }
+
+    private void submitChunk(@NotNull Chunk chunk) throws DBException, IOException {
+        try {
+            while (!chunkQueue.offer(chunk, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                checkError();
+            }
+        } catch (InterruptedException e) {
+            throw new DBException("CSV reading interrupted", e);
+        }
+    }
+
+    private void stopWorkers(int count) throws DBException, IOException {
+        for (int i = 0; i < count; i++) {
+            submitChunk(Chunk.END);
+        }
+    }
+
+    private void checkError() throws DBException, IOException {
+        Throwable e = error;
+        if (e != null) {
+            if (e instanceof IOException ioe) {
+                throw ioe;
+            }
+            if (e instanceof DBException dbe) {
+                throw dbe;
+            }
+            throw new DBException("Error parsing CSV", e);
+        }
+    }
+
+    private class ResultDispatcher {
+        private final RowConsumer consumer;
+        // Results which came before their predecessors (ordered mode only)
+        private final Map<Long, ChunkResult> pendingResults = new HashMap<>();
+        private long nextIndex;
+        private boolean finished;
+
+        ResultDispatcher(@NotNull RowConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        void dispatchAvailable(boolean wait) throws DBException {
+            ChunkResult result;
+            try {
+                result = wait ? resultQueue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS) : resultQueue.poll();
+            } catch (InterruptedException e) {
+                throw new DBException("CSV reading interrupted", e);
+            }
+            while (result != null && !finished) {
+                if (preserveOrder) {
+                    pendingResults.put(result.index, result);
+                    for (ChunkResult next = pendingResults.remove(nextIndex); next != null; next = pendingResults.remove(nextIndex)) {
+                        consume(next);
+                    }
+                } else {
+                    consume(result);
+                }
+                result = resultQueue.poll();
+            }
+        }
+
+        private void consume(@NotNull ChunkResult result) throws DBException {
+            nextIndex++;
+            if (finished) {
+                return;
+            }
+            for (Object[] row : result.rows) {
+                if (!consumer.consumeRow(row)) {
+                    finished = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private class ParserJob extends AbstractJob {
+        ParserJob(int index) {
+            super("Parse CSV " + index);
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                while (!stopped) {
+                    Chunk chunk = chunkQueue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (chunk == null) {
+                        continue;
+                    }
+                    if (chunk == Chunk.END) {
+                        break;
+                    }
+                    List<Object[]> rows = parser.parseChunk(chunk.data, chunk.length, chunk.index == 0);
+                    resultQueue.add(new ChunkResult(chunk.index, rows));
+                }
+            } catch (Throwable e) {
+                if (!stopped) {
+                    error = e;
+                    stopped = true;
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private static class Chunk {
+        private static final Chunk END = new Chunk(-1, new byte[0], 0);
+
+        private final long index;
+        private final byte[] data;
+        private final int length;
+
+        Chunk(long index, @NotNull byte[] data, int length) {
+            this.index = index;
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    private static class ChunkResult {
+        private final long index;
+        private final List<Object[]> rows;
+
+        ChunkResult(long index, @NotNull List<Object[]> rows) {
+            this.index = index;
+            this.rows = rows;
+        }
+    }
+
+}
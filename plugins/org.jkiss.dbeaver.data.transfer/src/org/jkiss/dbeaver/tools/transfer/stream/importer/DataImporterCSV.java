@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.tools.transfer.stream.importer;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBFetchProgress;
@@ -31,15 +32,20 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferUtils;
 import org.jkiss.dbeaver.tools.transfer.stream.*;
+import org.jkiss.dbeaver.tools.transfer.stream.compress.StreamCompressionFormat;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
 import org.jkiss.utils.Pair;
 import org.jkiss.utils.csv.CSVReader;
 import org.jkiss.utils.io.BOMInputStream;
 
 import java.io.*;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -57,6 +63,9 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
     private static final String PROP_TRIM_WHITESPACES = "trimWhitespaces";
+    private static final String PROP_PARALLEL_THREADS = "parallelThreads";
+    private static final String PROP_PRESERVE_ORDER = "preserveOrder";
+    private static final String PROP_MEMORY_MAPPED = "memoryMapped";
     public static final int READ_BUFFER_SIZE = 255 * 1024;
 
     public enum HeaderPosition {
@@ -79,7 +88,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
         final int columnMinimalLength = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
         final boolean columnIsByteLength = CommonUtils.getBoolean(processorProperties.get(PROP_COLUMN_IS_BYTE_LENGTH), false);
 
-        try (Reader reader = openStreamReader(inputStream, processorProperties, true)) {
+        try (Reader reader = openStreamReader(openDecompressedStream(inputStream), processorProperties, false)) {
             try (CSVReader csvReader = openCSVReader(reader, processorProperties)) {
                 String[] header = getNextLine(csvReader);
                 if (header == null) {
@@ -159,15 +168,23 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
     private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
         String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
+        return new CSVReader(reader, delimiter.charAt(0), getQuoteChar(processorProperties), getEscapeChar(processorProperties));
+    }
+
+    private static char getQuoteChar(Map<String, Object> processorProperties) {
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
             quoteChar = "'";
         }
+        return quoteChar.charAt(0);
+    }
+
+    private static char getEscapeChar(Map<String, Object> processorProperties) {
         String escapeChar = CommonUtils.toString(processorProperties.get(PROP_ESCAPE_CHAR));
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = "\\";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return escapeChar.charAt(0);
     }
 
     private Reader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties, boolean useBufferedStream) throws UnsupportedEncodingException {
@@ -184,6 +201,16 @@ public class DataImporterCSV extends StreamImporterAbstract {
         return new InputStreamReader(inputStream, charset);
     }
 
+    /**
+     * Wraps input with decompressing stream if data was compressed by one of supported formats
+     */
+    @NotNull
+    private static InputStream openDecompressedStream(@NotNull InputStream inputStream) throws IOException {
+        InputStream bufferedStream = new BufferedInputStream(inputStream, READ_BUFFER_SIZE);
+        StreamCompressionFormat compressionFormat = StreamCompressionFormat.detectFormat(bufferedStream);
+        return compressionFormat == null ? bufferedStream : compressionFormat.openInputStream(bufferedStream);
+    }
+
     private String[] getNextLine(CSVReader csvReader) throws IOException {
         while (true) {
             String[] line = csvReader.readNext();
@@ -197,6 +224,10 @@ public class DataImporterCSV extends StreamImporterAbstract {
         }
     }
 
+    private interface RowFetcher {
+        boolean fetchRow() throws DBException;
+    }
+
     @Override
     public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
         IStreamDataImporterSite site = getSite();
@@ -216,71 +247,98 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
             applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
 
-            try (Reader reader = openStreamReader(inputStream, properties, true)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
+            int maxRows = site.getSettings().getMaxRows();
+            int targetAttrSize = entityMapping.getStreamColumns().size();
+            int parallelThreads = CommonUtils.toInt(properties.get(PROP_PARALLEL_THREADS), 1);
+            long[] lineNum = new long[1];
+            RowFetcher rowFetcher = () -> {
+                if (maxRows > 0 && lineNum[0] >= maxRows) {
+                    return false;
+                }
+                consumer.fetchRow(producerSession, resultSet);
+                lineNum[0]++;
 
-                    int maxRows = site.getSettings().getMaxRows();
-                    int targetAttrSize = entityMapping.getStreamColumns().size();
-                    boolean headerRead = false;
-                    for (long lineNum = 0; ; ) {
-                        if (monitor.isCanceled()) {
-                            break;
-                        }
-                        String[] line = csvReader.readNext();
-                        if (line == null) {
-                            if (csvReader.getParser().isPending()) {
-                                throw new IOException("Un-terminated quote sequence was detected");
+                if (DBFetchProgress.monitorFetchProgress(lineNum[0])) {
+                    monitor.subTask(Long.toUnsignedString(lineNum[0]) + " rows processed");
+                }
+                return true;
+            };
+            CSVParallelReader.RowConsumer rowConsumer = row -> {
+                resultSet.setStreamRow(row);
+                return rowFetcher.fetchRow();
+            };
+            try {
+                inputStream = new BufferedInputStream(inputStream, READ_BUFFER_SIZE);
+                final StreamCompressionFormat compressionFormat = StreamCompressionFormat.detectFormat(inputStream);
+                if (compressionFormat != null) {
+                    inputStream = compressionFormat.openInputStream(inputStream);
+                }
+                if (compressionFormat == null &&
+                    CommonUtils.getBoolean(properties.get(PROP_MEMORY_MAPPED), false) &&
+                    IOUtils.isLocalPath(entityMapping.getInputFile()) &&
+                    isByteParsingSupported(properties))
+                {
+                    try (CSVMappedReader mappedReader = openMappedReader(entityMapping.getInputFile(), properties)) {
+                        // Fields are decoded only when consumer reads the mapped attributes
+                        resultSet.setStreamRow(index -> {
+                            if (index >= mappedReader.getFieldCount()) {
+                                return null;
                             }
-                            break;
-                        }
-                        if (line.length == 0) {
-                            continue;
-                        }
-                        if (headerPosition != HeaderPosition.none && !headerRead) {
-                            // First line is a header
-                            headerRead = true;
-                            continue;
-                        }
-                        if (maxRows > 0 && lineNum >= maxRows) {
-                            break;
-                        }
-
-                        if (line.length < targetAttrSize) {
-                            // Stream row may be shorter than header
-                            String[] newLine = new String[targetAttrSize];
-                            System.arraycopy(line, 0, newLine, 0, line.length);
-                            for (int i = line.length; i < targetAttrSize; i++) {
-                                newLine[i] = null;
+                            return prepareValue(mappedReader.getField(index), trimWhitespaces, emptyStringNull, nullValueMark);
+                        });
+                        boolean headerRead = headerPosition == HeaderPosition.none;
+                        while (!monitor.isCanceled() && mappedReader.nextRecord()) {
+                            if (!headerRead) {
+                                // First line is a header
+                                headerRead = true;
+                                continue;
                             }
-                            line = newLine;
-                        }
-                        if (trimWhitespaces) {
-                            for (int i = 0; i < line.length; i++) {
-                                line[i] = line[i].trim();
+                            if (!rowFetcher.fetchRow()) {
+                                break;
                             }
                         }
-                        if (emptyStringNull) {
-                            for (int i = 0; i < line.length; i++) {
-                                if ("".equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
+                        if (mappedReader.isPending()) {
+                            throw new IOException("Un-terminated quote sequence was detected");
                         }
-                        if (!CommonUtils.isEmpty(nullValueMark)) {
-                            for (int i = 0; i < line.length; i++) {
-                                if (nullValueMark.equals(line[i])) {
-                                    line[i] = null;
+                    }
+                } else if (parallelThreads > 1 && isByteParsingSupported(properties)) {
+                    CSVParallelReader parallelReader = new CSVParallelReader(
+                        inputStream,
+                        getQuoteChar(properties),
+                        getEscapeChar(properties),
+                        parallelThreads,
+                        CommonUtils.getBoolean(properties.get(PROP_PRESERVE_ORDER), true),
+                        CSVParallelReader.DEFAULT_CHUNK_SIZE,
+                        (data, length, firstChunk) -> parseChunk(data, length, firstChunk, properties, targetAttrSize));
+                    parallelReader.read(monitor, rowConsumer);
+                } else {
+                    try (Reader reader = openStreamReader(inputStream, properties, false)) {
+                        try (CSVReader csvReader = openCSVReader(reader, properties)) {
+                            boolean headerRead = false;
+                            for (; ; ) {
+                                if (monitor.isCanceled()) {
+                                    break;
+                                }
+                                String[] line = csvReader.readNext();
+                                if (line == null) {
+                                    if (csvReader.getParser().isPending()) {
+                                        throw new IOException("Un-terminated quote sequence was detected");
+                                    }
+                                    break;
+                                }
+                                if (line.length == 0) {
+                                    continue;
+                                }
+                                if (headerPosition != HeaderPosition.none && !headerRead) {
+                                    // First line is a header
+                                    headerRead = true;
+                                    continue;
+                                }
+                                if (!rowConsumer.consumeRow(prepareLine(line, targetAttrSize, trimWhitespaces, emptyStringNull, nullValueMark))) {
+                                    break;
                                 }
                             }
                         }
-
-                        resultSet.setStreamRow(line);
-                        consumer.fetchRow(producerSession, resultSet);
-                        lineNum++;
-
-                        if (DBFetchProgress.monitorFetchProgress(lineNum)) {
-                            monitor.subTask(Long.toUnsignedString(lineNum) + " rows processed");
-                        }
                     }
                 }
             } catch (IOException e) {
@@ -296,4 +354,98 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
     }
 
+    /**
+     * Parses chunk of complete CSV records. Called from parallel reader jobs.
+     */
+    @NotNull
+    private List<Object[]> parseChunk(@NotNull byte[] data, int length, boolean firstChunk, @NotNull Map<String, Object> properties, int targetAttrSize) throws IOException {
+        HeaderPosition headerPosition = getHeaderPosition(properties);
+        boolean emptyStringNull = CommonUtils.getBoolean(properties.get(PROP_EMPTY_STRING_NULL), false);
+        boolean trimWhitespaces = CommonUtils.getBoolean(properties.get(PROP_TRIM_WHITESPACES), false);
+        String nullValueMark = CommonUtils.toString(properties.get(PROP_NULL_STRING));
+
+        List<Object[]> rows = new ArrayList<>();
+        try (Reader reader = openStreamReader(new ByteArrayInputStream(data, 0, length), properties, false)) {
+            try (CSVReader csvReader = openCSVReader(reader, properties)) {
+                boolean headerRead = !firstChunk || headerPosition == HeaderPosition.none;
+                for (; ; ) {
+                    String[] line = csvReader.readNext();
+                    if (line == null) {
+                        if (csvReader.getParser().isPending()) {
+                            throw new IOException("Un-terminated quote sequence was detected");
+                        }
+                        break;
+                    }
+                    if (line.length == 0) {
+                        continue;
+                    }
+                    if (!headerRead) {
+                        // First line is a header
+                        headerRead = true;
+                        continue;
+                    }
+                    rows.add(prepareLine(line, targetAttrSize, trimWhitespaces, emptyStringNull, nullValueMark));
+                }
+            }
+        }
+        return rows;
+    }
+
+    @NotNull
+    private static String[] prepareLine(@NotNull String[] line, int targetAttrSize, boolean trimWhitespaces, boolean emptyStringNull, String nullValueMark) {
+        if (line.length < targetAttrSize) {
+            // Stream row may be shorter than header
+            String[] newLine = new String[targetAttrSize];
+            System.arraycopy(line, 0, newLine, 0, line.length);
+            line = newLine;
+        }
+        for (int i = 0; i < line.length; i++) {
+            line[i] = prepareValue(line[i], trimWhitespaces, emptyStringNull, nullValueMark);
+        }
+        return line;
+    }
+
+    @Nullable
+    private static String prepareValue(@Nullable String value, boolean trimWhitespaces, boolean emptyStringNull, String nullValueMark) {
+        if (value == null) {
+            return null;
+        }
+        if (trimWhitespaces) {
+            value = value.trim();
+        }
+        if ((emptyStringNull && value.isEmpty()) || (!CommonUtils.isEmpty(nullValueMark) && nullValueMark.equals(value))) {
+            return null;
+        }
+        return value;
+    }
+
+    @NotNull
+    private static CSVMappedReader openMappedReader(@NotNull Path file, @NotNull Map<String, Object> properties) throws IOException {
+        final String encoding = CommonUtils.toString(properties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING);
+        String delimiter = StreamTransferUtils.getDelimiterString(properties, PROP_DELIMITER);
+        return new CSVMappedReader(file, Charset.forName(encoding), delimiter.charAt(0), getQuoteChar(properties), getEscapeChar(properties));
+    }
+
+    /**
+     * Parallel and memory-mapped readers scan raw bytes for delimiters, quotes and line feeds,
+     * so they require an encoding where these characters are single ASCII bytes.
+     */
+    private static boolean isByteParsingSupported(@NotNull Map<String, Object> properties) {
+        final String encoding = CommonUtils.toString(properties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING);
+        final Charset charset;
+        try {
+            charset = Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        String specialChars = "\r\n" + StreamTransferUtils.getDelimiterString(properties, PROP_DELIMITER).charAt(0) +
+            getQuoteChar(properties) + getEscapeChar(properties);
+        for (int i = 0; i < specialChars.length(); i++) {
+            if (specialChars.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return Arrays.equals(specialChars.getBytes(charset), specialChars.getBytes(StandardCharsets.US_ASCII));
+    }
+
 }
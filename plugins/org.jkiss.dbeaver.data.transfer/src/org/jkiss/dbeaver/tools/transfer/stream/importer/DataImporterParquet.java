@@ -0,0 +1,236 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBFetchProgress;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileReader;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Apache Parquet importer.
+ * Parquet metadata is stored at the end of file, so file is read directly (non-local files are copied to a temporary file first).
+ */
+public class DataImporterParquet extends StreamImporterAbstract {
+    private static final Log log = Log.getLog(DataImporterParquet.class);
+
+    public DataImporterParquet() {
+    }
+
+    @NotNull
+    @Override
+    public List<StreamDataImporterColumnInfo> readColumnsInfo(StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws DBException {
+        Map<String, Object> processorProperties = getSite().getProcessorProperties();
+        final int columnMinimalLength = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
+        final boolean columnIsByteLength = CommonUtils.getBoolean(processorProperties.get(PROP_COLUMN_IS_BYTE_LENGTH), false);
+
+        List<StreamDataImporterColumnInfo> columnsInfo = new ArrayList<>();
+        Path file = null;
+        try {
+            file = getLocalFile(entityMapping.getInputFile(), inputStream);
+            try (ParquetFileReader reader = new ParquetFileReader(file)) {
+                List<ParquetColumn> columns = reader.getColumns();
+                for (int i = 0; i < columns.size(); i++) {
+                    ParquetColumn column = columns.get(i);
+                    StreamDataImporterColumnInfo columnInfo = new StreamDataImporterColumnInfo(
+                        entityMapping, i, column.getName(), null, columnMinimalLength, DBPDataKind.UNKNOWN);
+                    columnInfo.setMappingMetadataPresent(true);
+                    columnInfo.setRequired(column.isRequired());
+                    updateColumnType(columnInfo, column);
+                    columnsInfo.add(columnInfo);
+                }
+                if (reader.getRowGroupCount() > 0) {
+                    // Sample string lengths from the first row group
+                    for (Object[] row : reader.readRowGroup(0)) {
+                        for (int i = 0; i < row.length; i++) {
+                            if (row[i] instanceof String str) {
+                                columnsInfo.get(i).updateMaxLength(
+                                    entityMapping.getDataSource(),
+                                    columnIsByteLength ? str.getBytes(StandardCharsets.UTF_8).length : str.length());
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new DBException("IO error reading Parquet", e);
+        } finally {
+            deleteTempFile(entityMapping.getInputFile(), file);
+        }
+
+        return columnsInfo;
+    }
+
+    @Override
+    public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
+        IStreamDataImporterSite site = getSite();
+        StreamEntityMapping entityMapping = site.getSourceObject();
+        Map<String, Object> properties = site.getProcessorProperties();
+
+        DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+        try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
+            LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
+            StreamTransferResultSet resultSet = new StreamTransferResultSet(producerSession, localStatement, entityMapping);
+
+            consumer.fetchStart(producerSession, resultSet, -1, -1);
+
+            applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
+
+            Path file = null;
+            try {
+                file = getLocalFile(entityMapping.getInputFile(), inputStream);
+                try (ParquetFileReader reader = new ParquetFileReader(file)) {
+                    int maxRows = site.getSettings().getMaxRows();
+                    int targetAttrSize = entityMapping.getStreamColumns().size();
+                    long rowNum = 0;
+                    readLoop:
+                    for (int rowGroup = 0; rowGroup < reader.getRowGroupCount(); rowGroup++) {
+                        if (monitor.isCanceled()) {
+                            break;
+                        }
+                        // Only one row group is kept in memory
+                        for (Object[] row : reader.readRowGroup(rowGroup)) {
+                            if (monitor.isCanceled() || (maxRows > 0 && rowNum >= maxRows)) {
+                                break readLoop;
+                            }
+                            if (row.length < targetAttrSize) {
+                                Object[] newRow = new Object[targetAttrSize];
+                                System.arraycopy(row, 0, newRow, 0, row.length);
+                                row = newRow;
+                            }
+                            resultSet.setStreamRow(row);
+                            consumer.fetchRow(producerSession, resultSet);
+                            rowNum++;
+
+                            if (DBFetchProgress.monitorFetchProgress(rowNum)) {
+                                monitor.subTask(Long.toUnsignedString(rowNum) + " rows processed");
+                            }
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new DBException("IO error reading Parquet", e);
+            } finally {
+                deleteTempFile(entityMapping.getInputFile(), file);
+                try {
+                    consumer.fetchEnd(producerSession, resultSet);
+                } finally {
+                    consumer.close();
+                }
+            }
+        }
+    }
+
+    private static void updateColumnType(@NotNull StreamDataImporterColumnInfo columnInfo, @NotNull ParquetColumn column) {
+        switch (column.getLogicalType()) {
+            case STRING:
+            case JSON:
+            case UUID:
+                columnInfo.updateType(DBPDataKind.STRING, "VARCHAR");
+                return;
+            case DECIMAL:
+                columnInfo.updateType(DBPDataKind.NUMERIC, "NUMERIC");
+                columnInfo.setPrecision(column.getPrecision());
+                columnInfo.setScale(column.getScale());
+                return;
+            case DATE:
+                columnInfo.updateType(DBPDataKind.DATETIME, "DATE");
+                return;
+            case TIME_MILLIS:
+            case TIME_MICROS:
+                columnInfo.updateType(DBPDataKind.DATETIME, "TIME");
+                return;
+            case TIMESTAMP_MILLIS:
+            case TIMESTAMP_MICROS:
+            case TIMESTAMP_NANOS:
+                columnInfo.updateType(DBPDataKind.DATETIME, "TIMESTAMP");
+                return;
+            default:
+                break;
+        }
+        switch (column.getPhysicalType()) {
+            case BOOLEAN:
+                columnInfo.updateType(DBPDataKind.BOOLEAN, "BOOLEAN");
+                break;
+            case INT32:
+                columnInfo.updateType(DBPDataKind.NUMERIC, "INTEGER");
+                break;
+            case INT64:
+                columnInfo.updateType(DBPDataKind.NUMERIC, "BIGINT");
+                break;
+            case FLOAT:
+                columnInfo.updateType(DBPDataKind.NUMERIC, "REAL");
+                break;
+            case DOUBLE:
+                columnInfo.updateType(DBPDataKind.NUMERIC, "DOUBLE");
+                break;
+            case INT96:
+                columnInfo.updateType(DBPDataKind.DATETIME, "TIMESTAMP");
+                break;
+            default:
+                columnInfo.updateType(DBPDataKind.BINARY, "BLOB");
+                break;
+        }
+    }
+
+    @NotNull
+    private static Path getLocalFile(@NotNull Path inputFile, @NotNull InputStream inputStream) throws IOException {
+        if (IOUtils.isLocalPath(inputFile)) {
+            return inputFile;
+        }
+        Path tempFile = Files.createTempFile("dbeaver-import", ".parquet");
+        Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        return tempFile;
+    }
+
+    private static void deleteTempFile(@NotNull Path inputFile, Path file) {
+        if (file != null && !file.equals(inputFile)) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.debug("Error deleting temporary file " + file, e);
+            }
+        }
+    }
+
+}
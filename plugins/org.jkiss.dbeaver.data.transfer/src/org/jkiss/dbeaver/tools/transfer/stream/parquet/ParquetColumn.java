@@ -0,0 +1,387 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Flat Parquet column: physical type plus logical type annotation.
+ * Converts Java values to physical values on write and back on read.
+ */
+public class ParquetColumn {
+
+    /**
+     * Physical types, ordinal is the Thrift enum value
+     */
+    public enum PhysicalType {
+        BOOLEAN,
+        INT32,
+        INT64,
+        INT96,
+        FLOAT,
+        DOUBLE,
+        BYTE_ARRAY,
+        FIXED_LEN_BYTE_ARRAY
+    }
+
+    public enum LogicalType {
+        NONE,
+        STRING,
+        JSON,
+        DECIMAL,
+        DATE,
+        TIME_MILLIS,
+        TIME_MICROS,
+        TIMESTAMP_MILLIS,
+        TIMESTAMP_MICROS,
+        TIMESTAMP_NANOS,
+        UUID
+    }
+
+    private static final long JULIAN_EPOCH_OFFSET_DAYS = 2_440_588;
+
+    private final String name;
+    private final PhysicalType physicalType;
+    private final LogicalType logicalType;
+    private final int typeLength;
+    private final int precision;
+    private final int scale;
+    private final boolean required;
+    private final boolean adjustedToUTC;
+
+    public ParquetColumn(@NotNull String name, @NotNull PhysicalType physicalType, @NotNull LogicalType logicalType) {
+        this(name, physicalType, logicalType, 0, 0, 0, false);
+    }
+
+    public ParquetColumn(
+        @NotNull String name,
+        @NotNull PhysicalType physicalType,
+        @NotNull LogicalType logicalType,
+        int typeLength,
+        int precision,
+        int scale,
+        boolean required
+    ) {
+        this(name, physicalType, logicalType, typeLength, precision, scale, required, false);
+    }
+
+    public ParquetColumn(
+        @NotNull String name,
+        @NotNull PhysicalType physicalType,
+        @NotNull LogicalType logicalType,
+        int typeLength,
+        int precision,
+        int scale,
+        boolean required,
+        boolean adjustedToUTC
+    ) {
+        this.name = name;
+        this.physicalType = physicalType;
+        this.logicalType = logicalType;
+        this.typeLength = typeLength;
+        this.precision = precision;
+        this.scale = scale;
+        this.required = required;
+        this.adjustedToUTC = adjustedToUTC;
+    }
+
+    /**
+     * Creates timestamp column with microseconds precision.
+     *
+     * @param adjustedToUTC true if values are instants stored as UTC time, false if they are local date/time values
+     */
+    @NotNull
+    public static ParquetColumn timestamp(@NotNull String name, boolean adjustedToUTC) {
+        return new ParquetColumn(name, PhysicalType.INT64, LogicalType.TIMESTAMP_MICROS, 0, 0, 0, false, adjustedToUTC);
+    }
+
+    /**
+     * Creates decimal column. Physical type depends on precision.
+     */
+    @NotNull
+    public static ParquetColumn decimal(@NotNull String name, int precision, int scale) {
+        PhysicalType type = precision <= 9 ? PhysicalType.INT32 : precision <= 18 ? PhysicalType.INT64 : PhysicalType.BYTE_ARRAY;
+        return new ParquetColumn(name, type, LogicalType.DECIMAL, 0, precision, scale, false);
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    @NotNull
+    public PhysicalType getPhysicalType() {
+        return physicalType;
+    }
+
+    @NotNull
+    public LogicalType getLogicalType() {
+        return logicalType;
+    }
+
+    public int getTypeLength() {
+        return typeLength;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * Whether time/timestamp values are instants normalized to UTC
+     */
+    public boolean isAdjustedToUTC() {
+        return adjustedToUTC;
+    }
+
+    /**
+     * Converts Java value to the physical value (Boolean, Integer, Long, Float, Double or byte[])
+     */
+    @NotNull
+    Object toPhysical(@NotNull Object value) {
+        switch (logicalType) {
+            case STRING:
+            case JSON:
+                return value instanceof byte[] ? value : value.toString().getBytes(StandardCharsets.UTF_8);
+            case DECIMAL: {
+                BigDecimal decimal = toBigDecimal(value).setScale(scale, RoundingMode.HALF_UP);
+                switch (physicalType) {
+                    case INT32:
+                        return decimal.unscaledValue().intValueExact();
+                    case INT64:
+                        return decimal.unscaledValue().longValueExact();
+                    default:
+                        return decimal.unscaledValue().toByteArray();
+                }
+            }
+            case DATE:
+                return (int) toLocalDate(value).toEpochDay();
+            case TIME_MILLIS:
+                return (int) (toLocalTime(value).toNanoOfDay() / 1_000_000);
+            case TIME_MICROS:
+                return toLocalTime(value).toNanoOfDay() / 1_000;
+            case TIMESTAMP_MILLIS:
+            case TIMESTAMP_MICROS:
+            case TIMESTAMP_NANOS: {
+                ChronoUnit unit = logicalType == LogicalType.TIMESTAMP_MILLIS ? ChronoUnit.MILLIS :
+                    logicalType == LogicalType.TIMESTAMP_MICROS ? ChronoUnit.MICROS : ChronoUnit.NANOS;
+                if (adjustedToUTC) {
+                    return unit.between(Instant.EPOCH, toInstant(value));
+                }
+                return unit.between(LocalDateTime.of(1970, 1, 1, 0, 0), toLocalDateTime(value));
+            }
+            case UUID: {
+                UUID uuid = value instanceof UUID ? (UUID) value : UUID.fromString(value.toString());
+                return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+            }
+            default:
+                break;
+        }
+        switch (physicalType) {
+            case BOOLEAN:
+                if (value instanceof Boolean) {
+                    return value;
+                } else if (value instanceof Number) {
+                    return ((Number) value).intValue() != 0;
+                }
+                return Boolean.parseBoolean(value.toString());
+            case INT32:
+                // Out of range values (e.g. unsigned integers) must not be truncated
+                return value instanceof Number ? Math.toIntExact(toLongExact((Number) value)) : Integer.parseInt(value.toString());
+            case INT64:
+                return value instanceof Number ? toLongExact((Number) value) : Long.parseLong(value.toString());
+            case FLOAT:
+                return value instanceof Number ? ((Number) value).floatValue() : Float.parseFloat(value.toString());
+            case DOUBLE:
+                return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+            default:
+                if (value instanceof byte[]) {
+                    return value;
+                }
+                return value.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Converts physical value to Java value
+     */
+    @NotNull
+    Object fromPhysical(@NotNull Object value) {
+        switch (logicalType) {
+            case STRING:
+            case JSON:
+                return new String((byte[]) value, StandardCharsets.UTF_8);
+            case DECIMAL: {
+                BigInteger unscaled;
+                if (value instanceof byte[]) {
+                    unscaled = new BigInteger((byte[]) value);
+                } else {
+                    unscaled = BigInteger.valueOf(((Number) value).longValue());
+                }
+                return new BigDecimal(unscaled, scale);
+            }
+            case DATE:
+                return java.sql.Date.valueOf(LocalDate.ofEpochDay(((Number) value).longValue()));
+            case TIME_MILLIS:
+                return Time.valueOf(LocalTime.ofNanoOfDay(((Number) value).longValue() * 1_000_000));
+            case TIME_MICROS:
+                return Time.valueOf(LocalTime.ofNanoOfDay(((Number) value).longValue() * 1_000));
+            case TIMESTAMP_MILLIS:
+                return toTimestamp(ChronoUnit.MILLIS, ((Number) value).longValue(), adjustedToUTC);
+            case TIMESTAMP_MICROS:
+                return toTimestamp(ChronoUnit.MICROS, ((Number) value).longValue(), adjustedToUTC);
+            case TIMESTAMP_NANOS:
+                return toTimestamp(ChronoUnit.NANOS, ((Number) value).longValue(), adjustedToUTC);
+            case UUID: {
+                ByteBuffer buffer = ByteBuffer.wrap((byte[]) value);
+                return new UUID(buffer.getLong(), buffer.getLong()).toString();
+            }
+            default:
+                break;
+        }
+        if (physicalType == PhysicalType.INT96) {
+            // Legacy Impala/Spark timestamp: nanos of day and julian day, little-endian
+            ByteBuffer buffer = ByteBuffer.wrap((byte[]) value).order(ByteOrder.LITTLE_ENDIAN);
+            long nanosOfDay = buffer.getLong();
+            long epochDay = buffer.getInt() - JULIAN_EPOCH_OFFSET_DAYS;
+            return Timestamp.valueOf(LocalDate.ofEpochDay(epochDay).atStartOfDay().plusNanos(nanosOfDay));
+        }
+        return value;
+    }
+
+    @NotNull
+    private static Timestamp toTimestamp(@NotNull ChronoUnit unit, long value, boolean adjustedToUTC) {
+        if (adjustedToUTC) {
+            return Timestamp.from(Instant.EPOCH.plus(value, unit));
+        }
+        return Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0).plus(value, unit));
+    }
+
+    private static long toLongExact(@NotNull Number value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return value.longValue();
+        } else if (value instanceof BigInteger) {
+            return ((BigInteger) value).longValueExact();
+        }
+        // Fails on fractional and out of range values
+        return toBigDecimal(value).longValueExact();
+    }
+
+    @NotNull
+    private static BigDecimal toBigDecimal(@NotNull Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    @NotNull
+    private static LocalDate toLocalDate(@NotNull Object value) {
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        } else if (value instanceof java.util.Date) {
+            return toLocalDateTime(value).toLocalDate();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        }
+        return LocalDate.parse(value.toString());
+    }
+
+    @NotNull
+    private static LocalTime toLocalTime(@NotNull Object value) {
+        if (value instanceof LocalTime) {
+            return (LocalTime) value;
+        } else if (value instanceof Time) {
+            return ((Time) value).toLocalTime();
+        } else if (value instanceof java.util.Date) {
+            return toLocalDateTime(value).toLocalTime();
+        }
+        return LocalTime.parse(value.toString());
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull Object value) {
+        if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof Timestamp) {
+            return ((Timestamp) value).toInstant();
+        } else if (value instanceof java.util.Date && !(value instanceof java.sql.Date)) {
+            return ((java.util.Date) value).toInstant();
+        }
+        // Local values are in the client time zone
+        return toLocalDateTime(value).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    @NotNull
+    private static LocalDateTime toLocalDateTime(@NotNull Object value) {
+        if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        } else if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().atStartOfDay();
+        } else if (value instanceof java.util.Date) {
+            return new Timestamp(((java.util.Date) value).getTime()).toLocalDateTime();
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } else if (value instanceof Instant) {
+            return LocalDateTime.ofInstant((Instant) value, ZoneId.systemDefault());
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        }
+        return Timestamp.valueOf(value.toString()).toLocalDateTime();
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + physicalType + (logicalType == LogicalType.NONE ? "" : " (" + logicalType + ")");
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Parquet page compression codecs supported without external libraries
+ */
+public enum ParquetCompression {
+
+    UNCOMPRESSED(0),
+    SNAPPY(1),
+    GZIP(2);
+
+    private final int codecId;
+
+    ParquetCompression(int codecId) {
+        this.codecId = codecId;
+    }
+
+    int getCodecId() {
+        return codecId;
+    }
+
+    @NotNull
+    static ParquetCompression fromCodecId(int codecId) throws IOException {
+        for (ParquetCompression compression : values()) {
+            if (compression.codecId == codecId) {
+                return compression;
+            }
+        }
+        throw new IOException("Unsupported Parquet compression codec: " + codecId);
+    }
+
+    @NotNull
+    byte[] compress(@NotNull byte[] data, int length) throws IOException {
+        switch (this) {
+            case SNAPPY:
+                return SnappyCodec.compress(data, 0, length);
+            case GZIP: {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(length / 2 + 32);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                    gzip.write(data, 0, length);
+                }
+                return buffer.toByteArray();
+            }
+            default:
+                return length == data.length ? data : Arrays.copyOf(data, length);
+        }
+    }
+
+    @NotNull
+    byte[] decompress(@NotNull byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+        byte[] result;
+        switch (this) {
+            case SNAPPY:
+                result = SnappyCodec.decompress(data, offset, length);
+                break;
+            case GZIP:
+                try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+                    result = gzip.readNBytes(uncompressedLength);
+                }
+                break;
+            default:
+                result = Arrays.copyOfRange(data, offset, offset + length);
+                break;
+        }
+        if (result.length != uncompressedLength) {
+            throw new IOException("Bad Parquet page size: " + result.length + " (expected " + uncompressedLength + ")");
+        }
+        return result;
+    }
+}
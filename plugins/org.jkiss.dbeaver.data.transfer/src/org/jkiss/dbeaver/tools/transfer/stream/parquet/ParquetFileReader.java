@@ -0,0 +1,529 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads flat Parquet files one row group at a time.
+ * Supports PLAIN and dictionary encodings, v1 and v2 data pages and codecs from {@link ParquetCompression}.
+ */
+public class ParquetFileReader implements Closeable {
+
+    private static final int REPETITION_REPEATED = 2;
+
+    private final FileChannel channel;
+    private final List<ParquetColumn> columns = new ArrayList<>();
+    private final List<Map<Integer, Object>> rowGroups = new ArrayList<>();
+    private final long rowCount;
+
+    public ParquetFileReader(@NotNull Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            Map<Integer, Object> metadata = readFileMetadata();
+            this.rowCount = ThriftCompactReader.getLong(metadata, 3, 0);
+            readSchema(ThriftCompactReader.getList(metadata, 2));
+            for (Object rowGroup : ThriftCompactReader.getList(metadata, 4)) {
+                rowGroups.add(castStruct(rowGroup));
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @NotNull
+    public List<ParquetColumn> getColumns() {
+        return columns;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroups.size();
+    }
+
+    public long getRowGroupRowCount(int index) {
+        return ThriftCompactReader.getLong(rowGroups.get(index), 3, 0);
+    }
+
+    /**
+     * Reads all rows of the specified row group. Values are converted to Java types (see {@link ParquetColumn}).
+     */
+    @NotNull
+    public List<Object[]> readRowGroup(int index) throws IOException {
+        Map<Integer, Object> rowGroup = rowGroups.get(index);
+        int groupRows = Math.toIntExact(ThriftCompactReader.getLong(rowGroup, 3, 0));
+        List<?> chunks = ThriftCompactReader.getList(rowGroup, 1);
+        if (chunks.size() != columns.size()) {
+            throw new IOException("Row group " + index + " has " + chunks.size() + " columns while schema has " + columns.size());
+        }
+        Object[][] columnValues = new Object[columns.size()][];
+        for (int i = 0; i < columns.size(); i++) {
+            columnValues[i] = readColumnChunk(columns.get(i), castStruct(chunks.get(i)), groupRows);
+        }
+        List<Object[]> rows = new ArrayList<>(groupRows);
+        for (int r = 0; r < groupRows; r++) {
+            Object[] row = new Object[columns.size()];
+            for (int c = 0; c < row.length; c++) {
+                row[c] = columnValues[c][r];
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @NotNull
+    private Map<Integer, Object> readFileMetadata() throws IOException {
+        long fileSize = channel.size();
+        int magicLength = ParquetFileWriter.MAGIC.length;
+        if (fileSize < magicLength * 2 + 4) {
+            throw new IOException("File is too small to be a Parquet file");
+        }
+        if (!Arrays.equals(read(0, magicLength), ParquetFileWriter.MAGIC)) {
+            throw new IOException("Not a Parquet file (bad header)");
+        }
+        byte[] tail = read(fileSize - magicLength - 4, magicLength + 4);
+        if (!Arrays.equals(Arrays.copyOfRange(tail, 4, tail.length), ParquetFileWriter.MAGIC)) {
+            throw new IOException("Not a Parquet file (bad footer)");
+        }
+        int footerLength = readIntLE(tail, 0);
+        long footerStart = fileSize - magicLength - 4 - footerLength;
+        if (footerLength <= 0 || footerStart < magicLength) {
+            throw new IOException("Bad Parquet footer length: " + footerLength);
+        }
+        return new ThriftCompactReader(read(footerStart, footerLength), 0).readStruct();
+    }
+
+    private void readSchema(@NotNull List<?> schema) throws IOException {
+        if (schema.isEmpty()) {
+            throw new IOException("Empty Parquet schema");
+        }
+        int childCount = ThriftCompactReader.getInt(castStruct(schema.get(0)), 5, 0);
+        if (childCount != schema.size() - 1) {
+            throw new IOException("Nested Parquet schemas are not supported");
+        }
+        for (int i = 1; i < schema.size(); i++) {
+            Map<Integer, Object> element = castStruct(schema.get(i));
+            String name = ThriftCompactReader.getString(element, 4);
+            if (ThriftCompactReader.getInt(element, 5, 0) > 0 || !element.containsKey(1)) {
+                throw new IOException("Nested Parquet column '" + name + "' is not supported");
+            }
+            int repetition = ThriftCompactReader.getInt(element, 3, ParquetFileWriter.REPETITION_OPTIONAL);
+            if (repetition == REPETITION_REPEATED) {
+                throw new IOException("Repeated Parquet column '" + name + "' is not supported");
+            }
+            int typeId = ThriftCompactReader.getInt(element, 1, 0);
+            ParquetColumn.PhysicalType[] types = ParquetColumn.PhysicalType.values();
+            if (typeId < 0 || typeId >= types.length) {
+                throw new IOException("Bad Parquet type " + typeId + " of column '" + name + "'");
+            }
+            columns.add(new ParquetColumn(
+                name == null ? "column" + i : name,
+                types[typeId],
+                getLogicalType(element),
+                ThriftCompactReader.getInt(element, 2, 0),
+                ThriftCompactReader.getInt(element, 8, 0),
+                ThriftCompactReader.getInt(element, 7, 0),
+                repetition == ParquetFileWriter.REPETITION_REQUIRED,
+                isAdjustedToUTC(element)));
+        }
+    }
+
+    private static boolean isAdjustedToUTC(@NotNull Map<Integer, Object> element) {
+        Map<Integer, Object> logicalType = ThriftCompactReader.getStruct(element, 10);
+        Map<Integer, Object> timestampType = logicalType == null ? null : ThriftCompactReader.getStruct(logicalType, 8);
+        return timestampType != null && ThriftCompactReader.getBoolean(timestampType, 1, false);
+    }
+
+    @NotNull
+    private static ParquetColumn.LogicalType getLogicalType(@NotNull Map<Integer, Object> element) {
+        Map<Integer, Object> logicalType = ThriftCompactReader.getStruct(element, 10);
+        if (logicalType != null) {
+            if (logicalType.containsKey(1) || logicalType.containsKey(4)) {
+                // STRING or ENUM
+                return ParquetColumn.LogicalType.STRING;
+            } else if (logicalType.containsKey(5)) {
+                return ParquetColumn.LogicalType.DECIMAL;
+            } else if (logicalType.containsKey(6)) {
+                return ParquetColumn.LogicalType.DATE;
+            } else if (logicalType.containsKey(7)) {
+                int unit = getTimeUnit(ThriftCompactReader.getStruct(logicalType, 7));
+                return unit == 1 ? ParquetColumn.LogicalType.TIME_MILLIS :
+                    unit == 2 ? ParquetColumn.LogicalType.TIME_MICROS : ParquetColumn.LogicalType.NONE;
+            } else if (logicalType.containsKey(8)) {
+                int unit = getTimeUnit(ThriftCompactReader.getStruct(logicalType, 8));
+                return unit == 1 ? ParquetColumn.LogicalType.TIMESTAMP_MILLIS :
+                    unit == 2 ? ParquetColumn.LogicalType.TIMESTAMP_MICROS : ParquetColumn.LogicalType.TIMESTAMP_NANOS;
+            } else if (logicalType.containsKey(12)) {
+                return ParquetColumn.LogicalType.JSON;
+            } else if (logicalType.containsKey(14)) {
+                return ParquetColumn.LogicalType.UUID;
+            }
+            return ParquetColumn.LogicalType.NONE;
+        }
+        switch (ThriftCompactReader.getInt(element, 6, -1)) {
+            case 0: // UTF8
+            case 4: // ENUM
+                return ParquetColumn.LogicalType.STRING;
+            case 5:
+                return ParquetColumn.LogicalType.DECIMAL;
+            case 6:
+                return ParquetColumn.LogicalType.DATE;
+            case 7:
+                return ParquetColumn.LogicalType.TIME_MILLIS;
+            case 8:
+                return ParquetColumn.LogicalType.TIME_MICROS;
+            case 9:
+                return ParquetColumn.LogicalType.TIMESTAMP_MILLIS;
+            case 10:
+                return ParquetColumn.LogicalType.TIMESTAMP_MICROS;
+            case 19:
+                return ParquetColumn.LogicalType.JSON;
+            default:
+                return ParquetColumn.LogicalType.NONE;
+        }
+    }
+
+    private static int getTimeUnit(@Nullable Map<Integer, Object> timeType) {
+        Map<Integer, Object> unit = timeType == null ? null : ThriftCompactReader.getStruct(timeType, 2);
+        if (unit == null || unit.containsKey(2)) {
+            return 2;
+        }
+        return unit.containsKey(1) ? 1 : 3;
+    }
+
+    @NotNull
+    private Object[] readColumnChunk(@NotNull ParquetColumn column, @NotNull Map<Integer, Object> chunk, int groupRows) throws IOException {
+        Map<Integer, Object> metadata = ThriftCompactReader.getStruct(chunk, 3);
+        if (metadata == null) {
+            throw new IOException("Column chunk metadata is missing for '" + column.getName() + "'");
+        }
+        ParquetCompression compression = ParquetCompression.fromCodecId(ThriftCompactReader.getInt(metadata, 4, 0));
+        long valueCount = ThriftCompactReader.getLong(metadata, 5, 0);
+        long compressedSize = ThriftCompactReader.getLong(metadata, 7, 0);
+        long dataPageOffset = ThriftCompactReader.getLong(metadata, 9, 0);
+        long dictionaryPageOffset = ThriftCompactReader.getLong(metadata, 11, 0);
+        long chunkStart = dictionaryPageOffset > 0 && dictionaryPageOffset < dataPageOffset ? dictionaryPageOffset : dataPageOffset;
+        if (valueCount != groupRows) {
+            throw new IOException("Column '" + column.getName() + "' has " + valueCount + " values while row group has " + groupRows + " rows");
+        }
+        byte[] data = read(chunkStart, Math.toIntExact(compressedSize));
+
+        Object[] result = new Object[groupRows];
+        Object[] dictionary = null;
+        int position = 0;
+        int rowIndex = 0;
+        while (rowIndex < groupRows) {
+            if (position >= data.length) {
+                throw new EOFException("Unexpected end of column chunk '" + column.getName() + "'");
+            }
+            ThriftCompactReader headerReader = new ThriftCompactReader(data, position);
+            Map<Integer, Object> header = headerReader.readStruct();
+            position = headerReader.getPosition();
+            int pageType = ThriftCompactReader.getInt(header, 1, -1);
+            int uncompressedSize = ThriftCompactReader.getInt(header, 2, 0);
+            int pageSize = ThriftCompactReader.getInt(header, 3, 0);
+            if (pageSize < 0 || position + pageSize > data.length) {
+                throw new IOException("Bad page size in column '" + column.getName() + "'");
+            }
+            switch (pageType) {
+                case ParquetFileWriter.PAGE_TYPE_DICTIONARY: {
+                    Map<Integer, Object> dictionaryHeader = ThriftCompactReader.getStruct(header, 7);
+                    int count = dictionaryHeader == null ? 0 : ThriftCompactReader.getInt(dictionaryHeader, 1, 0);
+                    byte[] page = compression.decompress(data, position, pageSize, uncompressedSize);
+                    dictionary = new Object[count];
+                    decodePlain(column, page, 0, count, dictionary);
+                    break;
+                }
+                case ParquetFileWriter.PAGE_TYPE_DATA: {
+                    Map<Integer, Object> dataHeader = ThriftCompactReader.getStruct(header, 5);
+                    if (dataHeader == null) {
+                        throw new IOException("Data page header is missing");
+                    }
+                    int count = ThriftCompactReader.getInt(dataHeader, 1, 0);
+                    int encoding = ThriftCompactReader.getInt(dataHeader, 2, ParquetFileWriter.ENCODING_PLAIN);
+                    byte[] page = compression.decompress(data, position, pageSize, uncompressedSize);
+                    int valuesOffset = 0;
+                    boolean[] defined = null;
+                    if (!column.isRequired()) {
+                        int levelsLength = readIntLE(page, 0);
+                        defined = decodeDefinitionLevels(page, 4, 4 + levelsLength, count);
+                        valuesOffset = 4 + levelsLength;
+                    }
+                    checkPageSize(rowIndex, count, groupRows);
+                    decodeValues(column, encoding, dictionary, page, valuesOffset, page.length, count, defined, result, rowIndex);
+                    rowIndex += count;
+                    break;
+                }
+                case ParquetFileWriter.PAGE_TYPE_DATA_V2: {
+                    Map<Integer, Object> dataHeader = ThriftCompactReader.getStruct(header, 8);
+                    if (dataHeader == null) {
+                        throw new IOException("Data page header is missing");
+                    }
+                    int count = ThriftCompactReader.getInt(dataHeader, 1, 0);
+                    int encoding = ThriftCompactReader.getInt(dataHeader, 4, ParquetFileWriter.ENCODING_PLAIN);
+                    int definitionLength = ThriftCompactReader.getInt(dataHeader, 5, 0);
+                    int repetitionLength = ThriftCompactReader.getInt(dataHeader, 6, 0);
+                    boolean compressed = ThriftCompactReader.getBoolean(dataHeader, 7, true);
+                    int levelsLength = definitionLength + repetitionLength;
+                    boolean[] defined = null;
+                    if (!column.isRequired()) {
+                        int levelsStart = position + repetitionLength;
+                        defined = decodeDefinitionLevels(data, levelsStart, levelsStart + definitionLength, count);
+                    }
+                    byte[] values;
+                    if (compressed) {
+                        values = compression.decompress(data, position + levelsLength, pageSize - levelsLength, uncompressedSize - levelsLength);
+                    } else {
+                        values = Arrays.copyOfRange(data, position + levelsLength, position + pageSize);
+                    }
+                    checkPageSize(rowIndex, count, groupRows);
+                    decodeValues(column, encoding, dictionary, values, 0, values.length, count, defined, result, rowIndex);
+                    rowIndex += count;
+                    break;
+                }
+                default:
+                    // Index pages and unknown page types are skipped
+                    break;
+            }
+            position += pageSize;
+        }
+        return result;
+    }
+
+    private static void checkPageSize(int rowIndex, int count, int groupRows) throws IOException {
+        if (count < 0 || rowIndex + count > groupRows) {
+            throw new IOException("Page has more values than row group rows");
+        }
+    }
+
+    @NotNull
+    private static boolean[] decodeDefinitionLevels(@NotNull byte[] data, int start, int end, int count) throws IOException {
+        int[] levels = decodeHybrid(data, start, end, 1, count);
+        boolean[] defined = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            defined[i] = levels[i] != 0;
+        }
+        return defined;
+    }
+
+    private static void decodeValues(
+        @NotNull ParquetColumn column,
+        int encoding,
+        @Nullable Object[] dictionary,
+        @NotNull byte[] data,
+        int start,
+        int end,
+        int count,
+        @Nullable boolean[] defined,
+        @NotNull Object[] result,
+        int resultOffset
+    ) throws IOException {
+        int nonNullCount = count;
+        if (defined != null) {
+            nonNullCount = 0;
+            for (boolean d : defined) {
+                if (d) nonNullCount++;
+            }
+        }
+        Object[] values = new Object[nonNullCount];
+        if (encoding == ParquetFileWriter.ENCODING_PLAIN) {
+            decodePlain(column, data, start, nonNullCount, values);
+        } else if (encoding == ParquetFileWriter.ENCODING_PLAIN_DICTIONARY || encoding == ParquetFileWriter.ENCODING_RLE_DICTIONARY) {
+            if (dictionary == null) {
+                throw new IOException("Dictionary page is missing for column '" + column.getName() + "'");
+            }
+            if (nonNullCount > 0) {
+                int bitWidth = data[start] & 0xFF;
+                int[] indexes = decodeHybrid(data, start + 1, end, bitWidth, nonNullCount);
+                for (int i = 0; i < nonNullCount; i++) {
+                    if (indexes[i] < 0 || indexes[i] >= dictionary.length) {
+                        throw new IOException("Bad dictionary index " + indexes[i] + " in column '" + column.getName() + "'");
+                    }
+                    values[i] = dictionary[indexes[i]];
+                }
+            }
+        } else {
+            throw new IOException("Unsupported Parquet encoding " + encoding + " in column '" + column.getName() + "'");
+        }
+        int valueIndex = 0;
+        for (int i = 0; i < count; i++) {
+            if (defined == null || defined[i]) {
+                result[resultOffset + i] = values[valueIndex++];
+            }
+        }
+    }
+
+    /**
+     * Decodes PLAIN values and converts them to Java values
+     */
+    private static void decodePlain(
+        @NotNull ParquetColumn column,
+        @NotNull byte[] data,
+        int position,
+        int count,
+        @NotNull Object[] result
+    ) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            buffer.position(position);
+            for (int i = 0; i < count; i++) {
+                Object value;
+                switch (column.getPhysicalType()) {
+                    case BOOLEAN:
+                        value = ((data[position + (i >>> 3)] >>> (i & 7)) & 1) != 0;
+                        break;
+                    case INT32:
+                        value = buffer.getInt();
+                        break;
+                    case INT64:
+                        value = buffer.getLong();
+                        break;
+                    case FLOAT:
+                        value = buffer.getFloat();
+                        break;
+                    case DOUBLE:
+                        value = buffer.getDouble();
+                        break;
+                    case INT96:
+                    case FIXED_LEN_BYTE_ARRAY: {
+                        byte[] bytes = new byte[column.getPhysicalType() == ParquetColumn.PhysicalType.INT96 ? 12 : column.getTypeLength()];
+                        buffer.get(bytes);
+                        value = bytes;
+                        break;
+                    }
+                    default: {
+                        byte[] bytes = new byte[buffer.getInt()];
+                        buffer.get(bytes);
+                        value = bytes;
+                        break;
+                    }
+                }
+                result[i] = column.fromPhysical(value);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Error decoding values of column '" + column.getName() + "'", e);
+        }
+    }
+
+    /**
+     * Decodes RLE/bit-packed hybrid encoded integers
+     */
+    @NotNull
+    static int[] decodeHybrid(@NotNull byte[] data, int start, int end, int bitWidth, int count) throws IOException {
+        int[] result = new int[count];
+        if (bitWidth == 0) {
+            return result;
+        }
+        if (bitWidth > 32) {
+            throw new IOException("Bad bit width: " + bitWidth);
+        }
+        int byteWidth = (bitWidth + 7) / 8;
+        int position = start;
+        int index = 0;
+        try {
+            while (index < count) {
+                if (position >= end) {
+                    throw new EOFException("Unexpected end of RLE data");
+                }
+                int header = 0;
+                for (int shift = 0; ; shift += 7) {
+                    int b = data[position++] & 0xFF;
+                    header |= (b & 0x7F) << shift;
+                    if ((b & 0x80) == 0) {
+                        break;
+                    }
+                }
+                if ((header & 1) == 0) {
+                    int runLength = header >>> 1;
+                    int value = 0;
+                    for (int i = 0; i < byteWidth; i++) {
+                        value |= (data[position++] & 0xFF) << (i * 8);
+                    }
+                    int last = Math.min(count, index + runLength);
+                    Arrays.fill(result, index, last, value);
+                    index = last;
+                } else {
+                    int valueCount = (header >>> 1) * 8;
+                    long mask = (1L << bitWidth) - 1;
+                    long bitPosition = (long) position * 8;
+                    for (int i = 0; i < valueCount; i++) {
+                        long value = 0;
+                        for (int bit = 0; bit < bitWidth; bit++, bitPosition++) {
+                            int bytePos = (int) (bitPosition >>> 3);
+                            value |= (long) ((data[bytePos] >>> (bitPosition & 7)) & 1) << bit;
+                        }
+                        if (index < count) {
+                            result[index++] = (int) (value & mask);
+                        }
+                    }
+                    position += (header >>> 1) * bitWidth;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new EOFException("Unexpected end of RLE data");
+        }
+        return result;
+    }
+
+    @NotNull
+    private byte[] read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of Parquet file");
+            }
+        }
+        return buffer.array();
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private static Map<Integer, Object> castStruct(@NotNull Object value) throws IOException {
+        if (!(value instanceof Map)) {
+            throw new IOException("Bad Parquet metadata structure");
+        }
+        return (Map<Integer, Object>) value;
+    }
+
+    private static int readIntLE(@NotNull byte[] data, int pos) {
+        return (data[pos] & 0xFF) | ((data[pos + 1] & 0xFF) << 8) | ((data[pos + 2] & 0xFF) << 16) | ((data[pos + 3] & 0xFF) << 24);
+    }
+
+}
@@ -0,0 +1,612 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes flat Parquet files.
+ * Values are PLAIN encoded, definition levels are RLE encoded, pages are written in v1 format.
+ * The current row group is buffered (compressed) and flushed once it reaches the configured size.
+ * Completed pages are kept in memory up to the memory limit, then they are moved to temporary files of their columns,
+ * as column chunks of a row group must be written contiguously.
+ * Underlying stream is not closed by {@link #finish()}.
+ */
+public class ParquetFileWriter {
+
+    private static final Log log = Log.getLog(ParquetFileWriter.class);
+
+    static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    static final int PAGE_TYPE_DATA = 0;
+    static final int PAGE_TYPE_DICTIONARY = 2;
+    static final int PAGE_TYPE_DATA_V2 = 3;
+
+    static final int ENCODING_PLAIN = 0;
+    static final int ENCODING_PLAIN_DICTIONARY = 2;
+    static final int ENCODING_RLE = 3;
+    static final int ENCODING_RLE_DICTIONARY = 8;
+
+    static final int REPETITION_REQUIRED = 0;
+    static final int REPETITION_OPTIONAL = 1;
+
+    public static final long DEFAULT_ROW_GROUP_SIZE = 64L * 1024 * 1024;
+    public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+    public static final long DEFAULT_MEMORY_LIMIT = 16L * 1024 * 1024;
+
+    private final OutputStream out;
+    private final List<ParquetColumn> columns;
+    private final ParquetCompression compression;
+    private final long rowGroupSize;
+    private final int pageSize;
+    private final long memoryLimit;
+    private final String createdBy;
+
+    private final ColumnWriter[] columnWriters;
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+    private long position;
+    private long rowGroupRows;
+    private long totalRows;
+    private boolean finished;
+
+    public ParquetFileWriter(
+        @NotNull OutputStream out,
+        @NotNull List<ParquetColumn> columns,
+        @NotNull ParquetCompression compression,
+        long rowGroupSize,
+        int pageSize,
+        @Nullable String createdBy
+    ) throws IOException {
+        this(out, columns, compression, rowGroupSize, pageSize, DEFAULT_MEMORY_LIMIT, createdBy);
+    }
+
+    public ParquetFileWriter(
+        @NotNull OutputStream out,
+        @NotNull List<ParquetColumn> columns,
+        @NotNull ParquetCompression compression,
+        long rowGroupSize,
+        int pageSize,
+        long memoryLimit,
+        @Nullable String createdBy
+    ) throws IOException {
+        if (columns.isEmpty()) {
+            throw new IOException("Parquet file must have at least one column");
+        }
+        this.out = out;
+        this.columns = new ArrayList<>(columns);
+        this.compression = compression;
+        this.rowGroupSize = rowGroupSize > 0 ? rowGroupSize : DEFAULT_ROW_GROUP_SIZE;
+        this.pageSize = pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        this.memoryLimit = memoryLimit > 0 ? memoryLimit : DEFAULT_MEMORY_LIMIT;
+        this.createdBy = createdBy;
+        this.columnWriters = new ColumnWriter[columns.size()];
+        for (int i = 0; i < columnWriters.length; i++) {
+            columnWriters[i] = new ColumnWriter(columns.get(i));
+        }
+        write(MAGIC);
+    }
+
+    @NotNull
+    public List<ParquetColumn> getColumns() {
+        return columns;
+    }
+
+    public long getRowCount() {
+        return totalRows;
+    }
+
+    /**
+     * Appends one row. Values are Java objects (strings, numbers, dates, byte arrays), nulls are allowed for optional columns.
+     */
+    public void writeRow(@NotNull Object[] row) throws IOException {
+        if (finished) {
+            throw new IOException("Parquet file is already finished");
+        }
+        if (row.length != columnWriters.length) {
+            throw new IOException("Row has " + row.length + " values while file has " + columnWriters.length + " columns");
+        }
+        long bufferedSize = 0;
+        long memorySize = 0;
+        for (int i = 0; i < columnWriters.length; i++) {
+            ColumnWriter writer = columnWriters[i];
+            writer.write(row[i]);
+            bufferedSize += writer.getBufferedSize();
+            memorySize += writer.getMemorySize();
+        }
+        rowGroupRows++;
+        totalRows++;
+        if (bufferedSize >= rowGroupSize) {
+            flushRowGroup();
+        } else if (memorySize >= memoryLimit) {
+            for (ColumnWriter writer : columnWriters) {
+                writer.spill();
+            }
+        }
+    }
+
+    /**
+     * Flushes the last row group and writes file footer
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        flushRowGroup();
+        byte[] footer = createFileMetadata();
+        write(footer);
+        byte[] footerLength = new byte[4];
+        writeIntLE(footerLength, 0, footer.length);
+        write(footerLength);
+        write(MAGIC);
+        out.flush();
+        finished = true;
+        dispose();
+    }
+
+    /**
+     * Deletes temporary files. Must be called if the file is not finished.
+     */
+    public void dispose() {
+        for (ColumnWriter writer : columnWriters) {
+            writer.deleteSpillFile();
+        }
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (rowGroupRows == 0) {
+            return;
+        }
+        RowGroupInfo rowGroup = new RowGroupInfo(rowGroupRows);
+        for (ColumnWriter writer : columnWriters) {
+            writer.flushPage();
+            long chunkSize = writer.getBufferedSize();
+            ColumnChunkInfo chunk = new ColumnChunkInfo(
+                writer.column, position, writer.chunkValueCount, writer.chunkUncompressedSize, chunkSize);
+            writer.writeChunkTo(out);
+            position += chunkSize;
+            rowGroup.totalByteSize += writer.chunkUncompressedSize;
+            rowGroup.columns.add(chunk);
+            writer.resetChunk();
+        }
+        rowGroups.add(rowGroup);
+        rowGroupRows = 0;
+    }
+
+    @NotNull
+    private byte[] createFileMetadata() {
+        ThriftCompactWriter thrift = new ThriftCompactWriter();
+        thrift.structBegin();
+        thrift.i32Field(1, 1);
+        thrift.listField(2, ThriftCompactWriter.TYPE_STRUCT, columns.size() + 1);
+        {
+            thrift.structBegin();
+            thrift.stringField(4, "schema");
+            thrift.i32Field(5, columns.size());
+            thrift.structEnd();
+        }
+        for (ParquetColumn column : columns) {
+            writeSchemaElement(thrift, column);
+        }
+        thrift.i64Field(3, totalRows);
+        thrift.listField(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroupInfo rowGroup : rowGroups) {
+            thrift.structBegin();
+            thrift.listField(1, ThriftCompactWriter.TYPE_STRUCT, rowGroup.columns.size());
+            for (ColumnChunkInfo chunk : rowGroup.columns) {
+                thrift.structBegin();
+                thrift.i64Field(2, chunk.offset);
+                thrift.structField(3);
+                {
+                    thrift.i32Field(1, chunk.column.getPhysicalType().ordinal());
+                    thrift.listField(2, ThriftCompactWriter.TYPE_I32, 2);
+                    thrift.i32Value(ENCODING_PLAIN);
+                    thrift.i32Value(ENCODING_RLE);
+                    thrift.listField(3, ThriftCompactWriter.TYPE_BINARY, 1);
+                    thrift.stringValue(chunk.column.getName());
+                    thrift.i32Field(4, compression.getCodecId());
+                    thrift.i64Field(5, chunk.valueCount);
+                    thrift.i64Field(6, chunk.uncompressedSize);
+                    thrift.i64Field(7, chunk.compressedSize);
+                    thrift.i64Field(9, chunk.offset);
+                }
+                thrift.structEnd();
+                thrift.structEnd();
+            }
+            thrift.i64Field(2, rowGroup.totalByteSize);
+            thrift.i64Field(3, rowGroup.rowCount);
+            thrift.structEnd();
+        }
+        if (createdBy != null) {
+            thrift.stringField(6, createdBy);
+        }
+        thrift.structEnd();
+        return thrift.toByteArray();
+    }
+
+    private static void writeSchemaElement(@NotNull ThriftCompactWriter thrift, @NotNull ParquetColumn column) {
+        thrift.structBegin();
+        thrift.i32Field(1, column.getPhysicalType().ordinal());
+        if (column.getPhysicalType() == ParquetColumn.PhysicalType.FIXED_LEN_BYTE_ARRAY) {
+            thrift.i32Field(2, column.getTypeLength());
+        }
+        thrift.i32Field(3, column.isRequired() ? REPETITION_REQUIRED : REPETITION_OPTIONAL);
+        thrift.stringField(4, column.getName());
+        int convertedType = getConvertedType(column);
+        if (convertedType >= 0) {
+            thrift.i32Field(6, convertedType);
+        }
+        if (column.getLogicalType() == ParquetColumn.LogicalType.DECIMAL) {
+            thrift.i32Field(7, column.getScale());
+            thrift.i32Field(8, column.getPrecision());
+        }
+        if (column.getLogicalType() != ParquetColumn.LogicalType.NONE) {
+            thrift.structField(10);
+            switch (column.getLogicalType()) {
+                case STRING:
+                    thrift.structField(1);
+                    break;
+                case DECIMAL:
+                    thrift.structField(5);
+                    thrift.i32Field(1, column.getScale());
+                    thrift.i32Field(2, column.getPrecision());
+                    break;
+                case DATE:
+                    thrift.structField(6);
+                    break;
+                case TIME_MILLIS:
+                case TIME_MICROS:
+                    thrift.structField(7);
+                    writeTimeUnit(thrift, column.getLogicalType() == ParquetColumn.LogicalType.TIME_MILLIS ? 1 : 2, false);
+                    break;
+                case TIMESTAMP_MILLIS:
+                case TIMESTAMP_MICROS:
+                case TIMESTAMP_NANOS:
+                    thrift.structField(8);
+                    writeTimeUnit(thrift, column.getLogicalType() == ParquetColumn.LogicalType.TIMESTAMP_MILLIS ? 1 :
+                        column.getLogicalType() == ParquetColumn.LogicalType.TIMESTAMP_MICROS ? 2 : 3, column.isAdjustedToUTC());
+                    break;
+                case JSON:
+                    thrift.structField(12);
+                    break;
+                case UUID:
+                    thrift.structField(14);
+                    break;
+                default:
+                    break;
+            }
+            thrift.structEnd();
+            thrift.structEnd();
+        }
+        thrift.structEnd();
+    }
+
+    private static void writeTimeUnit(@NotNull ThriftCompactWriter thrift, int unitId, boolean adjustedToUTC) {
+        thrift.boolField(1, adjustedToUTC);
+        thrift.structField(2);
+        thrift.structField(unitId);
+        thrift.structEnd();
+        thrift.structEnd();
+    }
+
+    /**
+     * Legacy converted type. Timestamp/time converted types imply UTC adjustment, so they are not written for local values.
+     */
+    private static int getConvertedType(@NotNull ParquetColumn column) {
+        switch (column.getLogicalType()) {
+            case STRING:
+                return 0;
+            case DECIMAL:
+                return 5;
+            case DATE:
+                return 6;
+            case TIMESTAMP_MILLIS:
+                return column.isAdjustedToUTC() ? 9 : -1;
+            case TIMESTAMP_MICROS:
+                return column.isAdjustedToUTC() ? 10 : -1;
+            case JSON:
+                return 19;
+            default:
+                return -1;
+        }
+    }
+
+    private void write(@NotNull byte[] data) throws IOException {
+        out.write(data);
+        position += data.length;
+    }
+
+    static void writeIntLE(@NotNull byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >>> 8);
+        buffer[offset + 2] = (byte) (value >>> 16);
+        buffer[offset + 3] = (byte) (value >>> 24);
+    }
+
+    private static void writeIntLE(@NotNull ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private static void writeLongLE(@NotNull ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 8; i++) {
+            out.write((int) (value >>> (i * 8)));
+        }
+    }
+
+    private static void writeUnsignedVarint(@NotNull ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private class ColumnWriter {
+        private final ParquetColumn column;
+        private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream definitionLevels = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        // Pages moved out of memory
+        @Nullable
+        private Path spillFile;
+        @Nullable
+        private OutputStream spillStream;
+        private long spilledSize;
+
+        private int pageValueCount;
+        // Current RLE run of definition levels
+        private int runLevel = -1;
+        private int runLength;
+        // Pending bit-packed booleans
+        private int booleanBits;
+        private int booleanCount;
+
+        private long chunkValueCount;
+        private long chunkUncompressedSize;
+
+        ColumnWriter(@NotNull ParquetColumn column) {
+            this.column = column;
+        }
+
+        long getBufferedSize() {
+            return spilledSize + getMemorySize();
+        }
+
+        long getMemorySize() {
+            return chunk.size() + values.size() + definitionLevels.size();
+        }
+
+        /**
+         * Completes the current page and moves all completed pages to the temporary file
+         */
+        void spill() throws IOException {
+            flushPage();
+            if (chunk.size() == 0) {
+                return;
+            }
+            if (spillStream == null) {
+                spillFile = Files.createTempFile("dbeaver-parquet", ".chunk");
+                spillStream = Files.newOutputStream(spillFile);
+            }
+            chunk.writeTo(spillStream);
+            spilledSize += chunk.size();
+            chunk.reset();
+        }
+
+        void writeChunkTo(@NotNull OutputStream out) throws IOException {
+            if (spillStream != null) {
+                spillStream.close();
+                spillStream = null;
+                Files.copy(spillFile, out);
+                deleteSpillFile();
+            }
+            chunk.writeTo(out);
+        }
+
+        void deleteSpillFile() {
+            try {
+                if (spillStream != null) {
+                    spillStream.close();
+                    spillStream = null;
+                }
+                if (spillFile != null) {
+                    Files.deleteIfExists(spillFile);
+                    spillFile = null;
+                }
+            } catch (IOException e) {
+                log.debug("Error deleting temporary file " + spillFile, e);
+            }
+        }
+
+        void write(@Nullable Object value) throws IOException {
+            if (value == null) {
+                if (column.isRequired()) {
+                    throw new IOException("Null value in required column '" + column.getName() + "'");
+                }
+                addDefinitionLevel(0);
+            } else {
+                Object physical;
+                try {
+                    physical = column.toPhysical(value);
+                } catch (RuntimeException e) {
+                    throw new IOException("Can't convert value '" + value + "' for column '" + column.getName() + "'", e);
+                }
+                writePlain(physical);
+                if (!column.isRequired()) {
+                    addDefinitionLevel(1);
+                }
+            }
+            pageValueCount++;
+            if (values.size() + definitionLevels.size() >= pageSize) {
+                flushPage();
+            }
+        }
+
+        private void writePlain(@NotNull Object value) throws IOException {
+            switch (column.getPhysicalType()) {
+                case BOOLEAN:
+                    if ((Boolean) value) {
+                        booleanBits |= 1 << booleanCount;
+                    }
+                    if (++booleanCount == 8) {
+                        values.write(booleanBits);
+                        booleanBits = 0;
+                        booleanCount = 0;
+                    }
+                    break;
+                case INT32:
+                    writeIntLE(values, (Integer) value);
+                    break;
+                case INT64:
+                    writeLongLE(values, (Long) value);
+                    break;
+                case FLOAT:
+                    writeIntLE(values, Float.floatToIntBits((Float) value));
+                    break;
+                case DOUBLE:
+                    writeLongLE(values, Double.doubleToLongBits((Double) value));
+                    break;
+                case INT96:
+                case FIXED_LEN_BYTE_ARRAY: {
+                    byte[] bytes = (byte[]) value;
+                    int length = column.getPhysicalType() == ParquetColumn.PhysicalType.INT96 ? 12 : column.getTypeLength();
+                    if (bytes.length != length) {
+                        throw new IOException("Bad value length " + bytes.length + " for column '" + column.getName() + "'");
+                    }
+                    values.write(bytes);
+                    break;
+                }
+                default: {
+                    byte[] bytes = (byte[]) value;
+                    writeIntLE(values, bytes.length);
+                    values.write(bytes);
+                    break;
+                }
+            }
+        }
+
+        private void addDefinitionLevel(int level) {
+            if (level == runLevel) {
+                runLength++;
+            } else {
+                flushDefinitionRun();
+                runLevel = level;
+                runLength = 1;
+            }
+        }
+
+        private void flushDefinitionRun() {
+            if (runLength > 0) {
+                // RLE run: header is (length << 1), value takes one byte for bit width 1
+                writeUnsignedVarint(definitionLevels, runLength << 1);
+                definitionLevels.write(runLevel);
+            }
+            runLevel = -1;
+            runLength = 0;
+        }
+
+        void flushPage() throws IOException {
+            if (pageValueCount == 0) {
+                return;
+            }
+            if (booleanCount > 0) {
+                values.write(booleanBits);
+                booleanBits = 0;
+                booleanCount = 0;
+            }
+            ByteArrayOutputStream page = new ByteArrayOutputStream(values.size() + definitionLevels.size() + 4);
+            if (!column.isRequired()) {
+                flushDefinitionRun();
+                writeIntLE(page, definitionLevels.size());
+                definitionLevels.writeTo(page);
+            }
+            values.writeTo(page);
+            byte[] uncompressed = page.toByteArray();
+            byte[] compressed = compression.compress(uncompressed, uncompressed.length);
+
+            ThriftCompactWriter header = new ThriftCompactWriter();
+            header.structBegin();
+            header.i32Field(1, PAGE_TYPE_DATA);
+            header.i32Field(2, uncompressed.length);
+            header.i32Field(3, compressed.length);
+            header.structField(5);
+            header.i32Field(1, pageValueCount);
+            header.i32Field(2, ENCODING_PLAIN);
+            header.i32Field(3, ENCODING_RLE);
+            header.i32Field(4, ENCODING_RLE);
+            header.structEnd();
+            header.structEnd();
+            byte[] headerBytes = header.toByteArray();
+
+            chunk.write(headerBytes);
+            chunk.write(compressed);
+            chunkUncompressedSize += headerBytes.length + uncompressed.length;
+            chunkValueCount += pageValueCount;
+
+            values.reset();
+            definitionLevels.reset();
+            pageValueCount = 0;
+        }
+
+        void resetChunk() {
+            chunk.reset();
+            spilledSize = 0;
+            chunkValueCount = 0;
+            chunkUncompressedSize = 0;
+        }
+    }
+
+    private static class ColumnChunkInfo {
+        private final ParquetColumn column;
+        private final long offset;
+        private final long valueCount;
+        private final long uncompressedSize;
+        private final long compressedSize;
+
+        ColumnChunkInfo(@NotNull ParquetColumn column, long offset, long valueCount, long uncompressedSize, long compressedSize) {
+            this.column = column;
+            this.offset = offset;
+            this.valueCount = valueCount;
+            this.uncompressedSize = uncompressedSize;
+            this.compressedSize = compressedSize;
+        }
+    }
+
+    private static class RowGroupInfo {
+        private final long rowCount;
+        private final List<ColumnChunkInfo> columns = new ArrayList<>();
+        private long totalByteSize;
+
+        RowGroupInfo(long rowCount) {
+            this.rowCount = rowCount;
+        }
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Snappy block format (raw, without framing) as used by Parquet pages.
+ * Compressor is a simple greedy hash matcher: it produces valid but not optimal output.
+ */
+class SnappyCodec {
+
+    private static final int HASH_BITS = 14;
+    private static final int MAX_OFFSET = 65535;
+
+    private SnappyCodec() {
+    }
+
+    @NotNull
+    static byte[] compress(@NotNull byte[] src, int offset, int length) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 16);
+        writeVarint(out, length);
+
+        int[] table = new int[1 << HASH_BITS];
+        Arrays.fill(table, -1);
+        int end = offset + length;
+        int pos = offset;
+        int literalStart = offset;
+        while (pos + 4 <= end) {
+            int key = readIntLE(src, pos);
+            int hash = (key * 0x1e35a7bd) >>> (32 - HASH_BITS);
+            int candidate = table[hash];
+            table[hash] = pos;
+            if (candidate >= 0 && pos - candidate <= MAX_OFFSET && readIntLE(src, candidate) == key) {
+                int matchLength = 4;
+                while (pos + matchLength < end && src[candidate + matchLength] == src[pos + matchLength]) {
+                    matchLength++;
+                }
+                emitLiteral(out, src, literalStart, pos - literalStart);
+                emitCopy(out, pos - candidate, matchLength);
+                pos += matchLength;
+                literalStart = pos;
+            } else {
+                pos++;
+            }
+        }
+        emitLiteral(out, src, literalStart, end - literalStart);
+        return out.toByteArray();
+    }
+
+    @NotNull
+    static byte[] decompress(@NotNull byte[] src, int offset, int length) throws IOException {
+        int pos = offset;
+        int end = offset + length;
+        long uncompressedLength = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (pos >= end || shift > 28) {
+                throw new IOException("Bad Snappy block length");
+            }
+            int b = src[pos++] & 0xFF;
+            uncompressedLength |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (uncompressedLength > Integer.MAX_VALUE) {
+            throw new IOException("Snappy block is too big");
+        }
+        byte[] out = new byte[(int) uncompressedLength];
+        int op = 0;
+        try {
+            while (pos < end) {
+                int tag = src[pos++] & 0xFF;
+                int copyLength;
+                int copyOffset;
+                switch (tag & 3) {
+                    case 0: {
+                        int literalLength = tag >>> 2;
+                        if (literalLength >= 60) {
+                            int bytes = literalLength - 59;
+                            literalLength = 0;
+                            for (int i = 0; i < bytes; i++) {
+                                literalLength |= (src[pos++] & 0xFF) << (i * 8);
+                            }
+                        }
+                        literalLength++;
+                        if (literalLength <= 0 || pos + literalLength > end || op + literalLength > out.length) {
+                            throw new IOException("Bad Snappy literal");
+                        }
+                        System.arraycopy(src, pos, out, op, literalLength);
+                        pos += literalLength;
+                        op += literalLength;
+                        continue;
+                    }
+                    case 1:
+                        copyLength = 4 + ((tag >>> 2) & 7);
+                        copyOffset = ((tag >>> 5) << 8) | (src[pos++] & 0xFF);
+                        break;
+                    case 2:
+                        copyLength = (tag >>> 2) + 1;
+                        copyOffset = (src[pos] & 0xFF) | ((src[pos + 1] & 0xFF) << 8);
+                        pos += 2;
+                        break;
+                    default:
+                        copyLength = (tag >>> 2) + 1;
+                        copyOffset = readIntLE(src, pos);
+                        pos += 4;
+                        break;
+                }
+                if (copyOffset <= 0 || copyOffset > op || op + copyLength > out.length) {
+                    throw new IOException("Bad Snappy copy");
+                }
+                for (int i = 0; i < copyLength; i++, op++) {
+                    out[op] = out[op - copyOffset];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Unexpected end of Snappy block", e);
+        }
+        if (op != out.length) {
+            throw new IOException("Snappy block is truncated");
+        }
+        return out;
+    }
+
+    private static void emitLiteral(@NotNull ByteArrayOutputStream out, @NotNull byte[] src, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        int n = length - 1;
+        if (n < 60) {
+            out.write(n << 2);
+        } else if (n < (1 << 8)) {
+            out.write(60 << 2);
+            out.write(n);
+        } else if (n < (1 << 16)) {
+            out.write(61 << 2);
+            out.write(n);
+            out.write(n >>> 8);
+        } else if (n < (1 << 24)) {
+            out.write(62 << 2);
+            out.write(n);
+            out.write(n >>> 8);
+            out.write(n >>> 16);
+        } else {
+            out.write(63 << 2);
+            out.write(n);
+            out.write(n >>> 8);
+            out.write(n >>> 16);
+            out.write(n >>> 24);
+        }
+        out.write(src, offset, length);
+    }
+
+    private static void emitCopy(@NotNull ByteArrayOutputStream out, int offset, int length) {
+        while (length >= 68) {
+            emitCopy2(out, offset, 64);
+            length -= 64;
+        }
+        if (length > 64) {
+            emitCopy2(out, offset, 60);
+            length -= 60;
+        }
+        if (length < 12 && offset < 2048) {
+            out.write(1 | ((length - 4) << 2) | ((offset >>> 8) << 5));
+            out.write(offset);
+        } else {
+            emitCopy2(out, offset, length);
+        }
+    }
+
+    private static void emitCopy2(@NotNull ByteArrayOutputStream out, int offset, int length) {
+        out.write(2 | ((length - 1) << 2));
+        out.write(offset);
+        out.write(offset >>> 8);
+    }
+
+    private static void writeVarint(@NotNull ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readIntLE(@NotNull byte[] data, int pos) {
+        return (data[pos] & 0xFF) | ((data[pos + 1] & 0xFF) << 8) | ((data[pos + 2] & 0xFF) << 16) | ((data[pos + 3] & 0xFF) << 24);
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Minimal Thrift compact protocol reader.
+ * Structures are read into maps (field id to value) and interpreted by the caller, so unknown fields are skipped naturally.
+ */
+class ThriftCompactReader {
+
+    private final byte[] data;
+    private int position;
+
+    ThriftCompactReader(@NotNull byte[] data, int position) {
+        this.data = data;
+        this.position = position;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    @NotNull
+    Map<Integer, Object> readStruct() throws IOException {
+        Map<Integer, Object> struct = new HashMap<>();
+        int lastFieldId = 0;
+        for (; ; ) {
+            int header = readByte();
+            if (header == 0) {
+                break;
+            }
+            int type = header & 0x0F;
+            int delta = (header >> 4) & 0x0F;
+            int fieldId;
+            if (delta == 0) {
+                fieldId = (int) zigzag(readVarint());
+            } else {
+                fieldId = lastFieldId + delta;
+            }
+            lastFieldId = fieldId;
+            Object value;
+            if (type == ThriftCompactWriter.TYPE_BOOLEAN_TRUE) {
+                value = Boolean.TRUE;
+            } else if (type == ThriftCompactWriter.TYPE_BOOLEAN_FALSE) {
+                value = Boolean.FALSE;
+            } else {
+                value = readValue(type);
+            }
+            struct.put(fieldId, value);
+        }
+        return struct;
+    }
+
+    private Object readValue(int type) throws IOException {
+        switch (type) {
+            case ThriftCompactWriter.TYPE_BOOLEAN_TRUE:
+            case ThriftCompactWriter.TYPE_BOOLEAN_FALSE:
+                // Collection element
+                return readByte() == ThriftCompactWriter.TYPE_BOOLEAN_TRUE;
+            case ThriftCompactWriter.TYPE_BYTE:
+                return (long) (byte) readByte();
+            case ThriftCompactWriter.TYPE_I16:
+            case ThriftCompactWriter.TYPE_I32:
+            case ThriftCompactWriter.TYPE_I64:
+                return zigzag(readVarint());
+            case ThriftCompactWriter.TYPE_DOUBLE: {
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits |= (long) readByte() << (i * 8);
+                }
+                return Double.longBitsToDouble(bits);
+            }
+            case ThriftCompactWriter.TYPE_BINARY: {
+                int length = (int) readVarint();
+                checkAvailable(length);
+                byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+                position += length;
+                return bytes;
+            }
+            case ThriftCompactWriter.TYPE_LIST:
+            case ThriftCompactWriter.TYPE_SET: {
+                int header = readByte();
+                int size = (header >> 4) & 0x0F;
+                if (size == 15) {
+                    size = (int) readVarint();
+                }
+                int elementType = header & 0x0F;
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(elementType));
+                }
+                return list;
+            }
+            case ThriftCompactWriter.TYPE_MAP: {
+                int size = (int) readVarint();
+                Map<Object, Object> map = new LinkedHashMap<>();
+                if (size > 0) {
+                    int types = readByte();
+                    for (int i = 0; i < size; i++) {
+                        Object key = readValue((types >> 4) & 0x0F);
+                        map.put(key, readValue(types & 0x0F));
+                    }
+                }
+                return map;
+            }
+            case ThriftCompactWriter.TYPE_STRUCT:
+                return readStruct();
+            default:
+                throw new IOException("Bad Thrift type: " + type);
+        }
+    }
+
+    private int readByte() throws IOException {
+        checkAvailable(1);
+        return data[position++] & 0xFF;
+    }
+
+    private long readVarint() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Bad Thrift varint");
+    }
+
+    private void checkAvailable(int length) throws IOException {
+        if (length < 0 || position + length > data.length) {
+            throw new IOException("Unexpected end of Thrift data");
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long getLong(@NotNull Map<Integer, Object> struct, int fieldId, long defaultValue) {
+        Object value = struct.get(fieldId);
+        return value instanceof Long ? (Long) value : defaultValue;
+    }
+
+    static int getInt(@NotNull Map<Integer, Object> struct, int fieldId, int defaultValue) {
+        return (int) getLong(struct, fieldId, defaultValue);
+    }
+
+    static boolean getBoolean(@NotNull Map<Integer, Object> struct, int fieldId, boolean defaultValue) {
+        Object value = struct.get(fieldId);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    @Nullable
+    static String getString(@NotNull Map<Integer, Object> struct, int fieldId) {
+        Object value = struct.get(fieldId);
+        return value instanceof byte[] ? new String((byte[]) value, StandardCharsets.UTF_8) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    static Map<Integer, Object> getStruct(@NotNull Map<Integer, Object> struct, int fieldId) {
+        Object value = struct.get(fieldId);
+        return value instanceof Map ? (Map<Integer, Object>) value : null;
+    }
+
+    @NotNull
+    static List<?> getList(@NotNull Map<Integer, Object> struct, int fieldId) {
+        Object value = struct.get(fieldId);
+        return value instanceof List ? (List<?>) value : Collections.emptyList();
+    }
+
+}
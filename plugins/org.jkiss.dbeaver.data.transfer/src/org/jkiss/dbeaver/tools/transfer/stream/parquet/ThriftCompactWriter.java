@@ -0,0 +1,127 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal Thrift compact protocol writer. Used to serialize Parquet page headers and file metadata.
+ */
+class ThriftCompactWriter {
+
+    static final int TYPE_BOOLEAN_TRUE = 1;
+    static final int TYPE_BOOLEAN_FALSE = 2;
+    static final int TYPE_BYTE = 3;
+    static final int TYPE_I16 = 4;
+    static final int TYPE_I32 = 5;
+    static final int TYPE_I64 = 6;
+    static final int TYPE_DOUBLE = 7;
+    static final int TYPE_BINARY = 8;
+    static final int TYPE_LIST = 9;
+    static final int TYPE_SET = 10;
+    static final int TYPE_MAP = 11;
+    static final int TYPE_STRUCT = 12;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final Deque<Integer> fieldIdStack = new ArrayDeque<>();
+    private int lastFieldId;
+
+    void structBegin() {
+        fieldIdStack.push(lastFieldId);
+        lastFieldId = 0;
+    }
+
+    void structEnd() {
+        out.write(0);
+        lastFieldId = fieldIdStack.pop();
+    }
+
+    void structField(int id) {
+        fieldHeader(TYPE_STRUCT, id);
+        structBegin();
+    }
+
+    void i32Field(int id, int value) {
+        fieldHeader(TYPE_I32, id);
+        i32Value(value);
+    }
+
+    void i64Field(int id, long value) {
+        fieldHeader(TYPE_I64, id);
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    void boolField(int id, boolean value) {
+        fieldHeader(value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE, id);
+    }
+
+    void stringField(int id, @NotNull String value) {
+        fieldHeader(TYPE_BINARY, id);
+        stringValue(value);
+    }
+
+    void listField(int id, int elementType, int size) {
+        fieldHeader(TYPE_LIST, id);
+        if (size < 15) {
+            out.write((size << 4) | elementType);
+        } else {
+            out.write(0xF0 | elementType);
+            writeVarint(size);
+        }
+    }
+
+    void i32Value(int value) {
+        int zigzag = (value << 1) ^ (value >> 31);
+        writeVarint(zigzag & 0xFFFFFFFFL);
+    }
+
+    void stringValue(@NotNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    @NotNull
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    private void fieldHeader(int type, int id) {
+        int delta = id - lastFieldId;
+        if (delta > 0 && delta <= 15) {
+            out.write((delta << 4) | type);
+        } else {
+            out.write(type);
+            writeVarint((id << 1) ^ (id >> 31));
+        }
+        lastFieldId = id;
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+}
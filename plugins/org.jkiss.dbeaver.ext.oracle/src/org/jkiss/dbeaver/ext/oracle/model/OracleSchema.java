@@ -658,6 +658,31 @@ public class OracleSchema extends OracleGlobalObject implements
             }
         }
 
+        @Override
+        protected boolean isSnapshotSupported() {
+            // Tables and columns are created from result set values only
+            return true;
+        }
+
+        @Nullable
+        @Override
+        protected String readSnapshotVersion(@NotNull JDBCSession session, @NotNull OracleSchema owner) throws SQLException {
+            // DDL time changes on create/alter/comment of tables and their columns
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT " + OracleUtils.getSysCatalogHint(owner.getDataSource()) + " COUNT(*),MAX(O.LAST_DDL_TIME)\n" +
+                    "FROM " + OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), getDataSource(), "OBJECTS") + " O\n" +
+                    "WHERE O.OWNER=? AND O.OBJECT_TYPE IN ('TABLE', 'VIEW', 'MATERIALIZED VIEW')"))
+            {
+                dbStat.setString(1, owner.getName());
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    if (dbResult.next()) {
+                        return dbResult.getLong(1) + ":" + dbResult.getTimestamp(2);
+                    }
+                }
+            }
+            return null;
+        }
+
         @Override
         protected OracleTableBase fetchObject(@NotNull JDBCSession session, @NotNull OracleSchema owner, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException
@@ -0,0 +1,448 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Encoder of COPY binary format (COPY ... FROM STDIN (FORMAT binary)).
+ * Values are written using PostgreSQL binary wire encodings, so the server doesn't need to parse text representation.
+ */
+class PostgreCopyBinaryEncoder {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+
+    // 2000-01-01 00:00:00 UTC
+    private static final long PG_EPOCH_SECONDS = 946684800L;
+    private static final long PG_EPOCH_DAYS = 10957L;
+
+    private static final short NUMERIC_POS = 0x0000;
+    private static final short NUMERIC_NEG = 0x4000;
+    private static final short NUMERIC_NAN = (short) 0xC000;
+    private static final BigInteger NBASE = BigInteger.valueOf(10000);
+
+    private static final byte JSONB_VERSION = 1;
+
+    enum FieldType {
+        BOOL,
+        INT2,
+        INT4,
+        INT8,
+        FLOAT4,
+        FLOAT8,
+        NUMERIC,
+        DATE,
+        TIMESTAMP,
+        TIMESTAMPTZ,
+        UUID,
+        BYTEA,
+        TEXT,
+        JSONB
+    }
+
+    private final DataOutputStream out;
+    // Reusable buffer for variable-length values
+    private final ByteArrayOutputStream fieldBuffer = new ByteArrayOutputStream();
+    private final DataOutputStream fieldOut = new DataOutputStream(fieldBuffer);
+
+    PostgreCopyBinaryEncoder(@NotNull OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    /**
+     * Returns binary field type for the specified data type or null if binary encoding of this type is not supported
+     */
+    @Nullable
+    static FieldType getFieldType(@NotNull PostgreDataType dataType) {
+        switch ((int) dataType.getObjectId()) {
+            case PostgreOid.BOOL:
+                return FieldType.BOOL;
+            case PostgreOid.INT2:
+                return FieldType.INT2;
+            case PostgreOid.INT4:
+                return FieldType.INT4;
+            case PostgreOid.INT8:
+                return FieldType.INT8;
+            case PostgreOid.FLOAT4:
+                return FieldType.FLOAT4;
+            case PostgreOid.FLOAT8:
+                return FieldType.FLOAT8;
+            case PostgreOid.NUMERIC:
+                return FieldType.NUMERIC;
+            case PostgreOid.DATE:
+                return FieldType.DATE;
+            case PostgreOid.TIMESTAMP:
+                return FieldType.TIMESTAMP;
+            case PostgreOid.TIMESTAMPTZ:
+                return FieldType.TIMESTAMPTZ;
+            case PostgreOid.UUID:
+                return FieldType.UUID;
+            case PostgreOid.BYTEA:
+                return FieldType.BYTEA;
+            case PostgreOid.TEXT:
+            case PostgreOid.VARCHAR:
+            case PostgreOid.BPCHAR:
+            case PostgreOid.NAME:
+            case PostgreOid.JSON:
+            case PostgreOid.XML:
+                return FieldType.TEXT;
+            case PostgreOid.JSONB:
+                return FieldType.JSONB;
+            default:
+                return null;
+        }
+    }
+
+    void writeHeader() throws IOException {
+        out.write(SIGNATURE);
+        // Flags
+        out.writeInt(0);
+        // Header extension length
+        out.writeInt(0);
+    }
+
+    void writeTrailer() throws IOException {
+        out.writeShort(-1);
+        out.flush();
+    }
+
+    void startRow(int fieldCount) throws IOException {
+        out.writeShort(fieldCount);
+    }
+
+    void writeNull() throws IOException {
+        out.writeInt(-1);
+    }
+
+    /**
+     * Writes a non-null field value.
+     * Value must be a Java object of the corresponding type or its string representation.
+     * Integer values which don't fit the field type exactly are rejected.
+     */
+    void writeValue(@NotNull FieldType type, @NotNull Object value) throws IOException, DBCException {
+        switch (type) {
+            case BOOL: {
+                boolean boolValue = toBoolean(value);
+                out.writeInt(1);
+                out.writeByte(boolValue ? 1 : 0);
+                break;
+            }
+            case INT2: {
+                short shortValue = toShortExact(type, value);
+                out.writeInt(2);
+                out.writeShort(shortValue);
+                break;
+            }
+            case INT4: {
+                int intValue = toIntExact(type, value);
+                out.writeInt(4);
+                out.writeInt(intValue);
+                break;
+            }
+            case INT8: {
+                long longValue = toLongExact(type, value);
+                out.writeInt(8);
+                out.writeLong(longValue);
+                break;
+            }
+            case FLOAT4:
+                out.writeInt(4);
+                out.writeFloat((float) toDouble(value));
+                break;
+            case FLOAT8:
+                out.writeInt(8);
+                out.writeDouble(toDouble(value));
+                break;
+            case NUMERIC:
+                fieldBuffer.reset();
+                if (value instanceof Double && ((Double) value).isNaN() || value instanceof Float && ((Float) value).isNaN()) {
+                    writeNumericNaN(fieldOut);
+                } else {
+                    writeNumeric(fieldOut, toBigDecimal(value));
+                }
+                writeFieldBuffer();
+                break;
+            case DATE:
+                out.writeInt(4);
+                out.writeInt((int) (toLocalDate(value).toEpochDay() - PG_EPOCH_DAYS));
+                break;
+            case TIMESTAMP: {
+                LocalDateTime dateTime = toLocalDateTime(value);
+                out.writeInt(8);
+                out.writeLong(toPgMicros(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano()));
+                break;
+            }
+            case TIMESTAMPTZ: {
+                Instant instant = toInstant(value);
+                out.writeInt(8);
+                out.writeLong(toPgMicros(instant.getEpochSecond(), instant.getNano()));
+                break;
+            }
+            case UUID: {
+                UUID uuid = value instanceof UUID ? (UUID) value : java.util.UUID.fromString(value.toString());
+                out.writeInt(16);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+                break;
+            }
+            case BYTEA: {
+                byte[] bytes = value instanceof byte[] ? (byte[]) value : value.toString().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            }
+            case TEXT: {
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            }
+            case JSONB: {
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length + 1);
+                out.writeByte(JSONB_VERSION);
+                out.write(bytes);
+                break;
+            }
+        }
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeFieldBuffer() throws IOException {
+        out.writeInt(fieldBuffer.size());
+        fieldBuffer.writeTo(out);
+    }
+
+    static void writeNumericNaN(@NotNull DataOutputStream out) throws IOException {
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeShort(NUMERIC_NAN);
+        out.writeShort(0);
+    }
+
+    /**
+     * Writes numeric in PostgreSQL format: ndigits, weight, sign, dscale followed by base-10000 digits.
+     */
+    static void writeNumeric(@NotNull DataOutputStream out, @NotNull BigDecimal value) throws IOException {
+        short sign = value.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS;
+        int scale = value.scale();
+        BigInteger unscaled = value.unscaledValue().abs();
+        if (scale < 0) {
+            unscaled = unscaled.multiply(BigInteger.TEN.pow(-scale));
+            scale = 0;
+        }
+        // Align fractional part to whole base-10000 digits
+        int fractionDigits = (scale + 3) / 4;
+        int padding = fractionDigits * 4 - scale;
+        if (padding > 0) {
+            unscaled = unscaled.multiply(BigInteger.TEN.pow(padding));
+        }
+
+        // Collect digits starting from the least significant one
+        short[] digits = new short[unscaled.bitLength() / 13 + 1];
+        int count = 0;
+        if (unscaled.bitLength() < 63) {
+            long unscaledLong = unscaled.longValue();
+            while (unscaledLong != 0) {
+                digits[count++] = (short) (unscaledLong % 10000);
+                unscaledLong /= 10000;
+            }
+        } else {
+            while (unscaled.signum() != 0) {
+                BigInteger[] qr = unscaled.divideAndRemainder(NBASE);
+                digits[count++] = qr[1].shortValue();
+                unscaled = qr[0];
+            }
+        }
+        int weight = count - fractionDigits - 1;
+        // Trailing zero digits are not stored
+        int first = 0;
+        while (first < count && digits[first] == 0) {
+            first++;
+        }
+        if (first == count) {
+            weight = 0;
+        }
+
+        out.writeShort(count - first);
+        out.writeShort(weight);
+        out.writeShort(sign);
+        out.writeShort(scale);
+        for (int i = count - 1; i >= first; i--) {
+            out.writeShort(digits[i]);
+        }
+    }
+
+    static long toPgMicros(long epochSeconds, int nanos) {
+        return (epochSeconds - PG_EPOCH_SECONDS) * 1000000L + nanos / 1000;
+    }
+
+    /**
+     * Converts value to boolean the same way PostgreSQL parses boolean input:
+     * true/false, yes/no, on/off, 1/0 and unique prefixes of them, case-insensitive.
+     */
+    private static boolean toBoolean(@NotNull Object value) throws DBCException {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        }
+        String strValue = value.toString().trim().toLowerCase(Locale.ENGLISH);
+        if (!strValue.isEmpty()) {
+            if ("true".startsWith(strValue) || "yes".startsWith(strValue) || strValue.equals("1")) {
+                return true;
+            }
+            if ("false".startsWith(strValue) || "no".startsWith(strValue) || strValue.equals("0")) {
+                return false;
+            }
+            // "o" alone is ambiguous
+            if (strValue.length() >= 2) {
+                if ("on".startsWith(strValue)) {
+                    return true;
+                }
+                if ("off".startsWith(strValue)) {
+                    return false;
+                }
+            }
+        }
+        throw new DBCException("Invalid boolean value '" + value + "'");
+    }
+
+    private static short toShortExact(@NotNull FieldType type, @NotNull Object value) throws DBCException {
+        long longValue = toLongExact(type, value);
+        if (longValue < Short.MIN_VALUE || longValue > Short.MAX_VALUE) {
+            throw new DBCException(getOutOfRangeMessage(type, value));
+        }
+        return (short) longValue;
+    }
+
+    private static int toIntExact(@NotNull FieldType type, @NotNull Object value) throws DBCException {
+        try {
+            return Math.toIntExact(toLongExact(type, value));
+        } catch (ArithmeticException e) {
+            throw new DBCException(getOutOfRangeMessage(type, value), e);
+        }
+    }
+
+    private static long toLongExact(@NotNull FieldType type, @NotNull Object value) throws DBCException {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        try {
+            BigDecimal decimal;
+            if (value instanceof BigDecimal) {
+                decimal = (BigDecimal) value;
+            } else if (value instanceof BigInteger) {
+                decimal = new BigDecimal((BigInteger) value);
+            } else if (value instanceof Double || value instanceof Float) {
+                // Throws NumberFormatException for NaN and infinity
+                decimal = BigDecimal.valueOf(((Number) value).doubleValue());
+            } else {
+                decimal = new BigDecimal(value.toString().trim());
+            }
+            // Fails on fractional part as well as on overflow
+            return decimal.longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new DBCException(getOutOfRangeMessage(type, value), e);
+        }
+    }
+
+    @NotNull
+    private static String getOutOfRangeMessage(@NotNull FieldType type, @NotNull Object value) {
+        return "Value '" + value + "' can't be converted to " + type.name() + " exactly";
+    }
+
+    private static double toDouble(@NotNull Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return Double.parseDouble(value.toString().trim());
+    }
+
+    @NotNull
+    private static BigDecimal toBigDecimal(@NotNull Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    @NotNull
+    private static LocalDate toLocalDate(@NotNull Object value) {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        } else if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime().toLocalDate();
+        } else if (value instanceof java.util.Date) {
+            return LocalDate.ofInstant(((java.util.Date) value).toInstant(), ZoneId.systemDefault());
+        } else if (value instanceof TemporalAccessor) {
+            return LocalDate.from((TemporalAccessor) value);
+        }
+        return LocalDate.parse(value.toString().trim());
+    }
+
+    @NotNull
+    private static LocalDateTime toLocalDateTime(@NotNull Object value) {
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime();
+        } else if (value instanceof java.util.Date) {
+            return LocalDateTime.ofInstant(((java.util.Date) value).toInstant(), ZoneId.systemDefault());
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        } else if (value instanceof TemporalAccessor) {
+            return LocalDateTime.from((TemporalAccessor) value);
+        }
+        return java.sql.Timestamp.valueOf(value.toString().trim()).toLocalDateTime();
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull Object value) {
+        if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).toInstant();
+        } else if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        }
+        return toLocalDateTime(value).atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory pipe between bulk loader (writer) and COPY thread (reader).
+ * Data is passed in fixed-size chunks, so memory usage never exceeds {@code chunkSize * maxChunks} bytes.
+ */
+class PostgreCopyDataPipe {
+
+    private static final byte[] EOF_CHUNK = new byte[0];
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final BlockingQueue<byte[]> chunks;
+    private final int chunkSize;
+
+    private final PipeOutputStream outputStream = new PipeOutputStream();
+    private final PipeInputStream inputStream = new PipeInputStream();
+
+    private volatile boolean readerClosed;
+    private volatile boolean aborted;
+
+    PostgreCopyDataPipe(int chunkSize, int maxChunks) {
+        this.chunkSize = chunkSize;
+        this.chunks = new ArrayBlockingQueue<>(maxChunks);
+    }
+
+    @NotNull
+    OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @NotNull
+    InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Aborts data transfer. Reader will get an error on the next read, so the COPY command will be rolled back.
+     */
+    void abort() {
+        aborted = true;
+        chunks.clear();
+    }
+
+    private void putChunk(byte[] chunk) throws IOException {
+        try {
+            while (!chunks.offer(chunk, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                if (readerClosed || aborted) {
+                    throw new IOException("COPY data stream was closed by the server side");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("COPY data write interrupted");
+        }
+    }
+
+    private class PipeOutputStream extends OutputStream {
+        private byte[] buffer = new byte[chunkSize];
+        private int position;
+        private boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (position >= buffer.length) {
+                flushBuffer();
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(@NotNull byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (position >= buffer.length) {
+                    flushBuffer();
+                }
+                int count = Math.min(len, buffer.length - position);
+                System.arraycopy(b, off, buffer, position, count);
+                position += count;
+                off += count;
+                len -= count;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (position > 0) {
+                flushBuffer();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                flush();
+                putChunk(EOF_CHUNK);
+                closed = true;
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            if (closed) {
+                throw new IOException("COPY data stream is closed");
+            }
+            byte[] chunk = buffer;
+            if (position < chunk.length) {
+                byte[] partial = new byte[position];
+                System.arraycopy(chunk, 0, partial, 0, position);
+                chunk = partial;
+            } else {
+                buffer = new byte[chunkSize];
+            }
+            position = 0;
+            putChunk(chunk);
+        }
+    }
+
+    private class PipeInputStream extends InputStream {
+        private byte[] chunk;
+        private int position;
+        private boolean eof;
+
+        @Override
+        public int read() throws IOException {
+            if (!nextChunk()) {
+                return -1;
+            }
+            return chunk[position++] & 0xff;
+        }
+
+        @Override
+        public int read(@NotNull byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            int count = Math.min(len, chunk.length - position);
+            System.arraycopy(chunk, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+            readerClosed = true;
+        }
+
+        private boolean nextChunk() throws IOException {
+            while (!eof && (chunk == null || position >= chunk.length)) {
+                if (aborted) {
+                    throw new IOException("COPY data transfer aborted");
+                }
+                try {
+                    byte[] next = chunks.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        continue;
+                    }
+                    if (next == EOF_CHUNK) {
+                        eof = true;
+                    } else {
+                        chunk = next;
+                        position = 0;
+                    }
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("COPY data read interrupted");
+                }
+            }
+            return !eof;
+        }
+    }
+}
@@ -16,10 +16,13 @@
  */
 package org.jkiss.dbeaver.ext.postgresql.model;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.exec.DBCException;
@@ -27,17 +30,17 @@ import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.BufferedWriter;
-import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
+import java.io.*;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
@@ -55,6 +58,13 @@ import java.util.Map;
  * //                "COPY table1 FROM STDIN (FORMAT csv)",
  * //                new BufferedReader(new FileReader("data.csv"))
  * //            );
+ *
+ * By default rows are spooled into a temporary file first and loaded when all of them are written.
+ * In streaming mode (optional) rows are passed to the COPY command through a bounded in-memory pipe
+ * while they are being produced.
+ *
+ * If all target columns have types with known binary representation then binary COPY format is used,
+ * otherwise rows are formatted as CSV.
  */
 public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
 
@@ -64,22 +74,64 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
     private PostgreTableReal table;
     private Object copyManager;
     private Method copyInMethod;
+    private OutputStream dataStream;
     private Writer csvWriter;
-    private Path csvFile;
+    private PostgreCopyBinaryEncoder binaryEncoder;
+    private Path dataFile;
+    private PostgreCopyDataPipe dataPipe;
+    private CopyJob copyJob;
 
     private AttrMapping[] mappings;
 
     private int copyBufferSize = 100 * 1024;
+    private int copyPipeChunks = 16;
 
     private static class AttrMapping {
         PostgreTableColumn tableAttr;
         DBDValueHandler valueHandler;
+        PostgreCopyBinaryEncoder.FieldType binaryType;
         int srcPos;
 
         AttrMapping(PostgreTableColumn tableAttr, DBDValueHandler valueHandler, int srcPos) {
             this.tableAttr = tableAttr;
             this.valueHandler = valueHandler;
             this.srcPos = srcPos;
+            PostgreDataType dataType = tableAttr.getDataType();
+            this.binaryType = dataType == null ? null : PostgreCopyBinaryEncoder.getFieldType(dataType);
+        }
+    }
+
+    private class CopyJob extends AbstractJob {
+        private final String queryText;
+        private final InputStream dataStream;
+        private volatile Object rowCount;
+        private volatile Throwable error;
+
+        CopyJob(String queryText, InputStream dataStream) {
+            super("PostgreSQL COPY " + table.getName()); //$NON-NLS-1$
+            setUser(false);
+            setSystem(true);
+            this.queryText = queryText;
+            this.dataStream = dataStream;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                rowCount = copyInMethod.invoke(copyManager, queryText, dataStream, copyBufferSize);
+            } catch (Throwable e) {
+                if (e instanceof InvocationTargetException) {
+                    e = ((InvocationTargetException) e).getTargetException();
+                }
+                error = e;
+            } finally {
+                try {
+                    dataStream.close();
+                } catch (IOException e) {
+                    log.debug(e);
+                }
+            }
+            return Status.OK_STATUS;
         }
     }
 
@@ -106,24 +158,11 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
             Class<?> baseConnectionClass = Class.forName("org.postgresql.core.BaseConnection", true, driverClassLoader);
             Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, driverClassLoader);
 
-            // Get method copyIn(final String sql, Reader from, int bufferSize)
-            copyInMethod = copyManagerClass.getMethod("copyIn", String.class, Reader.class, Integer.TYPE);
+            // Get method copyIn(final String sql, InputStream from, int bufferSize)
+            copyInMethod = copyManagerClass.getMethod("copyIn", String.class, InputStream.class, Integer.TYPE);
 
             copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(pgConnection);
 
-            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
-            csvFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".csv");  //$NON-NLS-1$ //$NON-NLS-2$
-            try {
-                Files.createFile(csvFile);
-            } catch (IOException ex) {
-                throw new IOException("Can't create CSV file " + csvFile);
-            }
-
-            csvWriter = new BufferedWriter(
-                Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8),
-                copyBufferSize
-                );
-
             List<? extends PostgreTableColumn> tableAttrs = CommonUtils.safeList(table.getAttributes(session.getProgressMonitor()));
             tableAttrs.removeIf(a -> a.getOrdinalPosition() < 0);
             mappings = new AttrMapping[tableAttrs.size()];
@@ -138,14 +177,88 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
                 );
                 mappings[i] = mapping;
             }
+            boolean useBinaryFormat = isBinaryFormatSupported();
+
+            if (CommonUtils.getBoolean(options == null ? null : options.get(OPTION_STREAM_DATA), false)) {
+                dataPipe = new PostgreCopyDataPipe(copyBufferSize, copyPipeChunks);
+                dataStream = dataPipe.getOutputStream();
+            } else {
+                createSpoolFile(session, useBinaryFormat);
+            }
+            if (useBinaryFormat) {
+                binaryEncoder = new PostgreCopyBinaryEncoder(new BufferedOutputStream(dataStream, copyBufferSize));
+                binaryEncoder.writeHeader();
+            } else {
+                csvWriter = new BufferedWriter(
+                    new OutputStreamWriter(dataStream, StandardCharsets.UTF_8),
+                    copyBufferSize
+                );
+            }
         } catch (Exception e) {
             throw new DBCException("Can't instantiate CopyManager", e);
         }
+        if (dataPipe != null) {
+            // Start COPY right away, rows will be consumed by the server as soon as they are flushed into the pipe
+            copyJob = new CopyJob(getCopyQueryText(), dataPipe.getInputStream());
+            copyJob.schedule();
+        }
         return this;
     }
 
+    private boolean isBinaryFormatSupported() {
+        boolean hasMappedAttrs = false;
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos >= 0) {
+                if (mapping.binaryType == null) {
+                    return false;
+                }
+                hasMappedAttrs = true;
+            }
+        }
+        return hasMappedAttrs;
+    }
+
+    private void createSpoolFile(@NotNull DBCSession session, boolean binary) throws IOException {
+        Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
+        dataFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + (binary ? ".bin" : ".csv"));  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        try {
+            Files.createFile(dataFile);
+        } catch (IOException ex) {
+            throw new IOException("Can't create data file " + dataFile);
+        }
+
+        dataStream = Files.newOutputStream(dataFile);
+    }
+
+    @NotNull
+    private String getCopyQueryText() {
+        StringBuilder query = new StringBuilder();
+        query.append("COPY ").append(table.getFullyQualifiedName(DBPEvaluationContext.DML)).append(" (");
+        boolean hasColumn = false;
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos >= 0) {
+                if (hasColumn) {
+                    query.append(",");
+                }
+                query.append(DBUtils.getQuotedIdentifier(mapping.tableAttr));
+                hasColumn = true;
+            }
+        }
+        query.append(") FROM STDIN ");
+        if (binaryEncoder != null) {
+            query.append("(FORMAT BINARY)");
+        } else {
+            query.append("(FORMAT CSV, ESCAPE '\\')");
+        }
+        return query.toString();
+    }
+
     @Override
     public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        if (binaryEncoder != null) {
+            addBinaryRow(session, attributeValues);
+            return;
+        }
         StringBuilder line = new StringBuilder();
         boolean hasCell = false;
         for (AttrMapping mapping : mappings) {
@@ -171,7 +284,55 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         try {
             csvWriter.write(line.toString());
         } catch (IOException e) {
-            throw new DBCException("Error writing CSV line", e);
+            throw new DBCException("Error writing CSV line", getCopyError(e));
+        }
+    }
+
+    private void addBinaryRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        try {
+            int fieldCount = 0;
+            for (AttrMapping mapping : mappings) {
+                if (mapping.srcPos >= 0) {
+                    fieldCount++;
+                }
+            }
+            binaryEncoder.startRow(fieldCount);
+            for (AttrMapping mapping : mappings) {
+                if (mapping.srcPos < 0) {
+                    continue;
+                }
+                Object srcValue = attributeValues[mapping.srcPos];
+                if (DBUtils.isNullValue(srcValue)) {
+                    binaryEncoder.writeNull();
+                } else {
+                    binaryEncoder.writeValue(mapping.binaryType, getBinaryFieldValue(session, mapping, srcValue));
+                }
+            }
+        } catch (IOException e) {
+            throw new DBCException("Error writing binary COPY row", getCopyError(e));
+        } catch (RuntimeException e) {
+            throw new DBCException("Error encoding binary COPY row", e);
+        }
+    }
+
+    @NotNull
+    private Object getBinaryFieldValue(@NotNull DBCSession session, @NotNull AttrMapping mapping, @NotNull Object value) throws DBCException {
+        switch (mapping.binaryType) {
+            case BYTEA:
+                if (value instanceof DBDContent) {
+                    return ContentUtils.getContentBinaryValue(session.getProgressMonitor(), (DBDContent) value);
+                }
+                return value;
+            case TEXT:
+            case JSONB:
+                if (value instanceof String) {
+                    return value;
+                } else if (value instanceof DBDContent) {
+                    return ContentUtils.getContentStringValue(session.getProgressMonitor(), (DBDContent) value);
+                }
+                return mapping.valueHandler.getValueDisplayString(mapping.tableAttr, value, DBDDisplayFormat.NATIVE);
+            default:
+                return value;
         }
     }
 
@@ -184,32 +345,59 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
     @Override
     public void flushRows(@NotNull DBCSession session) throws DBCException {
         try {
-            csvWriter.flush();
+            if (binaryEncoder != null) {
+                binaryEncoder.flush();
+            } else {
+                csvWriter.flush();
+            }
         } catch (IOException e) {
-            throw new DBCException("Error saving CSV data", e);
+            throw new DBCException("Error saving COPY data", getCopyError(e));
+        }
+    }
+
+    private Throwable getCopyError(Throwable e) {
+        // Pipe errors are caused by the COPY failure, report the original one
+        if (copyJob != null && copyJob.error != null) {
+            return copyJob.error;
         }
+        return e;
     }
 
     @Override
     public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
         try {
-            csvWriter.flush();
-            csvWriter.close();
+            if (binaryEncoder != null) {
+                binaryEncoder.writeTrailer();
+            } else {
+                csvWriter.flush();
+            }
+            dataStream.close();
         } catch (IOException e) {
+            if (dataPipe != null) {
+                throw new DBCException("Error finishing COPY data stream", getCopyError(e));
+            }
             log.debug(e);
         }
         csvWriter = null;
+        dataStream = null;
 
         String tableFQN = table.getFullyQualifiedName(DBPEvaluationContext.DML);
 
         session.getProgressMonitor().subTask("Copy into " + tableFQN);
 
-        String queryText = "COPY " + tableFQN + " FROM STDIN (FORMAT CSV, ESCAPE '\\')";
-
         try {
             Object rowCount;
-            try (Reader csvReader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
-                rowCount = copyInMethod.invoke(copyManager, queryText, csvReader, copyBufferSize);
+            if (copyJob != null) {
+                copyJob.join();
+                if (copyJob.error != null) {
+                    throw copyJob.error;
+                }
+                rowCount = copyJob.rowCount;
+                copyJob = null;
+            } else {
+                try (InputStream fileStream = Files.newInputStream(dataFile)) {
+                    rowCount = copyInMethod.invoke(copyManager, getCopyQueryText(), fileStream, copyBufferSize);
+                }
             }
 
             // Commit changes
@@ -219,7 +407,7 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
                 txnManager.commit(session);
             }
 
-            log.debug("CSV has been imported (" + rowCount + ")");
+            log.debug((binaryEncoder != null ? "Binary data" : "CSV") + " has been imported (" + rowCount + ")");
         } catch (Throwable e) {
             if (e instanceof InvocationTargetException) {
                 e = ((InvocationTargetException) e).getTargetException();
@@ -229,14 +417,32 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
     }
 
     @Override
-
     public void close() {
-        if (csvFile != null && Files.exists(csvFile)) {
+        if (copyJob != null) {
+            // Bulk load wasn't finished - make COPY fail so the server discards partially loaded data.
+            // COPY holds the connection until it ends, so it must be finished before the session is used again.
+            dataPipe.abort();
+            try {
+                copyJob.join();
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for COPY termination", e);
+            }
+            copyJob = null;
+        }
+        if (dataStream != null && dataPipe == null) {
+            try {
+                dataStream.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            dataStream = null;
+        }
+        if (dataFile != null && Files.exists(dataFile)) {
             try {
-                Files.delete(csvFile);
+                Files.delete(dataFile);
             } catch (IOException e) {
-                log.debug("Error deleting CSV file " + csvFile, e);
-                csvFile.toFile().deleteOnExit();
+                log.debug("Error deleting data file " + dataFile, e);
+                dataFile.toFile().deleteOnExit();
             }
         }
     }
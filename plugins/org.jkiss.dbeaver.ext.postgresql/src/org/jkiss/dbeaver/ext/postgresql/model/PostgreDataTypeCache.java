@@ -156,6 +156,25 @@ public class PostgreDataTypeCache extends JDBCObjectCache<PostgreSchema, Postgre
         }
     }
 
+    @Override
+    public void cacheObjects(@NotNull Collection<? extends PostgreDataType> objects) {
+        // Skip types which names are already cached, the same way as cacheObject does
+        List<PostgreDataType> newObjects = new ArrayList<>(objects.size());
+        Set<String> newNames = new HashSet<>();
+        for (PostgreDataType object : objects) {
+            String name = object.getName();
+            if (getCachedObject(name) == null && newNames.add(caseSensitive ? name : name.toUpperCase())) {
+                newObjects.add(object);
+            }
+        }
+        super.cacheObjects(newObjects);
+        for (PostgreDataType object : newObjects) {
+            if (!object.isAlias() || object.isExtraDataType()) {
+                dataTypeMap.put(object.getObjectId(), object);
+            }
+        }
+    }
+
     @Override
     public void setCache(@NotNull List<PostgreDataType> postgreDataTypes) {
         super.setCache(postgreDataTypes);
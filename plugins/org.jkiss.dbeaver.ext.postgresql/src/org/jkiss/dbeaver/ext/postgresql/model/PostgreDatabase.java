@@ -721,20 +721,19 @@ public class PostgreDatabase extends JDBCRemoteInstance
                 List<PostgreDataType> loadedDataTypes = new ArrayList<>();
                 try (JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString())) {
                     try (JDBCResultSet dbResult = dbStat.executeQuery()) {
-                        Set<PostgreSchema> schemaList = new HashSet<>();
+                        // Cache types of each schema at once, databases may have thousands of types
+                        Map<PostgreSchema, List<PostgreDataType>> schemaTypes = new LinkedHashMap<>();
                         while (dbResult.next()) {
                             PostgreDataType dataType = PostgreDataType.readDataType(session, this, dbResult, !readAllTypes);
                             if (dataType != null) {
-                                PostgreSchema schema = dataType.getParentObject();
-                                schemaList.add(schema);
-                                schema.getDataTypeCache().cacheObject(dataType);
+                                schemaTypes.computeIfAbsent(dataType.getParentObject(), schema -> new ArrayList<>()).add(dataType);
                                 loadedDataTypes.add(dataType);
                             }
                         }
-                        if (!schemaList.isEmpty()) {
-                            for (PostgreSchema schema : schemaList) {
-                                schema.getDataTypeCache().setFullCache(true);
-                            }
+                        for (Map.Entry<PostgreSchema, List<PostgreDataType>> entry : schemaTypes.entrySet()) {
+                            PostgreDataTypeCache schemaTypeCache = entry.getKey().getDataTypeCache();
+                            schemaTypeCache.cacheObjects(entry.getValue());
+                            schemaTypeCache.setFullCache(true);
                         }
                         PostgreSchema catalogSchema = getCatalogSchema();
                         if (catalogSchema != null) {
@@ -856,6 +856,33 @@ public class PostgreSchema implements
             return dbStat;
         }
 
+        @Override
+        protected boolean isSnapshotSupported() {
+            // Tables and columns are created from result set values only
+            return true;
+        }
+
+        @Nullable
+        @Override
+        protected String readSnapshotVersion(@NotNull JDBCSession session, @NotNull PostgreTableContainer container) throws SQLException {
+            // Catalog rows get new xmin on each change, so sum of xmin changes when relations or their columns change
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT count(*),sum(c.xmin::text::bigint)," +
+                    "(SELECT sum(a.xmin::text::bigint) FROM pg_catalog.pg_attribute a WHERE a.attrelid IN " +
+                    "(SELECT oid FROM pg_catalog.pg_class WHERE relnamespace=?))\n" +
+                    "FROM pg_catalog.pg_class c WHERE c.relnamespace=?"))
+            {
+                dbStat.setLong(1, getObjectId());
+                dbStat.setLong(2, getObjectId());
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    if (dbResult.next()) {
+                        return dbResult.getLong(1) + ":" + dbResult.getString(2) + ":" + dbResult.getString(3);
+                    }
+                }
+            }
+            return null;
+        }
+
         @Override
         protected PostgreTableBase fetchObject(@NotNull JDBCSession session, @NotNull PostgreTableContainer container, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException
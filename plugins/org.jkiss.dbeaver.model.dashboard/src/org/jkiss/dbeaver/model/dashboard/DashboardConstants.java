@@ -22,6 +22,8 @@ package org.jkiss.dbeaver.model.dashboard;
 public class DashboardConstants {
 
     public static final String PREF_OPEN_SEPARATE_CONNECTION = "dashboard.openSeparateConnection";
+    public static final String PREF_QUERY_TIMEOUT = "dashboard.queryTimeout";
+    public static final String PREF_HISTORY_ENABLED = "dashboard.historyEnabled";
 
     public static final String DS_PROP_DASHBOARDS = "dashboards";
 
@@ -32,6 +34,8 @@ public class DashboardConstants {
 
     public static final DBDashboardDataType DEF_DASHBOARD_DATA_TYPE = DBDashboardDataType.timeseries;
     public static final int DEF_DASHBOARD_UPDATE_PERIOD = 1000;
+    public static final int DEF_DASHBOARD_QUERY_TIMEOUT = 30; // Seconds
+    public static final long DEF_DASHBOARD_HISTORY_AGE = 7 * 24 * 60 * 60 * 1000L; // Week
     public static final float DEF_DASHBOARD_WIDTH_RATIO = 1.5f;
     public static final DBDashboardCalcType DEF_DASHBOARD_CALC_TYPE = DBDashboardCalcType.value;
     public static final DBDashboardValueType DEF_DASHBOARD_VALUE_TYPE = DBDashboardValueType.decimal;
@@ -0,0 +1,284 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.dashboard.history;
+
+import org.jkiss.code.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compressed chunk of a single time series.
+ * <p>
+ * Timestamps and values are stored in two separate bit streams.
+ * Timestamps are encoded as delta-of-delta, values are XOR-ed with the previous value
+ * and only meaningful bits are stored (as in Facebook Gorilla).
+ * Regular samples of slowly changing values take about 1-2 bytes per point.
+ */
+public class DashboardHistoryChunk {
+
+    private final BitWriter timeStream = new BitWriter();
+    private final BitWriter valueStream = new BitWriter();
+
+    private int count;
+    private long firstTime;
+    private long lastTime;
+    private long lastDelta;
+    private long lastValueBits;
+    private int lastLeadingZeros = Integer.MAX_VALUE;
+    private int lastTrailingZeros;
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getFirstTime() {
+        return firstTime;
+    }
+
+    public long getLastTime() {
+        return lastTime;
+    }
+
+    /**
+     * Size of compressed data in bytes
+     */
+    public int getCompressedSize() {
+        return timeStream.getByteCount() + valueStream.getByteCount();
+    }
+
+    /**
+     * Appends a point. Time must not be less than time of the last point.
+     */
+    public void append(long time, double value) {
+        if (count > 0 && time < lastTime) {
+            throw new IllegalArgumentException("Point time " + time + " is before the last chunk time " + lastTime);
+        }
+        appendTime(time);
+        appendValue(Double.doubleToRawLongBits(value));
+        count++;
+    }
+
+    private void appendTime(long time) {
+        if (count == 0) {
+            timeStream.writeBits(time, 64);
+            firstTime = time;
+        } else {
+            long delta = time - lastTime;
+            long deltaOfDelta = delta - lastDelta;
+            // Zig-zag encoding moves sign to the lowest bit
+            long encoded = (deltaOfDelta << 1) ^ (deltaOfDelta >> 63);
+            if (encoded == 0) {
+                timeStream.writeBits(0b0, 1);
+            } else if (encoded >>> 7 == 0) {
+                timeStream.writeBits(0b10, 2);
+                timeStream.writeBits(encoded, 7);
+            } else if (encoded >>> 9 == 0) {
+                timeStream.writeBits(0b110, 3);
+                timeStream.writeBits(encoded, 9);
+            } else if (encoded >>> 12 == 0) {
+                timeStream.writeBits(0b1110, 4);
+                timeStream.writeBits(encoded, 12);
+            } else {
+                timeStream.writeBits(0b1111, 4);
+                timeStream.writeBits(encoded, 64);
+            }
+            lastDelta = delta;
+        }
+        lastTime = time;
+    }
+
+    private void appendValue(long valueBits) {
+        if (count == 0) {
+            valueStream.writeBits(valueBits, 64);
+        } else {
+            long xor = valueBits ^ lastValueBits;
+            if (xor == 0) {
+                valueStream.writeBits(0b0, 1);
+            } else {
+                int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int trailingZeros = Long.numberOfTrailingZeros(xor);
+                if (leadingZeros >= lastLeadingZeros && trailingZeros >= lastTrailingZeros) {
+                    // Meaningful bits fit into the previous window
+                    valueStream.writeBits(0b10, 2);
+                    valueStream.writeBits(xor >>> lastTrailingZeros, 64 - lastLeadingZeros - lastTrailingZeros);
+                } else {
+                    int meaningfulBits = 64 - leadingZeros - trailingZeros;
+                    valueStream.writeBits(0b11, 2);
+                    valueStream.writeBits(leadingZeros, 5);
+                    valueStream.writeBits(meaningfulBits - 1, 6);
+                    valueStream.writeBits(xor >>> trailingZeros, meaningfulBits);
+                    lastLeadingZeros = leadingZeros;
+                    lastTrailingZeros = trailingZeros;
+                }
+            }
+        }
+        lastValueBits = valueBits;
+    }
+
+    /**
+     * Adds points within the specified time range (inclusive) to the result list
+     */
+    public void readPoints(long fromTime, long toTime, @NotNull List<DashboardHistoryPoint> result) {
+        if (count == 0 || toTime < firstTime || fromTime > lastTime) {
+            return;
+        }
+        decodePoints(fromTime, toTime, result);
+    }
+
+    private void decodePoints(long fromTime, long toTime, @NotNull List<DashboardHistoryPoint> result) {
+        BitReader timeReader = new BitReader(timeStream);
+        BitReader valueReader = new BitReader(valueStream);
+        long time = 0, delta = 0, valueBits = 0;
+        int leadingZeros = 0, trailingZeros = 0;
+        for (int i = 0; i < count; i++) {
+            // Timestamp
+            if (i == 0) {
+                time = timeReader.readBits(64);
+            } else {
+                long encoded;
+                if (timeReader.readBits(1) == 0) {
+                    encoded = 0;
+                } else if (timeReader.readBits(1) == 0) {
+                    encoded = timeReader.readBits(7);
+                } else if (timeReader.readBits(1) == 0) {
+                    encoded = timeReader.readBits(9);
+                } else if (timeReader.readBits(1) == 0) {
+                    encoded = timeReader.readBits(12);
+                } else {
+                    encoded = timeReader.readBits(64);
+                }
+                delta += (encoded >>> 1) ^ -(encoded & 1);
+                time += delta;
+            }
+            // Value
+            if (i == 0) {
+                valueBits = valueReader.readBits(64);
+            } else if (valueReader.readBits(1) != 0) {
+                if (valueReader.readBits(1) != 0) {
+                    leadingZeros = (int) valueReader.readBits(5);
+                    int meaningfulBits = (int) valueReader.readBits(6) + 1;
+                    trailingZeros = 64 - leadingZeros - meaningfulBits;
+                }
+                valueBits ^= valueReader.readBits(64 - leadingZeros - trailingZeros) << trailingZeros;
+            }
+            if (time > toTime) {
+                break;
+            }
+            if (time >= fromTime) {
+                result.add(new DashboardHistoryPoint(time, Double.longBitsToDouble(valueBits)));
+            }
+        }
+    }
+
+    public void write(@NotNull DataOutput out) throws IOException {
+        out.writeInt(count);
+        timeStream.write(out);
+        valueStream.write(out);
+    }
+
+    /**
+     * Reads chunk written by {@link #write(DataOutput)}.
+     * Points are re-encoded, so the chunk may be appended after loading.
+     */
+    @NotNull
+    public static DashboardHistoryChunk read(@NotNull DataInput in) throws IOException {
+        DashboardHistoryChunk stored = new DashboardHistoryChunk();
+        stored.count = in.readInt();
+        stored.timeStream.read(in);
+        stored.valueStream.read(in);
+        if (stored.count < 0) {
+            throw new IOException("Bad chunk point count: " + stored.count);
+        }
+        List<DashboardHistoryPoint> points = new ArrayList<>(stored.count);
+        try {
+            stored.decodePoints(Long.MIN_VALUE, Long.MAX_VALUE, points);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Malformed history chunk", e);
+        }
+        DashboardHistoryChunk chunk = new DashboardHistoryChunk();
+        for (DashboardHistoryPoint point : points) {
+            chunk.append(point.time(), point.value());
+        }
+        return chunk;
+    }
+
+    private static class BitWriter {
+        private byte[] buffer = new byte[64];
+        private long bitCount;
+
+        void writeBits(long value, int bits) {
+            while (bits > 0) {
+                int bytePos = (int) (bitCount >>> 3);
+                if (bytePos >= buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int free = 8 - (int) (bitCount & 7);
+                int n = Math.min(free, bits);
+                int chunk = (int) ((value >>> (bits - n)) & ((1 << n) - 1));
+                buffer[bytePos] |= (byte) (chunk << (free - n));
+                bits -= n;
+                bitCount += n;
+            }
+        }
+
+        int getByteCount() {
+            return (int) ((bitCount + 7) >>> 3);
+        }
+
+        void write(DataOutput out) throws IOException {
+            out.writeLong(bitCount);
+            out.write(buffer, 0, getByteCount());
+        }
+
+        void read(DataInput in) throws IOException {
+            bitCount = in.readLong();
+            if (bitCount < 0 || bitCount > Integer.MAX_VALUE) {
+                throw new IOException("Bad chunk size: " + bitCount);
+            }
+            buffer = new byte[Math.max(getByteCount(), 1)];
+            in.readFully(buffer, 0, getByteCount());
+        }
+    }
+
+    private static class BitReader {
+        private final byte[] buffer;
+        private long position;
+
+        BitReader(BitWriter writer) {
+            this.buffer = writer.buffer;
+        }
+
+        long readBits(int bits) {
+            long result = 0;
+            while (bits > 0) {
+                int avail = 8 - (int) (position & 7);
+                int n = Math.min(avail, bits);
+                int b = buffer[(int) (position >>> 3)] & 0xFF;
+                result = (result << n) | ((b >>> (avail - n)) & ((1 << n) - 1));
+                bits -= n;
+                position += n;
+            }
+            return result;
+        }
+    }
+
+}
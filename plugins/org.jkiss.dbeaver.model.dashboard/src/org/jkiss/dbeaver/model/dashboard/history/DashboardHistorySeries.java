@@ -0,0 +1,224 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.dashboard.history;
+
+import org.jkiss.code.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * History of a single dashboard value.
+ * <p>
+ * Raw points are kept for a day. Older points are available as per-minute (for a week)
+ * and per-hour (for three months) averages. Each tier is split into chunks of a fixed time span,
+ * so chunks of a time range are found by their index without search.
+ */
+public class DashboardHistorySeries {
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    private static final int TIER_COUNT = 3;
+    // Resolution of rolled up tiers (zero for raw points)
+    private static final long[] TIER_RESOLUTION = { 0, MINUTE, HOUR };
+    private static final long[] TIER_CHUNK_SPAN = { HOUR, DAY, 30 * DAY };
+    private static final long[] TIER_RETENTION = { DAY, 7 * DAY, 90 * DAY };
+
+    private final List<Map<Long, DashboardHistoryChunk>> tiers = new ArrayList<>(TIER_COUNT);
+    // Current (incomplete) buckets of rolled up tiers
+    private final long[] bucketStart = new long[TIER_COUNT];
+    private final double[] bucketSum = new double[TIER_COUNT];
+    private final int[] bucketCount = new int[TIER_COUNT];
+    private long firstTime = Long.MIN_VALUE;
+    private long lastTime = Long.MIN_VALUE;
+
+    public DashboardHistorySeries() {
+        for (int i = 0; i < TIER_COUNT; i++) {
+            tiers.add(new HashMap<>());
+        }
+    }
+
+    public long getLastTime() {
+        return lastTime;
+    }
+
+    public boolean isEmpty() {
+        return lastTime == Long.MIN_VALUE;
+    }
+
+    /**
+     * Adds a point. Points which are not newer than the last added point are ignored.
+     *
+     * @return true if point was added
+     */
+    public boolean addPoint(long time, double value) {
+        if (time <= lastTime || Double.isNaN(value)) {
+            return false;
+        }
+        if (isEmpty()) {
+            firstTime = time;
+        }
+        appendToTier(0, time, value);
+        for (int tier = 1; tier < TIER_COUNT; tier++) {
+            long resolution = TIER_RESOLUTION[tier];
+            long start = Math.floorDiv(time, resolution) * resolution;
+            if (bucketCount[tier] > 0 && bucketStart[tier] != start) {
+                appendToTier(tier, bucketStart[tier], bucketSum[tier] / bucketCount[tier]);
+                bucketSum[tier] = 0;
+                bucketCount[tier] = 0;
+            }
+            bucketStart[tier] = start;
+            bucketSum[tier] += value;
+            bucketCount[tier]++;
+        }
+        lastTime = time;
+        return true;
+    }
+
+    private void appendToTier(int tier, long time, double value) {
+        tiers.get(tier)
+            .computeIfAbsent(Math.floorDiv(time, TIER_CHUNK_SPAN[tier]), k -> new DashboardHistoryChunk())
+            .append(time, value);
+    }
+
+    /**
+     * Returns points of the time range (inclusive).
+     * The finest tier which still keeps the range start and doesn't exceed maximum point count is used.
+     * If there are still too many points then they are averaged.
+     */
+    @NotNull
+    public List<DashboardHistoryPoint> readPoints(long fromTime, long toTime, int maxPoints, long currentTime) {
+        List<DashboardHistoryPoint> result = new ArrayList<>();
+        if (fromTime > toTime || maxPoints <= 0) {
+            return result;
+        }
+        // There is nothing before the first point, so finer tiers may be used for long ranges of new series
+        long dataFromTime = Math.max(fromTime, firstTime);
+        int tier = TIER_COUNT - 1;
+        for (int i = 0; i < TIER_COUNT; i++) {
+            if (dataFromTime >= currentTime - TIER_RETENTION[i] && estimatePointCount(i, dataFromTime, toTime) <= maxPoints) {
+                tier = i;
+                break;
+            }
+        }
+        long span = TIER_CHUNK_SPAN[tier];
+        long fromIndex = Math.floorDiv(Math.max(fromTime, currentTime - TIER_RETENTION[tier]), span);
+        long toIndex = Math.floorDiv(Math.min(toTime, lastTime), span);
+        Map<Long, DashboardHistoryChunk> chunks = tiers.get(tier);
+        for (long index = fromIndex; index <= toIndex; index++) {
+            DashboardHistoryChunk chunk = chunks.get(index);
+            if (chunk != null) {
+                chunk.readPoints(fromTime, toTime, result);
+            }
+        }
+        if (result.size() > maxPoints) {
+            return downsample(result, fromTime, toTime, maxPoints);
+        }
+        return result;
+    }
+
+    private long estimatePointCount(int tier, long fromTime, long toTime) {
+        if (TIER_RESOLUTION[tier] > 0) {
+            return (toTime - fromTime) / TIER_RESOLUTION[tier] + 1;
+        }
+        long span = TIER_CHUNK_SPAN[tier];
+        Map<Long, DashboardHistoryChunk> chunks = tiers.get(tier);
+        long count = 0;
+        long toIndex = Math.floorDiv(Math.min(toTime, lastTime), span);
+        for (long index = Math.floorDiv(fromTime, span); index <= toIndex; index++) {
+            DashboardHistoryChunk chunk = chunks.get(index);
+            if (chunk != null) {
+                count += chunk.getCount();
+            }
+        }
+        return count;
+    }
+
+    @NotNull
+    private static List<DashboardHistoryPoint> downsample(
+        @NotNull List<DashboardHistoryPoint> points,
+        long fromTime,
+        long toTime,
+        int maxPoints
+    ) {
+        List<DashboardHistoryPoint> result = new ArrayList<>(maxPoints);
+        double bucketSize = (double) (toTime - fromTime + 1) / maxPoints;
+        int pos = 0;
+        while (pos < points.size()) {
+            long bucket = (long) ((points.get(pos).time() - fromTime) / bucketSize);
+            double sum = 0;
+            long timeSum = 0;
+            int count = 0;
+            for (; pos < points.size() && (long) ((points.get(pos).time() - fromTime) / bucketSize) == bucket; pos++) {
+                DashboardHistoryPoint point = points.get(pos);
+                sum += point.value();
+                timeSum += point.time() - fromTime;
+                count++;
+            }
+            result.add(new DashboardHistoryPoint(fromTime + timeSum / count, sum / count));
+        }
+        return result;
+    }
+
+    /**
+     * Removes chunks which are completely out of retention period
+     */
+    public void removeExpired(long currentTime) {
+        for (int tier = 0; tier < TIER_COUNT; tier++) {
+            long minIndex = Math.floorDiv(currentTime - TIER_RETENTION[tier], TIER_CHUNK_SPAN[tier]);
+            tiers.get(tier).keySet().removeIf(index -> index < minIndex);
+        }
+    }
+
+    /**
+     * Writes all chunks. Incomplete rolled up buckets are not saved.
+     */
+    public void write(@NotNull DataOutput out) throws IOException {
+        out.writeLong(firstTime);
+        out.writeLong(lastTime);
+        for (Map<Long, DashboardHistoryChunk> chunks : tiers) {
+            out.writeInt(chunks.size());
+            for (Map.Entry<Long, DashboardHistoryChunk> entry : chunks.entrySet()) {
+                out.writeLong(entry.getKey());
+                entry.getValue().write(out);
+            }
+        }
+    }
+
+    @NotNull
+    public static DashboardHistorySeries read(@NotNull DataInput in) throws IOException {
+        DashboardHistorySeries series = new DashboardHistorySeries();
+        series.firstTime = in.readLong();
+        series.lastTime = in.readLong();
+        for (Map<Long, DashboardHistoryChunk> chunks : series.tiers) {
+            int chunkCount = in.readInt();
+            for (int i = 0; i < chunkCount; i++) {
+                long index = in.readLong();
+                chunks.put(index, DashboardHistoryChunk.read(in));
+            }
+        }
+        return series;
+    }
+
+}
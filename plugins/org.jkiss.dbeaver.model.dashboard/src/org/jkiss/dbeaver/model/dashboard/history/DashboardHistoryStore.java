@@ -0,0 +1,211 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.dashboard.history;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.dashboard.data.DashboardDataset;
+import org.jkiss.dbeaver.model.dashboard.data.DashboardDatasetRow;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Persistent store of dashboard values.
+ * <p>
+ * Each dashboard (identified by a string key) is stored in a separate file which contains
+ * compressed history of all dashboard columns. Files are loaded on first access
+ * and written periodically and on {@link #close()}.
+ */
+public class DashboardHistoryStore {
+
+    private static final Log log = Log.getLog(DashboardHistoryStore.class);
+
+    private static final int FILE_MAGIC = 0x44484953; // DHIS
+    private static final int FILE_VERSION = 1;
+    private static final String FILE_EXTENSION = ".dhist";
+    private static final long FLUSH_PERIOD = 5 * 60 * 1000L;
+
+    private final Path storeFolder;
+    private final Map<String, DashboardHistory> histories = new HashMap<>();
+
+    private static class DashboardHistory {
+        private final Map<String, DashboardHistorySeries> series = new LinkedHashMap<>();
+        private boolean dirty;
+        private long flushTime = System.currentTimeMillis();
+    }
+
+    public DashboardHistoryStore(@NotNull Path storeFolder) {
+        this.storeFolder = storeFolder;
+    }
+
+    /**
+     * Adds numeric values of dataset rows to the dashboard history
+     */
+    public synchronized void addDataset(@NotNull String dashboardKey, @NotNull DashboardDataset dataset) {
+        DashboardHistory history = getHistory(dashboardKey);
+        String[] columnNames = dataset.getColumnNames();
+        for (DashboardDatasetRow row : dataset.getRows()) {
+            if (row.getTimestamp() == null) {
+                continue;
+            }
+            long time = row.getTimestamp().getTime();
+            Object[] values = row.getValues();
+            for (int i = 0; i < columnNames.length && i < values.length; i++) {
+                if (values[i] instanceof Number number) {
+                    history.dirty |= history.series
+                        .computeIfAbsent(columnNames[i], k -> new DashboardHistorySeries())
+                        .addPoint(time, number.doubleValue());
+                }
+            }
+        }
+        if (history.dirty && System.currentTimeMillis() - history.flushTime >= FLUSH_PERIOD) {
+            saveHistory(dashboardKey, history);
+        }
+    }
+
+    /**
+     * Reads dashboard values of the specified time range.
+     * Each column returns at most maxPoints values, older values are averaged over minutes or hours.
+     *
+     * @return dataset or null if there is no history
+     */
+    @Nullable
+    public synchronized DashboardDataset readDataset(@NotNull String dashboardKey, long fromTime, long toTime, int maxPoints) {
+        DashboardHistory history = getHistory(dashboardKey);
+        if (history.series.isEmpty()) {
+            return null;
+        }
+        long currentTime = System.currentTimeMillis();
+        String[] columnNames = history.series.keySet().toArray(new String[0]);
+        SortedMap<Long, Object[]> rows = new TreeMap<>();
+        for (int i = 0; i < columnNames.length; i++) {
+            List<DashboardHistoryPoint> points = history.series.get(columnNames[i]).readPoints(fromTime, toTime, maxPoints, currentTime);
+            for (DashboardHistoryPoint point : points) {
+                rows.computeIfAbsent(point.time(), k -> new Object[columnNames.length])[i] = point.value();
+            }
+        }
+        if (rows.isEmpty()) {
+            return null;
+        }
+        DashboardDataset dataset = new DashboardDataset(columnNames);
+        for (Map.Entry<Long, Object[]> row : rows.entrySet()) {
+            dataset.addRow(new DashboardDatasetRow(new Date(row.getKey()), row.getValue()));
+        }
+        return dataset;
+    }
+
+    /**
+     * Saves all modified histories
+     */
+    public synchronized void flush() {
+        for (Map.Entry<String, DashboardHistory> entry : histories.entrySet()) {
+            if (entry.getValue().dirty) {
+                saveHistory(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Saves all modified histories and releases memory
+     */
+    public synchronized void close() {
+        flush();
+        histories.clear();
+    }
+
+    @NotNull
+    private DashboardHistory getHistory(@NotNull String dashboardKey) {
+        DashboardHistory history = histories.get(dashboardKey);
+        if (history == null) {
+            history = loadHistory(dashboardKey);
+            histories.put(dashboardKey, history);
+        }
+        return history;
+    }
+
+    @NotNull
+    private DashboardHistory loadHistory(@NotNull String dashboardKey) {
+        DashboardHistory history = new DashboardHistory();
+        Path file = getHistoryFile(dashboardKey);
+        if (!Files.exists(file)) {
+            return history;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                throw new IOException("Unsupported file format");
+            }
+            int seriesCount = in.readInt();
+            for (int i = 0; i < seriesCount; i++) {
+                String columnName = in.readUTF();
+                history.series.put(columnName, DashboardHistorySeries.read(in));
+            }
+        } catch (IOException e) {
+            log.debug("Error reading dashboard history from '" + file + "': " + e.getMessage());
+            history.series.clear();
+        }
+        return history;
+    }
+
+    private void saveHistory(@NotNull String dashboardKey, @NotNull DashboardHistory history) {
+        long currentTime = System.currentTimeMillis();
+        history.dirty = false;
+        history.flushTime = currentTime;
+        for (DashboardHistorySeries series : history.series.values()) {
+            series.removeExpired(currentTime);
+        }
+        Path file = getHistoryFile(dashboardKey);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(storeFolder);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(history.series.size());
+                for (Map.Entry<String, DashboardHistorySeries> entry : history.series.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().write(out);
+                }
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.debug("Error saving dashboard history to '" + file + "': " + e.getMessage());
+        }
+    }
+
+    @NotNull
+    private Path getHistoryFile(@NotNull String dashboardKey) {
+        StringBuilder fileName = new StringBuilder(dashboardKey.length() + 16);
+        for (int i = 0; i < dashboardKey.length(); i++) {
+            char c = dashboardKey.charAt(i);
+            fileName.append(Character.isLetterOrDigit(c) || c == '-' || c == '.' ? c : '_');
+        }
+        // Different keys may give the same name after escaping
+        fileName.append('-').append(Integer.toHexString(dashboardKey.hashCode())).append(FILE_EXTENSION);
+        return storeFolder.resolve(fileName.toString());
+    }
+
+}
@@ -65,6 +65,9 @@ public abstract class JDBCCompositeCache<
     private final Object objectColumnName;
 
     private final Map<PARENT, List<OBJECT>> objectCache = new IdentityHashMap<>();
+    // Locks of objects loading. Key is parent or the cache itself for all objects.
+    // Lock is removed when the last thread which loads or waits for the same key leaves it.
+    private final Map<Object, LoadLock> loadLocks = new IdentityHashMap<>();
 
     protected JDBCCompositeCache(
         JDBCStructCache<OWNER,?,?> parentCache,
@@ -199,6 +202,17 @@ public abstract class JDBCCompositeCache<
         }
     }
 
+    @Override
+    public void cacheObjects(@NotNull Collection<? extends OBJECT> objects)
+    {
+        super.cacheObjects(objects);
+        synchronized (objectCache) {
+            for (OBJECT object : objects) {
+                objectCache.computeIfAbsent(getParent(object), k -> new ArrayList<>()).add(object);
+            }
+        }
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
@@ -262,6 +276,10 @@ public abstract class JDBCCompositeCache<
         }
     }
 
+    private static class LoadLock {
+        int users;
+    }
+
     private class ObjectInfo {
         final OBJECT object;
         final List<ROW_REF> rows = new ArrayList<>();
@@ -277,15 +295,52 @@ public abstract class JDBCCompositeCache<
     protected void loadObjects(DBRProgressMonitor monitor, OWNER owner, PARENT forParent)
         throws DBException
     {
+        if (isObjectsLoaded(monitor, forParent)) {
+            return;
+        }
+        // Concurrent loads of the same parent wait for the first one, loads of different parents run in parallel
+        final Object lockKey = forParent == null ? this : forParent;
+        final LoadLock loadLock = acquireLoadLock(lockKey);
+        try {
+            synchronized (loadLock) {
+                if (isObjectsLoaded(monitor, forParent)) {
+                    return;
+                }
+                readObjects(monitor, owner, forParent);
+            }
+        } finally {
+            releaseLoadLock(lockKey, loadLock);
+        }
+    }
+
+    private boolean isObjectsLoaded(DBRProgressMonitor monitor, PARENT forParent) {
         synchronized (objectCache) {
-            if (monitor.isForceCacheUsage() ||
+            return monitor.isForceCacheUsage() ||
                 (forParent == null && isFullyCached()) ||
-                (forParent != null && (!forParent.isPersisted() || objectCache.containsKey(forParent))))
-            {
-                return;
+                (forParent != null && (!forParent.isPersisted() || objectCache.containsKey(forParent)));
+        }
+    }
+
+    @NotNull
+    private LoadLock acquireLoadLock(@NotNull Object lockKey) {
+        synchronized (loadLocks) {
+            LoadLock loadLock = loadLocks.computeIfAbsent(lockKey, k -> new LoadLock());
+            loadLock.users++;
+            return loadLock;
+        }
+    }
+
+    private void releaseLoadLock(@NotNull Object lockKey, @NotNull LoadLock loadLock) {
+        synchronized (loadLocks) {
+            if (--loadLock.users == 0) {
+                loadLocks.remove(lockKey);
             }
         }
+    }
 
+    private void readObjects(DBRProgressMonitor monitor, OWNER owner, PARENT forParent)
+        throws DBException
+    {
         // Load tables and columns first
         if (forParent == null) {
             parentCache.loadObjects(monitor, owner);
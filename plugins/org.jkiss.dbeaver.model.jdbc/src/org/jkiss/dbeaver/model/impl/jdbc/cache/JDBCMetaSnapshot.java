@@ -0,0 +1,367 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.*;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent snapshot of metadata read by JDBC caches of a single data source.
+ * <p>
+ * Snapshot entries are used once per connection: when cache is loaded first time after connect.
+ * Caches read objects from the entry and then refresh it in background. Explicit refresh always reads database.
+ * Snapshot is enabled by {@link ModelPreferences#META_SNAPSHOT_CACHE}.
+ * <p>
+ * Snapshots are kept in memory while their data source is connected.
+ * Snapshot file is deleted with its connection.
+ */
+public class JDBCMetaSnapshot {
+
+    private static final Log log = Log.getLog(JDBCMetaSnapshot.class);
+
+    private static final String SNAPSHOTS_FOLDER = "metadata-snapshots";
+    private static final String SNAPSHOT_FILE_EXT = ".snapshot";
+    private static final int FILE_MAGIC = 0x444D534E; // DMSN
+    private static final int FILE_VERSION = 1;
+    private static final long SAVE_DELAY_MS = 5000;
+
+    private static final Map<String, JDBCMetaSnapshot> snapshots = new HashMap<>();
+    private static final Set<DBPDataSourceRegistry> listenedRegistries = new HashSet<>();
+    private static final DBPEventListener eventListener = JDBCMetaSnapshot::handleDataSourceEvent;
+
+    /**
+     * Saved query result and the version of database objects it was read for.
+     * Version is a cache-specific value (e.g. last DDL time) which changes when objects change.
+     */
+    public record Entry(@Nullable String version, @NotNull JDBCMetaSnapshotResult result) {
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Set<String> usedKeys = new HashSet<>();
+    private WeakReference<DBPDataSource> usedDataSource = new WeakReference<>(null);
+    private final SaveJob saveJob = new SaveJob();
+
+    private JDBCMetaSnapshot(@NotNull Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns snapshot of the specified data source or null if snapshots are disabled
+     */
+    @Nullable
+    public static JDBCMetaSnapshot getSnapshot(@NotNull DBPDataSource dataSource) {
+        DBPDataSourceContainer container = dataSource.getContainer();
+        if (container.isTemporary() || !container.getPreferenceStore().getBoolean(ModelPreferences.META_SNAPSHOT_CACHE)) {
+            return null;
+        }
+        synchronized (snapshots) {
+            DBPDataSourceRegistry registry = container.getRegistry();
+            if (listenedRegistries.add(registry)) {
+                registry.addDataSourceListener(eventListener);
+                deleteOrphanedSnapshots(registry);
+            }
+            String snapshotId = getSnapshotId(container);
+            JDBCMetaSnapshot snapshot = snapshots.get(snapshotId);
+            if (snapshot == null) {
+                snapshot = new JDBCMetaSnapshot(getSnapshotFile(container));
+                snapshot.load();
+                snapshots.put(snapshotId, snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    private static void handleDataSourceEvent(@NotNull DBPEvent event) {
+        if (!(event.getObject() instanceof DBPDataSourceContainer container)) {
+            return;
+        }
+        if (event.getAction() == DBPEvent.Action.OBJECT_REMOVE) {
+            // Connection was deleted
+            JDBCMetaSnapshot snapshot;
+            synchronized (snapshots) {
+                snapshot = snapshots.remove(getSnapshotId(container));
+            }
+            if (snapshot != null) {
+                snapshot.finishSave(false);
+            }
+            deleteSnapshotFile(getSnapshotFile(container));
+        } else if (event.getAction() == DBPEvent.Action.OBJECT_UPDATE &&
+            Boolean.FALSE.equals(event.getEnabled()) && !container.isConnected())
+        {
+            // Disconnected. Snapshot is loaded from file on the next connect.
+            JDBCMetaSnapshot snapshot;
+            synchronized (snapshots) {
+                snapshot = snapshots.remove(getSnapshotId(container));
+            }
+            if (snapshot != null) {
+                snapshot.finishSave(true);
+            }
+        }
+    }
+
+    /**
+     * Deletes snapshot files of connections which were deleted while snapshots weren't used
+     */
+    private static void deleteOrphanedSnapshots(@NotNull DBPDataSourceRegistry registry) {
+        Path folder = registry.getProject().getMetadataFolder(false).resolve(SNAPSHOTS_FOLDER);
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        Set<Path> usedFiles = new HashSet<>();
+        for (DBPDataSourceContainer container : registry.getDataSources()) {
+            usedFiles.add(getSnapshotFile(container));
+        }
+        try (Stream<Path> files = Files.list(folder)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SNAPSHOT_FILE_EXT) && !usedFiles.contains(file))
+                .forEach(JDBCMetaSnapshot::deleteSnapshotFile);
+        } catch (IOException e) {
+            log.debug("Error reading metadata snapshots folder " + folder, e);
+        }
+    }
+
+    private static void deleteSnapshotFile(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Error deleting metadata snapshot " + file, e);
+        }
+    }
+
+    @NotNull
+    private static String getSnapshotId(@NotNull DBPDataSourceContainer container) {
+        return container.getProject().getId() + "/" + container.getId();
+    }
+
+    @NotNull
+    private static Path getSnapshotFile(@NotNull DBPDataSourceContainer container) {
+        return container.getProject().getMetadataFolder(false)
+            .resolve(SNAPSHOTS_FOLDER)
+            .resolve(escapeFileName(container.getId()) + SNAPSHOT_FILE_EXT);
+    }
+
+    /**
+     * Returns entry if it wasn't used with this data source instance yet.
+     * Subsequent calls return null until data source is reconnected.
+     */
+    @Nullable
+    public synchronized Entry takeEntry(@NotNull DBPDataSource dataSource, @NotNull String key) {
+        if (!markUsed(dataSource, key)) {
+            return null;
+        }
+        return entries.get(key);
+    }
+
+    public synchronized void putEntry(@NotNull DBPDataSource dataSource, @NotNull String key, @Nullable String version, @NotNull JDBCMetaSnapshotResult result) {
+        markUsed(dataSource, key);
+        entries.put(key, new Entry(version, result));
+        saveJob.schedule(SAVE_DELAY_MS);
+    }
+
+    public synchronized void removeEntry(@NotNull String key) {
+        if (entries.remove(key) != null) {
+            saveJob.schedule(SAVE_DELAY_MS);
+        }
+    }
+
+    /**
+     * Removes entries which depend on the specified entry (entries with keys {@code key#suffix})
+     */
+    public synchronized void removeDependentEntries(@NotNull String key) {
+        String prefix = key + "#";
+        if (entries.keySet().removeIf(k -> k.startsWith(prefix))) {
+            saveJob.schedule(SAVE_DELAY_MS);
+        }
+    }
+
+    private boolean markUsed(@NotNull DBPDataSource dataSource, @NotNull String key) {
+        if (usedDataSource.get() != dataSource) {
+            // Data source was reconnected
+            usedDataSource = new WeakReference<>(dataSource);
+            usedKeys.clear();
+        }
+        return usedKeys.add(key);
+    }
+
+    /**
+     * Wraps result set so all values read from it are recorded in the snapshot result
+     */
+    @NotNull
+    static JDBCResultSet recordResultSet(
+        @NotNull JDBCSession session,
+        @NotNull JDBCStatement dbStat,
+        @NotNull JDBCResultSet dbResult,
+        @NotNull JDBCMetaSnapshotResult snapshotResult
+    ) throws SQLException {
+        return JDBCResultSetImpl.makeResultSet(session, dbStat, snapshotResult.recordResultSet(dbResult), "Metadata snapshot", true);
+    }
+
+    /**
+     * Reads rows of the snapshot result with the specified reader.
+     * Returns reader result or null if snapshot result doesn't contain all values which were read.
+     */
+    @Nullable
+    static Boolean replayResultSet(
+        @NotNull JDBCSession session,
+        @NotNull JDBCMetaSnapshotResult snapshotResult,
+        @NotNull ResultReader reader
+    ) throws SQLException, DBException {
+        ResultSet replayResult = snapshotResult.replayResultSet();
+        boolean result;
+        try (JDBCResultSet dbResult = JDBCResultSetImpl.makeResultSet(session, null, replayResult, "Metadata snapshot", true)) {
+            result = reader.readResult(dbResult);
+        }
+        return JDBCMetaSnapshotResult.isReplayComplete(replayResult) ? result : null;
+    }
+
+    interface ResultReader {
+        boolean readResult(@NotNull JDBCResultSet dbResult) throws SQLException, DBException;
+    }
+
+    private synchronized void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                log.debug("Unsupported metadata snapshot format: " + file);
+                return;
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String key = in.readUTF();
+                String version = in.readBoolean() ? in.readUTF() : null;
+                entries.put(key, new Entry(version, JDBCMetaSnapshotResult.read(in)));
+            }
+        } catch (IOException e) {
+            log.debug("Error reading metadata snapshot " + file, e);
+            entries.clear();
+        }
+    }
+
+    /**
+     * Saves pending changes immediately or discards them. Waits for the running save.
+     */
+    private void finishSave(boolean savePending) {
+        if (saveJob.getState() == Job.NONE) {
+            return;
+        }
+        if (saveJob.cancel()) {
+            if (savePending) {
+                save();
+            }
+        } else {
+            try {
+                // Already saving
+                saveJob.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void save() {
+        Map<String, Entry> entriesCopy;
+        synchronized (this) {
+            entriesCopy = new LinkedHashMap<>(entries);
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(entriesCopy.size());
+                for (Map.Entry<String, Entry> entry : entriesCopy.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    String version = entry.getValue().version();
+                    out.writeBoolean(version != null);
+                    if (version != null) {
+                        out.writeUTF(version);
+                    }
+                    entry.getValue().result().write(out);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("Error saving metadata snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Escapes all characters except lower case ASCII letters, digits, '-' and '.' as '_' followed by 4 hex digits.
+     * Different names always produce different file names, also on case-insensitive file systems.
+     */
+    @NotNull
+    private static String escapeFileName(@NotNull String name) {
+        StringBuilder result = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '.') {
+                result.append(c);
+            } else {
+                result.append('_').append(String.format("%04x", (int) c));
+            }
+        }
+        return result.toString();
+    }
+
+    private class SaveJob extends AbstractJob {
+        SaveJob() {
+            super("Save metadata snapshot");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            save();
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -0,0 +1,564 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Metadata query result saved in the metadata snapshot.
+ * <p>
+ * Only values which were actually read by the cache (by column label or index) are recorded,
+ * so replayed result set must be read with the same getters.
+ * Values of unsupported types (LOBs, arrays, driver-specific objects) make the result not recordable.
+ */
+public class JDBCMetaSnapshotResult {
+
+    private static final Object NOT_READ = new Object();
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_INT = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_FLOAT = 6;
+    private static final byte TYPE_SHORT = 7;
+    private static final byte TYPE_BYTE = 8;
+    private static final byte TYPE_DECIMAL = 9;
+    private static final byte TYPE_BIGINT = 10;
+    private static final byte TYPE_TIMESTAMP = 11;
+    private static final byte TYPE_DATE = 12;
+    private static final byte TYPE_TIME = 13;
+    private static final byte TYPE_BINARY = 14;
+    private static final byte TYPE_NOT_READ = 15;
+
+    private static final Set<String> UNSUPPORTED_GETTERS = Set.of(
+        "getArray", "getBlob", "getClob", "getNClob", "getRef", "getRowId", "getSQLXML", "getURL",
+        "getAsciiStream", "getBinaryStream", "getCharacterStream", "getNCharacterStream", "getUnicodeStream");
+
+    private final List<String> columnLabels = new ArrayList<>();
+    private final List<Integer> columnTypes = new ArrayList<>();
+    // Keys of read values: upper-case column labels or column indexes
+    private final List<Object> valueKeys = new ArrayList<>();
+    private final Map<Object, Integer> valueKeyIndexes = new HashMap<>();
+    private final List<Object[]> rows = new ArrayList<>();
+    private boolean valid = true;
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    /**
+     * Returns result set which reads original result set and records all read values
+     */
+    @NotNull
+    public ResultSet recordResultSet(@NotNull ResultSet original) {
+        try {
+            ResultSetMetaData metaData = original.getMetaData();
+            if (metaData != null) {
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    columnLabels.add(metaData.getColumnLabel(i));
+                    columnTypes.add(metaData.getColumnType(i));
+                }
+            }
+        } catch (Throwable e) {
+            // Metadata is not required
+        }
+        return (ResultSet) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[]{ResultSet.class},
+            new RecordingHandler(original));
+    }
+
+    /**
+     * Returns result set which returns recorded values.
+     * Reading value which wasn't recorded throws SQLException, see {@link #isReplayComplete(ResultSet)}.
+     */
+    @NotNull
+    public ResultSet replayResultSet() {
+        return (ResultSet) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[]{ResultSet.class},
+            new ReplayHandler());
+    }
+
+    /**
+     * Checks that all values read from replayed result set were recorded.
+     * Metadata readers often ignore errors of particular values (e.g. JDBCUtils.safeGetString), so errors can't be used.
+     */
+    public static boolean isReplayComplete(@NotNull ResultSet replayResultSet) {
+        return Proxy.isProxyClass(replayResultSet.getClass()) &&
+            Proxy.getInvocationHandler(replayResultSet) instanceof ReplayHandler handler &&
+            !handler.missingValues;
+    }
+
+    @Nullable
+    private static Object getValueKey(@Nullable Object[] args) {
+        if (args == null || args.length == 0) {
+            return null;
+        }
+        if (args[0] instanceof String label) {
+            return label.toUpperCase(Locale.ENGLISH);
+        } else if (args[0] instanceof Integer index) {
+            return index;
+        }
+        return null;
+    }
+
+    private static boolean isGetter(@NotNull Method method) {
+        String name = method.getName();
+        if (!name.startsWith("get") || method.getParameterCount() < 1) {
+            return false;
+        }
+        Class<?> paramType = method.getParameterTypes()[0];
+        return paramType == String.class || paramType == int.class;
+    }
+
+    private static boolean isSupportedValue(@Nullable Object value) {
+        return value == null || value instanceof String || value instanceof Boolean || value instanceof Integer ||
+            value instanceof Long || value instanceof Double || value instanceof Float || value instanceof Short ||
+            value instanceof Byte || value instanceof BigDecimal || value instanceof BigInteger ||
+            value instanceof Timestamp || value instanceof java.sql.Date || value instanceof Time || value instanceof byte[];
+    }
+
+    private class RecordingHandler implements InvocationHandler {
+        private final ResultSet original;
+        private Object[] currentRow;
+
+        RecordingHandler(@NotNull ResultSet original) {
+            this.original = original;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(original, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (!valid) {
+                return result;
+            }
+            if (method.getName().equals("next")) {
+                currentRow = Boolean.TRUE.equals(result) ? new Object[0] : null;
+                if (currentRow != null) {
+                    rows.add(currentRow);
+                }
+            } else if (isGetter(method)) {
+                Object key = getValueKey(args);
+                if (currentRow == null || key == null || UNSUPPORTED_GETTERS.contains(method.getName()) || !isSupportedValue(result)) {
+                    valid = false;
+                    return result;
+                }
+                Object value = result;
+                if (value != null && method.getReturnType().isPrimitive() && original.wasNull()) {
+                    // Primitive getters return 0/false for NULL, record NULL so replay reports it with wasNull
+                    value = null;
+                }
+                Integer keyIndex = valueKeyIndexes.get(key);
+                if (keyIndex == null) {
+                    keyIndex = valueKeys.size();
+                    valueKeys.add(key);
+                    valueKeyIndexes.put(key, keyIndex);
+                }
+                if (keyIndex >= currentRow.length) {
+                    int oldLength = currentRow.length;
+                    currentRow = Arrays.copyOf(currentRow, valueKeys.size());
+                    Arrays.fill(currentRow, oldLength, currentRow.length, NOT_READ);
+                    rows.set(rows.size() - 1, currentRow);
+                }
+                currentRow[keyIndex] = value;
+            }
+            return result;
+        }
+    }
+
+    private class ReplayHandler implements InvocationHandler {
+        private int rowIndex = -1;
+        private boolean closed;
+        private boolean wasNull;
+        private volatile boolean missingValues;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "next":
+                    if (rowIndex < rows.size()) {
+                        rowIndex++;
+                    }
+                    return rowIndex < rows.size();
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "wasNull":
+                    return wasNull;
+                case "getMetaData":
+                    return Proxy.newProxyInstance(
+                        getClass().getClassLoader(),
+                        new Class[]{ResultSetMetaData.class},
+                        (metaProxy, metaMethod, metaArgs) -> getMetaDataProperty(metaMethod, metaArgs));
+                case "findColumn":
+                    for (int i = 0; i < columnLabels.size(); i++) {
+                        if (columnLabels.get(i).equalsIgnoreCase((String) args[0])) {
+                            return i + 1;
+                        }
+                    }
+                    throw new SQLException("Column '" + args[0] + "' not found");
+                case "getRow":
+                    return rowIndex >= 0 && rowIndex < rows.size() ? rowIndex + 1 : 0;
+                case "getType":
+                    return ResultSet.TYPE_FORWARD_ONLY;
+                case "getConcurrency":
+                    return ResultSet.CONCUR_READ_ONLY;
+                case "getFetchSize":
+                    return 0;
+                case "getStatement":
+                case "getWarnings":
+                    return null;
+                case "setFetchSize":
+                case "clearWarnings":
+                    return null;
+                case "isWrapperFor":
+                    return false;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Metadata snapshot result set";
+            }
+            if (isGetter(method)) {
+                Object value = getValue(getValueKey(args));
+                wasNull = value == null;
+                try {
+                    return convertValue(value, method.getReturnType(), args);
+                } catch (SQLException e) {
+                    missingValues = true;
+                    throw e;
+                }
+            }
+            throw new SQLFeatureNotSupportedException("Method " + name + " is not supported by metadata snapshot");
+        }
+
+        private Object getValue(Object key) throws SQLException {
+            if (rowIndex < 0 || rowIndex >= rows.size()) {
+                missingValues = true;
+                throw new SQLException("No current row in metadata snapshot");
+            }
+            Integer keyIndex = valueKeyIndexes.get(key);
+            Object[] row = rows.get(rowIndex);
+            if (keyIndex == null || keyIndex >= row.length || row[keyIndex] == NOT_READ) {
+                missingValues = true;
+                throw new SQLException("Column " + key + " is not saved in metadata snapshot");
+            }
+            return row[keyIndex];
+        }
+
+        private Object getMetaDataProperty(Method method, Object[] args) throws SQLException {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return columnLabels.size();
+                case "getColumnLabel":
+                case "getColumnName":
+                    return columnLabels.get((Integer) args[0] - 1);
+                case "getColumnType":
+                    return columnTypes.get((Integer) args[0] - 1);
+                case "isWrapperFor":
+                    return false;
+            }
+            throw new SQLFeatureNotSupportedException("Method " + method.getName() + " is not supported by metadata snapshot");
+        }
+    }
+
+    private static Object convertValue(Object value, Class<?> type, Object[] args) throws SQLException {
+        if (value == null) {
+            if (type == boolean.class) {
+                return false;
+            } else if (type == int.class) {
+                return 0;
+            } else if (type == long.class) {
+                return 0L;
+            } else if (type == double.class) {
+                return 0.0;
+            } else if (type == float.class) {
+                return 0.0f;
+            } else if (type == short.class) {
+                return (short) 0;
+            } else if (type == byte.class) {
+                return (byte) 0;
+            }
+            return null;
+        }
+        if (args.length > 1 && args[1] instanceof Class<?> targetType) {
+            // getObject(column, type)
+            if (targetType.isInstance(value)) {
+                return value;
+            }
+            type = getPrimitiveType(targetType);
+        }
+        if (type == Object.class) {
+            return value;
+        } else if (type == String.class) {
+            return value.toString();
+        } else if (type == boolean.class) {
+            if (value instanceof Boolean bool) {
+                return bool;
+            } else if (value instanceof Number number) {
+                return number.intValue() != 0;
+            }
+            return "true".equalsIgnoreCase(value.toString()) || "1".equals(value.toString());
+        } else if (value instanceof Number || value instanceof String) {
+            try {
+                BigDecimal number = value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString().trim());
+                if (type == int.class) {
+                    return number.intValue();
+                } else if (type == long.class) {
+                    return number.longValue();
+                } else if (type == double.class) {
+                    return value instanceof Double d ? d : number.doubleValue();
+                } else if (type == float.class) {
+                    return value instanceof Float f ? f : number.floatValue();
+                } else if (type == short.class) {
+                    return number.shortValue();
+                } else if (type == byte.class) {
+                    return number.byteValue();
+                } else if (type == BigDecimal.class) {
+                    return number;
+                }
+            } catch (NumberFormatException e) {
+                throw new SQLException("Bad numeric value in metadata snapshot: " + value);
+            }
+        } else if (value instanceof java.util.Date date) {
+            if (type == Timestamp.class) {
+                return date instanceof Timestamp ? date : new Timestamp(date.getTime());
+            } else if (type == java.sql.Date.class) {
+                return date instanceof java.sql.Date ? date : new java.sql.Date(date.getTime());
+            } else if (type == Time.class) {
+                return date instanceof Time ? date : new Time(date.getTime());
+            }
+        } else if (value instanceof byte[] && type == byte[].class) {
+            return value;
+        }
+        throw new SQLException("Can't convert metadata snapshot value " + value.getClass().getSimpleName() + " to " + type.getSimpleName());
+    }
+
+    @NotNull
+    private static Class<?> getPrimitiveType(@NotNull Class<?> type) {
+        if (type == Boolean.class) {
+            return boolean.class;
+        } else if (type == Integer.class) {
+            return int.class;
+        } else if (type == Long.class) {
+            return long.class;
+        } else if (type == Double.class) {
+            return double.class;
+        } else if (type == Float.class) {
+            return float.class;
+        } else if (type == Short.class) {
+            return short.class;
+        } else if (type == Byte.class) {
+            return byte.class;
+        }
+        return type;
+    }
+
+    public void write(@NotNull DataOutput out) throws IOException {
+        out.writeInt(columnLabels.size());
+        for (int i = 0; i < columnLabels.size(); i++) {
+            out.writeUTF(columnLabels.get(i));
+            out.writeInt(columnTypes.get(i));
+        }
+        out.writeInt(valueKeys.size());
+        for (Object key : valueKeys) {
+            if (key instanceof Integer index) {
+                out.writeBoolean(true);
+                out.writeInt(index);
+            } else {
+                out.writeBoolean(false);
+                out.writeUTF(key.toString());
+            }
+        }
+        out.writeInt(rows.size());
+        for (Object[] row : rows) {
+            for (int i = 0; i < valueKeys.size(); i++) {
+                writeValue(out, i < row.length ? row[i] : NOT_READ);
+            }
+        }
+    }
+
+    @NotNull
+    public static JDBCMetaSnapshotResult read(@NotNull DataInput in) throws IOException {
+        JDBCMetaSnapshotResult result = new JDBCMetaSnapshotResult();
+        int columnCount = in.readInt();
+        for (int i = 0; i < columnCount; i++) {
+            result.columnLabels.add(in.readUTF());
+            result.columnTypes.add(in.readInt());
+        }
+        int keyCount = in.readInt();
+        for (int i = 0; i < keyCount; i++) {
+            Object key = in.readBoolean() ? (Object) in.readInt() : in.readUTF();
+            result.valueKeyIndexes.put(key, result.valueKeys.size());
+            result.valueKeys.add(key);
+        }
+        int rowCount = in.readInt();
+        for (int i = 0; i < rowCount; i++) {
+            Object[] row = new Object[keyCount];
+            for (int k = 0; k < keyCount; k++) {
+                row[k] = readValue(in);
+            }
+            result.rows.add(row);
+        }
+        return result;
+    }
+
+    private static void writeValue(@NotNull DataOutput out, @Nullable Object value) throws IOException {
+        if (value == NOT_READ) {
+            out.writeByte(TYPE_NOT_READ);
+        } else if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String str) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, str);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof Integer number) {
+            out.writeByte(TYPE_INT);
+            out.writeInt(number);
+        } else if (value instanceof Long number) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(number);
+        } else if (value instanceof Double number) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(number);
+        } else if (value instanceof Float number) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat(number);
+        } else if (value instanceof Short number) {
+            out.writeByte(TYPE_SHORT);
+            out.writeShort(number);
+        } else if (value instanceof Byte number) {
+            out.writeByte(TYPE_BYTE);
+            out.writeByte(number);
+        } else if (value instanceof BigDecimal number) {
+            out.writeByte(TYPE_DECIMAL);
+            out.writeUTF(number.toString());
+        } else if (value instanceof BigInteger number) {
+            out.writeByte(TYPE_BIGINT);
+            out.writeUTF(number.toString());
+        } else if (value instanceof Timestamp timestamp) {
+            out.writeByte(TYPE_TIMESTAMP);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        } else if (value instanceof java.sql.Date date) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(date.getTime());
+        } else if (value instanceof Time time) {
+            out.writeByte(TYPE_TIME);
+            out.writeLong(time.getTime());
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte(TYPE_BINARY);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else {
+            throw new IOException("Unsupported metadata value type: " + value.getClass().getName());
+        }
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull DataInput in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NOT_READ:
+                return NOT_READ;
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_INT:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_FLOAT:
+                return in.readFloat();
+            case TYPE_SHORT:
+                return in.readShort();
+            case TYPE_BYTE:
+                return in.readByte();
+            case TYPE_DECIMAL:
+                return new BigDecimal(in.readUTF());
+            case TYPE_BIGINT:
+                return new BigInteger(in.readUTF());
+            case TYPE_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case TYPE_DATE:
+                return new java.sql.Date(in.readLong());
+            case TYPE_TIME:
+                return new Time(in.readLong());
+            case TYPE_BINARY: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return bytes;
+            }
+            default:
+                throw new IOException("Unknown metadata value type: " + type);
+        }
+    }
+
+    private static void writeString(@NotNull DataOutput out, @NotNull String str) throws IOException {
+        // writeUTF is limited to 64Kb (view definitions and comments may be longer)
+        byte[] bytes = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @NotNull
+    private static String readString(@NotNull DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+}
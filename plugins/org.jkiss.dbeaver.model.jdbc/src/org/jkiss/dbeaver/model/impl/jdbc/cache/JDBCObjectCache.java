@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.model.impl.jdbc.cache;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBDatabaseException;
@@ -28,15 +30,14 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
 import org.jkiss.utils.CommonUtils;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 
 /**
  * Various objects cache.
@@ -103,36 +104,17 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         if (owner.isPersisted()) {
             // Load cache from database only for persisted objects
             try {
+                JDBCMetaSnapshot snapshot = isSnapshotSupported() ? JDBCMetaSnapshot.getSnapshot(dataSource) : null;
                 try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load objects from " + owner.getName())) {
                     beforeCacheLoading(session, owner);
-                    try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
-                        monitor.subTask("Load " + getCacheName());
-                        dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                        dbStat.executeStatement();
-                        JDBCResultSet dbResult = dbStat.getResultSet();
-                        if (dbResult != null) {
-                            try {
-                                while (dbResult.next()) {
-                                    if (monitor.isCanceled()) {
-                                        return;
-                                    }
-
-                                    OBJECT object = fetchObject(session, owner, dbResult);
-                                    if (object == null || !isValidObject(monitor, owner, object)) {
-                                        continue;
-                                    }
-                                    tmpObjectList.add(object);
-
-                                    // Do not log every object load. This overheats UI in case of long lists
-                                    //monitor.subTask(object.getName());
-                                    if (tmpObjectList.size() == maximumCacheSize) {
-                                        log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
-                                        break;
-                                    }
-                                }
-                            } finally {
-                                dbResult.close();
+                    try {
+                        Boolean snapshotRead = snapshot == null ? null : readSnapshotObjects(session, owner, snapshot, tmpObjectList);
+                        if (snapshotRead == null) {
+                            if (!readObjects(session, owner, snapshot, tmpObjectList)) {
+                                return;
                             }
+                        } else if (!snapshotRead) {
+                            return;
                         }
                     } finally {
                         afterCacheLoading(session, owner);
@@ -163,6 +145,220 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         this.invalidateObjects(monitor, owner, new CacheIterator());
     }
 
+    /**
+     * Reads objects from database. Saves read rows in metadata snapshot (if it is enabled).
+     * Returns false if read was canceled.
+     */
+    private boolean readObjects(
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @Nullable JDBCMetaSnapshot snapshot,
+        @NotNull List<OBJECT> objects
+    ) throws SQLException, DBException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        String snapshotVersion = null;
+        if (snapshot != null) {
+            try {
+                // Version is read before objects, so changes made during read will be detected next time
+                snapshotVersion = readSnapshotVersion(session, owner);
+            } catch (SQLException e) {
+                log.debug("Error reading metadata version of " + getCacheName() + ": " + e.getMessage());
+            }
+        }
+        try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
+            monitor.subTask("Load " + getCacheName());
+            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+            dbStat.executeStatement();
+            JDBCResultSet dbResult = dbStat.getResultSet();
+            if (dbResult != null) {
+                JDBCMetaSnapshotResult snapshotResult = snapshot == null ? null : new JDBCMetaSnapshotResult();
+                // Recording result set closes the original one
+                JDBCResultSet fetchResult = snapshotResult == null ?
+                    dbResult : JDBCMetaSnapshot.recordResultSet(session, dbStat, dbResult, snapshotResult);
+                try {
+                    if (!fetchObjects(session, owner, fetchResult, objects)) {
+                        return false;
+                    }
+                } finally {
+                    fetchResult.close();
+                }
+                if (snapshotResult != null) {
+                    String snapshotKey = getSnapshotKey(owner);
+                    if (snapshotResult.isValid() && objects.size() < maximumCacheSize) {
+                        snapshot.putEntry(session.getDataSource(), snapshotKey, snapshotVersion, snapshotResult);
+                    } else {
+                        snapshot.removeEntry(snapshotKey);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads objects from metadata snapshot.
+     * Returns null if there is no snapshot entry or it can't be read, false if read was canceled.
+     */
+    @Nullable
+    private Boolean readSnapshotObjects(
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @NotNull JDBCMetaSnapshot snapshot,
+        @NotNull List<OBJECT> objects
+    ) {
+        String snapshotKey = getSnapshotKey(owner);
+        JDBCMetaSnapshot.Entry entry = snapshot.takeEntry(session.getDataSource(), snapshotKey);
+        if (entry == null) {
+            return null;
+        }
+        Boolean result;
+        try {
+            result = JDBCMetaSnapshot.replayResultSet(
+                session, entry.result(), dbResult -> fetchObjects(session, owner, dbResult, objects));
+        } catch (Exception e) {
+            log.debug("Error reading " + getCacheName() + " from metadata snapshot: " + e.getMessage());
+            result = null;
+        }
+        if (result == null) {
+            // Snapshot doesn't match the current cache implementation
+            snapshot.removeEntry(snapshotKey);
+            objects.clear();
+            return null;
+        }
+        if (result) {
+            new SnapshotRefreshJob(owner, snapshot, entry.version()).schedule();
+        }
+        return result;
+    }
+
+    private boolean fetchObjects(
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @NotNull JDBCResultSet dbResult,
+        @NotNull List<OBJECT> objects
+    ) throws SQLException, DBException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        while (dbResult.next()) {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+
+            OBJECT object = fetchObject(session, owner, dbResult);
+            if (object == null || !isValidObject(monitor, owner, object)) {
+                continue;
+            }
+            objects.add(object);
+
+            // Do not log every object load. This overheats UI in case of long lists
+            //monitor.subTask(object.getName());
+            if (objects.size() == maximumCacheSize) {
+                log.warn("Maximum cache size exceeded (" + maximumCacheSize + ") in " + this);
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Re-reads objects which were loaded from metadata snapshot and merges them into the cache.
+     * Does nothing if objects version didn't change.
+     */
+    private void refreshSnapshotObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull OWNER owner,
+        @NotNull JDBCMetaSnapshot snapshot,
+        @Nullable String snapshotVersion
+    ) throws DBException {
+        List<OBJECT> oldObjects;
+        List<OBJECT> newObjects;
+        List<OBJECT> updatedObjects;
+        synchronized (this) {
+            if (!isFullyCached()) {
+                // Cache was reset, it will be read from database
+                return;
+            }
+            List<OBJECT> tmpObjectList = new ArrayList<>();
+            try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Refresh objects of " + owner.getName())) {
+                if (snapshotVersion != null && snapshotVersion.equals(readSnapshotVersion(session, owner))) {
+                    return;
+                }
+                beforeCacheLoading(session, owner);
+                try {
+                    if (!readObjects(session, owner, snapshot, tmpObjectList)) {
+                        return;
+                    }
+                } finally {
+                    afterCacheLoading(session, owner);
+                }
+            } catch (SQLException ex) {
+                throw new DBDatabaseException(ex, owner.getDataSource());
+            }
+            snapshot.removeDependentEntries(getSnapshotKey(owner));
+
+            addCustomObjects(monitor, owner, tmpObjectList);
+            Comparator<OBJECT> comparator = getListOrderComparator();
+            if (comparator != null && !CommonUtils.isEmpty(tmpObjectList)) {
+                tmpObjectList.sort(comparator);
+            }
+            oldObjects = getCachedObjects();
+            // Objects loaded from snapshot may be referenced already, so they are kept and get the actual state
+            updatedObjects = mergeCache(tmpObjectList, true);
+            this.invalidateObjects(monitor, owner, new CacheIterator());
+            newObjects = getCachedObjects();
+            afterSnapshotRefresh(owner);
+        }
+
+        Set<OBJECT> oldSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        oldSet.addAll(oldObjects);
+        Set<OBJECT> newSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        newSet.addAll(newObjects);
+        for (OBJECT object : oldObjects) {
+            if (!newSet.contains(object)) {
+                DBUtils.fireObjectRemove(object);
+            }
+        }
+        for (OBJECT object : newObjects) {
+            if (!oldSet.contains(object)) {
+                DBUtils.fireObjectAdd(object, null);
+            }
+        }
+        for (OBJECT object : updatedObjects) {
+            if (newSet.contains(object)) {
+                DBUtils.fireObjectUpdate(object);
+            }
+        }
+    }
+
+    /**
+     * Whether this cache may be loaded from metadata snapshot. Disabled by default.
+     * Caches may enable it only if they keep no state besides objects list
+     * and read result set only with JDBCResultSet getters (no unwrapping to the driver's result set).
+     */
+    protected boolean isSnapshotSupported() {
+        return false;
+    }
+
+    /**
+     * Reads version of owner's objects. Version must change when objects are created, dropped or altered.
+     * If null then objects loaded from snapshot are always re-read from database in background.
+     */
+    @Nullable
+    protected String readSnapshotVersion(@NotNull JDBCSession session, @NotNull OWNER owner) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Called after objects loaded from snapshot were refreshed from database
+     */
+    protected void afterSnapshotRefresh(@NotNull OWNER owner) {
+        // Do nothing
+    }
+
+    @NotNull
+    protected String getSnapshotKey(@NotNull OWNER owner) {
+        return getClass().getName() + ":" + DBUtils.getObjectFullId(owner);
+    }
+
     public void beforeCacheLoading(JDBCSession session, OWNER owner) throws DBException {
         // Do nothing
     }
@@ -180,4 +376,29 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         return false;
     }
 
+    private class SnapshotRefreshJob extends AbstractJob {
+        private final OWNER owner;
+        private final JDBCMetaSnapshot snapshot;
+        private final String snapshotVersion;
+
+        SnapshotRefreshJob(@NotNull OWNER owner, @NotNull JDBCMetaSnapshot snapshot, @Nullable String snapshotVersion) {
+            super("Refresh " + getCacheName() + " of " + owner.getName());
+            this.owner = owner;
+            this.snapshot = snapshot;
+            this.snapshotVersion = snapshotVersion;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                refreshSnapshotObjects(monitor, owner, snapshot, snapshotVersion);
+            } catch (Exception e) {
+                log.debug("Error refreshing " + getCacheName() + " loaded from metadata snapshot", e);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
 }
@@ -49,6 +49,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
 
     private final Object objectNameColumn;
     private volatile boolean childrenCached = false;
+    private volatile boolean childrenFromSnapshot = false;
     private final Map<OBJECT, SimpleObjectCache<OBJECT, CHILD>> childrenCache = new IdentityHashMap<>();
 
     abstract protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OWNER owner, @Nullable OBJECT forObject)
@@ -91,81 +92,74 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load child objects")) {
             Map<OBJECT, List<CHILD>> objectMap = new HashMap<>();
 
-            // Load columns
-            try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
-                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
-                if (dbResult != null) {
-                    try {
-                        while (dbResult.next()) {
-                            if (monitor.isCanceled()) {
+            JDBCMetaSnapshot snapshot = forObject == null && isSnapshotSupported() ? JDBCMetaSnapshot.getSnapshot(dataSource) : null;
+            Boolean childrenRead = snapshot == null ? null : readSnapshotChildren(session, owner, snapshot, objectMap);
+            if (childrenRead == null) {
+                childrenRead = false;
+                // Load columns
+                try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
+                    dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                    dbStat.executeStatement();
+                    JDBCResultSet dbResult = dbStat.getResultSet();
+                    if (dbResult != null) {
+                        // Rows of objects with already cached children are not read completely, so they can't be recorded
+                        JDBCMetaSnapshotResult snapshotResult = snapshot == null || hasCachedChildren() ? null : new JDBCMetaSnapshotResult();
+                        // Recording result set closes the original one
+                        JDBCResultSet fetchResult = snapshotResult == null ?
+                            dbResult : JDBCMetaSnapshot.recordResultSet(session, dbStat, dbResult, snapshotResult);
+                        try {
+                            if (!fetchChildren(session, owner, forObject, fetchResult, objectMap)) {
                                 return;
                             }
-                            OBJECT object = forObject;
-                            if (object == null) {
-                                String objectName;
-                                if (objectNameColumn instanceof Number) {
-                                    objectName = JDBCUtils.safeGetString(dbResult, ((Number) objectNameColumn).intValue());
-                                } else {
-                                    objectName = JDBCUtils.safeGetStringTrimmed(dbResult, objectNameColumn.toString());
-                                }
-                                if (objectName == null) {
-                                    log.debug("NULL object name in " + this);
-                                    continue;
-                                }
-
-                                object = super.getCachedObject(objectName);
-                                if (object == null) {
-                                    log.debug("Object '" + objectName + "' not found in struct cache (" + getClass().getSimpleName() + ")");
-                                    continue;
-                                }
-                            }
-                            if (isChildrenCached(object)) {
-                                // Already read
-                                continue;
-                            }
-                            CHILD child = fetchChild(session, owner, object, dbResult);
-                            if (child == null) {
-                                continue;
+                        } finally {
+                            fetchResult.close();
+                        }
+                        if (snapshotResult != null) {
+                            String snapshotKey = getChildrenSnapshotKey(owner);
+                            if (snapshotResult.isValid()) {
+                                snapshot.putEntry(dataSource, snapshotKey, null, snapshotResult);
+                            } else {
+                                snapshot.removeEntry(snapshotKey);
                             }
-
-                            // Add to map
-                            List<CHILD> children = objectMap.computeIfAbsent(object, k -> new ArrayList<>());
-                            children.add(child);
                         }
+                        childrenRead = true;
+                    }
+                }
+                if (forObject == null) {
+                    childrenFromSnapshot = false;
+                }
+            } else if (childrenRead) {
+                childrenFromSnapshot = true;
+            }
 
-                        if (monitor.isCanceled()) {
-                            return;
-                        }
+            if (childrenRead) {
+                if (monitor.isCanceled()) {
+                    return;
+                }
 
-                        // All children are read. Now assign them to parents
-                        for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
-                            if (!isChildrenCached(colEntry.getKey())) {
-                                // isChildrenCached may return true if the same cache was read in other thread
-                                // just skip
-                                cacheChildren(colEntry.getKey(), colEntry.getValue());
-                            }
-                        }
-                        if (forObject == null) {
-                            if (objectMap.isEmpty()) {
-                                // Nothing was read. May be it means empty list of children
-                                // but possibly this feature is not supported [JDBC: SQLite]
-                            } else {
-                                // Now set empty column list for other tables
-                                for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
-                                    if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
-                                        cacheChildren(tmpObject, new ArrayList<>());
-                                    }
-                                }
-                                this.childrenCached = true;
+                // All children are read. Now assign them to parents
+                for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
+                    if (!isChildrenCached(colEntry.getKey())) {
+                        // isChildrenCached may return true if the same cache was read in other thread
+                        // just skip
+                        cacheChildren(colEntry.getKey(), colEntry.getValue());
+                    }
+                }
+                if (forObject == null) {
+                    if (objectMap.isEmpty()) {
+                        // Nothing was read. May be it means empty list of children
+                        // but possibly this feature is not supported [JDBC: SQLite]
+                    } else {
+                        // Now set empty column list for other tables
+                        for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
+                            if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
+                                cacheChildren(tmpObject, new ArrayList<>());
                             }
-                        } else if (!objectMap.containsKey(forObject)) {
-                            cacheChildren(forObject, new ArrayList<>());
                         }
-                    } finally {
-                        dbResult.close();
+                        this.childrenCached = true;
                     }
+                } else if (!objectMap.containsKey(forObject)) {
+                    cacheChildren(forObject, new ArrayList<>());
                 }
             }
         } catch (SQLException ex) {
@@ -173,6 +167,98 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         }
     }
 
+    /**
+     * Reads children of all objects from metadata snapshot.
+     * Returns null if there is no snapshot entry or it can't be read, false if read was canceled.
+     */
+    @Nullable
+    private Boolean readSnapshotChildren(
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @NotNull JDBCMetaSnapshot snapshot,
+        @NotNull Map<OBJECT, List<CHILD>> objectMap
+    ) {
+        String snapshotKey = getChildrenSnapshotKey(owner);
+        JDBCMetaSnapshot.Entry entry = snapshot.takeEntry(session.getDataSource(), snapshotKey);
+        if (entry == null) {
+            return null;
+        }
+        Boolean result;
+        try {
+            result = JDBCMetaSnapshot.replayResultSet(
+                session, entry.result(), dbResult -> fetchChildren(session, owner, null, dbResult, objectMap));
+        } catch (Exception e) {
+            log.debug("Error reading children of " + getCacheName() + " from metadata snapshot: " + e.getMessage());
+            result = null;
+        }
+        if (result == null) {
+            // Snapshot doesn't match the current cache implementation
+            snapshot.removeEntry(snapshotKey);
+            objectMap.clear();
+        }
+        return result;
+    }
+
+    private boolean fetchChildren(
+        @NotNull JDBCSession session,
+        @NotNull OWNER owner,
+        @Nullable OBJECT forObject,
+        @NotNull JDBCResultSet dbResult,
+        @NotNull Map<OBJECT, List<CHILD>> objectMap
+    ) throws SQLException, DBException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        while (dbResult.next()) {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            OBJECT object = forObject;
+            if (object == null) {
+                String objectName;
+                if (objectNameColumn instanceof Number) {
+                    objectName = JDBCUtils.safeGetString(dbResult, ((Number) objectNameColumn).intValue());
+                } else {
+                    objectName = JDBCUtils.safeGetStringTrimmed(dbResult, objectNameColumn.toString());
+                }
+                if (objectName == null) {
+                    log.debug("NULL object name in " + this);
+                    continue;
+                }
+
+                object = super.getCachedObject(objectName);
+                if (object == null) {
+                    log.debug("Object '" + objectName + "' not found in struct cache (" + getClass().getSimpleName() + ")");
+                    continue;
+                }
+            }
+            if (isChildrenCached(object)) {
+                // Already read
+                continue;
+            }
+            CHILD child = fetchChild(session, owner, object, dbResult);
+            if (child == null) {
+                continue;
+            }
+
+            // Add to map
+            List<CHILD> children = objectMap.computeIfAbsent(object, k -> new ArrayList<>());
+            children.add(child);
+        }
+        return true;
+    }
+
+    @Override
+    protected void afterSnapshotRefresh(@NotNull OWNER owner) {
+        if (childrenFromSnapshot) {
+            // Children were read from snapshot of previous objects version, they will be read from database
+            clearChildrenCache(null);
+        }
+    }
+
+    @NotNull
+    private String getChildrenSnapshotKey(@NotNull OWNER owner) {
+        return getSnapshotKey(owner) + "#children";
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache) {
         super.removeObject(object, resetFullCache);
@@ -236,6 +322,13 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
                 this.childrenCache.clear();
             }
             childrenCached = false;
+            childrenFromSnapshot = false;
+        }
+    }
+
+    private boolean hasCachedChildren() {
+        synchronized (childrenCache) {
+            return !childrenCache.isEmpty();
         }
     }
 
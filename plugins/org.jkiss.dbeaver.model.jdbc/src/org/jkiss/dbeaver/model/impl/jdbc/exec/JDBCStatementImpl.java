@@ -22,6 +22,7 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCFeatureNotSupportedException;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
@@ -142,6 +143,20 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
         }
     }
 
+    @Override
+    public void addToBatch(@NotNull String query) throws DBCException
+    {
+        try {
+            addBatch(query);
+        }
+        catch (SQLFeatureNotSupportedException | UnsupportedOperationException e) {
+            throw new DBCFeatureNotSupportedException(e.getMessage());
+        }
+        catch (SQLException e) {
+            throw new DBCException(e, connection.getExecutionContext());
+        }
+    }
+
     @Override
     public long[] executeStatementBatch() throws DBCException
     {
@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.DBObjectNameCaseTransformer;
 import org.jkiss.dbeaver.model.impl.data.ExecuteBatchImpl;
+import org.jkiss.dbeaver.model.impl.data.ExecuteBatchWithMultipleDelete;
 import org.jkiss.dbeaver.model.impl.data.ExecuteBatchWithMultipleInsert;
 import org.jkiss.dbeaver.model.impl.data.ExecuteInsertBatchImpl;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
@@ -345,7 +346,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         readRequiredMeta(session.getProgressMonitor());
 
         boolean multiRowInsertSupported = getDataSource().getSQLDialect().getDefaultMultiValueInsertMode() == SQLDialect.MultiValueInsertMode.GROUP_ROWS;
-        if (CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_USE_MULTI_INSERT)) && multiRowInsertSupported) {
+        if (CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_USE_MULTI_INSERT)) && multiRowInsertSupported && !useUpsert(session)) {
             return new ExecuteBatchWithMultipleInsert(attributes, keysReceiver, true, session, source, JDBCTable.this);
         }
 
@@ -376,7 +377,8 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
         DBSAttributeBase[] attributes = ArrayUtils.concatArrays(updateAttributes, keyAttributes);
 
-        return new ExecuteBatchImpl(attributes, keysReceiver, false) {
+        // Value binders may generate different SQL for each value, so statement can't be reused
+        return new ExecuteBatchImpl(attributes, keysReceiver, !hasValueBinders(session, updateAttributes)) {
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
@@ -456,7 +458,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     {
         readRequiredMeta(session.getProgressMonitor());
 
-        return new ExecuteBatchImpl(keyAttributes, null, false) {
+        return new ExecuteBatchWithMultipleDelete(keyAttributes, true) {
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
@@ -489,6 +491,42 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                 return dbStat;
             }
 
+            @NotNull
+            @Override
+            protected DBCStatement prepareMultiDeleteStatement(@NotNull DBCSession session, int keyCount, Map<String, Object> options) throws DBCException {
+                String tableAlias = null;
+                SQLDialect dialect = session.getDataSource().getSQLDialect();
+                if (dialect.supportsAliasInUpdate()) {
+                    tableAlias = DEFAULT_TABLE_ALIAS;
+                }
+
+                // Make query
+                StringBuilder query = new StringBuilder();
+                String tableName = DBUtils.getEntityScriptName(JDBCTable.this, options);
+                query.append(generateTableDeleteFrom(tableName));
+                if (tableAlias != null) {
+                    query.append(' ').append(tableAlias);
+                }
+                DBSAttributeBase keyAttribute = keyAttributes[0];
+                query.append("\n\tWHERE "); //$NON-NLS-1$
+                if (tableAlias != null) {
+                    query.append(tableAlias).append(dialect.getStructSeparator());
+                }
+                query.append(dialect.getCastedAttributeName(keyAttribute, DBStructUtils.getAttributeName(keyAttribute)));
+                query.append(" IN ("); //$NON-NLS-1$
+                String keyParameter = dialect.getTypeCastClause(keyAttribute, "?", true); //$NON-NLS-1$
+                for (int i = 0; i < keyCount; i++) {
+                    if (i > 0) query.append(","); //$NON-NLS-1$
+                    query.append(keyParameter);
+                }
+                query.append(")"); //$NON-NLS-1$
+
+                // Execute
+                DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.toString(), false, false, false);
+                dbStat.setStatementSource(source);
+                return dbStat;
+            }
+
             @Override
             protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) throws DBCException {
                 int paramIndex = 0;
@@ -898,6 +936,17 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
     ////////////////////////////////////////////////////////////////////
     // Utils
 
+    private static boolean hasValueBinders(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes) {
+        for (DBSAttributeBase attribute : attributes) {
+            DBDValueHandler valueHandler = attribute instanceof DBDAttributeBinding binding ?
+                binding.getValueHandler() : DBUtils.findValueHandler(session, attribute);
+            if (valueHandler instanceof DBDValueBinder) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean useUpsert(@NotNull DBCSession session) {
         SQLDialect dialect = session.getDataSource().getSQLDialect();
         return dialect instanceof JDBCSQLDialect && ((JDBCSQLDialect) dialect).supportsUpsertStatement();
@@ -206,6 +206,16 @@ lexer grammar SQLStandardLexer;
         return _input.index() < lastNamedParameterPrefixEnd;
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        // lexer may be reused for another input, so forget positions captured in the previous one
+        lastIdentifierStart = 0;
+        lastIdentifierEnd = 0;
+        lastIdentifierLength = 0;
+        lastNamedParameterPrefixEnd = -1;
+    }
+
 }
 
 DelimitedIdentifier: { tryConsumeQuottedIdentifier(_input) }? ({isIdentifierEndReached(_input)}? .)+;
@@ -16,26 +16,42 @@
  */
 package org.jkiss.dbeaver.model.lsm;
 
-import org.antlr.v4.runtime.ConsoleErrorListener;
-import org.antlr.v4.runtime.Lexer;
-import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
-import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.stm.STMErrorListener;
 import org.jkiss.dbeaver.model.stm.STMParserOverrides;
 import org.jkiss.dbeaver.model.stm.STMSource;
 import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
 import org.jkiss.utils.Pair;
 
+/**
+ * Base analyzer implementation.
+ * <p>
+ * Each query is parsed with fast SLL prediction first, bailing out on the first syntax error,
+ * and only then with full LL prediction and error recovery.
+ * Lexer and parser are reused by the thread for consequent queries while analyzer type and parameters stay the same.
+ * DFA caches are shared by the generated recognizers, so they are warmed up by all the parses.
+ */
 public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMParserOverrides> implements LSMAnalyzer {
 
     private static final Log log = Log.getLog(LSMAnalyzerImpl.class);
-    
+
+    private static final ThreadLocal<CachedRecognizers> cachedRecognizers = new ThreadLocal<>();
+
     private final LSMAnalyzerParameters parameters;
-    
+
+    private record CachedRecognizers(
+        @NotNull Class<?> analyzerType,
+        @NotNull LSMAnalyzerParameters parameters,
+        @NotNull Lexer lexer,
+        @NotNull STMParserOverrides parser
+    ) {
+    }
+
     public LSMAnalyzerImpl(@NotNull LSMAnalyzerParameters parameters) {
         this.parameters = parameters;
     }
@@ -47,29 +63,65 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
     protected abstract STMTreeRuleNode parseSqlQueryImpl(@NotNull TParser parser);
 
     @NotNull
-    protected TParser prepareParser(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
+    @SuppressWarnings("unchecked")
+    private Pair<TLexer, TParser> obtainRecognizers(@NotNull STMSource source) {
+        CachedRecognizers cached = cachedRecognizers.get();
+        if (cached != null && cached.analyzerType == this.getClass() && cached.parameters.equals(this.parameters) &&
+            cached.parser.getTokenStream() instanceof BufferedTokenStream tokenStream
+        ) {
+            TLexer lexer = (TLexer) cached.lexer;
+            TParser parser = (TParser) cached.parser;
+            lexer.setInputStream(source.getStream());
+            tokenStream.setTokenSource(lexer);
+            parser.setTokenStream(tokenStream);
+            return new Pair<>(lexer, parser);
+        }
         Pair<TLexer, TParser> pair = this.createParser(source, this.parameters);
+        cachedRecognizers.set(new CachedRecognizers(this.getClass(), this.parameters, pair.getFirst(), pair.getSecond()));
+        return pair;
+    }
+
+    /**
+     * Prepare parser for the first SLL stage, syntax errors are not reported to the parser error listener on this stage
+     */
+    @NotNull
+    protected TParser prepareParser(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
+        Pair<TLexer, TParser> pair = this.obtainRecognizers(source);
         TLexer lexer = pair.getFirst();
         TParser parser = pair.getSecond();
-        
-        if (errorListener != null) {
-            lexer.removeErrorListener(ConsoleErrorListener.INSTANCE);
-            lexer.addErrorListener(errorListener);
-            parser.removeErrorListener(ConsoleErrorListener.INSTANCE);
-            parser.addErrorListener(errorListener);
-        }
-        
-        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
-        
+
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(errorListener != null ? errorListener : ConsoleErrorListener.INSTANCE);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+
         return parser;
     }
 
+    /**
+     * Prepare parser for the second LL stage with error recovery
+     */
+    protected void prepareParserForFullContext(@NotNull TParser parser, @Nullable STMErrorListener errorListener) {
+        parser.reset();
+        parser.setErrorHandler(new DefaultErrorStrategy());
+        parser.addErrorListener(errorListener != null ? errorListener : ConsoleErrorListener.INSTANCE);
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+    }
+
     @Nullable
     @Override
     public STMTreeRuleNode parseSqlQueryTree(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
         try {
             TParser parser = prepareParser(source, errorListener);
-            STMTreeRuleNode result = parseSqlQueryImpl(parser);
+            STMTreeRuleNode result;
+            try {
+                result = parseSqlQueryImpl(parser);
+            } catch (ParseCancellationException e) {
+                // query has syntax errors or requires full context to be recognized
+                prepareParserForFullContext(parser, errorListener);
+                result = parseSqlQueryImpl(parser);
+            }
             result.fixup(parser);
             return result;
         } catch (RecognitionException e) {
@@ -208,7 +208,7 @@ public class STMUtils {
             }
             if (first instanceof TerminalNode a && last instanceof TerminalNode b) {
                 Interval textRange = Interval.of(a.getSymbol().getStartIndex(), b.getSymbol().getStopIndex());
-                result = b.getSymbol().getTokenSource().getInputStream().getText(textRange);
+                result = b.getSymbol().getInputStream().getText(textRange);
             }
         }
         return CommonUtils.notEmpty(result);
@@ -637,34 +637,29 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
 
         // Remove duplications
         final Set<String> proposalMap = new HashSet<>(proposals.size());
-        for (int i = 0; i < proposals.size(); ) {
-            SQLCompletionProposalBase proposal = proposals.get(i);
-            if (proposalMap.contains(proposal.getDisplayString())) {
-                proposals.remove(i);
-                continue;
-            }
-            proposalMap.add(proposal.getDisplayString());
-            i++;
-        }
+        proposals.removeIf(proposal -> !proposalMap.add(proposal.getDisplayString()));
 
         DBSInstance defaultInstance = dataSource == null ? null : dataSource.getDefaultInstance();
         DBCExecutionContext executionContext = request.getContext().getExecutionContext();
         DBSObject selectedObject = defaultInstance == null || executionContext == null ? null : DBUtils.getActiveInstanceObject(executionContext);
         boolean hideDups = request.getContext().isHideDuplicates() && selectedObject != null;
         if (hideDups) {
-            for (int i = 0; i < proposals.size(); i++) {
-                SQLCompletionProposalBase proposal = proposals.get(i);
-                for (int j = 0; j < proposals.size(); ) {
-                    SQLCompletionProposalBase proposal2 = proposals.get(j);
-                    if (i != j && proposal.hasStructObject() && proposal2.hasStructObject() &&
-                        CommonUtils.equalObjects(proposal.getObject().getName(), proposal2.getObject().getName()) &&
-                        proposal.getObjectContainer() == selectedObject) {
-                        proposals.remove(j);
-                    } else {
-                        j++;
-                    }
+            // Objects of the active container hide objects with the same name from other containers
+            final Map<String, SQLCompletionProposalBase> activeProposals = new HashMap<>();
+            for (SQLCompletionProposalBase proposal : proposals) {
+                if (proposal.hasStructObject() && proposal.getObjectContainer() == selectedObject) {
+                    activeProposals.putIfAbsent(proposal.getObject().getName(), proposal);
                 }
             }
+            if (!activeProposals.isEmpty()) {
+                proposals.removeIf(proposal -> {
+                    if (!proposal.hasStructObject()) {
+                        return false;
+                    }
+                    SQLCompletionProposalBase activeProposal = activeProposals.get(proposal.getObject().getName());
+                    return activeProposal != null && activeProposal != proposal;
+                });
+            }
         }
 
         if (hideDups) {
@@ -691,18 +686,22 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                 List<SQLCompletionProposalBase> list = typeMap.computeIfAbsent(objectType, k -> new ArrayList<>());
                 list.add(proposal);
             }
+            final Set<SQLCompletionProposalBase> filteredProposals = Collections.newSetFromMap(new IdentityHashMap<>());
             for (Map.Entry<DBSObject, Map<Class<?>, List<SQLCompletionProposalBase>>> entry : containerMap.entrySet()) {
                 for (Map.Entry<Class<?>, List<SQLCompletionProposalBase>> typeEntry : entry.getValue().entrySet()) {
                     DBSObjectFilter filter = dsContainer.getObjectFilter(typeEntry.getKey(), entry.getKey(), true);
                     if (filter != null && filter.isEnabled()) {
                         for (SQLCompletionProposalBase proposal : typeEntry.getValue()) {
                             if (!filter.matches(proposal.getObject().getName())) {
-                                proposals.remove(proposal);
+                                filteredProposals.add(proposal);
                             }
                         }
                     }
                 }
             }
+            if (!filteredProposals.isEmpty()) {
+                proposals.removeIf(filteredProposals::contains);
+            }
         }
     }
 
@@ -1078,33 +1077,45 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                 }
             }
             StringBuilder combinedMatch = new StringBuilder();
-            for (DBSObject child : children) {
-                if (DBUtils.isHiddenObject(child)) {
-                    // Skip hidden
-                    continue;
-                }
-                if (DBUtils.isVirtualObject(child)) {
-                    makeProposalsFromChildren(child, startPart, addFirst, Collections.emptyMap());
-                    continue;
-                }
-                if (allObjects) {
+            if (allObjects) {
+                for (DBSObject child : children) {
+                    if (DBUtils.isHiddenObject(child)) {
+                        // Skip hidden
+                        continue;
+                    }
+                    if (DBUtils.isVirtualObject(child)) {
+                        makeProposalsFromChildren(child, startPart, addFirst, Collections.emptyMap());
+                        continue;
+                    }
                     if (!combinedMatch.isEmpty()) {
                         combinedMatch.append(", ");
                         if (objPrefix != null) combinedMatch.append(objPrefix);
                     }
                     combinedMatch.append(DBUtils.getQuotedIdentifier(child));
-                } else {
-                    if (dataSource != null && !request.getContext().isSearchInsideNames()) {
-                        // startsWith
-                        if (CommonUtils.isEmpty(startPart) || CommonUtils.startsWithIgnoreCase(child.getName(), startPart)) {
+                }
+            } else {
+                SQLCompletionNameIndex nameIndex = dataSource == null ?
+                    new SQLCompletionNameIndex(children) :
+                    SQLCompletionNameIndex.getIndex(dataSource, parent, children);
+                for (DBSObject child : nameIndex.getVirtualObjects()) {
+                    if (!DBUtils.isHiddenObject(child)) {
+                        makeProposalsFromChildren(child, startPart, addFirst, Collections.emptyMap());
+                    }
+                }
+                if (dataSource != null && !request.getContext().isSearchInsideNames()) {
+                    // startsWith
+                    for (DBSObject child : nameIndex.findByPrefix(startPart)) {
+                        if (!DBUtils.isHiddenObject(child)) {
                             matchedObjects.add(child);
                         }
-                    } else {
-                        // Use fuzzy search for contains
-                        int score = CommonUtils.isEmpty(startPart) ? 1 : TextUtils.fuzzyScore(child.getName(), startPart);
-                        if (score > 0) {
+                    }
+                } else {
+                    // Use fuzzy search for contains
+                    for (SQLCompletionNameIndex.Match match : nameIndex.findFuzzy(startPart)) {
+                        DBSObject child = match.object();
+                        if (!DBUtils.isHiddenObject(child)) {
                             matchedObjects.add(child);
-                            scoredMatches.put(child.getName(), score);
+                            scoredMatches.put(child.getName(), match.score());
                         }
                     }
                 }
@@ -0,0 +1,317 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.DBPObject;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.text.TextUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.ref.SoftReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Name index of the children of a single object (tables of a schema, columns of a table, etc.).
+ * <p>
+ * Index keeps names sorted, so prefix lookup is a binary search, and keeps a character mask
+ * and camel-hump initials of each name, so fuzzy lookup skips names which can't match
+ * and ranks abbreviations like {@code CO} for {@code CUSTOMER_ORDERS} higher.
+ * <p>
+ * Indexes are cached per data source container. Parents usually return a new children list on each call,
+ * so cached index is reused while the parent returns the same objects with the same names.
+ * Index is also dropped on object add/update/remove events.
+ */
+public class SQLCompletionNameIndex {
+
+    private static final int CAMEL_HUMP_SCORE = 4;
+
+    // Parents are weak keys. Index references its parent through children, so index itself is softly referenced.
+    private static final Map<DBPDataSourceContainer, Map<DBPObject, SoftReference<SQLCompletionNameIndex>>> indexes = new ConcurrentHashMap<>();
+    private static final Set<DBPDataSourceRegistry> listenedRegistries = ConcurrentHashMap.newKeySet();
+    private static final DBPEventListener eventListener = SQLCompletionNameIndex::handleDataSourceEvent;
+
+    public record Match(@NotNull DBSObject object, int score) {
+    }
+
+    // All children and their names in the original order, to check that index is still valid
+    @NotNull
+    private final DBSObject[] children;
+    @NotNull
+    private final String[] childNames;
+    @NotNull
+    private final DBSObject[] objects;
+    @NotNull
+    private final String[] names;
+    @NotNull
+    private final String[] initials;
+    @NotNull
+    private final long[] masks;
+    // Positions in objects sorted by upper-case name
+    @NotNull
+    private final int[] sortedPositions;
+    @NotNull
+    private final String[] sortedNames;
+    @NotNull
+    private final List<DBSObject> virtualObjects;
+
+    public SQLCompletionNameIndex(@NotNull Collection<? extends DBSObject> children) {
+        this.children = children.toArray(new DBSObject[0]);
+        this.childNames = new String[this.children.length];
+        for (int i = 0; i < this.children.length; i++) {
+            childNames[i] = this.children[i].getName();
+        }
+
+        List<DBSObject> namedObjects = new ArrayList<>(this.children.length);
+        List<DBSObject> virtual = new ArrayList<>();
+        for (DBSObject child : this.children) {
+            if (DBUtils.isVirtualObject(child)) {
+                virtual.add(child);
+            } else {
+                namedObjects.add(child);
+            }
+        }
+        this.virtualObjects = virtual.isEmpty() ? Collections.emptyList() : List.copyOf(virtual);
+
+        int count = namedObjects.size();
+        this.objects = namedObjects.toArray(new DBSObject[0]);
+        this.names = new String[count];
+        this.initials = new String[count];
+        this.masks = new long[count];
+        String[] upperNames = new String[count];
+        Integer[] positions = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            String name = CommonUtils.notEmpty(objects[i].getName());
+            names[i] = name;
+            upperNames[i] = name.toUpperCase(Locale.ENGLISH);
+            initials[i] = getInitials(name);
+            masks[i] = getCharMask(name);
+            positions[i] = i;
+        }
+        Arrays.sort(positions, Comparator.comparing(pos -> upperNames[pos]));
+        this.sortedPositions = new int[count];
+        this.sortedNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            sortedPositions[i] = positions[i];
+            sortedNames[i] = upperNames[positions[i]];
+        }
+    }
+
+    /**
+     * Returns index of the specified children of the parent object.
+     * Cached index is reused while the parent returns the same children, see {@link #isValidFor(Collection)}.
+     */
+    @NotNull
+    public static SQLCompletionNameIndex getIndex(
+        @NotNull DBPDataSource dataSource,
+        @NotNull DBPObject parent,
+        @NotNull Collection<? extends DBSObject> children
+    ) {
+        DBPDataSourceContainer container = dataSource.getContainer();
+        if (container == null) {
+            return new SQLCompletionNameIndex(children);
+        }
+        DBPDataSourceRegistry registry = container.getRegistry();
+        if (registry != null && listenedRegistries.add(registry)) {
+            registry.addDataSourceListener(eventListener);
+        }
+        Map<DBPObject, SoftReference<SQLCompletionNameIndex>> containerIndexes = indexes.computeIfAbsent(
+            container, c -> Collections.synchronizedMap(new WeakHashMap<>()));
+        SoftReference<SQLCompletionNameIndex> indexRef = containerIndexes.get(parent);
+        SQLCompletionNameIndex index = indexRef == null ? null : indexRef.get();
+        if (index == null || !index.isValidFor(children)) {
+            index = new SQLCompletionNameIndex(children);
+            containerIndexes.put(parent, new SoftReference<>(index));
+        }
+        return index;
+    }
+
+    /**
+     * Drops all indexes of the data source container.
+     */
+    public static void invalidate(@NotNull DBPDataSourceContainer container) {
+        indexes.remove(container);
+    }
+
+    private static void handleDataSourceEvent(@NotNull DBPEvent event) {
+        DBSObject object = event.getObject();
+        if (object instanceof DBPDataSourceContainer container) {
+            invalidate(container);
+            return;
+        }
+        if (object == null) {
+            return;
+        }
+        switch (event.getAction()) {
+            case OBJECT_ADD, OBJECT_UPDATE, OBJECT_REMOVE -> {
+                DBPDataSource dataSource = object.getDataSource();
+                DBPDataSourceContainer container = dataSource == null ? null : dataSource.getContainer();
+                Map<DBPObject, SoftReference<SQLCompletionNameIndex>> containerIndexes = container == null ? null : indexes.get(container);
+                if (containerIndexes != null) {
+                    containerIndexes.remove(object);
+                    DBSObject parentObject = object.getParentObject();
+                    if (parentObject != null) {
+                        containerIndexes.remove(parentObject);
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Checks that children are the same objects with the same names as the indexed ones.
+     * It costs a reference comparison per child, which is much cheaper than rebuilding the index.
+     */
+    public boolean isValidFor(@NotNull Collection<? extends DBSObject> children) {
+        if (children.size() != this.children.length) {
+            return false;
+        }
+        int i = 0;
+        for (DBSObject child : children) {
+            if (child != this.children[i] || !Objects.equals(child.getName(), childNames[i])) {
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+    /**
+     * Virtual children. They are not indexed by name, as their own children are searched instead.
+     */
+    @NotNull
+    public List<DBSObject> getVirtualObjects() {
+        return virtualObjects;
+    }
+
+    /**
+     * Finds objects which names start with the specified prefix (case-insensitive).
+     * Objects are returned in the order of children.
+     */
+    @NotNull
+    public List<DBSObject> findByPrefix(@Nullable String prefix) {
+        if (CommonUtils.isEmpty(prefix)) {
+            return Arrays.asList(objects);
+        }
+        String upperPrefix = prefix.toUpperCase(Locale.ENGLISH);
+        int low = 0;
+        int high = sortedNames.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedNames[mid].compareTo(upperPrefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int matchCount = 0;
+        while (low + matchCount < sortedNames.length && sortedNames[low + matchCount].startsWith(upperPrefix)) {
+            matchCount++;
+        }
+        int[] matchedPositions = Arrays.copyOfRange(sortedPositions, low, low + matchCount);
+        Arrays.sort(matchedPositions);
+        List<DBSObject> result = new ArrayList<>(matchCount);
+        for (int pos : matchedPositions) {
+            result.add(objects[pos]);
+        }
+        return result;
+    }
+
+    /**
+     * Finds objects which names contain all characters of the query in the same order.
+     * Score is {@link TextUtils#fuzzyScore(CharSequence, CharSequence)} plus a bonus if the query
+     * is a prefix of name initials. Objects are returned in the order of children.
+     */
+    @NotNull
+    public List<Match> findFuzzy(@Nullable String query) {
+        List<Match> result = new ArrayList<>();
+        if (CommonUtils.isEmpty(query)) {
+            for (DBSObject object : objects) {
+                result.add(new Match(object, 1));
+            }
+            return result;
+        }
+        long queryMask = getCharMask(query);
+        String upperQuery = query.toUpperCase(Locale.ENGLISH);
+        for (int i = 0; i < objects.length; i++) {
+            if ((masks[i] & queryMask) != queryMask) {
+                continue;
+            }
+            int score = TextUtils.fuzzyScore(names[i], query);
+            if (score > 0) {
+                if (initials[i].startsWith(upperQuery)) {
+                    score += upperQuery.length() * CAMEL_HUMP_SCORE;
+                }
+                result.add(new Match(objects[i], score));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Upper-case first letters of name words. Words are separated by non-alphanumeric characters
+     * or by case change (camel case).
+     */
+    @NotNull
+    public static String getInitials(@NotNull String name) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                continue;
+            }
+            if (i == 0) {
+                result.append(c);
+            } else {
+                char prev = name.charAt(i - 1);
+                if (!Character.isLetterOrDigit(prev) || (Character.isUpperCase(c) && Character.isLowerCase(prev))) {
+                    result.append(c);
+                }
+            }
+        }
+        return result.toString().toUpperCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Bit mask of ASCII letters, digits and underscore present in the string (case-insensitive).
+     * Other characters are not tracked, so mask never excludes a possible match.
+     */
+    private static long getCharMask(@NotNull String str) {
+        long mask = 0;
+        for (int i = 0; i < str.length(); i++) {
+            char c = Character.toLowerCase(str.charAt(i));
+            if (c >= 'a' && c <= 'z') {
+                mask |= 1L << (c - 'a');
+            } else if (c >= '0' && c <= '9') {
+                mask |= 1L << (26 + c - '0');
+            } else if (c == '_') {
+                mask |= 1L << 36;
+            }
+        }
+        return mask;
+    }
+}
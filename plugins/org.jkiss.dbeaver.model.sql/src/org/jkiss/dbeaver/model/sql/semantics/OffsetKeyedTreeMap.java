@@ -18,7 +18,9 @@ package org.jkiss.dbeaver.model.sql.semantics;
 
 import org.jkiss.code.Nullable;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -945,12 +947,13 @@ public class OffsetKeyedTreeMap<T> {
         if (delta == 0) {
             return;
         }
-        if (delta < 0) {
-            throw new UnsupportedOperationException("Negative delta not supported at the moment");
-        }
         if (this.size == 0) {
             return;
         }
+        if (delta < 0 && !this.removeCollapsedRange(position + delta, position)) {
+            this.rebuildShifted(position, delta);
+            return;
+        }
 
         NodeAndParentAtOffset<T> location = this.findImpl(position);
         if (location.node.isSentinel() && location.isLeft) {
@@ -978,6 +981,57 @@ public class OffsetKeyedTreeMap<T> {
         }
     }
 
+    /**
+     * Removes entries with keys in [from, to), so keys after the range can be shifted back in-place.
+     * Returns false if some nodes of the range could only be marked as tombstones and are still in the tree.
+     */
+    private boolean removeCollapsedRange(int from, int to) {
+        List<Integer> keys = new ArrayList<>();
+        collectKeys(this.root, 0, from, to, true, keys);
+        for (int key : keys) {
+            this.removeAt(key);
+        }
+        keys.clear();
+        collectKeys(this.root, 0, from, to, false, keys);
+        return keys.isEmpty();
+    }
+
+    private static <T> void collectKeys(Node<T> node, int base, int from, int to, boolean valuesOnly, List<Integer> keys) {
+        if (node.isSentinel()) {
+            return;
+        }
+        int key = base + node.offset;
+        if (key > from) {
+            collectKeys(node.left, base, from, to, valuesOnly, keys);
+        }
+        if (key >= from && key < to && (!valuesOnly || node.content != null)) {
+            keys.add(key);
+        }
+        if (key < to - 1) {
+            collectKeys(node.right, key, from, to, valuesOnly, keys);
+        }
+    }
+
+    /**
+     * Shift keys at and after the position backwards rebuilding the tree.
+     * Used only when tombstones are left in the collapsed range, as there are no free keys for them after the shift.
+     */
+    private void rebuildShifted(int position, int delta) {
+        var t = new OffsetKeyedTreeMap<T>();
+        NodesIterator<T> it = this.nodesIteratorAt(Integer.MAX_VALUE);
+        while (it.prev()) {
+            int key = it.getCurrOffset();
+            if (key >= position) {
+                t.put(key + delta, it.getCurrValue());
+            } else if (key < position + delta) {
+                t.put(key, it.getCurrValue());
+            }
+        }
+        this.root = t.root;
+        this.size = t.size;
+        this.tombstonesCount = 0;
+    }
+
     public void forEach(BiConsumer<Integer, T> action) {
         if (root.isNotSentinel()) {
             Node<T> node = root;
@@ -138,6 +138,12 @@ public class SQLDocumentScriptItemSyntaxContext {
         }
     }
 
+    public void markDirty() {
+        synchronized (this.lock) {
+            this.isDirty = true;
+        }
+    }
+
     public void refreshCompleted() {
         synchronized (this.lock) {
             this.isDirty = false;
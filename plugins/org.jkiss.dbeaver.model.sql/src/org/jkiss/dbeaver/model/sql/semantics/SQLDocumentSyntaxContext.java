@@ -184,6 +184,21 @@ public class SQLDocumentSyntaxContext {
             length
         );
         scriptItem.setHasContextBoundaryAtLength(hasContextBoundaryAtLength);
+
+        // items previously recognized inside the new one are outdated now
+        ListNode<Integer> keyOffsetsToRemove = null;
+        NodesIterator<SQLDocumentScriptItemSyntaxContext> it = this.scriptItems.nodesIteratorAt(offset);
+        while (it.next() && it.getCurrValue() != null && it.getCurrOffset() < offset + length) {
+            if (it.getCurrOffset() > offset) {
+                SQLDocumentScriptItemSyntaxContext nestedItem = it.getCurrValue();
+                keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, it.getCurrOffset());
+                this.forEachListener(l -> l.onScriptItemInvalidated(nestedItem));
+            }
+        }
+        for (ListNode<Integer> kn = keyOffsetsToRemove; kn != null; kn = kn.next) {
+            this.scriptItems.removeAt(kn.data);
+        }
+
         SQLDocumentScriptItemSyntaxContext oldScriptItem = this.scriptItems.put(offset, scriptItem);
         if (oldScriptItem != scriptItem && oldScriptItem != null) {
             this.forEachListener(l -> l.onScriptItemInvalidated(oldScriptItem));
@@ -192,6 +207,28 @@ public class SQLDocumentSyntaxContext {
         return scriptItem;
     }
 
+    /**
+     * Check if the script item at the given offset was recognized from the same text and wasn't affected by any changes since then
+     */
+    public boolean hasActualScriptItem(int offset, int length, @NotNull String elementOriginalText) {
+        SQLDocumentScriptItemSyntaxContext scriptItem = this.scriptItems.find(offset);
+        return scriptItem != null && !scriptItem.isDirty() && scriptItem.length() == length &&
+            scriptItem.getOriginalText().equals(elementOriginalText);
+    }
+
+    /**
+     * Mark all the script items as outdated, so they will be recognized again during the next analysis
+     */
+    public void markAllScriptItemsDirty() {
+        NodesIterator<SQLDocumentScriptItemSyntaxContext> it = this.scriptItems.nodesIteratorAt(Integer.MIN_VALUE);
+        while (it.next()) {
+            SQLDocumentScriptItemSyntaxContext scriptItem = it.getCurrValue();
+            if (scriptItem != null) {
+                scriptItem.markDirty();
+            }
+        }
+    }
+
     /**
      * Update script items according to the document text changes
      */
@@ -199,59 +236,44 @@ public class SQLDocumentSyntaxContext {
     public IRegion applyDelta(int offset, int oldLength, int newLength) {
         IRegion affectedRegion;
         if (oldLength > 0) {
-            // TODO:
-            //   if oldLength fits in one scriptItem, them remove some part of it using split-join operation
-            //   otherwise, drop all the scriptItems in oldLength range and apply newLength-oldLength as offset for all the tailing
-
+            // drop only the script items intersecting with the modified fragment and shift the rest of them
             int delta = newLength - oldLength;
+            int modifiedEnd = offset + oldLength;
 
-            // temporary solution - just explicitly drop what was invalidated starting at the current position
-            {
-                // otherwise just drop the whole tail being affected
-                ListNode<Integer> keyOffsetsToRemove = null;
-                NodesIterator<SQLDocumentScriptItemSyntaxContext> it = this.scriptItems.nodesIteratorAt(offset);
-                SQLDocumentScriptItemSyntaxContext currItem = it.getCurrValue();
-                int currOffset = it.getCurrOffset();
-                int lastAffectedOffset = currOffset;
-                if (currItem != null) {
-                    keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, currOffset);
-                    this.forEachListener(l -> l.onScriptItemInvalidated(currItem));
-                    lastAffectedOffset = currOffset + currItem.length();
-                } else if (it.prev() && it.getCurrValue() != null) {
-                    currOffset = it.getCurrOffset();
-                    SQLDocumentScriptItemSyntaxContext currItem2 = it.getCurrValue();
-                    if (currOffset <= offset && currOffset + currItem2.length() > offset) {
+            ListNode<Integer> keyOffsetsToRemove = null;
+            int firstAffectedOffset = offset;
+            int lastAffectedOffset = modifiedEnd;
+            NodesIterator<SQLDocumentScriptItemSyntaxContext> it = this.scriptItems.nodesIteratorAt(offset);
+            if (it.getCurrValue() == null && it.prev()) {
+                SQLDocumentScriptItemSyntaxContext prevItem = it.getCurrValue();
+                int prevOffset = it.getCurrOffset();
+                if (prevItem != null && prevOffset + prevItem.length() >= offset) {
+                    keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, prevOffset);
+                    this.forEachListener(l -> l.onScriptItemInvalidated(prevItem));
+                    firstAffectedOffset = prevOffset;
+                    lastAffectedOffset = Math.max(lastAffectedOffset, prevOffset + prevItem.length());
+                }
+            }
+            if (it.getCurrValue() != null || it.next()) {
+                do {
+                    SQLDocumentScriptItemSyntaxContext currItem = it.getCurrValue();
+                    int currOffset = it.getCurrOffset();
+                    if (currItem == null || currOffset > modifiedEnd) {
+                        break;
+                    }
+                    if (currOffset >= offset) {
                         keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, currOffset);
-                        this.forEachListener(l -> l.onScriptItemInvalidated(currItem2));
-                        lastAffectedOffset = currOffset + currItem2.length();
+                        this.forEachListener(l -> l.onScriptItemInvalidated(currItem));
+                        lastAffectedOffset = Math.max(lastAffectedOffset, currOffset + currItem.length());
                     }
-                } else {
-                    lastAffectedOffset = offset + oldLength;
-                }
-                while (it.next() && it.getCurrValue() != null && (delta < 0 || lastAffectedOffset <= (offset + oldLength))) {
-                    currOffset = it.getCurrOffset();
-                    SQLDocumentScriptItemSyntaxContext currItem3 = it.getCurrValue();
-                    keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, currOffset);
-                    this.forEachListener(l -> l.onScriptItemInvalidated(currItem3));
-                    lastAffectedOffset = currOffset + currItem3.length();
-                }
-                int firstAffectedOffset = 0;
-                for (ListNode<Integer> kn = keyOffsetsToRemove; kn != null; kn = kn.next) {
-                    firstAffectedOffset = kn.data;
-                    this.scriptItems.removeAt(kn.data);
-                }
-                if (delta > 0) { // when delta is non-negative, we are dropping only the affected region and applying offset for the rest
-                    this.scriptItems.applyOffset(offset, delta);
-                }
-
-                if (keyOffsetsToRemove != null) {
-                    affectedRegion = new Region(firstAffectedOffset, lastAffectedOffset - firstAffectedOffset - oldLength + newLength);
-                } else {
-                    affectedRegion = null;
-                }
+                } while (it.next());
+            }
+            for (ListNode<Integer> kn = keyOffsetsToRemove; kn != null; kn = kn.next) {
+                this.scriptItems.removeAt(kn.data);
             }
-            // TODO removeAtRange(..) is needed either way
+            this.scriptItems.applyOffset(modifiedEnd, delta);
 
+            affectedRegion = new Region(firstAffectedOffset, lastAffectedOffset + delta - firstAffectedOffset);
         } else { // simple insertion
             SQLScriptItemAtOffset scriptItem = this.findScriptItem(offset);
             if (scriptItem != null) {
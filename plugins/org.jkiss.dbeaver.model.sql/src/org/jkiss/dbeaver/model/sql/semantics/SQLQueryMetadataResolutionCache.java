@@ -0,0 +1,63 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.semantics;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Thread-safe cache of database objects resolved by name during the analysis of several queries.
+ * <p>
+ * Should be shared only by the queries analyzed at once with the same execution context,
+ * as resolution depends on the default catalog and schema.
+ */
+public class SQLQueryMetadataResolutionCache {
+
+    @NotNull
+    private final Map<List<String>, Optional<DBSObject>> objectsByName = new ConcurrentHashMap<>();
+
+    /**
+     * Find object resolved earlier or resolve it now.
+     * Concurrent resolutions of the same name are not blocked, so the resolver may be called more than once for it.
+     */
+    @Nullable
+    public DBSObject findObject(@NotNull List<String> objectName, @NotNull Function<List<String>, DBSObject> resolver) {
+        Optional<DBSObject> cached = this.objectsByName.get(objectName);
+        if (cached == null) {
+            List<String> key = new ArrayList<>(objectName);
+            cached = Optional.ofNullable(resolver.apply(objectName));
+            this.objectsByName.putIfAbsent(key, cached);
+        }
+        return cached.orElse(null);
+    }
+
+    public int size() {
+        return this.objectsByName.size();
+    }
+
+    public void clear() {
+        this.objectsByName.clear();
+    }
+}
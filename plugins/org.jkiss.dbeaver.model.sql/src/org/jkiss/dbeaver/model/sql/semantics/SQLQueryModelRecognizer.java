@@ -310,7 +310,13 @@ public class SQLQueryModelRecognizer {
             } else {
                 rowsetPseudoColumns = s -> Collections.emptyList();
             }
-            return new SQLQueryDataSourceContext(this.dialect, this.executionContext, globalPseudoColumns, rowsetPseudoColumns);
+            return new SQLQueryDataSourceContext(
+                this.dialect,
+                this.executionContext,
+                globalPseudoColumns,
+                rowsetPseudoColumns,
+                this.recognitionContext.getMetadataCache()
+            );
         } else {
             Set<String> allColumnNames = new HashSet<>();
             Set<List<String>> allTableNames = new HashSet<>();
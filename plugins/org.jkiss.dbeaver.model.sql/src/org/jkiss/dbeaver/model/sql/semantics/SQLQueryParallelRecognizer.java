@@ -0,0 +1,150 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.semantics;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recognizes independent queries on several background jobs and passes the results to the caller in the original order.
+ * <p>
+ * Worker jobs are started for each call, so analysis of one editor never waits for the metadata reads of another.
+ * Each worker has its own progress monitor and recognizes one query at a time,
+ * so blocks started by metadata reads of a query are canceled with the worker which runs it.
+ */
+public class SQLQueryParallelRecognizer {
+
+    private static final Log log = Log.getLog(SQLQueryParallelRecognizer.class);
+
+    private static final long RESULT_WAIT_TIMEOUT_MS = 100;
+
+    public interface Recognizer<T, R> {
+        @Nullable
+        R recognize(@NotNull DBRProgressMonitor monitor, @NotNull T item) throws Exception;
+    }
+
+    public interface ResultConsumer<R> {
+        void consume(int index, @Nullable R result);
+    }
+
+    private SQLQueryParallelRecognizer() {
+    }
+
+    /**
+     * Recognizes items with at most {@code maxWorkers} jobs. Results are passed to the consumer in the calling thread
+     * in the order of items. Failed items produce {@code null} results.
+     *
+     * @return false if the monitor was canceled before all results were consumed
+     */
+    public static <T, R> boolean recognize(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull String taskName,
+        @NotNull List<T> items,
+        int maxWorkers,
+        @NotNull Recognizer<T, R> recognizer,
+        @NotNull ResultConsumer<R> resultConsumer
+    ) {
+        List<CompletableFuture<R>> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        AtomicInteger nextItem = new AtomicInteger();
+        int workerCount = Math.max(1, Math.min(maxWorkers, items.size()));
+        List<AbstractJob> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            AbstractJob worker = new AbstractJob(taskName) {
+                @Override
+                protected IStatus run(DBRProgressMonitor workerMonitor) {
+                    for (int index = nextItem.getAndIncrement(); index < items.size(); index = nextItem.getAndIncrement()) {
+                        if (workerMonitor.isCanceled() || monitor.isCanceled()) {
+                            results.get(index).complete(null);
+                            continue;
+                        }
+                        try {
+                            results.get(index).complete(recognizer.recognize(workerMonitor, items.get(index)));
+                        } catch (Throwable e) {
+                            results.get(index).completeExceptionally(e);
+                        }
+                    }
+                    return Status.OK_STATUS;
+                }
+            };
+            worker.setUser(false);
+            worker.setSystem(true);
+            workers.add(worker);
+        }
+        workers.forEach(AbstractJob::schedule);
+
+        boolean completed = false;
+        try {
+            for (int i = 0; i < results.size(); i++) {
+                CompletableFuture<R> result = results.get(i);
+                if (!waitForResult(monitor, result)) {
+                    return false;
+                }
+                R value;
+                try {
+                    value = result.get();
+                } catch (ExecutionException e) {
+                    log.debug("Error recognizing query", e.getCause());
+                    value = null;
+                }
+                resultConsumer.consume(i, value);
+            }
+            completed = true;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            if (!completed) {
+                // Cancel metadata reads of running workers
+                workers.forEach(AbstractJob::cancel);
+            }
+        }
+    }
+
+    private static boolean waitForResult(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull CompletableFuture<?> result
+    ) throws InterruptedException {
+        while (!monitor.isCanceled()) {
+            try {
+                result.get(RESULT_WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                // proceed with cancellation check
+            } catch (ExecutionException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
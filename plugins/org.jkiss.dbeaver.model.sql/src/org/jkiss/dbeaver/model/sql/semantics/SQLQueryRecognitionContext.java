@@ -49,6 +49,9 @@ public class SQLQueryRecognitionContext {
     @NotNull
     private final SQLDialect dialect;
 
+    @Nullable
+    private final SQLQueryMetadataResolutionCache metadataCache;
+
     @NotNull
     private final Deque<SQLQueryRecognitionProblemInfo> problems = new LinkedList<>();
 
@@ -60,12 +63,24 @@ public class SQLQueryRecognitionContext {
         boolean useRealMetadata,
         @NotNull SQLSyntaxManager syntaxManager,
         @NotNull SQLDialect dialect
+    ) {
+        this(monitor, executionContext, useRealMetadata, syntaxManager, dialect, null);
+    }
+
+    public SQLQueryRecognitionContext(
+        @NotNull DBRProgressMonitor monitor,
+        @Nullable DBCExecutionContext executionContext,
+        boolean useRealMetadata,
+        @NotNull SQLSyntaxManager syntaxManager,
+        @NotNull SQLDialect dialect,
+        @Nullable SQLQueryMetadataResolutionCache metadataCache
     ) {
         this.monitor = monitor;
         this.executionContext = executionContext;
         this.useRealMetadata = useRealMetadata;
         this.syntaxManager = syntaxManager;
         this.dialect = dialect;
+        this.metadataCache = metadataCache;
     }
 
     public void setTreatErrorAsWarnings(boolean errorsAsWarnings) {
@@ -100,6 +115,14 @@ public class SQLQueryRecognitionContext {
         return this.dialect;
     }
 
+    /**
+     * Cache of the resolved database objects shared with the recognition contexts of other queries, if any
+     */
+    @Nullable
+    SQLQueryMetadataResolutionCache getMetadataCache() {
+        return this.metadataCache;
+    }
+
     @NotNull
     public List<SQLQueryRecognitionProblemInfo> getProblems() {
         return new ArrayList<>(this.problems);
@@ -26,6 +26,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLSearchUtils;
 import org.jkiss.dbeaver.model.sql.parser.SQLIdentifierDetector;
+import org.jkiss.dbeaver.model.sql.semantics.SQLQueryMetadataResolutionCache;
 import org.jkiss.dbeaver.model.sql.semantics.model.select.SQLQueryRowsSourceModel;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
@@ -53,18 +54,31 @@ public class SQLQueryDataSourceContext extends SQLQueryDataContext {
     private final Map<String, SQLQueryResultPseudoColumn> globalPseudoColumnsByCanonicalName;
     @NotNull
     private final Function<SQLQueryRowsSourceModel, List<SQLQueryResultPseudoColumn>> rowsetPseudoColumnsProvider;
+    @Nullable
+    private final SQLQueryMetadataResolutionCache metadataCache;
 
     public SQLQueryDataSourceContext(
         @NotNull SQLDialect dialect,
         @NotNull DBCExecutionContext executionContext,
         @NotNull Map<String, SQLQueryResultPseudoColumn> globalPseudoColumns,
         @NotNull Function<SQLQueryRowsSourceModel, List<SQLQueryResultPseudoColumn>> rowsetPseudoColumnsProvider
+    ) {
+        this(dialect, executionContext, globalPseudoColumns, rowsetPseudoColumnsProvider, null);
+    }
+
+    public SQLQueryDataSourceContext(
+        @NotNull SQLDialect dialect,
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull Map<String, SQLQueryResultPseudoColumn> globalPseudoColumns,
+        @NotNull Function<SQLQueryRowsSourceModel, List<SQLQueryResultPseudoColumn>> rowsetPseudoColumnsProvider,
+        @Nullable SQLQueryMetadataResolutionCache metadataCache
     ) {
         this.dialect = dialect;
         this.executionContext = executionContext;
         this.identifierDetector = new SQLIdentifierDetector(dialect);
         this.globalPseudoColumnsByCanonicalName = globalPseudoColumns;
         this.rowsetPseudoColumnsProvider = rowsetPseudoColumnsProvider;
+        this.metadataCache = metadataCache;
     }
 
     @NotNull
@@ -106,6 +120,15 @@ public class SQLQueryDataSourceContext extends SQLQueryDataContext {
 
     @Nullable
     private DBSObject findRealObjectImpl(@NotNull DBRProgressMonitor monitor, @NotNull List<String> objectName) {
+        if (this.metadataCache != null) {
+            return this.metadataCache.findObject(objectName, name -> this.resolveRealObject(monitor, name));
+        } else {
+            return this.resolveRealObject(monitor, objectName);
+        }
+    }
+
+    @Nullable
+    private DBSObject resolveRealObject(@NotNull DBRProgressMonitor monitor, @NotNull List<String> objectName) {
         if (this.executionContext.getDataSource() instanceof DBSObjectContainer container) {
             List<String> objectName2 = new ArrayList<>(objectName);
             DBSObject obj = SQLSearchUtils.findObjectByFQN(
@@ -70,6 +70,9 @@ public final class DBUtils {
 
     private static final Log log = Log.getLog(DBUtils.class);
 
+    // Metadata context of the current thread (overrides default metadata context of its instance)
+    private static final ThreadLocal<DBCExecutionContext> THREAD_META_CONTEXT = new ThreadLocal<>();
+
     @NotNull
     public static String getQuotedIdentifier(@NotNull DBPNamedObject object) {
         if (object instanceof DBSContextBoundAttribute cba) {
@@ -1738,7 +1741,12 @@ public final class DBUtils {
     @SuppressWarnings("unchecked")
     @NotNull
     public static <T extends DBCSession> T openMetaSession(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource dataSource, @NotNull String task) throws DBCException {
-        return (T) dataSource.getDefaultInstance().getDefaultContext(monitor, true).openSession(monitor, DBCExecutionPurpose.META, task);
+        DBSInstance instance = dataSource.getDefaultInstance();
+        DBCExecutionContext context = getThreadMetaContext(instance);
+        if (context == null) {
+            context = instance.getDefaultContext(monitor, true);
+        }
+        return (T) context.openSession(monitor, DBCExecutionPurpose.META, task);
     }
 
     @SuppressWarnings("unchecked")
@@ -2053,6 +2061,12 @@ public final class DBUtils {
             return null;
         }
         DBSInstance instance = getObjectOwnerInstance(object);
+        if (meta) {
+            DBCExecutionContext threadContext = getThreadMetaContext(instance);
+            if (threadContext != null) {
+                return threadContext;
+            }
+        }
         return instance == null ||
             (instance instanceof DBSInstanceLazy instanceLazy && !instanceLazy.isInstanceConnected())/* ||
             !instance.getDataSource().getContainer().isConnected()*/ ?
@@ -2060,6 +2074,30 @@ public final class DBUtils {
             instance.getDefaultContext(new VoidProgressMonitor(), meta);
     }
 
+    /**
+     * Makes metadata sessions opened in the current thread use the specified context
+     * instead of the default metadata context of the context's instance.
+     * Used to read metadata of several containers in parallel, each thread with its own connection.
+     *
+     * @param context isolated context or null to reset
+     */
+    public static void setThreadMetaContext(@Nullable DBCExecutionContext context) {
+        if (context == null) {
+            THREAD_META_CONTEXT.remove();
+        } else {
+            THREAD_META_CONTEXT.set(context);
+        }
+    }
+
+    @Nullable
+    private static DBCExecutionContext getThreadMetaContext(@Nullable DBSInstance instance) {
+        DBCExecutionContext context = THREAD_META_CONTEXT.get();
+        if (context == null || instance == null || context.getOwnerInstance() != instance || !context.isConnected()) {
+            return null;
+        }
+        return context;
+    }
+
     public static DBCExecutionContext getOrOpenDefaultContext(DBSObject object, boolean meta) throws DBCException {
         DBCExecutionContext context = DBUtils.getDefaultContext(object, meta);
         if (context == null) {
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
+import org.jkiss.code.NotNull;
+
 /**
  * FunctionAvg
  */
@@ -46,4 +48,12 @@ public class FunctionAvg extends FunctionNumeric {
         }
         return result / valueCount;
     }
+
+    @Override
+    public void merge(@NotNull IAggregateFunction partial) {
+        double partialResult = ((FunctionAvg) partial).result;
+        if (!Double.isNaN(partialResult)) {
+            result = Double.isNaN(result) ? partialResult : result + partialResult;
+        }
+    }
 }
@@ -16,19 +16,31 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
+import org.jkiss.code.NotNull;
+
 import java.util.HashSet;
 import java.util.Set;
 
 /**
  * FunctionCountDistinct
  */
-public class FunctionCountDistinct implements IAggregateFunction {
+public class FunctionCountDistinct implements IAggregateFunctionMergeable, IAggregateFunctionApproximate {
 
     private int count = 0;
     private Set<Object> cache = new HashSet<>();
+    private HyperLogLogSketch sketch;
+    private boolean hasNulls;
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
+        if (sketch != null) {
+            if (value == null) {
+                hasNulls = true;
+            } else {
+                sketch.add(value);
+            }
+            return true;
+        }
         if (!cache.contains(value)) {
             count++;
             cache.add(value);
@@ -39,6 +51,38 @@ public class FunctionCountDistinct implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
+        if (sketch != null) {
+            // Null is a distinct value as well
+            return sketch.estimate() + (hasNulls ? 1 : 0);
+        }
         return count;
     }
+
+    @Override
+    public void merge(@NotNull IAggregateFunction partial) {
+        FunctionCountDistinct other = (FunctionCountDistinct) partial;
+        if (sketch != null) {
+            sketch.merge(other.sketch);
+            hasNulls |= other.hasNulls;
+        } else {
+            cache.addAll(other.cache);
+            count = cache.size();
+        }
+    }
+
+    @Override
+    public boolean isApproximate() {
+        return sketch != null;
+    }
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        if (approximate) {
+            sketch = new HyperLogLogSketch();
+            cache = null;
+        } else {
+            sketch = null;
+            cache = new HashSet<>();
+        }
+    }
 }
@@ -16,10 +16,12 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
+import org.jkiss.code.NotNull;
+
 /**
  * FunctionSum
  */
-public class FunctionMax implements IAggregateFunction {
+public class FunctionMax implements IAggregateFunctionMergeable {
 
     Comparable<?> result = null;
 
@@ -40,4 +42,12 @@ public class FunctionMax implements IAggregateFunction {
         return result;
     }
 
+    @Override
+    public void merge(@NotNull IAggregateFunction partial) {
+        Comparable<?> partialResult = ((FunctionMax) partial).result;
+        if (partialResult != null && (result == null || AggregateUtils.compareValues(partialResult, result) > 0)) {
+            result = partialResult;
+        }
+    }
+
 }
@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
 
 import java.util.ArrayList;
@@ -24,17 +25,23 @@ import java.util.List;
 /**
  * Median
  */
-public class FunctionMedian implements IAggregateFunction {
+public class FunctionMedian implements IAggregateFunctionMergeable, IAggregateFunctionApproximate {
 
     private static final Log log = Log.getLog(FunctionMedian.class);
 
-    private final List<Comparable<?>> cache = new ArrayList<>();
+    private List<Comparable<?>> cache = new ArrayList<>();
+    private QuantileSketch<Comparable<?>> sketch;
+    private boolean sketchFailed;
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
         value = FunctionNumeric.getComparable(value, aggregateAsStrings);
         if (value != null) {
-            cache.add((Comparable<?>) value);
+            if (sketch != null) {
+                addToSketch((Comparable<?>) value);
+            } else {
+                cache.add((Comparable<?>) value);
+            }
             return true;
         }
         return false;
@@ -42,6 +49,9 @@ public class FunctionMedian implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
+        if (sketch != null) {
+            return getSketchResult();
+        }
         try {
             cache.sort(AggregateUtils::compareValues);
         } catch (Exception e) {
@@ -54,14 +64,81 @@ public class FunctionMedian implements IAggregateFunction {
         if (size % 2 == 1) {
             return cache.get(middle);
         } else {
-            Comparable<?> val1 = cache.get(middle - 1);
-            Comparable<?> val2 = cache.get(middle);
-            if (val1 instanceof Number && val2 instanceof Number) {
-                return (((Number) val1).doubleValue() + ((Number) val2).doubleValue()) / 2.0;
+            return getMiddleValue(cache.get(middle - 1), cache.get(middle));
+        }
+    }
+
+    @Override
+    public void merge(@NotNull IAggregateFunction partial) {
+        FunctionMedian other = (FunctionMedian) partial;
+        if (sketch != null) {
+            sketchFailed |= other.sketchFailed;
+            if (!sketchFailed) {
+                try {
+                    sketch.merge(other.sketch);
+                } catch (Exception e) {
+                    log.debug("Can't merge value sketches: " + e.getMessage());
+                    sketchFailed = true;
+                }
             }
-            // Not true median - but we can't evaluate it for non-numeric values
-            // So just get first one
-            return val1;
+        } else {
+            cache.addAll(other.cache);
+        }
+    }
+
+    @Override
+    public boolean isApproximate() {
+        return sketch != null;
+    }
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        if (approximate) {
+            sketch = new QuantileSketch<>(AggregateUtils::compareValues);
+            cache = null;
+        } else {
+            sketch = null;
+            cache = new ArrayList<>();
+        }
+    }
+
+    private void addToSketch(@NotNull Comparable<?> value) {
+        if (sketchFailed) {
+            return;
+        }
+        try {
+            sketch.add(value);
+        } catch (Exception e) {
+            // Values are sorted during compaction
+            log.debug("Can't sort value collection: " + e.getMessage());
+            sketchFailed = true;
+        }
+    }
+
+    private Object getSketchResult() {
+        long size = sketch.getCount();
+        if (sketchFailed || size == 0) {
+            return null;
+        }
+        try {
+            long middle = size / 2;
+            if (size % 2 == 1) {
+                return sketch.getValueAtRank(middle);
+            } else {
+                return getMiddleValue(sketch.getValueAtRank(middle - 1), sketch.getValueAtRank(middle));
+            }
+        } catch (Exception e) {
+            log.debug("Can't sort value collection: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Object getMiddleValue(Comparable<?> val1, Comparable<?> val2) {
+        if (val1 instanceof Number && val2 instanceof Number) {
+            return (((Number) val1).doubleValue() + ((Number) val2).doubleValue()) / 2.0;
         }
+        // Not true median - but we can't evaluate it for non-numeric values
+        // So just get first one
+        return val1;
     }
 }
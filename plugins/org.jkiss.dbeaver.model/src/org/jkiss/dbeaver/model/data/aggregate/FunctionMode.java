@@ -16,15 +16,19 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
-import java.util.ArrayList;
-import java.util.List;
+import org.jkiss.code.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Mode
  */
-public class FunctionMode implements IAggregateFunction {
+public class FunctionMode implements IAggregateFunctionMergeable, IAggregateFunctionApproximate {
 
-    private final List<Object> cache = new ArrayList<>();
+    // Value counts in order of the first appearance
+    private Map<Object, long[]> cache = new LinkedHashMap<>();
+    private HeavyHittersSketch sketch;
 
     @Override
     public boolean accumulate(Object value, boolean aggregateAsStrings) {
@@ -33,7 +37,11 @@ public class FunctionMode implements IAggregateFunction {
             value = num;
         }
         if (value != null) {
-            cache.add(value);
+            if (sketch != null) {
+                sketch.add(value);
+            } else {
+                cache.computeIfAbsent(value, v -> new long[1])[0]++;
+            }
             return true;
         }
         return false;
@@ -41,19 +49,16 @@ public class FunctionMode implements IAggregateFunction {
 
     @Override
     public Object getResult(int valueCount) {
+        if (sketch != null) {
+            return sketch.getMostFrequent();
+        }
         Object maxValue = null;
-        int maxCount = 0;
-
-        for (int i = 0; i < cache.size(); ++i) {
-            int count = 0;
-            for (int j = 0; j < cache.size(); ++j) {
-                if (cache.get(j).equals(cache.get(i))) {
-                    count++;
-                }
-            }
+        long maxCount = 0;
+        for (Map.Entry<Object, long[]> entry : cache.entrySet()) {
+            long count = entry.getValue()[0];
             if (count > maxCount) {
                 maxCount = count;
-                maxValue = cache.get(i);
+                maxValue = entry.getKey();
             }
         }
 //        if (maxCount <= 1) {
@@ -61,4 +66,32 @@ public class FunctionMode implements IAggregateFunction {
 //        }
         return maxValue;
     }
+
+    @Override
+    public void merge(@NotNull IAggregateFunction partial) {
+        FunctionMode other = (FunctionMode) partial;
+        if (sketch != null) {
+            sketch.merge(other.sketch);
+        } else {
+            for (Map.Entry<Object, long[]> entry : other.cache.entrySet()) {
+                cache.computeIfAbsent(entry.getKey(), v -> new long[1])[0] += entry.getValue()[0];
+            }
+        }
+    }
+
+    @Override
+    public boolean isApproximate() {
+        return sketch != null;
+    }
+
+    @Override
+    public void setApproximate(boolean approximate) {
+        if (approximate) {
+            sketch = new HeavyHittersSketch();
+            cache = null;
+        } else {
+            sketch = null;
+            cache = new LinkedHashMap<>();
+        }
+    }
 }
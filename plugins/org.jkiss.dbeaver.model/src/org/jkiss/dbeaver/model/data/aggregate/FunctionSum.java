@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.model.data.aggregate;
 
+import org.jkiss.code.NotNull;
+
 /**
  * FunctionSum
  */
@@ -44,4 +46,12 @@ public class FunctionSum extends FunctionNumeric {
         return result;
     }
 
+    @Override
+    public void merge(@NotNull IAggregateFunction partial) {
+        double partialResult = ((FunctionSum) partial).result;
+        if (!Double.isNaN(partialResult)) {
+            result = Double.isNaN(result) ? partialResult : result + partialResult;
+        }
+    }
+
 }
@@ -0,0 +1,139 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy hitters sketch.
+ * <p>
+ * Keeps at most {@code capacity} counters. When a new value arrives and all counters are used,
+ * the counter with minimal count is reassigned to it (so counts may be overestimated by at most n / capacity).
+ * Any value with frequency above n / capacity is guaranteed to be tracked.
+ */
+public class HeavyHittersSketch {
+
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private static final Comparator<Counter> COUNTER_COMPARATOR = Comparator
+        .comparingLong((Counter c) -> c.count)
+        .thenComparingLong(c -> -c.order);
+
+    private final int capacity;
+    private final Map<Object, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> orderedCounters = new TreeSet<>(COUNTER_COMPARATOR);
+    private long nextOrder;
+
+    public HeavyHittersSketch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HeavyHittersSketch(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void add(@NotNull Object value) {
+        Counter counter = counters.get(value);
+        if (counter != null) {
+            increment(counter, 1);
+        } else if (counters.size() < capacity) {
+            addCounter(value, 1, 0);
+        } else {
+            // Replace the least frequent value
+            Counter minCounter = orderedCounters.pollFirst();
+            counters.remove(minCounter.value);
+            addCounter(value, minCounter.count + 1, minCounter.count);
+        }
+    }
+
+    /**
+     * Merges counters of another sketch. Values which were seen first in this sketch keep precedence on ties.
+     */
+    public void merge(@NotNull HeavyHittersSketch other) {
+        List<Counter> otherCounters = new ArrayList<>(other.counters.values());
+        otherCounters.sort(Comparator.comparingLong(c -> c.order));
+        for (Counter otherCounter : otherCounters) {
+            Counter counter = counters.get(otherCounter.value);
+            if (counter != null) {
+                increment(counter, otherCounter.count);
+                counter.error += otherCounter.error;
+            } else {
+                addCounter(otherCounter.value, otherCounter.count, otherCounter.error);
+            }
+        }
+        while (counters.size() > capacity) {
+            Counter minCounter = orderedCounters.pollFirst();
+            counters.remove(minCounter.value);
+        }
+    }
+
+    /**
+     * Returns the most frequent value. Of values with the same count the one seen first is returned.
+     */
+    @Nullable
+    public Object getMostFrequent() {
+        return orderedCounters.isEmpty() ? null : orderedCounters.last().value;
+    }
+
+    public long getCount(@NotNull Object value) {
+        Counter counter = counters.get(value);
+        return counter == null ? 0 : counter.count;
+    }
+
+    /**
+     * Maximum overestimation of the value count
+     */
+    public long getError(@NotNull Object value) {
+        Counter counter = counters.get(value);
+        return counter == null ? 0 : counter.error;
+    }
+
+    private void addCounter(@NotNull Object value, long count, long error) {
+        Counter counter = new Counter(value, nextOrder++);
+        counter.count = count;
+        counter.error = error;
+        counters.put(value, counter);
+        orderedCounters.add(counter);
+    }
+
+    private void increment(@NotNull Counter counter, long delta) {
+        orderedCounters.remove(counter);
+        counter.count += delta;
+        orderedCounters.add(counter);
+    }
+
+    private static class Counter {
+        private final Object value;
+        private final long order;
+        private long count;
+        private long error;
+
+        Counter(@NotNull Object value, long order) {
+            this.value = value;
+            this.order = order;
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.code.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * HyperLogLog distinct count estimator.
+ * <p>
+ * Uses 2^precision one-byte registers, standard error is about 1.04/sqrt(2^precision)
+ * (0.8% for the default precision).
+ */
+public class HyperLogLogSketch {
+
+    public static final int DEFAULT_PRECISION = 14;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLogSketch() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLogSketch(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be in range 4..18");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void add(@NotNull Object value) {
+        addHash(hash(value));
+    }
+
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Guard bit limits rank by 64 - precision + 1
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(@NotNull HyperLogLogSketch other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Can't merge sketches with different precision");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Improved raw estimator by O. Ertl ("New cardinality estimation algorithms for HyperLogLog sketches").
+     * Unlike the original one it has no bias on small and medium cardinalities and doesn't need empirical corrections.
+     */
+    public long estimate() {
+        final int m = registers.length;
+        final int q = 64 - precision;
+        final int[] histogram = new int[q + 2];
+        for (byte register : registers) {
+            histogram[register]++;
+        }
+        double z = m * tau(1.0 - (double) histogram[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma((double) histogram[0] / m);
+        return Math.round(m * (m / (2 * Math.log(2) * z)));
+    }
+
+    private static double sigma(double x) {
+        if (x == 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1.0;
+        double z = x;
+        double prevZ;
+        do {
+            x *= x;
+            prevZ = z;
+            z += x * y;
+            y += y;
+        } while (z != prevZ);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0.0 || x == 1.0) {
+            return 0.0;
+        }
+        double y = 1.0;
+        double z = 1.0 - x;
+        double prevZ;
+        do {
+            x = Math.sqrt(x);
+            prevZ = z;
+            y *= 0.5;
+            z -= Math.pow(1.0 - x, 2) * y;
+        } while (z != prevZ);
+        return z / 3;
+    }
+
+    /**
+     * 64-bit hash consistent with {@link Object#equals(Object)} for common value types
+     */
+    public static long hash(@NotNull Object value) {
+        long hash;
+        if (value instanceof String str) {
+            hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < str.length(); i++) {
+                hash = (hash ^ str.charAt(i)) * 0x100000001b3L;
+            }
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            hash = ((Number) value).longValue() ^ ((long) value.getClass().hashCode() << 32);
+        } else if (value instanceof Double num) {
+            hash = Double.doubleToLongBits(num);
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            hash = ((long) value.hashCode() << 32) ^ value.toString().hashCode();
+        } else {
+            hash = value.hashCode();
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        // SplitMix64 finalizer
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * KLL quantile sketch.
+ * <p>
+ * Keeps O(k * log(n / k)) values: level h holds values of weight 2^h. When the sketch is full, the lowest
+ * full level is sorted and every other value (with random offset) is promoted to the next level.
+ * Rank error is about 1.7/k (1% for the default k). Works with any comparable values, not only numbers.
+ */
+public class QuantileSketch<T> {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 8;
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final List<List<T>> levels = new ArrayList<>();
+    private final Random random = new Random();
+    private long count;
+    private int retained;
+    private int capacity;
+
+    public QuantileSketch(@NotNull Comparator<? super T> comparator) {
+        this(DEFAULT_K, comparator);
+    }
+
+    public QuantileSketch(int k, @NotNull Comparator<? super T> comparator) {
+        this.k = k;
+        this.comparator = comparator;
+        addLevel();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void add(@NotNull T value) {
+        levels.get(0).add(value);
+        count++;
+        retained++;
+        compress();
+    }
+
+    public void merge(@NotNull QuantileSketch<T> other) {
+        while (levels.size() < other.levels.size()) {
+            addLevel();
+        }
+        for (int i = 0; i < other.levels.size(); i++) {
+            levels.get(i).addAll(other.levels.get(i));
+        }
+        count += other.count;
+        retained += other.retained;
+        compress();
+    }
+
+    /**
+     * Returns value with the specified rank (0 .. count - 1) or null if sketch is empty
+     */
+    @Nullable
+    public T getValueAtRank(long rank) {
+        if (count == 0) {
+            return null;
+        }
+        final List<WeightedValue<T>> weighted = new ArrayList<>(retained);
+        for (int level = 0; level < levels.size(); level++) {
+            for (T value : levels.get(level)) {
+                weighted.add(new WeightedValue<>(value, 1L << level));
+            }
+        }
+        weighted.sort((o1, o2) -> comparator.compare(o1.value(), o2.value()));
+        long cumulative = 0;
+        for (WeightedValue<T> item : weighted) {
+            cumulative += item.weight();
+            if (cumulative > rank) {
+                return item.value();
+            }
+        }
+        return weighted.get(weighted.size() - 1).value();
+    }
+
+    @Nullable
+    public T getQuantile(double fraction) {
+        return getValueAtRank((long) Math.floor(fraction * (count - 1)));
+    }
+
+    private int getLevelCapacity(int level) {
+        int depth = levels.size() - level - 1;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void addLevel() {
+        levels.add(new ArrayList<>());
+        capacity = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            capacity += getLevelCapacity(level);
+        }
+    }
+
+    private void compress() {
+        while (retained > capacity) {
+            for (int level = 0; level < levels.size(); level++) {
+                List<T> values = levels.get(level);
+                if (values.size() < getLevelCapacity(level)) {
+                    continue;
+                }
+                if (level + 1 == levels.size()) {
+                    addLevel();
+                }
+                values.sort(comparator);
+                // Odd value stays on its level
+                T oddValue = values.size() % 2 == 1 ? values.remove(values.size() - 1) : null;
+                List<T> nextLevel = levels.get(level + 1);
+                for (int i = random.nextBoolean() ? 1 : 0; i < values.size(); i += 2) {
+                    nextLevel.add(values.get(i));
+                }
+                retained -= values.size() / 2;
+                values.clear();
+                if (oddValue != null) {
+                    values.add(oddValue);
+                }
+                break;
+            }
+        }
+    }
+
+    private record WeightedValue<T>(T value, long weight) {
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec;
+
+/**
+ * Error of a single row of data manipulation batch.
+ * Rows before the failed row were executed successfully.
+ */
+public class DBCExecuteBatchException extends DBCException
+{
+    private static final long serialVersionUID = 1L;
+
+    private final int failedRowIndex;
+
+    public DBCExecuteBatchException(String message, Throwable cause, int failedRowIndex) {
+        super(message, cause);
+        this.failedRowIndex = failedRowIndex;
+    }
+
+    /**
+     * Index of the failed row in order the rows were added to the batch
+     */
+    public int getFailedRowIndex() {
+        return failedRowIndex;
+    }
+}
@@ -73,6 +73,15 @@ public interface DBCStatement extends DBPObject, DBRBlockingObject, DBPCloseable
         throw new DBCFeatureNotSupportedException("Statement batches are not supported");
     }
 
+    /**
+     * Adds specified query text to execution batch (if supported).
+     * Used to execute several queries without parameters in a single batch.
+     * @throws DBCException on error
+     */
+    default void addToBatch(@NotNull String query) throws DBCException {
+        throw new DBCFeatureNotSupportedException("Statement batches are not supported");
+    }
+
     /**
      * Executes batch of statements
      *
@@ -33,6 +33,8 @@ import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -126,9 +128,12 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
             // We must be aware of nulls because actual insert statements may differ depending on null values.
             // So if row nulls aren't the same as in previous row we need to prepare new statement and restart batch.
             // Quite complicated but works.
+            // Statement text depends on nulls even if rows are not added to batch (e.g. IS NULL in key criteria),
+            // so the null pattern is checked for generated scripts and row by row execution too.
             boolean[] prevNulls = new boolean[attributes.length];
             boolean[] nulls = new boolean[attributes.length];
             int statementsInBatch = 0;
+            int batchStartRow = 0;
 
             for (int rowIndex = 0; rowIndex < values.size(); rowIndex++) {
                 Object[] rowValues = values.get(rowIndex);
@@ -144,25 +149,23 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                     for (int i = 0; i < rowValues.length; i++) {
                         nulls[i] = DBUtils.isNullValue(rowValues[i]);
                     }
-                    if (!Arrays.equals(prevNulls, nulls) && statementsInBatch > 0) {
-                        reuse = false;
-                    }
+                    boolean nullsChanged = !Arrays.equals(prevNulls, nulls);
                     System.arraycopy(nulls, 0, prevNulls, 0, nulls.length);
-                    if (!reuse && statementsInBatch > 0) {
+                    if (nullsChanged && statement != null) {
                         // Flush batch
-                        if (actions == null) {
-                            flushBatch(statistics, statement);
+                        if (statementsInBatch > 0 && actions == null) {
+                            flushRowsBatch(statistics, statement, batchStartRow);
                         }
                         statement.close();
                         statement = null;
                         statementsInBatch = 0;
-                        reuse = true;
                     }
                 }
                 if (statement == null || !reuse) {
                     statement = prepareStatement(session, handlers, rowValues, options);
                     statistics.setQueryText(statement.getQueryString());
                     statistics.addStatementsCount();
+                    batchStartRow = rowIndex;
                 }
                 try {
                     if (!skipBindValues) {
@@ -175,7 +178,11 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                         } else {
                             // Execute each row separately
                             long startTime = System.currentTimeMillis();
-                            executeStatement(statistics, statement);
+                            try {
+                                executeStatement(statistics, statement);
+                            } catch (DBCException e) {
+                                throw new DBCExecuteBatchException(e.getMessage(), e, rowIndex);
+                            }
                             statistics.addExecuteTime(System.currentTimeMillis() - startTime);
 
                             long rowCount = statement.getUpdateRowCount();
@@ -208,7 +215,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
             if (statementsInBatch > 0) {
                 if (actions == null) {
-                    flushBatch(statistics, statement);
+                    flushRowsBatch(statistics, statement, batchStartRow);
                 }
                 statement.close();
                 statement = null;
@@ -285,6 +292,22 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         return formatted.toString();
     }
 
+    /**
+     * Flushes batch of statements where each statement processes a single row
+     * @param batchStartRow index of the first batch row in batch values
+     */
+    private void flushRowsBatch(DBCStatistics statistics, DBCStatement statement, int batchStartRow) throws DBCException {
+        try {
+            flushBatch(statistics, statement);
+        } catch (DBCException e) {
+            int failedRow = getFailedBatchRow(e);
+            if (failedRow < 0) {
+                throw e;
+            }
+            throw new DBCExecuteBatchException(e.getMessage(), e, batchStartRow + failedRow);
+        }
+    }
+
     void flushBatch(DBCStatistics statistics, DBCStatement statement) throws DBCException {
         long startTime = System.currentTimeMillis();
         long[] updatedRows = statement.executeStatementBatch();
@@ -306,6 +329,32 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         saveExecuteWarnings(statistics, statement);
     }
 
+    /**
+     * Finds the failed batch row by update counts of {@link BatchUpdateException}.
+     * Drivers either stop at the failed row or mark it with {@link Statement#EXECUTE_FAILED}.
+     * @return index of the failed row in the batch or -1 if it is unknown
+     */
+    static int getFailedBatchRow(@NotNull Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof BatchUpdateException batchError) {
+                long[] updateCounts = batchError.getLargeUpdateCounts();
+                if (updateCounts == null) {
+                    return -1;
+                }
+                for (int i = 0; i < updateCounts.length; i++) {
+                    if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                        return i;
+                    }
+                }
+                return updateCounts.length;
+            }
+            if (e.getCause() == e) {
+                break;
+            }
+        }
+        return -1;
+    }
+
     protected void executeStatement(DBCStatistics statistics, DBCStatement statement) throws DBCException {
         statement.executeStatement();
         saveExecuteWarnings(statistics, statement);
@@ -0,0 +1,132 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecuteBatchException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delete batch which deletes rows by a single key attribute with {@code WHERE key IN (...)} statements.
+ * <p>
+ * Multiple keys are used only if {@link DBSDataManipulator#OPTION_USE_MULTI_DELETE} is set.
+ * Rows with NULL keys, composite or pseudo keys and generated scripts are processed row by row.
+ */
+public abstract class ExecuteBatchWithMultipleDelete extends ExecuteBatchImpl {
+
+    private static final int DEFAULT_MULTI_DELETE_BATCH_SIZE = 100;
+
+    /**
+     * Constructs new batch
+     *
+     * @param keyAttributes  array of key attributes used in batch
+     * @param reuseStatement true if engine should reuse single prepared statement for row by row deletes.
+     */
+    protected ExecuteBatchWithMultipleDelete(@NotNull DBSAttributeBase[] keyAttributes, boolean reuseStatement) {
+        super(keyAttributes, null, reuseStatement);
+    }
+
+    @NotNull
+    @Override
+    DBCStatistics processBatch(@NotNull DBCSession session, @Nullable List<DBEPersistAction> actions, Map<String, Object> options) throws DBCException {
+        if (actions != null ||
+            attributes.length != 1 ||
+            DBUtils.isPseudoAttribute(attributes[0]) ||
+            !CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_USE_MULTI_DELETE)) ||
+            CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_SKIP_BIND_VALUES)))
+        {
+            return super.processBatch(session, actions, options);
+        }
+        DBSAttributeBase keyAttribute = attributes[0];
+        DBDValueHandler valueHandler = keyAttribute instanceof DBDAttributeBinding binding ?
+            binding.getValueHandler() : DBUtils.findValueHandler(session, keyAttribute);
+        int batchSize = CommonUtils.toInt(options.get(DBSDataManipulator.OPTION_MULTI_DELETE_BATCH_SIZE), DEFAULT_MULTI_DELETE_BATCH_SIZE);
+        if (batchSize <= 0) {
+            batchSize = DEFAULT_MULTI_DELETE_BATCH_SIZE;
+        }
+
+        List<Object> keys = new ArrayList<>(values.size());
+        List<Object[]> nullKeyRows = new ArrayList<>();
+        List<Integer> nullKeyRowIndexes = new ArrayList<>();
+        for (int rowIndex = 0; rowIndex < values.size(); rowIndex++) {
+            Object[] rowValues = values.get(rowIndex);
+            if (DBUtils.isNullValue(rowValues[0])) {
+                // NULL can't be matched with IN
+                nullKeyRows.add(rowValues);
+                nullKeyRowIndexes.add(rowIndex);
+            } else {
+                keys.add(rowValues[0]);
+            }
+        }
+        values.clear();
+
+        DBCStatistics statistics = new DBCStatistics();
+        for (int offset = 0; offset < keys.size(); offset += batchSize) {
+            if (session.getProgressMonitor().isCanceled()) {
+                return statistics;
+            }
+            List<Object> batchKeys = keys.subList(offset, Math.min(offset + batchSize, keys.size()));
+            try (DBCStatement statement = prepareMultiDeleteStatement(session, batchKeys.size(), options)) {
+                statistics.setQueryText(statement.getQueryString());
+                statistics.addStatementsCount();
+                for (int i = 0; i < batchKeys.size(); i++) {
+                    valueHandler.bindValueObject(statement.getSession(), statement, keyAttribute, i, batchKeys.get(i));
+                }
+                long startTime = System.currentTimeMillis();
+                executeStatement(statistics, statement);
+                statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+                long rowCount = statement.getUpdateRowCount();
+                if (rowCount > 0) {
+                    statistics.addRowsUpdated(rowCount);
+                }
+            }
+        }
+        if (!nullKeyRows.isEmpty()) {
+            values.addAll(nullKeyRows);
+            try {
+                statistics.accumulate(super.processBatch(session, null, options));
+            } catch (DBCExecuteBatchException e) {
+                // Report index of the failed row in the original batch order
+                throw new DBCExecuteBatchException(e.getMessage(), e.getCause(), nullKeyRowIndexes.get(e.getFailedRowIndex()));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Prepares statement which deletes rows with any of {@code keyCount} key values.
+     * Key values are bound to parameters in the same order.
+     */
+    @NotNull
+    protected abstract DBCStatement prepareMultiDeleteStatement(@NotNull DBCSession session, int keyCount, Map<String, Object> options) throws DBCException;
+
+}
@@ -0,0 +1,232 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.struct;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads structure (tables, columns, constraints, etc) of all entity containers of a data source in background.
+ * <p>
+ * Containers are processed by several worker jobs. Each worker opens its own isolated execution context
+ * and binds it as metadata context of its thread, so containers are read over several connections at once.
+ */
+public class StructurePrefetchJob extends AbstractJob {
+
+    private static final Log log = Log.getLog(StructurePrefetchJob.class);
+
+    private static final int MAX_CONTAINER_DEPTH = 3;
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final DBPDataSource dataSource;
+    private final int connectionCount;
+    private final int scope;
+    private final Queue<DBSObjectContainer> containers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger processedCount = new AtomicInteger();
+    private final List<PrefetchWorker> workers = new CopyOnWriteArrayList<>();
+    private volatile boolean canceled;
+
+    /**
+     * @param connectionCount maximum number of metadata connections opened by prefetch
+     * @param scope structure scope, see {@link DBSObjectContainer#cacheStructure(DBRProgressMonitor, int)}
+     */
+    public StructurePrefetchJob(@NotNull DBPDataSource dataSource, int connectionCount, int scope) {
+        super("Prefetch metadata of " + dataSource.getContainer().getName());
+        this.dataSource = dataSource;
+        this.connectionCount = Math.max(1, connectionCount);
+        this.scope = scope;
+        setUser(false);
+    }
+
+    @Override
+    protected IStatus run(DBRProgressMonitor monitor) {
+        long startTime = System.currentTimeMillis();
+        List<DBSObjectContainer> containerList = new ArrayList<>();
+        try {
+            DBSObjectContainer rootContainer = DBUtils.getAdapter(DBSObjectContainer.class, dataSource);
+            if (rootContainer != null) {
+                collectContainers(monitor, rootContainer, containerList, 0);
+            }
+        } catch (DBException e) {
+            log.debug("Error reading metadata containers of " + dataSource.getContainer().getName(), e);
+        }
+        if (containerList.isEmpty() || monitor.isCanceled()) {
+            return Status.OK_STATUS;
+        }
+        containers.addAll(containerList);
+
+        monitor.beginTask("Prefetch metadata", containerList.size());
+        for (int i = 0; i < Math.min(connectionCount, containerList.size()); i++) {
+            if (canceled) {
+                break;
+            }
+            PrefetchWorker worker = new PrefetchWorker(i + 1);
+            workers.add(worker);
+            worker.schedule();
+        }
+        int reportedCount = 0;
+        try {
+            // Progress is reported from this job thread, workers only count processed containers
+            while (!workers.stream().allMatch(PrefetchWorker::isFinished)) {
+                if (monitor.isCanceled() && !canceled) {
+                    cancelWorkers();
+                }
+                int processed = processedCount.get();
+                if (processed > reportedCount) {
+                    monitor.worked(processed - reportedCount);
+                    monitor.subTask("Prefetched " + processed + " of " + containerList.size());
+                    reportedCount = processed;
+                }
+                Thread.sleep(POLL_TIMEOUT_MS);
+            }
+        } catch (InterruptedException e) {
+            cancelWorkers();
+        } finally {
+            monitor.done();
+        }
+        log.debug("Metadata of " + processedCount.get() + " containers of '" + dataSource.getContainer().getName() +
+            "' prefetched in " + (System.currentTimeMillis() - startTime) + "ms using " + workers.size() + " connection(s)");
+        return Status.OK_STATUS;
+    }
+
+    @Override
+    protected void canceling() {
+        cancelWorkers();
+        super.canceling();
+    }
+
+    /**
+     * Stops workers. Cancel of a running worker also cancels its current metadata query.
+     */
+    private void cancelWorkers() {
+        canceled = true;
+        for (PrefetchWorker worker : workers) {
+            worker.cancel();
+        }
+    }
+
+    /**
+     * Collects containers which hold entities (usually schemas). Navigator filters are applied by containers.
+     */
+    private void collectContainers(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSObjectContainer container,
+        @NotNull List<DBSObjectContainer> result,
+        int depth
+    ) throws DBException {
+        if (monitor.isCanceled()) {
+            return;
+        }
+        if (DBSEntity.class.isAssignableFrom(container.getPrimaryChildType(monitor))) {
+            result.add(container);
+            return;
+        }
+        if (depth >= MAX_CONTAINER_DEPTH) {
+            return;
+        }
+        for (DBSObject child : container.getChildren(monitor)) {
+            if (child instanceof DBSObjectContainer childContainer) {
+                collectContainers(monitor, childContainer, result, depth + 1);
+            }
+        }
+    }
+
+    private class PrefetchWorker extends AbstractJob {
+        private final Map<DBSInstance, DBCExecutionContext> contexts = new IdentityHashMap<>();
+
+        PrefetchWorker(int number) {
+            super("Prefetch metadata of " + dataSource.getContainer().getName() + " (" + number + ")");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        public boolean isFinished() {
+            // Worker canceled before start never runs
+            return super.isFinished() || getState() == NONE;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                for (DBSObjectContainer container = containers.poll(); container != null; container = containers.poll()) {
+                    if (canceled || monitor.isCanceled()) {
+                        break;
+                    }
+                    try {
+                        DBUtils.setThreadMetaContext(getExecutionContext(monitor, container));
+                        container.cacheStructure(monitor, scope);
+                    } catch (Exception e) {
+                        log.debug("Error prefetching metadata of " + DBUtils.getObjectFullName(container, DBPEvaluationContext.UI), e);
+                    } finally {
+                        DBUtils.setThreadMetaContext(null);
+                    }
+                    processedCount.incrementAndGet();
+                }
+            } finally {
+                for (DBCExecutionContext context : contexts.values()) {
+                    if (context != null) {
+                        context.close();
+                    }
+                }
+                contexts.clear();
+            }
+            return Status.OK_STATUS;
+        }
+
+        /**
+         * Returns isolated context of the container's instance or null if it can't be opened (then default metadata context is used)
+         */
+        @Nullable
+        private DBCExecutionContext getExecutionContext(@NotNull DBRProgressMonitor monitor, @NotNull DBSObjectContainer container) {
+            DBSInstance instance = DBUtils.getObjectOwnerInstance(container);
+            if (instance == null) {
+                return null;
+            }
+            if (!contexts.containsKey(instance)) {
+                DBCExecutionContext context = null;
+                try {
+                    context = instance.openIsolatedContext(monitor, "Metadata prefetch", instance.getDefaultContext(monitor, true));
+                } catch (DBException e) {
+                    log.debug("Error opening metadata prefetch context", e);
+                }
+                contexts.put(instance, context);
+            }
+            return contexts.get(instance);
+        }
+    }
+
+}
@@ -29,6 +29,11 @@ import java.util.Map;
  */
 public interface DBSDataBulkLoader {
 
+    /**
+     * Send rows to the database while they are produced instead of spooling them into an intermediate file first
+     */
+    String OPTION_STREAM_DATA = "data.bulkLoad.streamData";//$NON-NLS-1$
+
     interface BulkLoadManager extends AutoCloseable {
         void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException;
 
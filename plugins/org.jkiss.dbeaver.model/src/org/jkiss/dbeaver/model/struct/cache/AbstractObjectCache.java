@@ -25,7 +25,6 @@ import org.jkiss.dbeaver.model.meta.PropertyGroup;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.utils.BeanUtils;
-import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -33,14 +32,16 @@ import java.lang.reflect.Modifier;
 import java.util.*;
 
 /**
- * Various objects cache
+ * Various objects cache.
+ * <p>
+ * Cached objects are kept in an immutable state (object list and name map) which is replaced on each modification.
+ * Lookups read the current state without locking, only modifications are synchronized.
  */
 public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extends DBSObject>
     implements DBSObjectCache<OWNER, OBJECT> {
     private static final Log log = Log.getLog(AbstractObjectCache.class);
 
-    private List<OBJECT> objectList;
-    private Map<String, OBJECT> objectMap;
+    private volatile CacheState<OBJECT> cacheState;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
 
@@ -70,9 +71,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @NotNull
     @Override
     public List<OBJECT> getCachedObjects() {
-        synchronized (cacheSync) {
-            return objectList == null ? Collections.emptyList() : objectList;
-        }
+        CacheState<OBJECT> state = cacheState;
+        return state == null ? Collections.emptyList() : state.objects;
     }
 
     public <SUB_TYPE> List<SUB_TYPE> getTypedObjects(@NotNull DBRProgressMonitor monitor, OWNER owner, Class<SUB_TYPE> type)
@@ -89,43 +89,60 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Nullable
     @Override
     public OBJECT getCachedObject(@Nullable String name) {
-        synchronized (cacheSync) {
-            return objectList == null || name == null ? null : getObjectMap().get(caseSensitive ? name : name.toUpperCase());
-        }
+        CacheState<OBJECT> state = cacheState;
+        return state == null || name == null ? null : getObjectMap(state).get(caseSensitive ? name : name.toUpperCase());
     }
 
     public int getCacheSize() {
-        synchronized (cacheSync) {
-            return objectList == null ? 0 : objectList.size();
-        }
+        CacheState<OBJECT> state = cacheState;
+        return state == null ? 0 : state.objects.size();
     }
 
     @Override
     public void cacheObject(@NotNull OBJECT object) {
+        addCachedObjects(Collections.singletonList(object));
+    }
+
+    /**
+     * Adds objects to cache. Cache state is copied once for all objects,
+     * so loaders which read many objects should use it instead of {@link #cacheObject(DBSObject)}.
+     * Caches which override {@link #cacheObject(DBSObject)} must override this method too.
+     */
+    public void cacheObjects(@NotNull Collection<? extends OBJECT> objects) {
+        addCachedObjects(objects);
+    }
+
+    private void addCachedObjects(@NotNull Collection<? extends OBJECT> newObjects) {
+        if (newObjects.isEmpty()) {
+            return;
+        }
         synchronized (cacheSync) {
-            if (this.objectList == null) {
-                this.objectList = new ArrayList<>();
+            CacheState<OBJECT> state = this.cacheState;
+            List<OBJECT> objects = new ArrayList<>((state == null ? 0 : state.objects.size()) + newObjects.size());
+            if (state != null) {
+                objects.addAll(state.objects);
             }
-            detectCaseSensitivity(object);
-            this.objectList.add(object);
-            if (this.objectMap != null) {
-                String name = getObjectName(object);
-                if (checkDuplicateName(name, object)) {
-                    this.objectMap.put(name, object);
+            Map<String, OBJECT> objectMap = state == null || state.objectMap == null ? null : new HashMap<>(state.objectMap);
+            for (OBJECT object : newObjects) {
+                detectCaseSensitivity(object);
+                objects.add(object);
+                if (objectMap != null) {
+                    String name = getObjectName(object);
+                    if (checkDuplicateName(objectMap, name, object)) {
+                        objectMap.put(name, object);
+                    }
                 }
             }
+            this.cacheState = new CacheState<>(objects, objectMap);
         }
     }
 
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache) {
         synchronized (cacheSync) {
-            if (this.objectList != null) {
+            if (this.cacheState != null) {
                 detectCaseSensitivity(object);
-                this.objectList.remove(object);
-                if (this.objectMap != null) {
-                    this.objectMap.remove(getObjectName(object));
-                }
+                removeCachedObject(object);
             }
             if (resetFullCache) {
                 fullCache = false;
@@ -136,14 +153,17 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public void renameObject(@NotNull OBJECT object, @NotNull String oldName, @NotNull String newName) {
         synchronized (cacheSync) {
-            if (this.objectMap != null) {
+            CacheState<OBJECT> state = this.cacheState;
+            if (state != null && state.objectMap != null) {
                 if (!caseSensitive) {
                     oldName = oldName.toUpperCase(Locale.ENGLISH);
                     newName = newName.toUpperCase(Locale.ENGLISH);
                 }
-                if (this.objectMap.remove(oldName) == object) {
-                    this.objectMap.put(newName, object);
+                Map<String, OBJECT> objectMap = new HashMap<>(state.objectMap);
+                if (objectMap.remove(oldName) == object) {
+                    objectMap.put(newName, object);
                 }
+                this.cacheState = new CacheState<>(state.objects, objectMap);
             }
         }
     }
@@ -156,7 +176,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     }
 
     public boolean isEmpty() {
-        return CommonUtils.isEmpty(objectList);
+        CacheState<OBJECT> state = cacheState;
+        return state == null || state.objects.isEmpty();
     }
 
     public boolean isFullyCached() {
@@ -170,16 +191,15 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public void clearCache() {
         synchronized (cacheSync) {
-            this.objectList = null;
-            this.objectMap = null;
+            this.cacheState = null;
             this.fullCache = false;
         }
     }
 
     public void setCache(@NotNull List<OBJECT> objects) {
         synchronized (cacheSync) {
-            this.objectList = objects;
-            this.objectMap = null;
+            // Copy list because caller may keep modifying it
+            this.cacheState = new CacheState<>(new ArrayList<>(objects), null);
             this.fullCache = true;
         }
     }
@@ -205,48 +225,91 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
      * (because they might be referenced somewhere).
      */
     protected void mergeCache(List<OBJECT> objects) {
+        mergeCache(objects, false);
+    }
+
+    /**
+     * Merges new cache with existing.
+     * If objects with the same name were already cached - leave them in cache
+     * (because they might be referenced somewhere).
+     *
+     * @param copyState if true then state of new objects is copied into the cached objects with the same name
+     * @return cached objects which were left in cache
+     */
+    @NotNull
+    protected List<OBJECT> mergeCache(@NotNull List<OBJECT> objects, boolean copyState) {
+        List<OBJECT> keptObjects = new ArrayList<>();
         synchronized (cacheSync) {
-            if (this.objectList != null) {
+            CacheState<OBJECT> state = this.cacheState;
+            if (state != null && !state.objects.isEmpty()) {
+                Map<String, OBJECT> oldObjects = new HashMap<>(state.objects.size());
+                for (OBJECT oldObject : state.objects) {
+                    oldObjects.putIfAbsent(oldObject.getName(), oldObject);
+                }
                 // Merge lists
                 objects = new ArrayList<>(objects);
                 for (int i = 0; i < objects.size(); i++) {
                     OBJECT newObject = objects.get(i);
-                    String newObjectName = newObject.getName();
-                    for (int k = 0; k < objectList.size(); k++) {
-                        OBJECT oldObject = objectList.get(k);
-                        String oldObjectName = oldObject.getName();
-                        if (newObjectName.equals(oldObjectName)) {
-                            objects.set(i, oldObject);
-                            break;
+                    OBJECT oldObject = oldObjects.get(newObject.getName());
+                    if (oldObject != null && oldObject != newObject) {
+                        if (copyState) {
+                            deepCopyCachedObject(newObject, oldObject);
                         }
+                        objects.set(i, oldObject);
+                        keptObjects.add(oldObject);
                     }
                 }
             }
+            setCache(objects);
         }
-        setCache(objects);
+        return keptObjects;
     }
 
-    private Map<String, OBJECT> getObjectMap() {
-        synchronized (cacheSync) {
-            if (this.objectMap == null) {
-                this.objectMap = new HashMap<>();
-                if (objectList.size() > 0) {
-                    detectCaseSensitivity(objectList.get(0));
-                }
+    /**
+     * Returns name map of the specified state. Map is built on first lookup without locking.
+     * Concurrent lookups may build it more than once, but the result is always the same.
+     */
+    private Map<String, OBJECT> getObjectMap(@NotNull CacheState<OBJECT> state) {
+        Map<String, OBJECT> objectMap = state.objectMap;
+        if (objectMap == null) {
+            objectMap = new HashMap<>();
+            if (!state.objects.isEmpty()) {
+                detectCaseSensitivity(state.objects.get(0));
+            }
 
-                for (OBJECT object : objectList) {
-                    String name = getObjectName(object);
-                    if (checkDuplicateName(name, object)) {
-                        this.objectMap.put(name, object);
-                    }
+            for (OBJECT object : state.objects) {
+                String name = getObjectName(object);
+                if (checkDuplicateName(objectMap, name, object)) {
+                    objectMap.put(name, object);
                 }
             }
-            return this.objectMap;
+            state.objectMap = objectMap;
         }
+        return objectMap;
     }
 
-    private boolean checkDuplicateName(String name, OBJECT object) {
-        if (this.objectMap.containsKey(name)) {
+    /**
+     * Removes object from the current state. Must be called under cache lock.
+     */
+    private void removeCachedObject(@NotNull OBJECT object) {
+        CacheState<OBJECT> state = this.cacheState;
+        if (state == null) {
+            return;
+        }
+        List<OBJECT> objects = new ArrayList<>(state.objects);
+        if (!objects.remove(object)) {
+            return;
+        }
+        Map<String, OBJECT> objectMap = state.objectMap;
+        if (objectMap != null) {
+            objectMap = new HashMap<>(objectMap);
+            objectMap.remove(getObjectName(object));
+        }
+        this.cacheState = new CacheState<>(objects, objectMap);
+    }
+
+    private boolean checkDuplicateName(Map<String, OBJECT> objectMap, String name, OBJECT object) {
+        if (objectMap.containsKey(name)) {
             log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
             return isValidDuplicateObject(object);
         }
@@ -277,21 +340,25 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
     public void clearChildrenOf(DBSObject parent) {
         synchronized (cacheSync) {
-            if (objectList == null) {
+            CacheState<OBJECT> state = this.cacheState;
+            if (state == null) {
                 return;
             }
-            for (int i = 0; i < objectList.size(); ) {
-                OBJECT object = objectList.get(i);
+            List<OBJECT> objects = new ArrayList<>(state.objects.size());
+            Map<String, OBJECT> objectMap = state.objectMap == null ? null : new HashMap<>(state.objectMap);
+            for (OBJECT object : state.objects) {
                 if (object.getParentObject() == parent) {
-                    this.objectList.remove(object);
-                    if (this.objectMap != null) {
-                        this.objectMap.remove(getObjectName(object));
+                    if (objectMap != null) {
+                        objectMap.remove(getObjectName(object));
                     }
                     fullCache = false;
                 } else {
-                    i++;
+                    objects.add(object);
                 }
             }
+            if (objects.size() != state.objects.size()) {
+                this.cacheState = new CacheState<>(objects, objectMap);
+            }
         }
     }
 
@@ -362,8 +429,11 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         }
     }
 
+    /**
+     * Iterates over cached objects. Removal affects the cache, not the list being iterated.
+     */
     protected class CacheIterator implements Iterator<OBJECT> {
-        private final Iterator<OBJECT> listIterator = objectList.iterator();
+        private final Iterator<OBJECT> listIterator = getCachedObjects().iterator();
         private OBJECT curObject;
 
         public CacheIterator() {
@@ -381,13 +451,25 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
         @Override
         public void remove() {
-            listIterator.remove();
-            if (objectMap != null) {
-                objectMap.remove(getObjectName(curObject));
+            synchronized (cacheSync) {
+                removeCachedObject(curObject);
             }
         }
     }
 
+    /**
+     * Immutable snapshot of cached objects. Name map is built lazily.
+     */
+    private static class CacheState<OBJECT> {
+        private final List<OBJECT> objects;
+        private volatile Map<String, OBJECT> objectMap;
+
+        CacheState(@NotNull List<OBJECT> objects, @Nullable Map<String, OBJECT> objectMap) {
+            this.objects = Collections.unmodifiableList(objects);
+            this.objectMap = objectMap;
+        }
+    }
+
     public static boolean isPropertyGroupField(Field field) {
         String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
         for (Method getter : field.getDeclaringClass().getMethods()) {
@@ -41,6 +41,7 @@ import org.jkiss.dbeaver.model.dpi.*;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.SimpleExclusiveLock;
 import org.jkiss.dbeaver.model.impl.data.DefaultValueHandler;
+import org.jkiss.dbeaver.model.impl.struct.StructurePrefetchJob;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.meta.PropertyLength;
 import org.jkiss.dbeaver.model.navigator.DBNBrowseSettings;
@@ -53,6 +54,7 @@ import org.jkiss.dbeaver.model.security.SMObjectType;
 import org.jkiss.dbeaver.model.sql.SQLDialectMetadata;
 import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
 import org.jkiss.dbeaver.model.struct.DBSObjectState;
 import org.jkiss.dbeaver.model.virtual.DBVModel;
@@ -183,6 +185,8 @@ public class DataSourceDescriptor
     private final List<DBPDataSourceTask> users = new ArrayList<>();
     // DPI controller
     private transient DPIProcessController dpiController;
+    @Nullable
+    private transient volatile StructurePrefetchJob prefetchJob;
 
     private transient final DBPExclusiveResource exclusiveLock = new SimpleExclusiveLock();
 
@@ -1059,6 +1063,9 @@ public class DataSourceDescriptor
                         updateDataSourceObject(succeeded, DBPEvent.Action.AFTER_CONNECT);
                     }
                 }
+                if (succeeded && initialize) {
+                    prefetchMetadata();
+                }
             }
 
             return succeeded;
@@ -1072,6 +1079,40 @@ public class DataSourceDescriptor
         }
     }
 
+    private void prefetchMetadata() {
+        int connectionCount = preferenceStore.getInt(ModelPreferences.META_PREFETCH_CONNECTIONS);
+        DBPDataSource curDataSource = dataSource;
+        if (connectionCount > 0 && curDataSource != null) {
+            StructurePrefetchJob oldJob = prefetchJob;
+            if (oldJob != null) {
+                oldJob.cancel();
+            }
+            StructurePrefetchJob job = new StructurePrefetchJob(curDataSource, connectionCount, DBSObjectContainer.STRUCT_ALL);
+            prefetchJob = job;
+            job.schedule();
+        }
+    }
+
+    /**
+     * Cancels metadata prefetch and waits until it ends, so it doesn't use connections which are about to be closed
+     */
+    private void cancelMetadataPrefetch(@NotNull DBRProgressMonitor monitor) {
+        StructurePrefetchJob job = prefetchJob;
+        if (job == null) {
+            return;
+        }
+        prefetchJob = null;
+        if (job.getState() != Job.NONE) {
+            monitor.subTask("Stop '" + job.getName() + "'");
+            job.cancel();
+            try {
+                job.join(0, monitor.getNestedMonitor());
+            } catch (InterruptedException e) {
+                log.debug(e);
+            }
+        }
+    }
+
     public boolean isDetachedProcessEnabled() {
         return dpiEnabled;
     }
@@ -1483,6 +1524,7 @@ public class DataSourceDescriptor
 
         connecting = true;
         releaseDataSourceUsers(monitor);
+        cancelMetadataPrefetch(monitor);
         try {
             if (dpiController != null) {
                 closeDetachedProcess();
@@ -28,12 +28,17 @@ import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.*;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.dashboard.DBDashboardCalcType;
+import org.jkiss.dbeaver.model.dashboard.DBDashboardDataType;
+import org.jkiss.dbeaver.model.dashboard.DBDashboardFetchType;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardMapQuery;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardQuery;
+import org.jkiss.dbeaver.model.dashboard.DashboardConstants;
 import org.jkiss.dbeaver.model.dashboard.DashboardIcons;
 import org.jkiss.dbeaver.model.dashboard.data.DashboardDataset;
 import org.jkiss.dbeaver.model.dashboard.registry.DashboardItemConfiguration;
@@ -42,6 +47,7 @@ import org.jkiss.dbeaver.ui.DBeaverIcons;
 import org.jkiss.dbeaver.ui.UIStyles;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.dashboard.DashboardUIConstants;
+import org.jkiss.dbeaver.ui.dashboard.internal.UIDashboardActivator;
 import org.jkiss.dbeaver.ui.dashboard.internal.UIDashboardMessages;
 import org.jkiss.dbeaver.ui.dashboard.model.*;
 import org.jkiss.dbeaver.ui.dashboard.registry.DashboardUIRegistry;
@@ -62,6 +68,7 @@ public class DashboardViewItem extends Composite implements DashboardItemContain
     private final DashboardItemViewSettings viewItemConfig;
 
     private Date lastUpdateTime;
+    private final DashboardItemMetrics metrics = new DashboardItemMetrics();
     private DashboardRendererType curViewType;
     private DashboardItemRenderer renderer;
     private Composite dashboardControl;
@@ -145,7 +152,15 @@ public class DashboardViewItem extends Composite implements DashboardItemContain
         } else {
             titleLabel.setText(evaluateChartLabel(item.getTitle()));
         }
-        titleLabel.setToolTipText(CommonUtils.notEmpty(item.getDescription()));
+        updateChartToolTip(item);
+    }
+
+    private void updateChartToolTip(@NotNull DashboardItemConfiguration item) {
+        String description = CommonUtils.notEmpty(item.getDescription());
+        if (metrics.getLastDuration() >= 0) {
+            description = description.isEmpty() ? metrics.getSummary() : description + "\n\n" + metrics.getSummary();
+        }
+        titleLabel.setToolTipText(description);
     }
 
     private String evaluateChartLabel(String label) {
@@ -176,6 +191,7 @@ public class DashboardViewItem extends Composite implements DashboardItemContain
             renderer = curViewType.createRenderer();
             dashboardControl = renderer.createDashboard(chartComposite, this, groupContainer.getView(), computeSize(-1, -1));
             updateToolBarActions();
+            loadDashboardHistory();
         } catch (DBException e) {
             // Something went wrong
             Text errorLabel = new Text(this, SWT.READ_ONLY | SWT.MULTI | SWT.WRAP);
@@ -186,6 +202,39 @@ public class DashboardViewItem extends Composite implements DashboardItemContain
         initChartRenderer();
     }
 
+    private void loadDashboardHistory() {
+        String historyKey = getHistoryKey();
+        UIDashboardActivator activator = UIDashboardActivator.getDefault();
+        if (historyKey == null || activator == null) {
+            return;
+        }
+        long currentTime = System.currentTimeMillis();
+        long historyAge = Math.min(getDashboardMaxAge(), DashboardConstants.DEF_DASHBOARD_HISTORY_AGE);
+        DashboardDataset history = activator.getHistoryStore().readDataset(
+            historyKey, currentTime - historyAge, currentTime, getDashboardMaxItems());
+        if (history != null) {
+            renderer.loadDashboardHistory(this, history);
+        }
+    }
+
+    /**
+     * Returns key of dashboard values in the history store or null if history is not kept for this dashboard.
+     * Only plain values of timeseries dashboards are kept.
+     */
+    @Nullable
+    private String getHistoryKey() {
+        DashboardItemConfiguration item = getItemDescriptor();
+        DBPDataSourceContainer dataSourceContainer = getDataSourceContainer();
+        if (item == null || dataSourceContainer == null ||
+            item.getDataType() != DBDashboardDataType.timeseries ||
+            item.getCalcType() != DBDashboardCalcType.value ||
+            item.getFetchType() == DBDashboardFetchType.stats ||
+            !dataSourceContainer.getPreferenceStore().getBoolean(DashboardConstants.PREF_HISTORY_ENABLED)) {
+            return null;
+        }
+        return dataSourceContainer.getId() + "/" + item.getId();
+    }
+
     private void updateToolBarActions() {
         titleToolbarManager.removeAll();
         renderer.fillDashboardToolbar(this, titleToolbarManager, dashboardControl, viewItemConfig);
@@ -414,13 +463,28 @@ public class DashboardViewItem extends Composite implements DashboardItemContain
         return lastUpdateTime;
     }
 
+    @NotNull
+    @Override
+    public DashboardItemMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public void updateDashboardData(DashboardDataset dataset) {
+        String historyKey = getHistoryKey();
+        UIDashboardActivator activator = UIDashboardActivator.getDefault();
+        if (historyKey != null && activator != null) {
+            activator.getHistoryStore().addDataset(historyKey, dataset);
+        }
         UIUtils.asyncExec(() -> {
             if (renderer != null) {
                 renderer.updateDashboardData(this, lastUpdateTime, dataset);
                 lastUpdateTime = new Date();
             }
+            DashboardItemConfiguration item = getItemDescriptor();
+            if (item != null && !titleLabel.isDisposed()) {
+                updateChartToolTip(item);
+            }
         });
     }
 
@@ -214,14 +214,7 @@ public class DashboardRendererTimeseries extends DashboardRendererDatabaseChart
         for (int i = 0; i < srcSeries.length; i++) {
             String seriesName = srcSeries[i];
 
-            TimeSeries series = chartDataset.getSeries(seriesName);
-            if (series == null) {
-                series = new TimeSeries(seriesName);
-                series.setMaximumItemCount(container.getDashboardMaxItems());
-                series.setMaximumItemAge(container.getDashboardMaxAge());
-                chartDataset.addSeries(series);
-                plot.getRenderer().setSeriesStroke(chartDataset.getSeriesCount() - 1, plot.getRenderer().getDefaultStroke());
-            }
+            TimeSeries series = getOrCreateSeries(container, plot, seriesName);
 
             switch (dashboard.getCalcType()) {
                 case value: {
@@ -278,6 +271,37 @@ public class DashboardRendererTimeseries extends DashboardRendererDatabaseChart
         }
     }
 
+    @Override
+    public void loadDashboardHistory(@NotNull DashboardItemContainer container, @NotNull DashboardDataset dataset) {
+        XYPlot plot = getDashboardPlot(container);
+        if (plot == null) {
+            return;
+        }
+        String[] srcSeries = dataset.getColumnNames();
+        for (int i = 0; i < srcSeries.length; i++) {
+            TimeSeries series = getOrCreateSeries(container, plot, srcSeries[i]);
+            for (DashboardDatasetRow row : dataset.getRows()) {
+                if (row.getValues()[i] instanceof Number value) {
+                    series.addOrUpdate(makeDataItem(container, row), value);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private TimeSeries getOrCreateSeries(@NotNull DashboardItemContainer container, @NotNull XYPlot plot, @NotNull String seriesName) {
+        TimeSeriesCollection chartDataset = (TimeSeriesCollection) plot.getDataset();
+        TimeSeries series = chartDataset.getSeries(seriesName);
+        if (series == null) {
+            series = new TimeSeries(seriesName);
+            series.setMaximumItemCount(container.getDashboardMaxItems());
+            series.setMaximumItemAge(container.getDashboardMaxAge());
+            chartDataset.addSeries(series);
+            plot.getRenderer().setSeriesStroke(chartDataset.getSeriesCount() - 1, plot.getRenderer().getDefaultStroke());
+        }
+        return series;
+    }
+
     private RegularTimePeriod makeDataItem(DashboardItemContainer container, DashboardDatasetRow row) {
         return switch (container.getItemDescriptor().getInterval()) {
             case second -> new FixedMillisecond(row.getTimestamp().getTime());
@@ -18,8 +18,11 @@ package org.jkiss.dbeaver.ui.dashboard.internal;
 
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.dashboard.history.DashboardHistoryStore;
 import org.jkiss.dbeaver.model.impl.preferences.BundlePreferenceStore;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.dashboard.view.DashboardUpdateJob;
 import org.osgi.framework.BundleContext;
 
@@ -28,9 +31,12 @@ public class UIDashboardActivator extends AbstractUIPlugin {
     // The plug-in ID
     public static final String PLUGIN_ID = "org.jkiss.dbeaver.ui.dashboard";
 
+    private static final String HISTORY_FOLDER = "dashboard-history";
+
     // The shared instance
     private static UIDashboardActivator plugin;
     private DBPPreferenceStore preferences;
+    private DashboardHistoryStore historyStore;
 
     public UIDashboardActivator() {
     }
@@ -46,6 +52,16 @@ public class UIDashboardActivator extends AbstractUIPlugin {
 
     @Override
     public void stop(BundleContext context) throws Exception {
+        DashboardUpdateJob updateJob = DashboardUpdateJob.getDefault();
+        if (updateJob != null) {
+            updateJob.pauseDashboardUpdate();
+        }
+        synchronized (this) {
+            if (historyStore != null) {
+                historyStore.close();
+                historyStore = null;
+            }
+        }
         plugin = null;
         super.stop(context);
     }
@@ -61,5 +77,14 @@ public class UIDashboardActivator extends AbstractUIPlugin {
     public DBPPreferenceStore getPreferences() {
         return preferences;
     }
+
+    @NotNull
+    public synchronized DashboardHistoryStore getHistoryStore() {
+        if (historyStore == null) {
+            historyStore = new DashboardHistoryStore(
+                DBWorkbench.getPlatform().getWorkspace().getMetadataFolder().resolve(HISTORY_FOLDER));
+        }
+        return historyStore;
+    }
     
 }
@@ -23,6 +23,10 @@ public class UIDashboardMessages extends NLS {
 
     public static String pref_page_dashboards_group_common;
     public static String pref_page_dashboards_open_separate_connection_label;
+    public static String pref_page_dashboards_query_timeout_label;
+    public static String pref_page_dashboards_query_timeout_tip;
+    public static String pref_page_dashboards_history_enabled_label;
+    public static String pref_page_dashboards_history_enabled_tip;
 
     //add dashboard dialog
     public static String dialog_add_dashboard_dialog_title;
@@ -134,6 +138,15 @@ public class UIDashboardMessages extends NLS {
 
     public static String dashboard_view_status_off;
 
+    // dashboard item metrics
+    public static String dashboard_metrics_not_updated;
+    public static String dashboard_metrics_last_query;
+    public static String dashboard_metrics_last_query_shared;
+    public static String dashboard_metrics_average;
+    public static String dashboard_metrics_updates;
+    public static String dashboard_metrics_timeouts;
+    public static String dashboard_metrics_last_error;
+
     static {
         // initialize resource bundle
         NLS.initializeMessages(BUNDLE_NAME, UIDashboardMessages.class);
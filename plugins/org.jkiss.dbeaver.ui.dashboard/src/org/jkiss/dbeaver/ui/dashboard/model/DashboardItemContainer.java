@@ -72,6 +72,12 @@ public interface DashboardItemContainer {
 
     Date getLastUpdateTime();
 
+    /**
+     * Update timings of this item
+     */
+    @NotNull
+    DashboardItemMetrics getMetrics();
+
     void updateDashboardData(DashboardDataset dataset);
 
     void resetDashboardData();
@@ -0,0 +1,112 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.dashboard.model;
+
+import org.eclipse.osgi.util.NLS;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ui.dashboard.internal.UIDashboardMessages;
+
+/**
+ * Dashboard item update timings. Updated from dashboard update jobs, read from UI thread.
+ */
+public class DashboardItemMetrics {
+
+    private long updateCount;
+    private long lastDuration = -1;
+    private long maxDuration;
+    private long totalDuration;
+    private long lastLag;
+    private long timeoutCount;
+    private boolean lastShared;
+    @Nullable
+    private String lastError;
+
+    /**
+     * Records single item update.
+     *
+     * @param duration query execution time in ms
+     * @param lag      delay between scheduled and actual update time in ms
+     * @param shared   query result was shared with other items
+     */
+    public synchronized void addUpdate(long duration, long lag, boolean shared) {
+        updateCount++;
+        lastDuration = duration;
+        maxDuration = Math.max(maxDuration, duration);
+        totalDuration += duration;
+        lastLag = lag;
+        lastShared = shared;
+        lastError = null;
+    }
+
+    public synchronized void addError(long duration, @NotNull String error, boolean timeout) {
+        lastDuration = duration;
+        lastError = error;
+        if (timeout) {
+            timeoutCount++;
+        }
+    }
+
+    public synchronized long getUpdateCount() {
+        return updateCount;
+    }
+
+    public synchronized long getLastDuration() {
+        return lastDuration;
+    }
+
+    public synchronized long getMaxDuration() {
+        return maxDuration;
+    }
+
+    public synchronized long getAverageDuration() {
+        return updateCount == 0 ? 0 : totalDuration / updateCount;
+    }
+
+    public synchronized long getLastLag() {
+        return lastLag;
+    }
+
+    public synchronized long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    @Nullable
+    public synchronized String getLastError() {
+        return lastError;
+    }
+
+    @NotNull
+    public synchronized String getSummary() {
+        if (lastDuration < 0) {
+            return UIDashboardMessages.dashboard_metrics_not_updated;
+        }
+        StringBuilder summary = new StringBuilder();
+        summary.append(NLS.bind(
+            lastShared ? UIDashboardMessages.dashboard_metrics_last_query_shared : UIDashboardMessages.dashboard_metrics_last_query,
+            lastDuration));
+        summary.append("\n").append(NLS.bind(UIDashboardMessages.dashboard_metrics_average, getAverageDuration(), maxDuration));
+        summary.append("\n").append(NLS.bind(UIDashboardMessages.dashboard_metrics_updates, updateCount, lastLag));
+        if (timeoutCount > 0) {
+            summary.append("\n").append(NLS.bind(UIDashboardMessages.dashboard_metrics_timeouts, timeoutCount));
+        }
+        if (lastError != null) {
+            summary.append("\n").append(NLS.bind(UIDashboardMessages.dashboard_metrics_last_error, lastError));
+        }
+        return summary.toString();
+    }
+}
@@ -52,6 +52,14 @@ public interface DashboardItemRenderer {
         @Nullable Date lastUpdateTime,
         @NotNull DashboardDataset dataset);
 
+    /**
+     * Shows previously saved dashboard values. Called once after the dashboard was created.
+     */
+    default void loadDashboardHistory(
+        @NotNull DashboardItemContainer container,
+        @NotNull DashboardDataset dataset) {
+    }
+
     void resetDashboardData(
         @NotNull DashboardItemContainer dashboardItem,
         @Nullable Date lastUpdateTime);
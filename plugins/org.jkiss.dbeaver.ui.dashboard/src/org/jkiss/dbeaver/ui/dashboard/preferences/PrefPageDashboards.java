@@ -21,6 +21,7 @@ import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Spinner;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
@@ -41,6 +42,8 @@ public class PrefPageDashboards extends TargetPrefPage
     public static final String PAGE_ID = "org.jkiss.dbeaver.preferences.main.dashboards"; //$NON-NLS-1$
 
     private Button openSeparateConnectionCheck;
+    private Spinner queryTimeoutSpinner;
+    private Button historyEnabledCheck;
 
     public PrefPageDashboards()
     {
@@ -52,7 +55,9 @@ public class PrefPageDashboards extends TargetPrefPage
     {
         DBPPreferenceStore store = dataSourceDescriptor.getPreferenceStore();
         return
-            store.contains(DashboardConstants.PREF_OPEN_SEPARATE_CONNECTION)
+            store.contains(DashboardConstants.PREF_OPEN_SEPARATE_CONNECTION) ||
+            store.contains(DashboardConstants.PREF_QUERY_TIMEOUT) ||
+            store.contains(DashboardConstants.PREF_HISTORY_ENABLED)
         ;
     }
 
@@ -72,6 +77,19 @@ public class PrefPageDashboards extends TargetPrefPage
             Composite commonGroup = UIUtils.createControlGroup(composite, UIDashboardMessages.pref_page_dashboards_group_common, 2, GridData.FILL_HORIZONTAL | GridData.VERTICAL_ALIGN_BEGINNING, 0);
             {
                 openSeparateConnectionCheck = UIUtils.createCheckbox(commonGroup, UIDashboardMessages.pref_page_dashboards_open_separate_connection_label, null, false, 2);
+                queryTimeoutSpinner = UIUtils.createLabelSpinner(
+                    commonGroup,
+                    UIDashboardMessages.pref_page_dashboards_query_timeout_label,
+                    UIDashboardMessages.pref_page_dashboards_query_timeout_tip,
+                    DashboardConstants.DEF_DASHBOARD_QUERY_TIMEOUT,
+                    0,
+                    Integer.MAX_VALUE);
+                historyEnabledCheck = UIUtils.createCheckbox(
+                    commonGroup,
+                    UIDashboardMessages.pref_page_dashboards_history_enabled_label,
+                    UIDashboardMessages.pref_page_dashboards_history_enabled_tip,
+                    true,
+                    2);
             }
         }
 
@@ -83,6 +101,8 @@ public class PrefPageDashboards extends TargetPrefPage
     {
         try {
             openSeparateConnectionCheck.setSelection(store.getBoolean(DashboardConstants.PREF_OPEN_SEPARATE_CONNECTION));
+            queryTimeoutSpinner.setSelection(store.getInt(DashboardConstants.PREF_QUERY_TIMEOUT));
+            historyEnabledCheck.setSelection(store.getBoolean(DashboardConstants.PREF_HISTORY_ENABLED));
         } catch (Exception e) {
             log.warn(e);
         }
@@ -92,7 +112,9 @@ public class PrefPageDashboards extends TargetPrefPage
     protected void savePreferences(DBPPreferenceStore store)
     {
         try {
-            store.setValue(DashboardConstants.PREF_OPEN_SEPARATE_CONNECTION, openSeparateConnectionCheck.getText());
+            store.setValue(DashboardConstants.PREF_OPEN_SEPARATE_CONNECTION, openSeparateConnectionCheck.getSelection());
+            store.setValue(DashboardConstants.PREF_QUERY_TIMEOUT, queryTimeoutSpinner.getSelection());
+            store.setValue(DashboardConstants.PREF_HISTORY_ENABLED, historyEnabledCheck.getSelection());
         } catch (Exception e) {
             log.warn(e);
         }
@@ -103,6 +125,8 @@ public class PrefPageDashboards extends TargetPrefPage
     protected void clearPreferences(DBPPreferenceStore store)
     {
         store.setToDefault(DashboardConstants.PREF_OPEN_SEPARATE_CONNECTION);
+        store.setToDefault(DashboardConstants.PREF_QUERY_TIMEOUT);
+        store.setToDefault(DashboardConstants.PREF_HISTORY_ENABLED);
     }
 
     @Override
@@ -37,6 +37,7 @@ public class DashboardUpdateJob extends AbstractJob {
     private static DashboardUpdateJob updateJob;
     
     private final AtomicBoolean isSchedule = new AtomicBoolean(true);
+    private final DashboardUpdater updater = new DashboardUpdater();
 
     private DashboardUpdateJob() {
         super("Dashboard update");
@@ -46,7 +47,7 @@ public class DashboardUpdateJob extends AbstractJob {
     protected IStatus run(DBRProgressMonitor monitor) {
 
         try {
-            if (new DashboardUpdater().updateDashboards(monitor)) {
+            if (updater.updateDashboards(monitor)) {
                 pauseDashboardUpdate();
             }
         } catch (Exception e) {
@@ -75,8 +76,12 @@ public class DashboardUpdateJob extends AbstractJob {
         }
     }
     
+    /**
+     * Stops scheduling of updates. Updates which are running now are canceled.
+     */
     public void pauseDashboardUpdate() {
         isSchedule.set(false);
+        updater.cancelUpdates();
     }
 
 }
\ No newline at end of file
@@ -17,13 +17,14 @@
 package org.jkiss.dbeaver.ui.dashboard.view;
 
 import org.apache.commons.jexl3.JexlContext;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.ui.*;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
-import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardDataType;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardMapQuery;
 import org.jkiss.dbeaver.model.dashboard.DBDashboardQuery;
@@ -31,6 +32,7 @@ import org.jkiss.dbeaver.model.dashboard.DashboardConstants;
 import org.jkiss.dbeaver.model.dashboard.data.DashboardDataset;
 import org.jkiss.dbeaver.model.dashboard.data.DashboardDatasetRow;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.dashboard.control.DashboardListViewer;
@@ -43,11 +45,20 @@ import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dashboard update scheduler.
+ * <p>
+ * Dashboards of each data source are updated by a separate job, so a slow or hung data source doesn't delay others.
+ * Data source is skipped while its previous update is still running.
+ * Identical queries of different dashboards (in the same execution context) are executed once per update.
+ */
 public class DashboardUpdater {
 
     private static final Log log = Log.getLog(DashboardUpdater.class);
-    private final Map<DBPDataSourceContainer, List<MapQueryInfo>> mapQueries = new HashMap<>();
+
+    private final Map<DBPDataSourceContainer, DataSourceUpdateJob> updateJobs = new ConcurrentHashMap<>();
 
     private static class MapQueryInfo {
         private final DashboardItemContainer dashboard;
@@ -55,6 +66,8 @@ public class DashboardUpdater {
         private final DBDashboardMapQuery mapQuery;
         public Date timestamp;
         private final Map<String, Object> mapValue = new HashMap<>();
+        private long duration;
+        private int usageCount;
 
         public MapQueryInfo(DashboardItemContainer dashboard, DashboardContainer viewContainer, DBDashboardMapQuery mapQuery) {
             this.dashboard = dashboard;
@@ -63,6 +76,35 @@ public class DashboardUpdater {
         }
     }
 
+    private record QueryKey(DBCExecutionContext context, String queryText) {
+    }
+
+    /**
+     * Query results shared by all dashboards with the same query
+     */
+    private static class QueryResult {
+        private final List<String> columnNames = new ArrayList<>();
+        private final List<Object[]> rows = new ArrayList<>();
+        private int timestampColumn = -1;
+        private Date readTime;
+        private long duration;
+        private int maxRows;
+        private int usageCount;
+        private DBCException error;
+
+        /**
+         * Drops the read result, so the query is executed again (e.g. after connection recovery)
+         */
+        void reset() {
+            columnNames.clear();
+            rows.clear();
+            timestampColumn = -1;
+            readTime = null;
+            duration = 0;
+            error = null;
+        }
+    }
+
     public DashboardUpdater() {
     }
 
@@ -82,78 +124,118 @@ public class DashboardUpdater {
     }
 
     private void updateDashboards(@NotNull DBRProgressMonitor monitor, @NotNull List<DashboardItemContainer> dashboards) {
-        monitor.beginTask("Update dashboards", dashboards.size());
+        Map<DBPDataSourceContainer, List<DashboardItemContainer>> dsDashboards = new LinkedHashMap<>();
+        for (DashboardItemContainer dashboard : dashboards) {
+            dsDashboards.computeIfAbsent(dashboard.getDataSourceContainer(), k -> new ArrayList<>()).add(dashboard);
+        }
+        for (Map.Entry<DBPDataSourceContainer, List<DashboardItemContainer>> entry : dsDashboards.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            DBPDataSourceContainer dsContainer = entry.getKey();
+            if (dsContainer == null || updateJobs.containsKey(dsContainer)) {
+                // Previous update is still running
+                continue;
+            }
+            DataSourceUpdateJob job = new DataSourceUpdateJob(dsContainer, entry.getValue());
+            updateJobs.put(dsContainer, job);
+            job.schedule();
+        }
+    }
+
+    /**
+     * Cancels all running updates
+     */
+    public void cancelUpdates() {
+        for (DataSourceUpdateJob job : updateJobs.values()) {
+            job.cancel();
+        }
+    }
+
+    private void updateDataSourceDashboards(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBPDataSourceContainer dsContainer,
+        @NotNull List<DashboardItemContainer> dashboards
+    ) {
+        DBPDataSource dataSource = dsContainer.getDataSource();
+        if (dataSource == null) {
+            return;
+        }
+        monitor.beginTask("Update dashboards of '" + dsContainer.getName() + "'", dashboards.size());
 
         // Get all map queries used by dashboards
+        List<MapQueryInfo> mapQueries = new ArrayList<>();
+        // Collect shared queries
+        Map<QueryKey, QueryResult> queryResults = new HashMap<>();
         for (DashboardItemContainer dashboard : dashboards) {
             DBDashboardMapQuery mapQuery = dashboard.getMapQuery();
             if (mapQuery != null) {
-                List<MapQueryInfo> queryList = mapQueries.computeIfAbsent(
-                    dashboard.getDataSourceContainer(), k -> new ArrayList<>());
-                boolean found = false;
-                for (MapQueryInfo mqi : queryList) {
-                    if (mqi.mapQuery == mapQuery) {
-                        found = true;
-                        break;
-                    }
+                MapQueryInfo mqi = getMapQueryData(mapQueries, dashboard);
+                if (mqi == null) {
+                    mqi = new MapQueryInfo(dashboard, dashboard.getGroup().getView(), mapQuery);
+                    mapQueries.add(mqi);
                 }
-                if (!found) {
-                    queryList.add(new MapQueryInfo(dashboard, dashboard.getGroup().getView(), mapQuery));
+                mqi.usageCount++;
+            } else if (dashboard.getQueryList() != null) {
+                DBCExecutionContext executionContext = dashboard.getGroup().getView().getExecutionContext();
+                for (DBDashboardQuery query : dashboard.getQueryList()) {
+                    QueryResult result = queryResults.computeIfAbsent(
+                        new QueryKey(executionContext, query.getQueryText()), k -> new QueryResult());
+                    result.maxRows = Math.max(result.maxRows, dashboard.getDashboardMaxItems());
+                    result.usageCount++;
                 }
             }
         }
 
-        for (Map.Entry<DBPDataSourceContainer, List<MapQueryInfo>> mqEntry : mapQueries.entrySet()) {
-            monitor.subTask("Read dashboard data");
-            DBPDataSourceContainer dsContainer = mqEntry.getKey();
-            DBPDataSource dataSource = dsContainer.getDataSource();
-            if (dataSource == null) {
-                continue;
-            }
-            try {
-                DBExecUtils.tryExecuteRecover(dashboards, dataSource, param -> {
-                    try {
-                        for (MapQueryInfo mqi : mqEntry.getValue()) {
-                            if (!mqi.dashboard.isAutoUpdateEnabled()) {
-                                continue;
-                            }
-
-                            try {
-                                readMapQueryData(monitor, mqi);
-                            } catch (DBCException e) {
-                                log.debug("Datasource '" + mqi.dashboard.getDataSourceContainer().getName() + "' dashboard query failed. Stopping update of dashboard queries for this datasource.");
-                                mqi.dashboard.disableAutoUpdate();
-                                throw e;
-                            }
+        int queryTimeout = dsContainer.getPreferenceStore().getInt(DashboardConstants.PREF_QUERY_TIMEOUT);
+
+        monitor.subTask("Read dashboard data");
+        MapQueryInfo[] failedMapQuery = new MapQueryInfo[1];
+        try {
+            DBExecUtils.tryExecuteRecover(monitor, dataSource, param -> {
+                try {
+                    for (MapQueryInfo mqi : mapQueries) {
+                        if (!mqi.dashboard.isAutoUpdateEnabled() || monitor.isCanceled()) {
+                            continue;
                         }
-                    } catch (Throwable e) {
-                        throw new InvocationTargetException(e);
+                        failedMapQuery[0] = mqi;
+                        readMapQueryData(monitor, mqi, queryTimeout);
+                        failedMapQuery[0] = null;
                     }
-                });
-            } catch (DBException e) {
-                log.debug("Error reading map query data for '" + dsContainer.getName() + "'", e);
+                } catch (Throwable e) {
+                    throw new InvocationTargetException(e);
+                }
+            });
+        } catch (DBException e) {
+            // Auto update is disabled only if the query has failed after recovery attempts
+            if (failedMapQuery[0] != null) {
+                log.debug("Datasource '" + dsContainer.getName() + "' dashboard query failed. Stopping update of dashboard queries for this datasource.");
+                failedMapQuery[0].dashboard.disableAutoUpdate();
             }
+            log.debug("Error reading map query data for '" + dsContainer.getName() + "'", e);
         }
 
         for (DashboardItemContainer dashboard : dashboards) {
-            if (!dashboard.isAutoUpdateEnabled()) {
-                continue;
-            }
-            DBPDataSource dataSource = dashboard.getDataSourceContainer().getDataSource();
-            if (dataSource == null) {
+            if (!dashboard.isAutoUpdateEnabled() || monitor.isCanceled()) {
                 continue;
             }
+            boolean[] retry = new boolean[1];
             try {
-                DBExecUtils.tryExecuteRecover(dashboards, dataSource, param -> {
+                DBExecUtils.tryExecuteRecover(monitor, dataSource, param -> {
+                    if (retry[0]) {
+                        // Cached error (and partially read data) belongs to the failed attempt
+                        resetFailedResults(dashboard, queryResults);
+                    }
+                    retry[0] = true;
                     try {
-                        updateDashboard(monitor, dashboard);
+                        updateDashboard(monitor, dashboard, mapQueries, queryResults, queryTimeout);
                     } catch (Throwable e) {
-                        log.debug("Datasource '" + dashboard.getDataSourceContainer().getName() + "' dashboard query failed. Stopping update of dashboards for this datasource.");
-                        dashboard.disableAutoUpdate();
                         throw new InvocationTargetException(e);
                     }
                 });
             } catch (DBException e) {
+                log.debug("Datasource '" + dsContainer.getName() + "' dashboard query failed. Stopping update of dashboards for this datasource.");
+                dashboard.disableAutoUpdate();
                 log.debug("Error reading dashboard '" + dashboard.getItemDescriptor().getId() + "' data: " + GeneralUtils.getRootCause(e).getMessage());
             }
             monitor.worked(1);
@@ -161,15 +243,34 @@ public class DashboardUpdater {
         monitor.done();
     }
 
-    private void readMapQueryData(DBRProgressMonitor monitor, MapQueryInfo mqInfo) throws DBCException {
+    private static void resetFailedResults(
+        @NotNull DashboardItemContainer dashboard,
+        @NotNull Map<QueryKey, QueryResult> queryResults
+    ) {
+        DBCExecutionContext executionContext = dashboard.getGroup().getView().getExecutionContext();
+        List<? extends DBDashboardQuery> queries = dashboard.getQueryList();
+        if (executionContext == null || queries == null) {
+            return;
+        }
+        for (DBDashboardQuery query : queries) {
+            QueryResult result = queryResults.get(new QueryKey(executionContext, query.getQueryText()));
+            if (result != null && result.error != null) {
+                result.reset();
+            }
+        }
+    }
+
+    private void readMapQueryData(DBRProgressMonitor monitor, MapQueryInfo mqInfo, int queryTimeout) throws DBCException {
         DBCExecutionContext executionContext = mqInfo.viewContainer.getExecutionContext();
         if (executionContext == null) {
             return;
         }
+        long startTime = System.currentTimeMillis();
         try (DBCSession session = executionContext.openSession(
             monitor, DBCExecutionPurpose.UTIL, "Read map query '" + mqInfo.mapQuery.getId() + "' data")) {
             session.enableLogging(false);
             try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, mqInfo.mapQuery.getQueryText(), false, false, false)) {
+                setQueryTimeout(dbStat, queryTimeout);
                 if (dbStat.executeStatement()) {
                     try (DBCResultSet dbResults = dbStat.openResultSet()) {
                         mqInfo.timestamp = new Date();
@@ -182,17 +283,36 @@ public class DashboardUpdater {
                 }
             }
         } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            mqInfo.dashboard.getMetrics().addError(duration, GeneralUtils.getRootCause(e).getMessage(), isTimeout(duration, queryTimeout));
             throw new DBCException("Error reading map query data", e);
+        } finally {
+            mqInfo.duration = System.currentTimeMillis() - startTime;
         }
     }
 
-    private void updateDashboard(DBRProgressMonitor monitor, DashboardItemContainer dashboard) throws DBCException {
+    private void updateDashboard(
+        DBRProgressMonitor monitor,
+        DashboardItemContainer dashboard,
+        List<MapQueryInfo> mapQueries,
+        Map<QueryKey, QueryResult> queryResults,
+        int queryTimeout
+    ) throws DBCException {
         if (!dashboard.getDataSourceContainer().isConnected() || DBWorkbench.getPlatform().isShuttingDown()) {
             return;
         }
 
+        long lag = 0;
+        Date lastUpdateTime = dashboard.getLastUpdateTime();
+        if (lastUpdateTime != null) {
+            lag = Math.max(0, System.currentTimeMillis() - lastUpdateTime.getTime() - dashboard.getUpdatePeriod());
+        }
         if (dashboard.getMapQuery() != null) {
-            fetchDashboardMapData(monitor, dashboard);
+            MapQueryInfo mqi = getMapQueryData(mapQueries, dashboard);
+            if (mqi != null && mqi.timestamp != null) {
+                fetchDashboardMapData(mqi, dashboard);
+                dashboard.getMetrics().addUpdate(mqi.duration, lag, mqi.usageCount > 1);
+            }
             return;
         }
         List<? extends DBDashboardQuery> queries = dashboard.getQueryList();
@@ -204,47 +324,97 @@ public class DashboardUpdater {
         if (executionContext == null) {
             return;
         }
+        long duration = 0;
+        boolean shared = false;
+        for (DBDashboardQuery query : queries) {
+            QueryResult result = queryResults.get(new QueryKey(executionContext, query.getQueryText()));
+            if (result == null) {
+                // Query list was changed
+                continue;
+            }
+            if (result.readTime == null && result.error == null) {
+                readQueryResult(monitor, dashboard, executionContext, query, result, queryTimeout);
+            }
+            duration += result.duration;
+            shared |= result.usageCount > 1;
+            if (result.error != null) {
+                dashboard.getMetrics().addError(duration, GeneralUtils.getRootCause(result.error).getMessage(), isTimeout(result.duration, queryTimeout));
+                throw result.error;
+            }
+            fetchDashboardData(dashboard, result);
+        }
+        dashboard.getMetrics().addUpdate(duration, lag, shared);
+    }
+
+    private void readQueryResult(
+        DBRProgressMonitor monitor,
+        DashboardItemContainer dashboard,
+        DBCExecutionContext executionContext,
+        DBDashboardQuery query,
+        QueryResult result,
+        int queryTimeout
+    ) {
+        long startTime = System.currentTimeMillis();
         try (DBCSession session = executionContext.openSession(
             monitor, DBCExecutionPurpose.UTIL, "Read dashboard '" + dashboard.getItemDescriptor().getName() + "' data")) {
             session.enableLogging(false);
-
-            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
-            boolean revertTxn = false;
-            if (false) {
-                // FIXME: dashboards must be queued in auto-commit mode?
-                // FIXME: we can't switch to auto-commit because connection may be used by another tasks (e.g. SQL editor)
-                if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
-                    txnManager.setAutoCommit(monitor, true);
-                    revertTxn = true;
-                }
-            }
-            try {
-                for (DBDashboardQuery query : queries) {
-                    try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.getQueryText(), false, false, false)) {
-                        if (dbStat.executeStatement()) {
-                            try (DBCResultSet dbResults = dbStat.openResultSet()) {
-                                if (dbResults != null) {
-                                    fetchDashboardData(dashboard, dbResults);
-                                }
-                            }
+            try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.getQueryText(), false, false, false)) {
+                setQueryTimeout(dbStat, queryTimeout);
+                if (dbStat.executeStatement()) {
+                    try (DBCResultSet dbResults = dbStat.openResultSet()) {
+                        if (dbResults != null) {
+                            readResultSet(dbResults, result);
                         }
-                    } catch (Exception e) {
-                        throw new DBCException("Error updating dashboard " + dashboard.getItemDescriptor().getId(), e, session.getExecutionContext());
                     }
                 }
-            } finally {
-                if (revertTxn) {
-                    txnManager.setAutoCommit(monitor, false);
-                }
+                result.readTime = new Date();
+            } catch (Exception e) {
+                result.error = new DBCException("Error updating dashboard " + dashboard.getItemDescriptor().getId(), e, session.getExecutionContext());
             }
+        } catch (Exception e) {
+            result.error = new DBCException("Error opening dashboard session", e);
         }
+        result.duration = System.currentTimeMillis() - startTime;
     }
 
-    private void fetchDashboardMapData(DBRProgressMonitor monitor, DashboardItemContainer dashboard) {
-        MapQueryInfo mqi = getMapQueryData(dashboard);
-        if (mqi == null) {
+    private static void readResultSet(@NotNull DBCResultSet dbResults, @NotNull QueryResult result) throws DBCException {
+        List<? extends DBCAttributeMetaData> rsAttrs = dbResults.getMeta().getAttributes();
+        for (int i = 0; i < rsAttrs.size(); i++) {
+            DBCAttributeMetaData rsAttr = rsAttrs.get(i);
+            String colName = rsAttr.getLabel();
+            if (CommonUtils.isEmpty(colName)) {
+                colName = rsAttr.getName();
+            }
+            if (DashboardConstants.RS_COL_TIMESTAMP.equalsIgnoreCase(colName)) {
+                result.timestampColumn = i;
+            }
+            result.columnNames.add(colName);
+        }
+        while (result.rows.size() < result.maxRows && dbResults.nextRow()) {
+            Object[] row = new Object[rsAttrs.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = dbResults.getAttributeValue(i);
+            }
+            result.rows.add(row);
+        }
+    }
+
+    private static void setQueryTimeout(@NotNull DBCStatement dbStat, int queryTimeout) {
+        if (queryTimeout <= 0) {
             return;
         }
+        try {
+            dbStat.setStatementTimeout(queryTimeout);
+        } catch (Throwable e) {
+            log.debug("Can't set dashboard query timeout: " + e.getMessage());
+        }
+    }
+
+    private static boolean isTimeout(long duration, int queryTimeout) {
+        return queryTimeout > 0 && duration >= queryTimeout * 1000L;
+    }
+
+    private void fetchDashboardMapData(MapQueryInfo mqi, DashboardItemContainer dashboard) {
         Map<String, Object> mapValue = mqi.mapValue;
         if (mapValue != null) {
             String[] mapKeys = dashboard.getMapKeys();
@@ -315,34 +485,27 @@ public class DashboardUpdater {
         }
     }
 
-    private void fetchDashboardData(DashboardItemContainer dashboardContainer, DBCResultSet dbResults) throws DBCException {
-        DBCResultSetMetaData meta = dbResults.getMeta();
-        List<? extends DBCAttributeMetaData> rsAttrs = meta.getAttributes();
+    private void fetchDashboardData(DashboardItemContainer dashboardContainer, QueryResult result) {
         List<String> colNames = new ArrayList<>();
-        String tsColName = null;
-        for (DBCAttributeMetaData rsAttr : rsAttrs) {
-            String colName = rsAttr.getLabel();
-            if (CommonUtils.isEmpty(colName)) {
-                colName = rsAttr.getName();
-            }
-            if (DashboardConstants.RS_COL_TIMESTAMP.equalsIgnoreCase(colName)) {
-                tsColName = colName;
-            } else {
-                colNames.add(colName);
+        for (int i = 0; i < result.columnNames.size(); i++) {
+            if (i != result.timestampColumn) {
+                colNames.add(result.columnNames.get(i));
             }
         }
         DashboardDataset dataset = new DashboardDataset(colNames.toArray(new String[0]));
 
-        while (dbResults.nextRow()) {
+        for (Object[] row : result.rows) {
             Object[] values = new Object[colNames.size()];
             Date timestamp;
-            if (tsColName != null) {
-                timestamp = (Date) dbResults.getAttributeValue(tsColName);
+            if (result.timestampColumn >= 0 && row[result.timestampColumn] instanceof Date date) {
+                timestamp = date;
             } else {
-                timestamp = new Date();
+                timestamp = result.readTime;
             }
-            for (int i = 0; i < colNames.size(); i++) {
-                values[i] = dbResults.getAttributeValue(colNames.get(i));
+            for (int i = 0, valueIndex = 0; i < row.length; i++) {
+                if (i != result.timestampColumn) {
+                    values[valueIndex++] = row[i];
+                }
             }
             dataset.addRow(new DashboardDatasetRow(timestamp, values));
             if (dataset.getRows().size() >= dashboardContainer.getDashboardMaxItems()) {
@@ -432,16 +595,38 @@ public class DashboardUpdater {
         }
     }
 
-    private MapQueryInfo getMapQueryData(DashboardItemContainer dashboard) {
-        List<MapQueryInfo> mapQueryInfos = mapQueries.get(dashboard.getDataSourceContainer());
-        if (mapQueryInfos != null) {
-            for (MapQueryInfo mqi : mapQueryInfos) {
-                if (mqi.mapQuery == dashboard.getMapQuery()) {
-                    return mqi;
-                }
+    private MapQueryInfo getMapQueryData(List<MapQueryInfo> mapQueries, DashboardItemContainer dashboard) {
+        for (MapQueryInfo mqi : mapQueries) {
+            if (mqi.mapQuery == dashboard.getMapQuery()) {
+                return mqi;
             }
         }
         return null;
     }
 
+    private class DataSourceUpdateJob extends AbstractJob {
+        private final DBPDataSourceContainer dsContainer;
+        private final List<DashboardItemContainer> dashboards;
+
+        DataSourceUpdateJob(@NotNull DBPDataSourceContainer dsContainer, @NotNull List<DashboardItemContainer> dashboards) {
+            super("Update dashboards of '" + dsContainer.getName() + "'");
+            this.dsContainer = dsContainer;
+            this.dashboards = dashboards;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                updateDataSourceDashboards(monitor, dsContainer, dashboards);
+            } catch (Throwable e) {
+                log.debug("Error updating dashboards of '" + dsContainer.getName() + "'", e);
+            } finally {
+                updateJobs.remove(dsContainer);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
 }
\ No newline at end of file
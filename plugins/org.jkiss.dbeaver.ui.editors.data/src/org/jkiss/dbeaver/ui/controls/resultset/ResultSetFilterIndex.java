@@ -0,0 +1,410 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.DBCLogicalOperator;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Evaluates data filter constraints against fetched rows.
+ * <p>
+ * Column indexes are created lazily, on the first constraint which refers to the column:
+ * hash index for equality and IN conditions and sorted index for ranges.
+ * Conditions which can't use indexes are evaluated by a full scan of column values.
+ * Null values never match comparison conditions (as in SQL).
+ * <p>
+ * Only numeric, boolean and date/time columns are compared locally. String comparison and pattern matching
+ * depend on the column collation and on the database, which are unknown on the client side,
+ * so conditions on other columns (except null checks) are always evaluated by the server.
+ */
+class ResultSetFilterIndex {
+
+    private static final Set<DBCLogicalOperator> SUPPORTED_OPERATORS = EnumSet.of(
+        DBCLogicalOperator.EQUALS,
+        DBCLogicalOperator.NOT_EQUALS,
+        DBCLogicalOperator.GREATER,
+        DBCLogicalOperator.GREATER_EQUALS,
+        DBCLogicalOperator.LESS,
+        DBCLogicalOperator.LESS_EQUALS,
+        DBCLogicalOperator.IS_NULL,
+        DBCLogicalOperator.IS_NOT_NULL,
+        DBCLogicalOperator.IN
+    );
+    private static final Set<DBPDataKind> COMPARABLE_DATA_KINDS = EnumSet.of(
+        DBPDataKind.NUMERIC,
+        DBPDataKind.BOOLEAN,
+        DBPDataKind.DATETIME
+    );
+
+    private final ResultSetModel model;
+    private final List<ResultSetRow> rows;
+    private final Map<DBDAttributeBinding, ColumnIndex> columns = new IdentityHashMap<>();
+
+    ResultSetFilterIndex(@NotNull ResultSetModel model, @NotNull List<ResultSetRow> rows) {
+        this.model = model;
+        this.rows = rows;
+    }
+
+    /**
+     * Checks whether constraint condition on the specified attribute can be evaluated locally
+     */
+    static boolean isConditionSupported(@NotNull DBDAttributeConstraint constraint, @NotNull DBDAttributeBinding binding) {
+        final DBCLogicalOperator operator = constraint.getOperator();
+        if (!CommonUtils.isEmpty(constraint.getCriteria()) || operator == null || !SUPPORTED_OPERATORS.contains(operator)) {
+            return false;
+        }
+        return operator == DBCLogicalOperator.IS_NULL ||
+            operator == DBCLogicalOperator.IS_NOT_NULL ||
+            COMPARABLE_DATA_KINDS.contains(binding.getDataKind());
+    }
+
+    /**
+     * Returns rows which match filter conditions. Rows are returned in the original order.
+     */
+    @NotNull
+    List<ResultSetRow> filter(@NotNull DBDDataFilter filter) {
+        BitSet result = null;
+        for (DBDAttributeConstraint constraint : filter.getConstraints()) {
+            if (!constraint.hasCondition()) {
+                continue;
+            }
+            DBDAttributeBinding binding = model.getAttributeBinding(constraint.getAttribute());
+            if (binding == null) {
+                throw new IllegalArgumentException("Attribute '" + constraint.getAttributeName() + "' not found");
+            }
+            BitSet matches = getColumnIndex(binding).evaluate(constraint);
+            if (result == null) {
+                result = matches;
+            } else if (filter.isAnyConstraint()) {
+                result.or(matches);
+            } else {
+                result.and(matches);
+            }
+        }
+        if (result == null) {
+            return new ArrayList<>(rows);
+        }
+        List<ResultSetRow> filteredRows = new ArrayList<>(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            filteredRows.add(rows.get(i));
+        }
+        return filteredRows;
+    }
+
+    @NotNull
+    private ColumnIndex getColumnIndex(@NotNull DBDAttributeBinding binding) {
+        ColumnIndex index = columns.get(binding);
+        if (index == null) {
+            Object[] values = new Object[rows.size()];
+            for (int i = 0; i < values.length; i++) {
+                Object value = model.getCellValue(binding, rows.get(i));
+                values[i] = DBUtils.isNullValue(value) ? null : value;
+            }
+            index = new ColumnIndex(values);
+            columns.put(binding, index);
+        }
+        return index;
+    }
+
+    /**
+     * Returns key for hash lookups. Numbers which are equal by value have equal keys.
+     */
+    @NotNull
+    private static Object getKey(@NotNull Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Number number) {
+            BigDecimal decimal;
+            if (value instanceof BigDecimal bd) {
+                decimal = bd;
+            } else if (value instanceof BigInteger bi) {
+                decimal = new BigDecimal(bi);
+            } else {
+                try {
+                    decimal = new BigDecimal(number.toString());
+                } catch (NumberFormatException e) {
+                    // NaN or infinity
+                    return value;
+                }
+            }
+            decimal = decimal.stripTrailingZeros();
+            if (decimal.scale() <= 0) {
+                try {
+                    return decimal.longValueExact();
+                } catch (ArithmeticException e) {
+                    // Doesn't fit in long
+                }
+            }
+            return decimal;
+        }
+        return value;
+    }
+
+    /**
+     * Key class of the value. All numbers (excluding NaN and infinity) have the same key class.
+     */
+    @NotNull
+    private static Class<?> getKeyClass(@NotNull Object key) {
+        if (key instanceof Long || key instanceof BigDecimal) {
+            return Number.class;
+        }
+        return key.getClass();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareKeys(@NotNull Object key1, @NotNull Object key2) {
+        if (key1 instanceof Long long1 && key2 instanceof Long long2) {
+            return Long.compare(long1, long2);
+        }
+        if (getKeyClass(key1) == Number.class) {
+            return toDecimal(key1).compareTo(toDecimal(key2));
+        }
+        return ((Comparable<Object>) key1).compareTo(key2);
+    }
+
+    @NotNull
+    private static BigDecimal toDecimal(@NotNull Object key) {
+        return key instanceof Long longKey ? BigDecimal.valueOf(longKey) : (BigDecimal) key;
+    }
+
+    private static class ColumnIndex {
+        private final Object[] values;
+        private final BitSet notNulls;
+        // Key class if all values are indexable and have the same key class, otherwise null
+        @Nullable
+        private Class<?> keyClass;
+        @Nullable
+        private Object[] keys;
+        // Ranges of equal keys in the sorted index
+        @Nullable
+        private Map<Object, int[]> hashIndex;
+        // Positions of non-null values ordered by value
+        @Nullable
+        private int[] sortedIndex;
+
+        ColumnIndex(@NotNull Object[] values) {
+            this.values = values;
+            this.notNulls = new BitSet(values.length);
+            Object[] keys = new Object[values.length];
+            Class<?> keyClass = null;
+            boolean indexable = true;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    continue;
+                }
+                notNulls.set(i);
+                if (!indexable) {
+                    continue;
+                }
+                keys[i] = getKey(values[i]);
+                Class<?> valueKeyClass = getKeyClass(keys[i]);
+                if (keyClass == null) {
+                    keyClass = valueKeyClass;
+                    indexable = keyClass == Number.class || Comparable.class.isAssignableFrom(keyClass);
+                } else if (keyClass != valueKeyClass) {
+                    indexable = false;
+                }
+            }
+            if (indexable && keyClass != null) {
+                this.keyClass = keyClass;
+                this.keys = keys;
+            }
+        }
+
+        @NotNull
+        BitSet evaluate(@NotNull DBDAttributeConstraint constraint) {
+            final DBCLogicalOperator operator = constraint.getOperator();
+            final Object value = constraint.getValue();
+            if (operator == DBCLogicalOperator.IS_NULL) {
+                return getNulls();
+            } else if (operator == DBCLogicalOperator.IS_NOT_NULL) {
+                return (BitSet) notNulls.clone();
+            }
+            BitSet result;
+            if (DBUtils.isNullValue(value)) {
+                // Null argument means IS NULL
+                result = getNulls();
+                if (constraint.isReverseOperator()) {
+                    result.flip(0, values.length);
+                }
+                return result;
+            }
+            switch (operator) {
+                case EQUALS, IN -> {
+                    result = new BitSet(values.length);
+                    Object[] arguments = value instanceof Object[] array ? array : new Object[]{value};
+                    for (Object argument : arguments) {
+                        if (DBUtils.isNullValue(argument)) {
+                            result.or(getNulls());
+                        } else {
+                            result.or(findEqual(argument));
+                        }
+                    }
+                }
+                case NOT_EQUALS -> {
+                    result = (BitSet) notNulls.clone();
+                    result.andNot(findEqual(value));
+                }
+                case GREATER, GREATER_EQUALS, LESS, LESS_EQUALS -> result = findRange(operator, value);
+                default -> throw new IllegalArgumentException("Operator " + operator + " is not supported");
+            }
+            if (constraint.isReverseOperator()) {
+                BitSet reversed = (BitSet) notNulls.clone();
+                reversed.andNot(result);
+                result = reversed;
+            }
+            return result;
+        }
+
+        @NotNull
+        private BitSet getNulls() {
+            BitSet nulls = (BitSet) notNulls.clone();
+            nulls.flip(0, values.length);
+            return nulls;
+        }
+
+        /**
+         * Converts argument to the column key. Returns null if indexes can't be used for this argument.
+         */
+        @Nullable
+        private Object getArgumentKey(@NotNull Object argument) {
+            if (keyClass == null) {
+                return null;
+            }
+            Object key = getKey(argument);
+            if (keyClass == Number.class && key instanceof String str) {
+                try {
+                    key = getKey(new BigDecimal(str.trim()));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            return getKeyClass(key) == keyClass ? key : null;
+        }
+
+        @NotNull
+        private BitSet findEqual(@NotNull Object argument) {
+            Object key = getArgumentKey(argument);
+            if (key == null) {
+                BitSet result = new BitSet(values.length);
+                for (int i = notNulls.nextSetBit(0); i >= 0; i = notNulls.nextSetBit(i + 1)) {
+                    if (DBUtils.compareDataValues(values[i], argument) == 0) {
+                        result.set(i);
+                    }
+                }
+                return result;
+            }
+            BitSet result = new BitSet(values.length);
+            int[] range = getHashIndex().get(key);
+            if (range != null) {
+                final int[] sorted = getSortedIndex();
+                for (int i = range[0]; i < range[1]; i++) {
+                    result.set(sorted[i]);
+                }
+            }
+            return result;
+        }
+
+        @NotNull
+        private BitSet findRange(@NotNull DBCLogicalOperator operator, @NotNull Object argument) {
+            Object key = getArgumentKey(argument);
+            BitSet result = new BitSet(values.length);
+            if (key == null) {
+                for (int i = notNulls.nextSetBit(0); i >= 0; i = notNulls.nextSetBit(i + 1)) {
+                    if (operator.evaluate(values[i], new Object[]{argument})) {
+                        result.set(i);
+                    }
+                }
+                return result;
+            }
+            final int[] sorted = getSortedIndex();
+            // First position with value >= key and first position with value > key
+            final int lower = binarySearch(sorted, key, false);
+            final int upper = binarySearch(sorted, key, true);
+            int from, to;
+            switch (operator) {
+                case GREATER -> { from = upper; to = sorted.length; }
+                case GREATER_EQUALS -> { from = lower; to = sorted.length; }
+                case LESS -> { from = 0; to = lower; }
+                default -> { from = 0; to = upper; }
+            }
+            for (int i = from; i < to; i++) {
+                result.set(sorted[i]);
+            }
+            return result;
+        }
+
+        private int binarySearch(@NotNull int[] sorted, @NotNull Object key, boolean afterEqual) {
+            int low = 0, high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareKeys(keys[sorted[mid]], key);
+                if (cmp < 0 || (afterEqual && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @NotNull
+        private Map<Object, int[]> getHashIndex() {
+            if (hashIndex == null) {
+                final int[] sorted = getSortedIndex();
+                final Map<Object, int[]> index = new HashMap<>();
+                for (int start = 0; start < sorted.length; ) {
+                    Object key = keys[sorted[start]];
+                    int end = start + 1;
+                    while (end < sorted.length && compareKeys(keys[sorted[end]], key) == 0) {
+                        end++;
+                    }
+                    index.put(key, new int[]{start, end});
+                    start = end;
+                }
+                hashIndex = index;
+            }
+            return hashIndex;
+        }
+
+        @NotNull
+        private int[] getSortedIndex() {
+            if (sortedIndex == null) {
+                final Object[] keys = this.keys;
+                sortedIndex = notNulls.stream()
+                    .boxed()
+                    .sorted((pos1, pos2) -> compareKeys(keys[pos1], keys[pos2]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            }
+            return sortedIndex;
+        }
+    }
+
+}
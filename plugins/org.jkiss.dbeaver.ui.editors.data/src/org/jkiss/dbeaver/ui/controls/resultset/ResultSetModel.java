@@ -59,6 +59,17 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Incremented on each change of rows list
+    private long rowsVersion;
+    // All fetched rows if rows are filtered locally (in the original order)
+    @Nullable
+    private List<ResultSetRow> allRows;
+    @Nullable
+    private ResultSetFilterIndex filterIndex;
+    // Heap budget for row values (in bytes). Zero means no limit
+    private long rowStorageBudget;
+    @Nullable
+    private ResultSetRowStorage rowStorage;
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -379,7 +390,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -415,7 +426,7 @@ public class ResultSetModel {
         return DBUtils.getAttributeValue(
             attribute,
             attributes,
-            row.values,
+            row.getValues(),
             rowIndexes,
             retrieveDeepestCollectionElement
         );
@@ -477,7 +488,7 @@ public class ResultSetModel {
         }
 
         Object oldHistoricValue = updateChanges ? row.changes.get(topAttribute) : null;
-        Object currentValue = row.values[rootIndex];
+        Object currentValue = row.getValues()[rootIndex];
         Object valueToEdit = currentValue;
 
         if (currentValue instanceof DBDValue) {
@@ -518,7 +529,9 @@ public class ResultSetModel {
         } else {
             valueToEdit = value;
         }
-        row.values[rootIndex] = valueToEdit;
+        row.setValue(rootIndex, valueToEdit);
+        // Indexed values are obsolete now
+        filterIndex = null;
 
         if (updateChanges && row.getState() == ResultSetRow.STATE_NORMAL) {
             changesCount++;
@@ -826,8 +839,15 @@ public class ResultSetModel {
     }
 
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
+        rowsVersion++;
+        filterIndex = null;
         if (resetOldRows) {
             curRows.clear();
+            allRows = null;
+            if (rowStorage != null) {
+                rowStorage.close();
+                rowStorage = null;
+            }
         }
         int rowCount = rows.size();
         int firstRowNum = curRows.size();
@@ -837,13 +857,42 @@ public class ResultSetModel {
                 new ResultSetRow(firstRowNum + i, rows.get(i)));
         }
         curRows.addAll(newRows);
+        if (allRows != null) {
+            allRows.addAll(newRows);
+        }
 
+        // Colors are evaluated before values are moved to the row storage
         updateRowColors(resetOldRows, newRows);
+
+        if (rowStorageBudget > 0) {
+            if (rowStorage == null) {
+                rowStorage = new ResultSetRowStorage(rowStorageBudget);
+            }
+            rowStorage.addRows(newRows);
+        }
+    }
+
+    /**
+     * Sets heap budget for row values. Values of rows exceeding the budget are moved to the temporary file.
+     * New budget is applied to the next data read.
+     *
+     * @param rowStorageBudget budget in bytes, zero means no limit
+     */
+    void setRowStorageBudget(long rowStorageBudget) {
+        this.rowStorageBudget = rowStorageBudget;
     }
 
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        this.rowsVersion++;
+        this.allRows = null;
+        this.filterIndex = null;
+        if (this.rowStorage != null) {
+            // Delete spill file of the previous data
+            this.rowStorage.close();
+            this.rowStorage = null;
+        }
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
@@ -872,11 +921,16 @@ public class ResultSetModel {
 
     @NotNull
     ResultSetRow addNewRow(int rowNum, @NotNull Object[] data) {
-        ResultSetRow newRow = new ResultSetRow(curRows.size(), data);
+        ResultSetRow newRow = new ResultSetRow(allRows != null ? allRows.size() : curRows.size(), data);
         newRow.setVisualNumber(rowNum);
         newRow.setState(ResultSetRow.STATE_ADDED);
         shiftRows(newRow, 1);
         curRows.add(rowNum, newRow);
+        if (allRows != null) {
+            allRows.add(newRow);
+        }
+        rowsVersion++;
+        filterIndex = null;
         changesCount++;
         return newRow;
     }
@@ -902,9 +956,17 @@ public class ResultSetModel {
 
     void cleanupRow(@NotNull ResultSetRow row) {
         row.release();
+        if (rowStorage != null) {
+            rowStorage.removeRow(row);
+        }
         int index = row.getVisualNumber();
         if (this.curRows.size() > index) {
             this.curRows.remove(index);
+            if (this.allRows != null) {
+                this.allRows.removeIf(r -> r == row);
+            }
+            this.rowsVersion++;
+            this.filterIndex = null;
             this.shiftRows(row, -1);
         } else {
             log.debug("Error removing row from list: invalid row index: " + index);
@@ -930,6 +992,9 @@ public class ResultSetModel {
             if (row.getVisualNumber() >= relative.getVisualNumber()) {
                 row.setVisualNumber(row.getVisualNumber() + delta);
             }
+        }
+        // Rows hidden by local filter have row numbers too
+        for (ResultSetRow row : allRows != null ? allRows : curRows) {
             if (row.getRowNumber() >= relative.getRowNumber()) {
                 row.setRowNumber(row.getRowNumber() + delta);
             }
@@ -937,7 +1002,11 @@ public class ResultSetModel {
     }
 
     void releaseAllData() {
-        final List<ResultSetRow> oldRows = curRows;
+        // Include rows hidden by local filter
+        final List<ResultSetRow> oldRows = allRows != null ? allRows : curRows;
+        final ResultSetRowStorage oldStorage = rowStorage;
+        // Storage is closed by the release job
+        rowStorage = null;
         // Cleanup in separate job.
         // Sometimes model cleanup takes much time (e.g. freeing LOB values)
         // So let's do it in separate job to avoid UI locking
@@ -945,6 +1014,9 @@ public class ResultSetModel {
             for (ResultSetRow row : oldRows) {
                 row.release();
             }
+            if (oldStorage != null) {
+                oldStorage.close();
+            }
         }, "Release values", 5000);
     }
 
@@ -1068,46 +1140,102 @@ public class ResultSetModel {
         this.dataFilter.setAnyConstraint(filter.isAnyConstraint());
     }
 
-    public void resetOrdering(@NotNull DBDAttributeBinding columnElement) {
-        final boolean hasOrdering = dataFilter.hasOrdering();
+    public void resetOrdering() {
+        ResultSetSorter sorter = createSorter();
+        List<ResultSetRow> sortedRows = sorter.sort(new VoidProgressMonitor());
+        if (sortedRows != null) {
+            applyOrdering(sorter, sortedRows);
+        }
+    }
 
-        // First sort in original order to reset multi-column orderings
-        curRows.sort(Comparator.comparingInt(ResultSetRow::getRowNumber));
+    /**
+     * Checks whether the filter can be applied to fetched rows.
+     * Rows must be fetched without server-side conditions and all filter conditions must be supported by the filter index.
+     */
+    boolean isLocalFilterSupported(@NotNull DBDDataFilter filter) {
+        if (allRows == null && dataFilter.hasConditions()) {
+            // Rows were filtered by server
+            return false;
+        }
+        if (!CommonUtils.isEmpty(filter.getWhere()) || !CommonUtils.isEmpty(filter.getOrder())) {
+            return false;
+        }
+        for (DBDAttributeConstraint constraint : filter.getConstraints()) {
+            if (!constraint.hasCondition()) {
+                continue;
+            }
+            DBDAttributeBinding binding = getAttributeBinding(constraint.getAttribute());
+            if (binding == null || !ResultSetFilterIndex.isConditionSupported(constraint, binding)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        if (hasOrdering) {
-            // Sort locally
-            final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-            curRows.sort((row1, row2) -> {
-                int result = 0;
-                for (DBDAttributeConstraint co : orderConstraints) {
-                    final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                    if (binding == null) {
-                        continue;
-                    }
-                    Object cell1 = getCellValue(new ResultSetCellLocation(binding, row1));
-                    Object cell2 = getCellValue(new ResultSetCellLocation(binding, row2));
-                    Comparator<Object> comparator = columnElement.getValueHandler().getComparator();
-                    if (comparator != null) {
-                        result = comparator.compare(cell1, cell2);
-                    } else if (cell1 instanceof String && cell2 instanceof String) {
-                    	result = (cell1.toString()).compareToIgnoreCase(cell2.toString());
-                    } else {
-                    	result = DBUtils.compareDataValues(cell1, cell2);
-                    }
-                          
-                    if (co.isOrderDescending()) {
-                        result = -result;
-                    }
-                    if (result != 0) {
-                        break;
-                    }
-                }
-                return result;
-            });
+    /**
+     * Filters fetched rows with the current data filter.
+     * Rows hidden by the filter are kept in the model, so the filter may be changed or reset later.
+     */
+    void applyLocalFilter() {
+        if (allRows == null) {
+            allRows = new ArrayList<>(curRows);
+            allRows.sort(Comparator.comparingInt(ResultSetRow::getRowNumber));
+        }
+        if (filterIndex == null) {
+            filterIndex = new ResultSetFilterIndex(this, new ArrayList<>(allRows));
+        }
+        curRows = filterIndex.filter(dataFilter);
+        if (!dataFilter.hasConditions()) {
+            // All rows are visible
+            allRows = null;
         }
         for (int i = 0; i < curRows.size(); i++) {
             curRows.get(i).setVisualNumber(i);
         }
+        rowsVersion++;
+        if (dataFilter.hasOrdering()) {
+            resetOrdering();
+        }
+    }
+
+    /**
+     * Creates sorter for the current rows and ordering. Sorter may be run in a separate thread,
+     * its results must be applied with {@link #applyOrdering(ResultSetSorter, List)}.
+     */
+    @NotNull
+    ResultSetSorter createSorter() {
+        final List<DBDAttributeBinding> orderAttributes = new ArrayList<>();
+        final List<Boolean> orderDescending = new ArrayList<>();
+        if (dataFilter.hasOrdering()) {
+            for (DBDAttributeConstraint co : dataFilter.getOrderConstraints()) {
+                final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
+                if (binding != null) {
+                    orderAttributes.add(binding);
+                    orderDescending.add(co.isOrderDescending());
+                }
+            }
+        }
+        final boolean[] descending = new boolean[orderDescending.size()];
+        for (int i = 0; i < descending.length; i++) {
+            descending[i] = orderDescending.get(i);
+        }
+        return new ResultSetSorter(this, rowsVersion, new ArrayList<>(curRows), orderAttributes, descending);
+    }
+
+    /**
+     * Applies sorted rows. Returns false if rows were changed since the sorter was created.
+     */
+    boolean applyOrdering(@NotNull ResultSetSorter sorter, @NotNull List<ResultSetRow> sortedRows) {
+        if (sorter.getRowsVersion() != rowsVersion || sortedRows.size() != curRows.size()) {
+            return false;
+        }
+        for (int i = 0; i < sortedRows.size(); i++) {
+            ResultSetRow row = sortedRows.get(i);
+            row.setVisualNumber(i);
+            curRows.set(i, row);
+        }
+        rowsVersion++;
+        return true;
     }
 
     private void fillVisibleAttributes() {
@@ -592,8 +592,8 @@ class ResultSetPersister {
         if (!stat.updatedCells.isEmpty()) {
             for (Map.Entry<Integer, Object> entry : stat.updatedCells.entrySet()) {
                 ResultSetRow row = stat.row;
-                DBUtils.releaseValue(row.values[entry.getKey()]);
-                row.values[entry.getKey()] = entry.getValue();
+                DBUtils.releaseValue(row.getValues()[entry.getKey()]);
+                row.setValue(entry.getKey(), entry.getValue());
             }
         }
     }
@@ -807,99 +807,24 @@ class ResultSetPersister {
                 }
             }
             try {
-                for (DataStatementInfo statement : ResultSetPersister.this.deleteStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.deleteData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            new ExecutionSource(dataContainer))) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                deleteStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
-                    }
-                    monitor.worked(1);
+                // Consecutive similar statements are executed in batches.
+                // Batches are not used in auto-commit mode, because a failed batch may be partially committed
+                // and then we can't tell which rows were saved.
+                boolean useBatches = generateScript || !this.autocommit;
+                Map<String, Object> batchOptions = options;
+                if (!generateScript) {
+                    batchOptions = new LinkedHashMap<>(options);
+                    batchOptions.put(DBSDataManipulator.OPTION_USE_MULTI_INSERT, true);
+                    batchOptions.put(DBSDataManipulator.OPTION_USE_MULTI_DELETE, true);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.insertStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.insertData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            statement.needKeys() ? new KeyDataReceiver(statement) : null,
-                            new ExecutionSource(dataContainer),
-                            options)) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                insertStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
-                    }
-                    monitor.worked(1);
+                Throwable statementsError = executeStatementGroups(session, ResultSetPersister.this.deleteStatements, useBatches, options, batchOptions, deleteStats);
+                if (statementsError == null) {
+                    statementsError = executeStatementGroups(session, ResultSetPersister.this.insertStatements, useBatches, options, batchOptions, insertStats);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.updateStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.updateData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.updateAttributes),
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            null,
-                            new ExecutionSource(dataContainer))) {
-                            // Make single array of values
-                            Object[] attributes = new Object[statement.updateAttributes.size() + statement.keyAttributes.size()];
-                            for (int i = 0; i < statement.updateAttributes.size(); i++) {
-                                attributes[i] = statement.updateAttributes.get(i).getValue();
-                            }
-                            for (int i = 0; i < statement.keyAttributes.size(); i++) {
-                                attributes[statement.updateAttributes.size() + i] = statement.keyAttributes.get(i).getValue();
-                            }
-                            // Execute
-                            batch.add(attributes);
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                updateStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
-                    }
-                    monitor.worked(1);
+                if (statementsError == null) {
+                    statementsError = executeStatementGroups(session, ResultSetPersister.this.updateStatements, useBatches, options, batchOptions, updateStats);
                 }
-
-                return null;
+                return statementsError;
             } finally {
                 if (!generateScript && txnManager != null && this.savepoint != null) {
                     try {
@@ -912,6 +837,159 @@ class ResultSetPersister {
             }
         }
 
+        @Nullable
+        private Throwable executeStatementGroups(
+            @NotNull DBCSession session,
+            @NotNull List<DataStatementInfo> statements,
+            boolean useBatches,
+            @NotNull Map<String, Object> options,
+            @NotNull Map<String, Object> batchOptions,
+            @NotNull DBCStatistics statistics
+        ) {
+            DBRProgressMonitor monitor = session.getProgressMonitor();
+            int groupStart = 0;
+            while (groupStart < statements.size()) {
+                if (monitor.isCanceled()) break;
+                int groupEnd = groupStart + 1;
+                StatementBatchKey batchKey = useBatches ? StatementBatchKey.of(statements.get(groupStart)) : null;
+                if (batchKey != null) {
+                    while (groupEnd < statements.size() && batchKey.equals(StatementBatchKey.of(statements.get(groupEnd)))) {
+                        groupEnd++;
+                    }
+                }
+                List<DataStatementInfo> group = statements.subList(groupStart, groupEnd);
+                try {
+                    if (group.size() == 1) {
+                        executeStatement(session, group.get(0), options, statistics);
+                    } else {
+                        executeStatementBatch(session, group, batchOptions, statistics);
+                        if (monitor.isCanceled()) {
+                            // We don't know which rows of the batch were saved
+                            throw new DBCException("Data save was canceled");
+                        }
+                    }
+                    for (DataStatementInfo statement : group) {
+                        processStatementChanges(statement);
+                    }
+                } catch (DBException e) {
+                    // Batch reports the failed row if it is known. Otherwise the whole group is failed.
+                    int failedIndex = e instanceof DBCExecuteBatchException batchError ? batchError.getFailedRowIndex() : 0;
+                    if (failedIndex < 0 || failedIndex >= group.size()) {
+                        failedIndex = 0;
+                    }
+                    for (int i = 0; i < group.size(); i++) {
+                        if (i < failedIndex) {
+                            processStatementChanges(group.get(i));
+                        } else {
+                            group.get(i).executed = false;
+                        }
+                    }
+                    processStatementError(group.get(failedIndex), session);
+                    return e;
+                }
+                monitor.worked(group.size());
+                groupStart = groupEnd;
+            }
+            return null;
+        }
+
+        private void executeStatement(
+            @NotNull DBCSession session,
+            @NotNull DataStatementInfo statement,
+            @NotNull Map<String, Object> options,
+            @NotNull DBCStatistics statistics
+        ) throws DBException {
+            DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
+            try (DBSDataManipulator.ExecuteBatch batch = openBatch(
+                session,
+                dataContainer,
+                statement,
+                DBDAttributeValue.getAttributes(statement.keyAttributes),
+                statement.type == DBSManipulationType.INSERT && statement.needKeys() ? new KeyDataReceiver(statement) : null,
+                options)
+            ) {
+                batch.add(getStatementValues(statement, statement.keyAttributes));
+                executeBatch(session, batch, options, statistics);
+            }
+        }
+
+        /**
+         * Executes statements with the same {@link StatementBatchKey} in a single batch
+         */
+        private void executeStatementBatch(
+            @NotNull DBCSession session,
+            @NotNull List<DataStatementInfo> statements,
+            @NotNull Map<String, Object> options,
+            @NotNull DBCStatistics statistics
+        ) throws DBException {
+            DataStatementInfo firstStatement = statements.get(0);
+            DBSDataManipulator dataContainer = getDataManipulator(firstStatement.entity);
+            List<DBDAttributeValue> firstKeyValues = getBatchKeyValues(firstStatement);
+            try (DBSDataManipulator.ExecuteBatch batch = openBatch(
+                session,
+                dataContainer,
+                firstStatement,
+                DBDAttributeValue.getAttributes(firstKeyValues),
+                null,
+                options)
+            ) {
+                for (DataStatementInfo statement : statements) {
+                    batch.add(getStatementValues(statement, statement == firstStatement ? firstKeyValues : getBatchKeyValues(statement)));
+                }
+                executeBatch(session, batch, options, statistics);
+            }
+        }
+
+        @NotNull
+        private DBSDataManipulator.ExecuteBatch openBatch(
+            @NotNull DBCSession session,
+            @NotNull DBSDataManipulator dataContainer,
+            @NotNull DataStatementInfo statement,
+            @NotNull DBSAttributeBase[] keyAttributes,
+            @Nullable DBDDataReceiver keysReceiver,
+            @NotNull Map<String, Object> options
+        ) throws DBException {
+            if (statement.type == DBSManipulationType.DELETE) {
+                return dataContainer.deleteData(
+                    session,
+                    keyAttributes,
+                    new ExecutionSource(dataContainer));
+            } else if (statement.type == DBSManipulationType.INSERT) {
+                return dataContainer.insertData(
+                    session,
+                    keyAttributes,
+                    keysReceiver,
+                    new ExecutionSource(dataContainer),
+                    options);
+            } else if (statement.type == DBSManipulationType.UPDATE) {
+                return dataContainer.updateData(
+                    session,
+                    DBDAttributeValue.getAttributes(statement.updateAttributes),
+                    keyAttributes,
+                    null,
+                    new ExecutionSource(dataContainer));
+            } else {
+                throw new DBCException("Unsupported statement type: " + statement.type);
+            }
+        }
+
+        private void executeBatch(
+            @NotNull DBCSession session,
+            @NotNull DBSDataManipulator.ExecuteBatch batch,
+            @NotNull Map<String, Object> options,
+            @NotNull DBCStatistics statistics
+        ) throws DBException {
+            if (generateScript) {
+                batch.generatePersistActions(session, script, options);
+            } else {
+                DBCStatistics bs = batch.execute(session, options);
+                // Notify rsv container about statement execute
+                this.notifyContainer(bs);
+
+                statistics.accumulate(bs);
+            }
+        }
+
         private void processStatementChanges(DataStatementInfo statement) {
             statement.executed = true;
         }
@@ -934,6 +1012,66 @@ class ResultSetPersister {
 
     }
 
+    /**
+     * Makes single array of statement values: updated values (for updates) followed by key values
+     */
+    @NotNull
+    private static Object[] getStatementValues(@NotNull DataStatementInfo statement, @NotNull List<DBDAttributeValue> keyValues) {
+        Object[] values = new Object[statement.updateAttributes.size() + keyValues.size()];
+        for (int i = 0; i < statement.updateAttributes.size(); i++) {
+            values[i] = statement.updateAttributes.get(i).getValue();
+        }
+        for (int i = 0; i < keyValues.size(); i++) {
+            values[statement.updateAttributes.size() + i] = keyValues.get(i).getValue();
+        }
+        return values;
+    }
+
+    /**
+     * Key values used in batches. Single row inserts skip NULL values to let column defaults apply,
+     * so batched inserts use only non-NULL values.
+     */
+    @NotNull
+    private static List<DBDAttributeValue> getBatchKeyValues(@NotNull DataStatementInfo statement) {
+        if (statement.type != DBSManipulationType.INSERT) {
+            return statement.keyAttributes;
+        }
+        List<DBDAttributeValue> values = new ArrayList<>(statement.keyAttributes.size());
+        for (DBDAttributeValue value : statement.keyAttributes) {
+            if (!DBUtils.isPseudoAttribute(value.getAttribute()) && !DBUtils.isNullValue(value.getValue())) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Statements with equal keys can be executed in the same batch
+     */
+    private record StatementBatchKey(
+        @NotNull DBSManipulationType type,
+        @NotNull DBSEntity entity,
+        @NotNull List<DBSAttributeBase> updateAttributes,
+        @NotNull List<DBSAttributeBase> keyAttributes
+    ) {
+        @Nullable
+        static StatementBatchKey of(@NotNull DataStatementInfo statement) {
+            if (statement.type == DBSManipulationType.INSERT && statement.needKeys()) {
+                // Generated keys are read for single row inserts only
+                return null;
+            }
+            List<DBDAttributeValue> keyValues = getBatchKeyValues(statement);
+            if (statement.type == DBSManipulationType.INSERT && keyValues.isEmpty()) {
+                return null;
+            }
+            return new StatementBatchKey(
+                statement.type,
+                statement.entity,
+                Arrays.asList(DBDAttributeValue.getAttributes(statement.updateAttributes)),
+                Arrays.asList(DBDAttributeValue.getAttributes(keyValues)));
+        }
+    }
+
     /**
      * Key data receiver
      */
@@ -1112,7 +1250,7 @@ class ResultSetPersister {
                     if (!viewer.getControl().isDisposed() && viewer.getModel().getAttributes() == curAttributes) {
                         for (int i = 0; i < rows.size(); i++) {
                             if (refreshValues[i] != null) {
-                                rows.get(i).values = refreshValues[i];
+                                rows.get(i).setValues(refreshValues[i]);
                             }
                         }
                         viewer.redrawData(false, true);
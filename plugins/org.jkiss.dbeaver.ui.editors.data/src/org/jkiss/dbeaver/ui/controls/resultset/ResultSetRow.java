@@ -49,9 +49,9 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. May be null if values were moved to the row storage
+    @Nullable
+    private Object[] values;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -59,6 +59,17 @@ public class ResultSetRow {
     @Nullable
     public ColorInfo colorInfo;
 
+    // Row storage state
+    @Nullable
+    ResultSetRowStorage storage;
+    long spillOffset = -1;
+    int spillLength;
+    int heapSize;
+    @Nullable
+    ResultSetRow prevStorageRow;
+    @Nullable
+    ResultSetRow nextStorageRow;
+
     ResultSetRow(int rowNumber, @NotNull Object[] values) {
         this.rowNumber = rowNumber;
         this.visualNumber = rowNumber;
@@ -68,9 +79,40 @@ public class ResultSetRow {
 
     @NotNull
     public Object[] getValues() {
+        ResultSetRowStorage storage = this.storage;
+        if (storage != null) {
+            return storage.getValues(this);
+        }
         return values;
     }
 
+    public void setValues(@NotNull Object[] values) {
+        ResultSetRowStorage storage = this.storage;
+        if (storage != null) {
+            storage.setValues(this, values);
+        } else {
+            this.values = values;
+        }
+    }
+
+    public void setValue(int index, @Nullable Object value) {
+        ResultSetRowStorage storage = this.storage;
+        if (storage != null) {
+            storage.setValue(this, index, value);
+        } else {
+            values[index] = value;
+        }
+    }
+
+    @Nullable
+    Object[] getHeapValues() {
+        return values;
+    }
+
+    void setHeapValues(@Nullable Object[] values) {
+        this.values = values;
+    }
+
     public boolean isChanged() {
         return changes != null && !changes.isEmpty();
     }
@@ -119,8 +161,11 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        // Spilled values are plain and don't need to be released
+        if (values != null) {
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
@@ -0,0 +1,570 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps values of result set rows within the heap budget.
+ * <p>
+ * Rows are kept in the list ordered by last access. When estimated size of row values exceeds the budget,
+ * values of least recently used rows are encoded in compact binary form and moved to the spill file.
+ * Spilled values are read back when row is accessed (e.g. when it becomes visible in the grid).
+ * Only rows with plain values (strings, numbers, dates, small binaries) can be spilled.
+ * Rows with complex values (LOBs, structures, collections) and modified rows always stay in heap.
+ */
+class ResultSetRowStorage {
+
+    private static final Log log = Log.getLog(ResultSetRowStorage.class);
+
+    private static final String SPILL_FOLDER = "resultset-storage";
+    private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+    // Estimated size of row object and values array header
+    private static final int ROW_OVERHEAD = 64;
+    private static final int REFERENCE_SIZE = 8;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING_LATIN = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_SHORT = 5;
+    private static final byte TYPE_BYTE = 6;
+    private static final byte TYPE_DOUBLE = 7;
+    private static final byte TYPE_FLOAT = 8;
+    private static final byte TYPE_BIG_DECIMAL = 9;
+    private static final byte TYPE_BIG_INTEGER = 10;
+    private static final byte TYPE_BOOLEAN = 11;
+    private static final byte TYPE_TIMESTAMP = 12;
+    private static final byte TYPE_SQL_DATE = 13;
+    private static final byte TYPE_SQL_TIME = 14;
+    private static final byte TYPE_DATE = 15;
+    private static final byte TYPE_LOCAL_DATE = 16;
+    private static final byte TYPE_LOCAL_TIME = 17;
+    private static final byte TYPE_LOCAL_DATE_TIME = 18;
+    private static final byte TYPE_UUID = 19;
+    private static final byte TYPE_BINARY = 20;
+
+    private final long heapBudget;
+    private long heapUsage;
+    // Least recently used row
+    private ResultSetRow firstRow;
+    // Most recently used row
+    private ResultSetRow lastRow;
+    private int valueCount;
+
+    private Path spillFile;
+    private FileChannel spillChannel;
+    // Size of data written to the spill file
+    private long spillFlushedSize;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    private final ByteArrayOutputStream encodeBuffer = new ByteArrayOutputStream();
+    private final DataOutputStream encoder = new DataOutputStream(encodeBuffer);
+    private boolean spillFailed;
+    private boolean closed;
+
+    ResultSetRowStorage(long heapBudget) {
+        this.heapBudget = heapBudget;
+    }
+
+    synchronized void addRows(@NotNull List<ResultSetRow> rows) {
+        if (closed) {
+            return;
+        }
+        for (ResultSetRow row : rows) {
+            Object[] values = row.getHeapValues();
+            if (values == null) {
+                continue;
+            }
+            int size = estimateHeapSize(values);
+            if (size < 0) {
+                // Row can't be spilled
+                continue;
+            }
+            valueCount = Math.max(valueCount, values.length);
+            row.storage = this;
+            track(row, size);
+        }
+        evictRows();
+    }
+
+    /**
+     * Returns row values. Restores values from the spill file if needed.
+     */
+    @NotNull
+    synchronized Object[] getValues(@NotNull ResultSetRow row) {
+        Object[] values = row.getHeapValues();
+        if (values != null) {
+            if (closed) {
+                return values;
+            }
+            if (row.heapSize > 0) {
+                // Mark as recently used
+                unlink(row);
+                link(row);
+            } else {
+                // Row was modified when it was evicted, track it again
+                int size = estimateHeapSize(values);
+                if (size > 0) {
+                    track(row, size);
+                }
+            }
+            return values;
+        }
+        try {
+            values = readValues(row.spillOffset, row.spillLength);
+        } catch (IOException e) {
+            log.error("Error reading row values from spill file", e);
+            Object[] errorValues = new Object[valueCount];
+            Arrays.fill(errorValues, new DBDValueError(e));
+            return errorValues;
+        }
+        row.setHeapValues(values);
+        int size = estimateHeapSize(values);
+        if (size > 0) {
+            track(row, size);
+            evictRows();
+        }
+        return values;
+    }
+
+    /**
+     * Sets new row values. Previously spilled values become obsolete.
+     */
+    synchronized void setValues(@NotNull ResultSetRow row, @NotNull Object[] values) {
+        if (row.heapSize > 0) {
+            untrack(row);
+        }
+        row.setHeapValues(values);
+        row.spillOffset = -1;
+        if (!closed) {
+            int size = estimateHeapSize(values);
+            if (size > 0) {
+                track(row, size);
+                evictRows();
+            }
+        }
+    }
+
+    synchronized void setValue(@NotNull ResultSetRow row, int index, @Nullable Object value) {
+        Object[] values = getValues(row);
+        values[index] = value;
+        // Size of the new value may differ a lot (e.g. long string), so size is estimated again
+        setValues(row, values);
+    }
+
+    /**
+     * Removes row from the storage. Row values are kept in heap.
+     */
+    synchronized void removeRow(@NotNull ResultSetRow row) {
+        if (row.storage != this) {
+            return;
+        }
+        Object[] values = getValues(row);
+        if (row.heapSize > 0) {
+            untrack(row);
+        }
+        row.setHeapValues(values);
+        row.storage = null;
+    }
+
+    /**
+     * Deletes spill file. Spilled values become unavailable.
+     */
+    synchronized void close() {
+        closed = true;
+        firstRow = lastRow = null;
+        heapUsage = 0;
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+            } catch (IOException e) {
+                log.debug("Error closing spill file", e);
+            }
+            spillChannel = null;
+        }
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                log.debug("Error deleting spill file " + spillFile, e);
+            }
+            spillFile = null;
+        }
+    }
+
+    private void track(@NotNull ResultSetRow row, int size) {
+        row.heapSize = size;
+        heapUsage += size;
+        link(row);
+    }
+
+    private void untrack(@NotNull ResultSetRow row) {
+        unlink(row);
+        heapUsage -= row.heapSize;
+        row.heapSize = 0;
+    }
+
+    private void link(@NotNull ResultSetRow row) {
+        row.prevStorageRow = lastRow;
+        row.nextStorageRow = null;
+        if (lastRow != null) {
+            lastRow.nextStorageRow = row;
+        } else {
+            firstRow = row;
+        }
+        lastRow = row;
+    }
+
+    private void unlink(@NotNull ResultSetRow row) {
+        if (row.prevStorageRow != null) {
+            row.prevStorageRow.nextStorageRow = row.nextStorageRow;
+        } else {
+            firstRow = row.nextStorageRow;
+        }
+        if (row.nextStorageRow != null) {
+            row.nextStorageRow.prevStorageRow = row.prevStorageRow;
+        } else {
+            lastRow = row.prevStorageRow;
+        }
+        row.prevStorageRow = row.nextStorageRow = null;
+    }
+
+    private void evictRows() {
+        // Always keep the most recently used row
+        while (heapUsage > heapBudget && firstRow != null && firstRow != lastRow && !spillFailed) {
+            ResultSetRow row = firstRow;
+            untrack(row);
+            if (row.getState() != ResultSetRow.STATE_NORMAL || row.isChanged()) {
+                // Modified rows stay in heap until they are saved or discarded
+                continue;
+            }
+            if (row.spillOffset < 0) {
+                try {
+                    writeValues(row);
+                } catch (IOException e) {
+                    log.error("Error writing row values to spill file. Rows will be kept in memory.", e);
+                    spillFailed = true;
+                    return;
+                }
+                if (row.spillOffset < 0) {
+                    // Values can't be encoded
+                    continue;
+                }
+            }
+            row.setHeapValues(null);
+        }
+    }
+
+    private void writeValues(@NotNull ResultSetRow row) throws IOException {
+        Object[] values = row.getHeapValues();
+        encodeBuffer.reset();
+        encoder.writeInt(values.length);
+        for (Object value : values) {
+            if (!encodeValue(encoder, value)) {
+                return;
+            }
+        }
+        int length = encodeBuffer.size();
+        if (spillChannel == null) {
+            Path folder = DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), SPILL_FOLDER);
+            spillFile = Files.createTempFile(folder, "rows", ".bin");
+            spillChannel = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        if (writeBuffer.remaining() < length) {
+            flushWriteBuffer();
+        }
+        row.spillOffset = spillFlushedSize + writeBuffer.position();
+        row.spillLength = length;
+        if (length > writeBuffer.capacity()) {
+            spillChannel.write(ByteBuffer.wrap(encodeBuffer.toByteArray()), spillFlushedSize);
+            spillFlushedSize += length;
+        } else {
+            writeBuffer.put(encodeBuffer.toByteArray(), 0, length);
+        }
+    }
+
+    @NotNull
+    private Object[] readValues(long offset, int length) throws IOException {
+        if (spillChannel == null) {
+            throw new IOException("Spill file is closed");
+        }
+        if (offset + length > spillFlushedSize) {
+            flushWriteBuffer();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (spillChannel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of spill file");
+            }
+        }
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+        Object[] values = new Object[input.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = decodeValue(input);
+        }
+        return values;
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            spillFlushedSize += spillChannel.write(writeBuffer, spillFlushedSize);
+        }
+        writeBuffer.clear();
+    }
+
+    /**
+     * Estimates heap size of row values. Returns -1 if values can't be spilled.
+     */
+    static int estimateHeapSize(@NotNull Object[] values) {
+        int size = ROW_OVERHEAD + values.length * REFERENCE_SIZE;
+        for (Object value : values) {
+            int valueSize = estimateValueSize(value);
+            if (valueSize < 0) {
+                return -1;
+            }
+            size += valueSize;
+        }
+        return size;
+    }
+
+    private static int estimateValueSize(@Nullable Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 0;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            return 40 + ((String) value).length() * 2;
+        } else if (type == Integer.class || type == Short.class || type == Byte.class || type == Float.class) {
+            return 16;
+        } else if (type == Long.class || type == Double.class || type == Date.class || type == java.sql.Date.class ||
+            type == Time.class || type == LocalDate.class || type == LocalTime.class) {
+            return 24;
+        } else if (type == Timestamp.class || type == UUID.class) {
+            return 32;
+        } else if (type == LocalDateTime.class) {
+            return 72;
+        } else if (type == BigDecimal.class || type == BigInteger.class) {
+            return 64;
+        } else if (type == byte[].class) {
+            return 16 + ((byte[]) value).length;
+        }
+        return -1;
+    }
+
+    static boolean encodeValue(@NotNull DataOutputStream output, @Nullable Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(TYPE_NULL);
+            return true;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            String str = (String) value;
+            if (isLatin(str)) {
+                output.writeByte(TYPE_STRING_LATIN);
+                output.writeInt(str.length());
+                output.writeBytes(str);
+            } else {
+                output.writeByte(TYPE_STRING);
+                output.writeInt(str.length());
+                output.writeChars(str);
+            }
+        } else if (type == Integer.class) {
+            output.writeByte(TYPE_INTEGER);
+            output.writeInt((Integer) value);
+        } else if (type == Long.class) {
+            output.writeByte(TYPE_LONG);
+            output.writeLong((Long) value);
+        } else if (type == Short.class) {
+            output.writeByte(TYPE_SHORT);
+            output.writeShort((Short) value);
+        } else if (type == Byte.class) {
+            output.writeByte(TYPE_BYTE);
+            output.writeByte((Byte) value);
+        } else if (type == Double.class) {
+            output.writeByte(TYPE_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (type == Float.class) {
+            output.writeByte(TYPE_FLOAT);
+            output.writeFloat((Float) value);
+        } else if (type == BigDecimal.class) {
+            BigDecimal decimal = (BigDecimal) value;
+            output.writeByte(TYPE_BIG_DECIMAL);
+            output.writeInt(decimal.scale());
+            writeBytes(output, decimal.unscaledValue().toByteArray());
+        } else if (type == BigInteger.class) {
+            output.writeByte(TYPE_BIG_INTEGER);
+            writeBytes(output, ((BigInteger) value).toByteArray());
+        } else if (type == Boolean.class) {
+            output.writeByte(TYPE_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (type == Timestamp.class) {
+            Timestamp timestamp = (Timestamp) value;
+            output.writeByte(TYPE_TIMESTAMP);
+            output.writeLong(timestamp.getTime());
+            output.writeInt(timestamp.getNanos());
+        } else if (type == java.sql.Date.class) {
+            output.writeByte(TYPE_SQL_DATE);
+            output.writeLong(((Date) value).getTime());
+        } else if (type == Time.class) {
+            output.writeByte(TYPE_SQL_TIME);
+            output.writeLong(((Date) value).getTime());
+        } else if (type == Date.class) {
+            output.writeByte(TYPE_DATE);
+            output.writeLong(((Date) value).getTime());
+        } else if (type == LocalDate.class) {
+            output.writeByte(TYPE_LOCAL_DATE);
+            output.writeLong(((LocalDate) value).toEpochDay());
+        } else if (type == LocalTime.class) {
+            output.writeByte(TYPE_LOCAL_TIME);
+            output.writeLong(((LocalTime) value).toNanoOfDay());
+        } else if (type == LocalDateTime.class) {
+            LocalDateTime dateTime = (LocalDateTime) value;
+            output.writeByte(TYPE_LOCAL_DATE_TIME);
+            output.writeLong(dateTime.toLocalDate().toEpochDay());
+            output.writeLong(dateTime.toLocalTime().toNanoOfDay());
+        } else if (type == UUID.class) {
+            UUID uuid = (UUID) value;
+            output.writeByte(TYPE_UUID);
+            output.writeLong(uuid.getMostSignificantBits());
+            output.writeLong(uuid.getLeastSignificantBits());
+        } else if (type == byte[].class) {
+            output.writeByte(TYPE_BINARY);
+            writeBytes(output, (byte[]) value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    @Nullable
+    static Object decodeValue(@NotNull DataInputStream input) throws IOException {
+        byte type = input.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING_LATIN: {
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                return new String(bytes, StandardCharsets.ISO_8859_1);
+            }
+            case TYPE_STRING: {
+                char[] chars = new char[input.readInt()];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = input.readChar();
+                }
+                return new String(chars);
+            }
+            case TYPE_INTEGER:
+                return input.readInt();
+            case TYPE_LONG:
+                return input.readLong();
+            case TYPE_SHORT:
+                return input.readShort();
+            case TYPE_BYTE:
+                return input.readByte();
+            case TYPE_DOUBLE:
+                return input.readDouble();
+            case TYPE_FLOAT:
+                return input.readFloat();
+            case TYPE_BIG_DECIMAL: {
+                int scale = input.readInt();
+                return new BigDecimal(new BigInteger(readBytes(input)), scale);
+            }
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(readBytes(input));
+            case TYPE_BOOLEAN:
+                return input.readBoolean();
+            case TYPE_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(input.readLong());
+                timestamp.setNanos(input.readInt());
+                return timestamp;
+            }
+            case TYPE_SQL_DATE:
+                return new java.sql.Date(input.readLong());
+            case TYPE_SQL_TIME:
+                return new Time(input.readLong());
+            case TYPE_DATE:
+                return new Date(input.readLong());
+            case TYPE_LOCAL_DATE:
+                return LocalDate.ofEpochDay(input.readLong());
+            case TYPE_LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(input.readLong());
+            case TYPE_LOCAL_DATE_TIME: {
+                LocalDate date = LocalDate.ofEpochDay(input.readLong());
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(input.readLong()));
+            }
+            case TYPE_UUID:
+                return new UUID(input.readLong(), input.readLong());
+            case TYPE_BINARY:
+                return readBytes(input);
+            default:
+                throw new IOException("Unsupported value type in spill file: " + type);
+        }
+    }
+
+    private static boolean isLatin(@NotNull String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (str.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeBytes(@NotNull DataOutputStream output, @NotNull byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    @NotNull
+    private static byte[] readBytes(@NotNull DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+}
@@ -0,0 +1,340 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.sql.Timestamp;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Client-side result set sorter.
+ * <p>
+ * Sort keys are extracted once per row: collation keys for strings, primitive longs for integer numbers and dates,
+ * doubles for floating point numbers. Columns with custom comparators or mixed value types are compared as objects.
+ * Then row indexes are sorted with parallel sort. Rows with equal keys keep their original order.
+ * Sorter works with a snapshot of rows, so it may be run outside of UI thread.
+ */
+class ResultSetSorter {
+
+    private enum KeyType {
+        LONG,
+        DATE,
+        DOUBLE,
+        STRING,
+        OBJECT
+    }
+
+    private final ResultSetModel model;
+    private final long rowsVersion;
+    private final List<ResultSetRow> rows;
+    private final List<DBDAttributeBinding> attributes;
+    private final boolean[] descending;
+    private volatile boolean canceled;
+
+    ResultSetSorter(
+        @NotNull ResultSetModel model,
+        long rowsVersion,
+        @NotNull List<ResultSetRow> rows,
+        @NotNull List<DBDAttributeBinding> attributes,
+        @NotNull boolean[] descending
+    ) {
+        this.model = model;
+        this.rowsVersion = rowsVersion;
+        this.rows = rows;
+        this.attributes = attributes;
+        this.descending = descending;
+    }
+
+    long getRowsVersion() {
+        return rowsVersion;
+    }
+
+    int getRowCount() {
+        return rows.size();
+    }
+
+    /**
+     * Cancels sorting. May be called from any thread.
+     */
+    void cancel() {
+        canceled = true;
+    }
+
+    /**
+     * Returns sorted rows or null if sorting was canceled.
+     */
+    @Nullable
+    List<ResultSetRow> sort(@NotNull DBRProgressMonitor monitor) {
+        final int rowCount = rows.size();
+        final int[] rowNumbers = new int[rowCount];
+        final Integer[] indexes = new Integer[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            rowNumbers[i] = rows.get(i).getRowNumber();
+            indexes[i] = i;
+        }
+        final List<SortKeys> keys = new ArrayList<>(attributes.size());
+        for (int i = 0; i < attributes.size(); i++) {
+            SortKeys columnKeys = extractKeys(monitor, attributes.get(i), descending[i]);
+            if (columnKeys == null) {
+                return null;
+            }
+            keys.add(columnKeys);
+        }
+        try {
+            Arrays.parallelSort(indexes, (index1, index2) -> {
+                if (canceled) {
+                    throw new CancellationException();
+                }
+                for (SortKeys columnKeys : keys) {
+                    int result = columnKeys.compare(index1, index2);
+                    if (result != 0) {
+                        return result;
+                    }
+                }
+                // Keep original order
+                return Integer.compare(rowNumbers[index1], rowNumbers[index2]);
+            });
+        } catch (CancellationException e) {
+            return null;
+        }
+        if (canceled || monitor.isCanceled()) {
+            return null;
+        }
+        final List<ResultSetRow> sortedRows = new ArrayList<>(rowCount);
+        for (Integer index : indexes) {
+            sortedRows.add(rows.get(index));
+        }
+        return sortedRows;
+    }
+
+    @Nullable
+    private SortKeys extractKeys(@NotNull DBRProgressMonitor monitor, @NotNull DBDAttributeBinding attribute, boolean descending) {
+        final int rowCount = rows.size();
+        final Object[] values = new Object[rowCount];
+        KeyType keyType = null;
+        for (int i = 0; i < rowCount; i++) {
+            if (canceled || monitor.isCanceled()) {
+                return null;
+            }
+            Object value = model.getCellValue(attribute, rows.get(i));
+            if (DBUtils.isNullValue(value)) {
+                continue;
+            }
+            values[i] = value;
+            KeyType valueKeyType = getKeyType(value);
+            if (keyType == null) {
+                keyType = valueKeyType;
+            } else if (keyType != valueKeyType) {
+                keyType = KeyType.OBJECT;
+            }
+        }
+        final Comparator<Object> comparator = attribute.getValueHandler().getComparator();
+        if (comparator != null || keyType == null) {
+            keyType = KeyType.OBJECT;
+        }
+        final boolean[] nulls = new boolean[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            nulls[i] = values[i] == null;
+        }
+        switch (keyType) {
+            case LONG: {
+                final long[] longKeys = new long[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    if (!nulls[i]) {
+                        longKeys[i] = ((Number) values[i]).longValue();
+                    }
+                }
+                return new LongKeys(nulls, descending, longKeys);
+            }
+            case DATE: {
+                final long[] dateKeys = new long[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    if (!nulls[i]) {
+                        Long key = getDateKey((Date) values[i]);
+                        if (key == null) {
+                            // Date is out of range
+                            return new ObjectKeys(nulls, descending, values, null);
+                        }
+                        dateKeys[i] = key;
+                    }
+                }
+                return new LongKeys(nulls, descending, dateKeys);
+            }
+            case DOUBLE: {
+                final double[] doubleKeys = new double[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    if (!nulls[i]) {
+                        doubleKeys[i] = ((Number) values[i]).doubleValue();
+                    }
+                }
+                return new DoubleKeys(nulls, descending, doubleKeys);
+            }
+            case STRING: {
+                // Collator is not thread safe, so keys are generated sequentially
+                final Collator collator = Collator.getInstance();
+                collator.setStrength(Collator.SECONDARY);
+                final CollationKey[] stringKeys = new CollationKey[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    if (canceled || monitor.isCanceled()) {
+                        return null;
+                    }
+                    if (!nulls[i]) {
+                        stringKeys[i] = collator.getCollationKey((String) values[i]);
+                    }
+                }
+                return new StringKeys(nulls, descending, stringKeys);
+            }
+            default:
+                return new ObjectKeys(nulls, descending, values, comparator);
+        }
+    }
+
+    @NotNull
+    private static KeyType getKeyType(@NotNull Object value) {
+        if (value instanceof String) {
+            return KeyType.STRING;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return KeyType.LONG;
+        } else if (value instanceof Double || value instanceof Float) {
+            return KeyType.DOUBLE;
+        } else if (value instanceof Date) {
+            return KeyType.DATE;
+        }
+        return KeyType.OBJECT;
+    }
+
+    /**
+     * Returns nanoseconds since epoch or null if date is out of range
+     */
+    @Nullable
+    private static Long getDateKey(@NotNull Date date) {
+        try {
+            if (date instanceof Timestamp timestamp) {
+                return Math.addExact(Math.multiplyExact(Math.floorDiv(timestamp.getTime(), 1000), 1_000_000_000L), timestamp.getNanos());
+            } else {
+                return Math.multiplyExact(date.getTime(), 1_000_000L);
+            }
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sort keys of a single column. Nulls go after all values (as in {@link DBUtils#compareDataValues(Object, Object)}).
+     */
+    private abstract static class SortKeys {
+        private final boolean[] nulls;
+        private final boolean descending;
+
+        SortKeys(@NotNull boolean[] nulls, boolean descending) {
+            this.nulls = nulls;
+            this.descending = descending;
+        }
+
+        int compare(int index1, int index2) {
+            int result;
+            if (nulls[index1] || nulls[index2]) {
+                result = Boolean.compare(nulls[index1], nulls[index2]);
+            } else {
+                result = compareKeys(index1, index2);
+            }
+            return descending ? -result : result;
+        }
+
+        abstract int compareKeys(int index1, int index2);
+    }
+
+    private static class LongKeys extends SortKeys {
+        private final long[] keys;
+
+        LongKeys(@NotNull boolean[] nulls, boolean descending, @NotNull long[] keys) {
+            super(nulls, descending);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareKeys(int index1, int index2) {
+            return Long.compare(keys[index1], keys[index2]);
+        }
+    }
+
+    private static class DoubleKeys extends SortKeys {
+        private final double[] keys;
+
+        DoubleKeys(@NotNull boolean[] nulls, boolean descending, @NotNull double[] keys) {
+            super(nulls, descending);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareKeys(int index1, int index2) {
+            return Double.compare(keys[index1], keys[index2]);
+        }
+    }
+
+    private static class StringKeys extends SortKeys {
+        private final CollationKey[] keys;
+
+        StringKeys(@NotNull boolean[] nulls, boolean descending, @NotNull CollationKey[] keys) {
+            super(nulls, descending);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareKeys(int index1, int index2) {
+            return keys[index1].compareTo(keys[index2]);
+        }
+    }
+
+    private static class ObjectKeys extends SortKeys {
+        private final Object[] keys;
+        @Nullable
+        private final Comparator<Object> comparator;
+
+        ObjectKeys(@NotNull boolean[] nulls, boolean descending, @NotNull Object[] keys, @Nullable Comparator<Object> comparator) {
+            super(nulls, descending);
+            this.keys = keys;
+            this.comparator = comparator;
+        }
+
+        @Override
+        int compareKeys(int index1, int index2) {
+            Object value1 = keys[index1];
+            Object value2 = keys[index2];
+            if (comparator != null) {
+                return comparator.compare(value1, value2);
+            } else if (value1 instanceof String str1 && value2 instanceof String str2) {
+                return str1.compareToIgnoreCase(str2);
+            } else {
+                return DBUtils.compareDataValues(value1, value2);
+            }
+        }
+    }
+
+}
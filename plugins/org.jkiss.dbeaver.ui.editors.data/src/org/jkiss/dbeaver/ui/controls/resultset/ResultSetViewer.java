@@ -146,6 +146,8 @@ public class ResultSetViewer extends Viewer
     private static final String CONFIRM_SERVER_SIDE_ORDERING_UNAVAILABLE = "org.jkiss.dbeaver.sql.resultset.serverSideOrderingUnavailable";
 
     private static final int THEME_UPDATE_DELAY_MS = 250;
+    // Smaller result sets are sorted in UI thread
+    private static final int ASYNC_SORT_MIN_ROWS = 10000;
 
     public static final String EMPTY_TRANSFORMER_NAME = "Default";
     public static final String CONTROL_ID = ResultSetViewer.class.getSimpleName();
@@ -234,6 +236,8 @@ public class ResultSetViewer extends Viewer
     // Theme listener
     private IPropertyChangeListener themeChangeListener;
     private final AbstractJob themeUpdateJob;
+    @Nullable
+    private volatile AbstractJob sortJob;
     private long lastThemeUpdateTime;
 
     private volatile boolean nextSegmentReadingBlocked;
@@ -672,7 +676,9 @@ public class ResultSetViewer extends Viewer
         {
             //model.setDataFilter(dataFilter);
             if (refreshData) {
-                refreshWithFilter(dataFilter);
+                if (!filterLocally(dataFilter)) {
+                    refreshWithFilter(dataFilter);
+                }
             } else {
                 model.setDataFilter(dataFilter);
                 activePresentation.refreshData(true, false, true);
@@ -681,6 +687,33 @@ public class ResultSetViewer extends Viewer
         }
     }
 
+    /**
+     * Applies filter to already fetched rows if all rows were fetched and filter conditions can be evaluated locally.
+     * Returns false if data must be re-read from the database.
+     */
+    private boolean filterLocally(@NotNull DBDDataFilter dataFilter) {
+        if (!getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_FILTER_LOCALLY) ||
+            !hasData() || isHasMoreData() || !model.isLocalFilterSupported(dataFilter))
+        {
+            return false;
+        }
+        if (!checkForChanges()) {
+            return true;
+        }
+        boolean visibilityChanged = !model.getDataFilter().equalVisibility(dataFilter);
+        model.updateDataFilter(dataFilter, true);
+        model.applyLocalFilter();
+        curRow = model.getRowCount() > 0 ? model.getRow(0) : null;
+        selectedRecords = curRow == null ? new int[0] : new int[]{curRow.getVisualNumber()};
+        redrawData(visibilityChanged, true);
+        updatePanelsContent(true);
+        updateStatusMessage();
+        fireResultSetLoad();
+        updateFiltersText(true);
+        updateToolbar();
+        return true;
+    }
+
     @Override
     public void setSegmentFetchSize(Integer segmentFetchSize) {
         this.segmentFetchSize = segmentFetchSize;
@@ -2362,16 +2395,59 @@ public class ResultSetViewer extends Viewer
         if (serverSideOrdering) {
             this.refreshData(null);
         } else {
-            this.reorderLocally(columnElement);
+            this.reorderLocally();
         }
     }
 
-    private void reorderLocally(DBDAttributeBinding columnElement)
+    private void reorderLocally()
     {
         this.rejectChanges();
-        this.getModel().resetOrdering(columnElement);
-        this.getActivePresentation().refreshData(false, false, true);
+        if (sortJob != null) {
+            // Ordering was changed while previous sort is in progress
+            sortJob.cancel();
+            sortJob = null;
+        }
+        final ResultSetSorter sorter = model.createSorter();
+        if (sorter.getRowCount() < ASYNC_SORT_MIN_ROWS) {
+            List<ResultSetRow> sortedRows = sorter.sort(new VoidProgressMonitor());
+            if (sortedRows != null) {
+                model.applyOrdering(sorter, sortedRows);
+            }
+            this.getActivePresentation().refreshData(false, false, true);
+            this.updateFiltersText();
+            return;
+        }
         this.updateFiltersText();
+        sortJob = new AbstractJob("Sort rows") {
+            {
+                setUser(false);
+            }
+
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                final List<ResultSetRow> sortedRows = sorter.sort(monitor);
+                if (sortedRows == null) {
+                    return Status.CANCEL_STATUS;
+                }
+                UIUtils.asyncExec(() -> {
+                    if (sortJob != this || viewerPanel.isDisposed()) {
+                        return;
+                    }
+                    sortJob = null;
+                    if (model.applyOrdering(sorter, sortedRows)) {
+                        getActivePresentation().refreshData(false, false, true);
+                    }
+                });
+                return Status.OK_STATUS;
+            }
+
+            @Override
+            protected void canceling() {
+                sorter.cancel();
+                super.canceling();
+            }
+        };
+        sortJob.schedule();
     }
 
 
@@ -2395,6 +2471,7 @@ public class ResultSetViewer extends Viewer
             return;
         }
         this.curRow = null;
+        this.model.setRowStorageBudget(getPreferenceStore().getLong(ResultSetPreferences.RESULT_SET_HEAP_BUDGET) * 1024 * 1024);
         this.model.setData(rows);
         this.curRow = (this.model.getRowCount() > 0 ? this.model.getRow(0) : null);
         if (focusRow > 0 && focusRow < model.getRowCount()) {
@@ -324,6 +324,8 @@ public class ResultSetMessages extends NLS {
     // ResultSetsMain
     public static String pref_page_database_resultsets_label_filter_force_subselect;
     public static String pref_page_database_resultsets_label_filter_force_subselect_tip;
+    public static String pref_page_database_resultsets_label_filter_locally;
+    public static String pref_page_database_resultsets_label_filter_locally_tip;
     public static String pref_page_database_resultsets_group_binary;
     public static String pref_page_database_resultsets_label_binary_use_strings;
     public static String pref_page_database_resultsets_label_binary_presentation;
@@ -365,6 +367,8 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_general_label_result_set_max_size;
     public static String pref_page_database_general_label_result_set_cancel_timeout;
     public static String pref_page_database_general_label_result_set_cancel_timeout_tip;
+    public static String pref_page_database_resultsets_label_heap_budget;
+    public static String pref_page_database_resultsets_label_heap_budget_tip;
 
     public static String pref_page_results_group_advanced;
     public static String pref_page_sql_editor_group_misc;
@@ -450,6 +454,8 @@ public class ResultSetMessages extends NLS {
     public static String aggregate_columns_reset_text;
     public static String aggregate_columns_copy_value_text;
     public static String aggregate_columns_copy_all_text;
+    public static String aggregate_columns_approximate_text;
+    public static String aggregate_columns_approximate_label;
     public static String result_set_view_menu_text;
     public static String result_set_stat_columns;
     public static String result_set_stat_rows;
@@ -20,6 +20,7 @@ import org.eclipse.jface.action.*;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.ISelectionProvider;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.dnd.TextTransfer;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -27,6 +28,7 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.*;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBIcon;
@@ -34,6 +36,8 @@ import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunctionApproximate;
+import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunctionMergeable;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
@@ -48,6 +52,7 @@ import java.text.DecimalFormat;
 import java.util.List;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * RSV value view panel
@@ -62,6 +67,9 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     public static final String PARAM_GROUP_BY_COLUMNS = "groupByColumns";
     public static final String PARAM_GROUP_AS_STRINGS = "groupAsStrings";
 
+    // Minimal number of values per part for parallel aggregation
+    private static final int PARALLEL_CHUNK_SIZE = 50000;
+
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("###,###,###,###,###,##0.###");
     private static final DecimalFormat INTEGER_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
 
@@ -75,6 +83,8 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     private IDialogSettings panelSettings;
 
     private final List<AggregateFunctionDescriptor> enabledFunctions = new ArrayList<>();
+    private final Set<AggregateFunctionDescriptor> approximateFunctions = new HashSet<>();
+    private final Map<AggregateFunctionDescriptor, Boolean> approximationSupport = new HashMap<>();
     private boolean featureTracked;
 
     public AggregateColumnsPanel() {
@@ -106,6 +116,11 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             manager.add(new CopyAction());
             manager.add(new CopyAllAction());
             manager.add(new Separator());
+            AggregateFunctionDescriptor selectedFunction = getSelectedFunction();
+            if (selectedFunction != null && isApproximationSupported(selectedFunction)) {
+                manager.add(new ApproximateFunctionAction(selectedFunction));
+                manager.add(new Separator());
+            }
             fillToolBar(manager);
         });
 
@@ -146,6 +161,9 @@ public class AggregateColumnsPanel implements IResultSetPanel {
                 } else {
                     funcIndexes.put(func, funcSection.getInt("index"));
                     enabledFunctions.add(func);
+                    if (funcSection.getBoolean("approximate")) {
+                        approximateFunctions.add(func);
+                    }
                 }
             }
             enabledFunctions.sort(Comparator.comparingInt(funcIndexes::get));
@@ -174,6 +192,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             IDialogSettings funcSection = UIUtils.getSettingsSection(functionsSection, func.getId());
             boolean enabled = enabledFunctions.contains(func);
             funcSection.put("enabled", enabled);
+            funcSection.put("approximate", approximateFunctions.contains(func));
             if (enabled) {
                 funcSection.put("index", enabledFunctions.indexOf(func));
             } else {
@@ -263,35 +282,50 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
-    private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
+    private void aggregateValues(TreeItem parentItem, List<Object> values) {
         List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
+        List<TreeItem> funcItems = new ArrayList<>(functions.size());
         for (AggregateFunctionDescriptor funcDesc : functions) {
             TreeItem funcItem = (parentItem == null) ?
                 new TreeItem(aggregateTable, SWT.NONE) :
                 new TreeItem(parentItem, SWT.NONE);
             funcItem.setData(funcDesc);
-            funcItem.setText(0, funcDesc.getLabel());
+            funcItem.setText(0, approximateFunctions.contains(funcDesc) ?
+                NLS.bind(ResultSetMessages.aggregate_columns_approximate_label, funcDesc.getLabel()) :
+                funcDesc.getLabel());
             DBPImage icon = funcDesc.getIcon();
             if (icon != null) {
                 funcItem.setImage(0, DBeaverIcons.getImage(icon));
             }
-            try {
-                IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
-            } catch (DBException e) {
-                log.error(e);
-            }
+            funcItems.add(funcItem);
         }
 
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
+        IAggregateFunction[] funcs = createFunctions(functions);
         int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
-            for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element, aggregateAsStrings)) {
-                    funcCount[i]++;
+        int chunkCount = Math.min(Runtime.getRuntime().availableProcessors(), values.size() / PARALLEL_CHUNK_SIZE);
+        if (chunkCount > 1 && Arrays.stream(funcs).allMatch(f -> f instanceof IAggregateFunctionMergeable)) {
+            // Aggregate parts of values in parallel and then merge partial results in the original order
+            IAggregateFunction[][] chunkFuncs = new IAggregateFunction[chunkCount][];
+            int[][] chunkFuncCount = new int[chunkCount][funcs.length];
+            chunkFuncs[0] = funcs;
+            for (int i = 1; i < chunkCount; i++) {
+                chunkFuncs[i] = createFunctions(functions);
+            }
+            int chunkSize = (values.size() + chunkCount - 1) / chunkCount;
+            IntStream.range(0, chunkCount).parallel().forEach(i -> accumulateValues(
+                chunkFuncs[i],
+                values.subList(i * chunkSize, Math.min(values.size(), (i + 1) * chunkSize)),
+                chunkFuncCount[i]));
+            for (int i = 0; i < chunkCount; i++) {
+                for (int k = 0; k < funcs.length; k++) {
+                    if (i > 0 && chunkFuncs[i][k] != null) {
+                        ((IAggregateFunctionMergeable) funcs[k]).merge(chunkFuncs[i][k]);
+                    }
+                    funcCount[k] += chunkFuncCount[i][k];
                 }
             }
+        } else {
+            accumulateValues(funcs, values, funcCount);
         }
         for (int i = 0; i < funcs.length; i++) {
             if (funcCount[i] <= 0) {
@@ -300,7 +334,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             IAggregateFunction func = funcs[i];
             Object result = func.getResult(funcCount[i]);
             if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
+                TreeItem treeItem = funcItems.get(i);
                 String strValue;
                 if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
                     strValue = DOUBLE_FORMAT.format(result);
@@ -316,6 +350,52 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         }
     }
 
+    @NotNull
+    private IAggregateFunction[] createFunctions(@NotNull List<AggregateFunctionDescriptor> functions) {
+        IAggregateFunction[] funcs = new IAggregateFunction[functions.size()];
+        for (int i = 0; i < funcs.length; i++) {
+            AggregateFunctionDescriptor funcDesc = functions.get(i);
+            try {
+                funcs[i] = funcDesc.createFunction();
+                if (funcs[i] instanceof IAggregateFunctionApproximate approximateFunc) {
+                    approximateFunc.setApproximate(approximateFunctions.contains(funcDesc));
+                }
+            } catch (DBException e) {
+                log.error(e);
+            }
+        }
+        return funcs;
+    }
+
+    private void accumulateValues(@NotNull IAggregateFunction[] funcs, @NotNull List<Object> values, @NotNull int[] funcCount) {
+        for (Object element : values) {
+            for (int i = 0; i < funcs.length; i++) {
+                if (funcs[i] != null && funcs[i].accumulate(element, aggregateAsStrings)) {
+                    funcCount[i]++;
+                }
+            }
+        }
+    }
+
+    private boolean isApproximationSupported(@NotNull AggregateFunctionDescriptor funcDesc) {
+        return approximationSupport.computeIfAbsent(funcDesc, desc -> {
+            try {
+                return desc.createFunction() instanceof IAggregateFunctionApproximate;
+            } catch (DBException e) {
+                return false;
+            }
+        });
+    }
+
+    @Nullable
+    private AggregateFunctionDescriptor getSelectedFunction() {
+        TreeItem[] selection = aggregateTable.getSelection();
+        if (selection.length == 1 && selection[0].getData() instanceof AggregateFunctionDescriptor funcDesc) {
+            return funcDesc;
+        }
+        return null;
+    }
+
     public void clearValue()
     {
         aggregateTable.removeAll();
@@ -436,11 +516,30 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         @Override
         public void run() {
             enabledFunctions.clear();
+            approximateFunctions.clear();
             loadDefaultFunctions();
             refresh(false);
         }
     }
 
+    private class ApproximateFunctionAction extends Action {
+        private final AggregateFunctionDescriptor func;
+
+        public ApproximateFunctionAction(AggregateFunctionDescriptor func) {
+            super(ResultSetMessages.aggregate_columns_approximate_text, IAction.AS_CHECK_BOX);
+            this.func = func;
+            setChecked(approximateFunctions.contains(func));
+        }
+
+        @Override
+        public void run() {
+            if (!approximateFunctions.remove(func)) {
+                approximateFunctions.add(func);
+            }
+            refresh(false);
+        }
+    }
+
     private class CopyAction extends Action {
         public CopyAction() {
             super(ResultSetMessages.aggregate_columns_copy_value_text);
@@ -269,6 +269,10 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
             && !prefStore.getBoolean(ModelPreferences.META_DISABLE_EXTRA_READ);
     }
 
+    public boolean isParallelQueryAnalysisEnabled() {
+        return this.getActivePreferenceStore().getBoolean(SQLModelPreferences.PARALLEL_SEMANTIC_ANALYSIS);
+    }
+
     private void handleInputChange(IEditorInput input) {
         occurrencesHighlighter.updateInput(input);
     }
@@ -75,11 +75,14 @@ import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.sql.BatchUpdateException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * SQLQueryJob
@@ -93,6 +96,8 @@ public class SQLQueryJob extends DataSourceJob
     public static final Object STATS_RESULTS = new Object();
     private static final int MAX_QUERY_PREVIEW_LENGTH = 8192;
     private static final int MAX_UPDATE_COUNT_READS = 1000;
+    private static final Pattern RETURNING_PATTERN = Pattern.compile("\\bRETURNING\\b", Pattern.CASE_INSENSITIVE);
+    private static final int BATCH_NOT_EXECUTED = -2;
 
     private final DBSDataContainer dataContainer;
     private final List<SQLScriptElement> queries;
@@ -107,6 +112,11 @@ public class SQLQueryJob extends DataSourceJob
     private SQLScriptCommitType commitType;
     private SQLScriptErrorHandling errorHandling;
     private boolean fetchResultSets;
+    private int batchSize;
+    // Cleared if the driver can't batch query texts
+    private boolean batchSupported = true;
+    // Queries which were already executed in batches
+    private final BitSet batchExecutedQueries = new BitSet();
     private long rsOffset;
     private long rsMaxRows;
 
@@ -154,6 +164,7 @@ public class SQLQueryJob extends DataSourceJob
                 preferenceStore.getBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS) && !isDisableFetchResultSet
             );
             this.rsMaxRows = preferenceStore.getInt(ModelPreferences.RESULT_SET_MAX_ROWS);
+            this.batchSize = preferenceStore.getInt(SQLPreferenceConstants.SCRIPT_BATCH_SIZE);
         }
     }
 
@@ -233,12 +244,35 @@ public class SQLQueryJob extends DataSourceJob
                 }
 
                 resultSetNumber = 0;
+                batchExecutedQueries.clear();
                 for (int queryNum = 0; queryNum < queries.size(); ) {
+                    if (batchExecutedQueries.get(queryNum)) {
+                        // Already executed in batch
+                        monitor.worked(1);
+                        queryNum++;
+                        continue;
+                    }
                     // Execute query
                     SQLScriptElement query = queries.get(queryNum);
 
                     fetchResultSetNumber = resultSetNumber;
-                    boolean runNext = executeSingleQuery(session, query, true);
+                    boolean runNext;
+                    int batchLength = getBatchLength(session, txnManager, queryNum);
+                    int failedQueryNum = batchLength > 1 ? executeBatch(session, queryNum, batchLength) : BATCH_NOT_EXECUTED;
+                    if (failedQueryNum == BATCH_NOT_EXECUTED) {
+                        runNext = executeSingleQuery(session, query, true);
+                    } else if (failedQueryNum < 0) {
+                        if (monitor.isCanceled()) {
+                            break;
+                        }
+                        continue;
+                    } else {
+                        // Process error as if the failed query was executed alone
+                        monitor.worked(failedQueryNum - queryNum);
+                        queryNum = failedQueryNum;
+                        query = queries.get(queryNum);
+                        runNext = errorHandling == SQLScriptErrorHandling.IGNORE;
+                    }
                     if (txnManager != null && txnManager.isSupportsTransactions()
                         && !oldAutoCommit && commitType != SQLScriptCommitType.AUTOCOMMIT
                         && query instanceof SQLQuery sqlQuery
@@ -578,6 +612,220 @@ public class SQLQueryJob extends DataSourceJob
         return true;
     }
 
+    /**
+     * Returns number of consecutive queries (starting from the specified one) which can be executed in a single batch.
+     * Only DML queries without parameters and results are batched.
+     * In auto-commit mode queries are batched only if errors are ignored: some drivers continue batch execution
+     * after a failed query, so following queries would be committed before the error is handled.
+     */
+    private int getBatchLength(@NotNull DBCSession session, @Nullable DBCTransactionManager txnManager, int queryNum) {
+        if (batchSize <= 1 ||
+            !batchSupported ||
+            queries.size() <= 1 ||
+            (errorHandling != SQLScriptErrorHandling.IGNORE && (txnManager == null || txnManager.isAutoCommit())) ||
+            !session.getDataSource().getInfo().supportsBatchUpdates() ||
+            !scriptContext.getPragmas().isEmpty() ||
+            (dataFilter != null && dataFilter.hasFilters()) ||
+            (!skipConfirmation && getDataSourceContainer().getConnectionConfiguration().getConnectionType().isConfirmExecute()))
+        {
+            return 0;
+        }
+        int length = 0;
+        while (length < batchSize &&
+            queryNum + length < queries.size() &&
+            !batchExecutedQueries.get(queryNum + length) &&
+            isBatchQuery(queries.get(queryNum + length)))
+        {
+            length++;
+        }
+        return length;
+    }
+
+    private static boolean isBatchQuery(@NotNull SQLScriptElement element) {
+        if (!(element instanceof SQLQuery query) || !CommonUtils.isEmpty(query.getParameters())) {
+            return false;
+        }
+        Statement statement = query.getStatement();
+        return (statement instanceof Insert || statement instanceof Update || statement instanceof Delete) &&
+            !RETURNING_PATTERN.matcher(query.getText()).find();
+    }
+
+    /**
+     * Executes several queries as a single statement batch.
+     * Successfully executed queries are marked in {@link #batchExecutedQueries}.
+     * Queries which failed after the first failed one are not marked, so they are executed again later
+     * (some drivers continue batch execution after errors).
+     * Listener is notified once per batch and once more for the first failed query.
+     *
+     * @return index of the first failed query, -1 if all queries were executed
+     *     or {@link #BATCH_NOT_EXECUTED} if the statement doesn't support batches of query texts
+     */
+    private int executeBatch(@NotNull DBCSession session, int queryNum, int length) {
+        final DBCExecutionContext executionContext = getExecutionContext();
+        final DBRProgressMonitor monitor = session.getProgressMonitor();
+        final SQLQuery firstQuery = (SQLQuery) queries.get(queryNum);
+        final BitSet failedQueries = new BitSet();
+        Throwable batchError = null;
+        lastError = null;
+
+        curResult = new SQLQueryResult(firstQuery);
+        boolean startQueryAlerted = false;
+        boolean changedToManualCommit = false;
+        long startTime = System.currentTimeMillis();
+
+        monitor.beginTask("Process query batch", 1);
+        try {
+            closeStatement();
+
+            if (!connectionInvalidated && getDataSourceContainer().getPreferenceStore().getBoolean(SQLPreferenceConstants.STATEMENT_INVALIDATE_BEFORE_EXECUTE)) {
+                executionContext.invalidateContext(monitor);
+                connectionInvalidated = true;
+            }
+
+            long[] updateCounts;
+            DBCStatement dbcStatement = DBUtils.createStatement(session, firstQuery.getText(), false);
+            curStatement = dbcStatement;
+            try {
+                try {
+                    for (int i = 0; i < length; i++) {
+                        dbcStatement.addToBatch(
+                            SQLUtils.makeUnifiedLineFeeds(session.getDataSource(), queries.get(queryNum + i).getText()));
+                    }
+                } catch (DBCFeatureNotSupportedException e) {
+                    // Execute queries one by one
+                    log.debug("Query batches are not supported: " + e.getMessage());
+                    batchSupported = false;
+                    return BATCH_NOT_EXECUTED;
+                }
+
+                statistics.setQueryText(firstQuery.getText());
+                if (listener != null) {
+                    try {
+                        listener.onStartQuery(session, firstQuery);
+                    } catch (Exception e) {
+                        log.error(e);
+                    }
+                    startQueryAlerted = true;
+                }
+
+                if (resultsConsumer instanceof ISmartTransactionManager stm && stm.isSmartAutoCommit()) {
+                    changedToManualCommit = DBExecUtils.checkSmartAutoCommit(session, firstQuery.getText());
+                }
+
+                monitor.subTask("Execute " + length + " queries");
+                startTime = System.currentTimeMillis();
+                AbstractExecutionSource source = new AbstractExecutionSource(dataContainer, executionContext, partSite.getPart(), firstQuery);
+                source.setScriptContext(scriptContext);
+                dbcStatement.setStatementSource(source);
+                int statementTimeout = getDataSourceContainer().getPreferenceStore().getInt(SQLPreferenceConstants.STATEMENT_TIMEOUT);
+                if (statementTimeout > 0) {
+                    try {
+                        dbcStatement.setStatementTimeout(statementTimeout);
+                    } catch (Throwable e) {
+                        log.debug("Can't set statement timeout:" + e.getMessage());
+                    }
+                }
+                try {
+                    updateCounts = dbcStatement.executeStatementBatch();
+                } catch (DBCException e) {
+                    batchError = e;
+                    BatchUpdateException batchUpdateError = findBatchUpdateError(e);
+                    updateCounts = batchUpdateError == null ? null : batchUpdateError.getLargeUpdateCounts();
+                    if (updateCounts == null) {
+                        updateCounts = new long[0];
+                    }
+                    // Driver either stops at the first failed query or continues and marks failed queries
+                    for (int i = 0; i < updateCounts.length && i < length; i++) {
+                        if (updateCounts[i] == java.sql.Statement.EXECUTE_FAILED) {
+                            failedQueries.set(i);
+                        }
+                    }
+                    if (updateCounts.length < length) {
+                        failedQueries.set(updateCounts.length);
+                    } else if (failedQueries.isEmpty()) {
+                        failedQueries.set(length - 1);
+                    }
+                }
+            } finally {
+                try {
+                    curResult.addWarnings(dbcStatement.getStatementWarnings());
+                } catch (Throwable e) {
+                    log.warn("Can't read execution warnings", e);
+                }
+                closeStatement();
+            }
+            statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+
+            long updateCount = 0;
+            for (int i = 0; i < length && i < updateCounts.length; i++) {
+                if (failedQueries.get(i)) {
+                    continue;
+                }
+                batchExecutedQueries.set(queryNum + i);
+                lastGoodQuery = (SQLQuery) queries.get(queryNum + i);
+                statistics.addStatementsCount();
+                if (updateCounts[i] >= 0) {
+                    updateCount += updateCounts[i];
+                }
+            }
+            statistics.addRowsUpdated(updateCount);
+            curResult.addExecuteResult(false).setUpdateCount(updateCount);
+        } catch (Throwable ex) {
+            if (!(ex instanceof DBException)) {
+                log.error("Unexpected error while processing SQL", ex);
+            }
+            batchError = ex;
+            failedQueries.clear();
+            failedQueries.set(0);
+        } finally {
+            curResult.setQueryTime(System.currentTimeMillis() - startTime);
+            if (batchError != null) {
+                lastError = batchError;
+                if (changedToManualCommit) {
+                    try {
+                        DBCTransactionManager transactionManager = DBUtils.getTransactionManager(executionContext);
+                        if (transactionManager != null) {
+                            transactionManager.setAutoCommit(monitor, true);
+                        }
+                    } catch (DBCException ex) {
+                        log.warn("Error returning to auto commit");
+                    }
+                }
+                if (failedQueries.get(0)) {
+                    curResult.setError(batchError);
+                }
+            }
+            if (listener != null && startQueryAlerted) {
+                notifyQueryExecutionEnd(session, curResult);
+                int failedIndex = failedQueries.nextSetBit(0);
+                if (failedIndex > 0) {
+                    // Report failed query separately, so error is shown at the right position
+                    SQLQuery failedQuery = (SQLQuery) queries.get(queryNum + failedIndex);
+                    SQLQueryResult failedResult = new SQLQueryResult(failedQuery);
+                    failedResult.setError(batchError);
+                    try {
+                        listener.onStartQuery(session, failedQuery);
+                    } catch (Exception e) {
+                        log.error(e);
+                    }
+                    notifyQueryExecutionEnd(session, failedResult);
+                }
+            }
+            monitor.done();
+        }
+        return failedQueries.isEmpty() ? -1 : queryNum + failedQueries.nextSetBit(0);
+    }
+
+    @Nullable
+    private static BatchUpdateException findBatchUpdateError(@NotNull Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            if (e instanceof BatchUpdateException batchUpdateError) {
+                return batchUpdateError;
+            }
+        }
+        return null;
+    }
+
     private boolean shouldRecoverQuery(SQLQuery query) {
         Statement statement = query.getStatement();
         if (statement instanceof Insert ||
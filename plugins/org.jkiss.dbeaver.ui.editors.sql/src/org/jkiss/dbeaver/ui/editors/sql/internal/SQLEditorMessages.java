@@ -257,6 +257,8 @@ public class SQLEditorMessages extends NLS {
     public static String pref_page_code_editor_label_advanced_highlighting_enabled_tip;
     public static String pref_page_code_editor_label_read_metadata_enabled;
     public static String pref_page_code_editor_label_read_metadata_enabled_tip;
+    public static String pref_page_code_editor_label_parallel_analysis_enabled;
+    public static String pref_page_code_editor_label_parallel_analysis_enabled_tip;
 
     public static String pref_page_sql_editor_checkbox_fetch_resultsets;
     public static String pref_page_sql_editor_text_statement_delimiter;
@@ -309,6 +311,8 @@ public class SQLEditorMessages extends NLS {
     public static String pref_page_sql_editor_label_commit_after_line;
     public static String pref_page_sql_editor_label_commit_type;
     public static String pref_page_sql_editor_label_error_handling;
+    public static String pref_page_sql_editor_label_batch_size;
+    public static String pref_page_sql_editor_label_batch_size_tip;
     public static String pref_page_sql_editor_label_invalidate_before_execute;
     public static String pref_page_sql_editor_label_sql_timeout;
     public static String pref_page_sql_editor_label_sound_on_query_end;
@@ -60,6 +60,7 @@ public class PrefPageSQLExecute extends TargetPrefPage
     private Combo commitTypeCombo;
     private Combo errorHandlingCombo;
     private Spinner commitLinesText;
+    private Spinner batchSizeText;
     private Button fetchResultSetsCheck;
     private Button resetCursorCheck;
     private Button maxEditorCheck;
@@ -97,6 +98,7 @@ public class PrefPageSQLExecute extends TargetPrefPage
             store.contains(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING) ||
             store.contains(SQLPreferenceConstants.SCRIPT_COMMIT_LINES) ||
             store.contains(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS) ||
+            store.contains(SQLPreferenceConstants.SCRIPT_BATCH_SIZE) ||
 
             store.contains(ModelPreferences.SCRIPT_STATEMENT_DELIMITER) ||
             store.contains(ModelPreferences.SCRIPT_IGNORE_NATIVE_DELIMITER) ||
@@ -216,6 +218,17 @@ public class PrefPageSQLExecute extends TargetPrefPage
                 errorHandlingCombo.add(SQLEditorMessages.pref_page_sql_editor_combo_item_ignore, SQLScriptErrorHandling.IGNORE.ordinal());
             }
 
+            {
+                UIUtils.createControlLabel(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_label_batch_size);
+                batchSizeText = new Spinner(scriptsGroup, SWT.BORDER);
+                batchSizeText.setSelection(0);
+                batchSizeText.setDigits(0);
+                batchSizeText.setIncrement(1);
+                batchSizeText.setMinimum(0);
+                batchSizeText.setMaximum(100000);
+                batchSizeText.setToolTipText(SQLEditorMessages.pref_page_sql_editor_label_batch_size_tip);
+            }
+
             fetchResultSetsCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_fetch_resultsets, null, false, 2);
             resetCursorCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_reset_cursor, null, false, 2);
             maxEditorCheck = UIUtils.createCheckbox(scriptsGroup, SQLEditorMessages.pref_page_sql_editor_checkbox_max_editor_on_script_exec, null, false, 2);
@@ -317,6 +330,7 @@ public class PrefPageSQLExecute extends TargetPrefPage
             store.setValue(SQLPreferenceConstants.SCRIPT_COMMIT_LINES, commitLinesText.getSelection());
             store.setValue(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING, CommonUtils.fromOrdinal(SQLScriptErrorHandling.class, errorHandlingCombo.getSelectionIndex()).name());
             store.setValue(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS, fetchResultSetsCheck.getSelection());
+            store.setValue(SQLPreferenceConstants.SCRIPT_BATCH_SIZE, batchSizeText.getSelection());
             store.setValue(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE, resetCursorCheck.getSelection());
             store.setValue(SQLPreferenceConstants.MAXIMIZE_EDITOR_ON_SCRIPT_EXECUTE, maxEditorCheck.getSelection());
             store.setValue(
@@ -362,6 +376,7 @@ public class PrefPageSQLExecute extends TargetPrefPage
         store.setToDefault(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING);
         store.setToDefault(SQLPreferenceConstants.SCRIPT_COMMIT_LINES);
         store.setToDefault(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS);
+        store.setToDefault(SQLPreferenceConstants.SCRIPT_BATCH_SIZE);
 
         store.setToDefault(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE);
         store.setToDefault(SQLPreferenceConstants.MAXIMIZE_EDITOR_ON_SCRIPT_EXECUTE);
@@ -447,6 +462,11 @@ public class PrefPageSQLExecute extends TargetPrefPage
                     ? store.getDefaultBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS)
                     : store.getBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS)
             );
+            batchSizeText.setSelection(
+                useDefaults
+                    ? store.getDefaultInt(SQLPreferenceConstants.SCRIPT_BATCH_SIZE)
+                    : store.getInt(SQLPreferenceConstants.SCRIPT_BATCH_SIZE)
+            );
             resetCursorCheck.setSelection(
                 useDefaults
                     ? store.getDefaultBoolean(SQLPreferenceConstants.RESET_CURSOR_ON_EXECUTE)
@@ -28,8 +28,14 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzer;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerParameters;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.LSMDialectRegistry;
 import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
 import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.INavigatorListener;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.RunnableWithResult;
@@ -46,9 +52,12 @@ import org.jkiss.dbeaver.model.sql.semantics.context.SQLQueryDataContext;
 import org.jkiss.dbeaver.model.sql.semantics.model.SQLQueryModel;
 import org.jkiss.dbeaver.model.sql.semantics.model.SQLQueryNodeModel;
 import org.jkiss.dbeaver.model.stm.LSMInspections;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
 import org.jkiss.dbeaver.model.stm.STMTreeNode;
 import org.jkiss.dbeaver.model.stm.STMTreeTermNode;
 import org.jkiss.dbeaver.model.stm.STMUtils;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.editors.EditorUtils;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorBase;
@@ -57,10 +66,12 @@ import org.jkiss.dbeaver.utils.ListNode;
 import org.jkiss.utils.Pair;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
 public class SQLBackgroundParsingJob {
@@ -69,7 +80,26 @@ public class SQLBackgroundParsingJob {
     private static final boolean DEBUG = false;
 
     private static final long schedulingTimeoutMilliseconds = 500;
+
+    private static final int maxAnalysisWorkers = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final AtomicBoolean analyzerWarmUpScheduled = new AtomicBoolean(false);
+    private static final String[] analyzerWarmUpQueries = {
+        "SELECT a.id, b.name, COUNT(*) FROM t1 a JOIN t2 b ON a.id = b.id WHERE a.x > 1 AND b.y LIKE 'a%' GROUP BY a.id, b.name ORDER BY 1",
+        "WITH c AS (SELECT id FROM t1 UNION ALL SELECT id FROM t2) SELECT * FROM c WHERE id IN (SELECT id FROM t3)",
+        "INSERT INTO t1 (id, name) VALUES (1, 'a')",
+        "UPDATE t1 SET name = 'b' WHERE id = (SELECT MAX(id) FROM t2)",
+        "DELETE FROM t1 WHERE id BETWEEN 1 AND 10",
+        "CREATE TABLE t1 (id INTEGER NOT NULL PRIMARY KEY, name VARCHAR(100))",
+    };
     
+    private record RecognizedScriptElement(
+        @NotNull SQLScriptElement element,
+        @NotNull SQLQueryModel queryModel,
+        @NotNull List<SQLQueryRecognitionProblemInfo> problems
+    ) {
+    }
+
     private static class QueuedRegionInfo {
         public int length;
         
@@ -107,14 +137,18 @@ public class SQLBackgroundParsingJob {
     private volatile boolean isRunning = false;
     private volatile int knownRegionStart = 0;
     private volatile int knownRegionEnd = 0;
+    private boolean metadataChanged = false;
 
     private static final Pattern anyWordPattern = Pattern.compile("^\\w+$");
 
     @NotNull
     private final DocumentLifecycleListener documentListener = new DocumentLifecycleListener();
+    @NotNull
+    private final MetadataChangesListener metadataListener = new MetadataChangesListener();
 
     public SQLBackgroundParsingJob(@NotNull SQLEditorBase editor) {
         this.editor = editor;
+        DBWorkbench.getPlatform().getNavigatorModel().addListener(this.metadataListener);
     }
 
     @NotNull
@@ -138,14 +172,49 @@ public class SQLBackgroundParsingJob {
                     }
                 }
                 this.reset();
+                this.scheduleAnalyzerWarmUp();
             }
         }
     }
 
+    /**
+     * Parse a few typical queries in background once, so the first analysis in the editor
+     * doesn't pay for parser DFA caches population
+     */
+    private void scheduleAnalyzerWarmUp() {
+        if (!analyzerWarmUpScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        SQLDialect dialect = this.editor.getSQLDialect();
+        SQLSyntaxManager syntaxManager = this.editor.getSyntaxManager();
+        AbstractJob warmUpJob = new AbstractJob("Warm up SQL analyzer") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                try {
+                    LSMAnalyzer analyzer = LSMDialectRegistry.getInstance().getAnalyzerFactoryForDialect(dialect)
+                        .createAnalyzer(LSMAnalyzerParameters.forDialect(dialect, syntaxManager));
+                    for (String query : analyzerWarmUpQueries) {
+                        if (monitor.isCanceled()) {
+                            break;
+                        }
+                        analyzer.parseSqlQueryTree(STMSource.fromString(query), new STMSkippingErrorListener());
+                    }
+                } catch (Throwable e) {
+                    log.debug("Error warming up SQL analyzer", e);
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        warmUpJob.setUser(false);
+        warmUpJob.setSystem(true);
+        warmUpJob.schedule();
+    }
+
     /**
      * Dispose job - cancel schedule and remove listeners.
      */
     public void dispose() {
+        DBWorkbench.getPlatform().getNavigatorModel().removeListener(this.metadataListener);
         synchronized (this.syncRoot) {
             this.cancel();
             TextViewer textViewer = this.editor.getTextViewer();
@@ -325,43 +394,40 @@ public class SQLBackgroundParsingJob {
 
         // TODO if these further actions are heavy, maybe use background thread for them too
         synchronized (this.syncRoot) {
+            int modifiedStart = event.getOffset();
+            int modifiedEnd = modifiedStart + event.getLength();
             int delta = insertedLength - event.getLength();
-            if (delta > 0) { // just expand the region to reparse
-                this.queuedForReparse.applyOffset(event.getOffset(), delta);
-                if (DEBUG) {
-                    log.debug("beforeDocumentModification, delta > 0: queuedForReparse count is " + queuedForReparse);
-                }
-                this.enqueueToReparse(reparseStart, reparseLength);
-            } else {
-                // TODO remove just the affected fragment and enqueue regionToReparse
-                
-                // for now removing the whole tail as its offsets are being invalidated
-                ListNode<Integer> keyOffsetsToRemove = null;
-                NodesIterator<QueuedRegionInfo> it = this.queuedForReparse.nodesIteratorAt(reparseStart);
-                int firstAffectedReparseOffset;
-                if (it.getCurrValue() != null || it.prev()) {
-                    firstAffectedReparseOffset = it.getCurrOffset();
-                    if (firstAffectedReparseOffset < reparseStart &&
-                        firstAffectedReparseOffset + it.getCurrValue().length > reparseStart + insertedLength
-                    ) {
-                        return; // modified region is a subrange of already queued for reparse 
-                    }
-                    keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, firstAffectedReparseOffset);
-                }
-                while (it.next()) {
-                    keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, it.getCurrOffset());
-                }
-                for (ListNode<Integer> kn = keyOffsetsToRemove; kn != null; kn = kn.next) {
-                    if (DEBUG) {
-                        log.debug("remove " + kn.data + "+" + this.queuedForReparse.find(kn.data).length);
+
+            // queued regions intersecting with the modified fragment are merged into the region to reparse, the rest are shifted
+            int reparseEnd = reparseStart + reparseLength;
+            ListNode<Integer> keyOffsetsToRemove = null;
+            NodesIterator<QueuedRegionInfo> it = this.queuedForReparse.nodesIteratorAt(modifiedStart);
+            if (it.getCurrValue() != null || it.prev() || it.next()) {
+                do {
+                    QueuedRegionInfo region = it.getCurrValue();
+                    int regionStart = it.getCurrOffset();
+                    if (region == null || regionStart > modifiedEnd) {
+                        break;
                     }
-                    this.queuedForReparse.removeAt(kn.data);
-                    if (DEBUG) {
-                        log.debug("beforeDocumentModification, delta <= 0: queuedForReparse count is " + queuedForReparse.size());
+                    int regionEnd = regionStart + region.length;
+                    if (regionEnd >= modifiedStart) {
+                        keyOffsetsToRemove = ListNode.push(keyOffsetsToRemove, regionStart);
+                        reparseStart = Math.min(reparseStart, Math.min(regionStart, modifiedStart));
+                        reparseEnd = Math.max(reparseEnd, regionEnd >= modifiedEnd ? regionEnd + delta : modifiedStart + insertedLength);
                     }
+                } while (it.next());
+            }
+            for (ListNode<Integer> kn = keyOffsetsToRemove; kn != null; kn = kn.next) {
+                if (DEBUG) {
+                    log.debug("remove " + kn.data + "+" + this.queuedForReparse.find(kn.data).length);
                 }
-                this.enqueueToReparse(reparseStart, Integer.MAX_VALUE);
+                this.queuedForReparse.removeAt(kn.data);
+            }
+            this.queuedForReparse.applyOffset(modifiedEnd, delta);
+            if (DEBUG) {
+                log.debug("beforeDocumentModification: queuedForReparse count is " + queuedForReparse.size());
             }
+            this.enqueueToReparse(reparseStart, reparseEnd - reparseStart);
             this.resetLastParsingFinishTime();
         }
     }
@@ -388,6 +454,21 @@ public class SQLBackgroundParsingJob {
         }
     }
 
+    /**
+     * Enqueue already recognized script items for analysis, because database objects they refer to could be changed
+     */
+    private void onMetadataChanged() {
+        synchronized (this.syncRoot) {
+            if (this.metadataChanged || this.knownRegionEnd <= this.knownRegionStart) {
+                return;
+            }
+            this.metadataChanged = true;
+            this.context.markAllScriptItemsDirty();
+            this.enqueueToReparse(this.knownRegionStart, this.knownRegionEnd - this.knownRegionStart);
+            this.schedule(null);
+        }
+    }
+
     private void resetLastParsingFinishTime() {
         synchronized (this.syncRoot) {
             if (this.lastParsingFinishStamp.isDone()) {
@@ -503,8 +584,7 @@ public class SQLBackgroundParsingJob {
                     log.debug("queued ranges total: " + this.queuedForReparse.size());
                 }
                 
-                // TODO reparse only changed elements
-                // for now just cover the region of interest
+                // cover all the queued regions, script elements not affected by modifications will be skipped during analysis
                 {
                     NodesIterator<QueuedRegionInfo> it = this.queuedForReparse.nodesIteratorAt(0);
                     workOffset = (it.getCurrValue() != null || it.next()) ? it.getCurrOffset() : 0;
@@ -538,6 +618,7 @@ public class SQLBackgroundParsingJob {
                 }
                 
                 this.queuedForReparse.clear();
+                this.metadataChanged = false;
                 if (DEBUG) {
                     log.debug("doWork: queuedForReparse count is " + queuedForReparse.size());
                 }
@@ -629,52 +710,56 @@ public class SQLBackgroundParsingJob {
                 ? executionContext.getDataSource().getSQLDialect()
                 : dsContainer != null ? dsContainer.getScriptDialect().createInstance() : BasicSQLDialect.INSTANCE;
 
-            SQLQueryRecognitionContext recognitionContext = new SQLQueryRecognitionContext(monitor, executionContext, useRealMetadata, syntaxManager, dialect);
-
-            int i = 1;
+            List<SQLScriptElement> elementsToAnalyze = new ArrayList<>(elements.size());
             for (SQLScriptElement element : elements) {
-                if (monitor.isCanceled()) {
-                    break;
+                if (this.context.hasActualScriptItem(element.getOffset(), element.getLength(), element.getOriginalText())) {
+                    // element was not damaged by the text modifications, so its model is still valid
+                    monitor.worked(1);
+                } else {
+                    elementsToAnalyze.add(element);
                 }
+            }
+
+            SQLQueryMetadataResolutionCache metadataCache = new SQLQueryMetadataResolutionCache();
+            SQLQueryParallelRecognizer.Recognizer<SQLScriptElement, RecognizedScriptElement> recognizer = (taskMonitor, element) -> {
+                if (taskMonitor.isCanceled()) {
+                    return null;
+                }
+                SQLQueryRecognitionContext recognitionContext = new SQLQueryRecognitionContext(
+                    taskMonitor, executionContext, useRealMetadata, syntaxManager, dialect, metadataCache
+                );
                 try {
-                    recognitionContext.reset();
                     SQLQueryModel queryModel = SQLQueryModelRecognizer.recognizeQuery(recognitionContext, element.getOriginalText());
-
-                    if (queryModel != null) {
-                        if (DEBUG) {
-                            log.debug("registering script item @" + element.getOffset() + "+" + element.getLength());
-                        }
-                        SQLDocumentScriptItemSyntaxContext itemContext = this.context.registerScriptItemContext(
-                            element.getOriginalText(),
-                            queryModel,
-                            element.getOffset(),
-                            element.getLength(),
-                            element instanceof SQLQuery queryElement && Boolean.TRUE.equals(queryElement.isEndsWithDelimiter())
-                        );
-                        itemContext.clear();
-                        List<SQLQueryRecognitionProblemInfo> problems = recognitionContext.getProblems();
-                        if (problems.size() >= SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT && queryModel.getQueryModel() != null) {
-                            problems.add(new SQLQueryRecognitionProblemInfo(
-                                SQLQueryRecognitionProblemInfo.Severity.WARNING,
-                                queryModel.getSyntaxNode(),
-                                null,
-                                "Too many errors found in one query of " + this.editor.getTitle() + "!"+
-                                    " Displaying first " + SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT + " of them.",
-                                null
-                            ));
-                        }
-                        itemContext.setProblems(problems);
-                        for (SQLQuerySymbolEntry entry : queryModel.getAllSymbols()) {
-                            itemContext.registerToken(entry.getInterval().a, entry);
-                        }
-                        itemContext.refreshCompleted();
-                    }
+                    return queryModel == null ? null : new RecognizedScriptElement(element, queryModel, recognitionContext.getProblems());
                 } catch (Throwable ex) {
                     log.debug("Error while analyzing query text: " + element.getOriginalText(), ex);
+                    return null;
+                }
+            };
+
+            if (this.editor.isParallelQueryAnalysisEnabled() && elementsToAnalyze.size() > 1) {
+                // elements are independent, so recognize them all at once and merge the results in the original order
+                SQLQueryParallelRecognizer.recognize(
+                    monitor,
+                    "Background query analysis for " + editor.getTitle(),
+                    elementsToAnalyze,
+                    maxAnalysisWorkers,
+                    recognizer,
+                    (i, recognized) -> {
+                        this.registerRecognizedElement(recognized);
+                        monitor.worked(1);
+                        monitor.subTask("Background query analysis: subtask #" + (i + 1) + " of " + elementsToAnalyze.size());
+                    }
+                );
+            } else {
+                for (int i = 0; i < elementsToAnalyze.size(); i++) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    this.registerRecognizedElement(recognizer.recognize(monitor, elementsToAnalyze.get(i)));
+                    monitor.worked(1);
+                    monitor.subTask("Background query analysis: subtask #" + (i + 1) + " of " + elementsToAnalyze.size());
                 }
-                monitor.worked(1);
-                monitor.subTask("Background query analysis: subtask #" + i + " of " + elements.size());
-                i++;
             }
             this.context.resetLastAccessCache();
         } catch (Throwable ex) {
@@ -693,6 +778,41 @@ public class SQLBackgroundParsingJob {
         });
     }
 
+    private void registerRecognizedElement(@Nullable RecognizedScriptElement recognized) {
+        if (recognized == null) {
+            return;
+        }
+        SQLScriptElement element = recognized.element();
+        SQLQueryModel queryModel = recognized.queryModel();
+        if (DEBUG) {
+            log.debug("registering script item @" + element.getOffset() + "+" + element.getLength());
+        }
+        SQLDocumentScriptItemSyntaxContext itemContext = this.context.registerScriptItemContext(
+            element.getOriginalText(),
+            queryModel,
+            element.getOffset(),
+            element.getLength(),
+            element instanceof SQLQuery queryElement && Boolean.TRUE.equals(queryElement.isEndsWithDelimiter())
+        );
+        itemContext.clear();
+        List<SQLQueryRecognitionProblemInfo> problems = recognized.problems();
+        if (problems.size() >= SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT && queryModel.getQueryModel() != null) {
+            problems.add(new SQLQueryRecognitionProblemInfo(
+                SQLQueryRecognitionProblemInfo.Severity.WARNING,
+                queryModel.getSyntaxNode(),
+                null,
+                "Too many errors found in one query of " + this.editor.getTitle() + "!"+
+                    " Displaying first " + SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT + " of them.",
+                null
+            ));
+        }
+        itemContext.setProblems(problems);
+        for (SQLQuerySymbolEntry entry : queryModel.getAllSymbols()) {
+            itemContext.registerToken(entry.getInterval().a, entry);
+        }
+        itemContext.refreshCompleted();
+    }
+
     private void accomplishWork(int parsedOffset, int parsedLength) {
         synchronized (this.syncRoot) {
             this.knownRegionStart = Math.min(this.knownRegionStart, parsedOffset);
@@ -738,4 +858,21 @@ public class SQLBackgroundParsingJob {
             SQLBackgroundParsingJob.this.ensureVisibleRangeIsParsed();
         }
     }
+
+    private class MetadataChangesListener implements INavigatorListener {
+
+        @Override
+        public void nodeChanged(DBNEvent event) {
+            boolean isMetadataChange = switch (event.getAction()) {
+                case ADD, REMOVE -> true;
+                case UPDATE -> event.getNodeChange() == DBNEvent.NodeChange.REFRESH ||
+                    event.getNodeChange() == DBNEvent.NodeChange.STRUCT_REFRESH;
+            };
+            if (isMetadataChange && event.getNode() instanceof DBNDatabaseNode node &&
+                node.getDataSourceContainer() == EditorUtils.getInputDataSource(editor.getEditorInput())
+            ) {
+                SQLBackgroundParsingJob.this.onMetadataChanged();
+            }
+        }
+    }
 }
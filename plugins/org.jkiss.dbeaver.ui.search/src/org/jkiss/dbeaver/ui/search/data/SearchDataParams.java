@@ -27,6 +27,8 @@ import java.util.List;
  */
 public class SearchDataParams {
 
+    public static final int DEFAULT_PARALLELISM = 4;
+
     List<DBSDataContainer> sources = new ArrayList<>();
     String searchString;
     boolean caseSensitive;
@@ -35,6 +37,7 @@ public class SearchDataParams {
     boolean searchLOBs;
     boolean searchForeignObjects;
     int maxResults;
+    int parallelism = DEFAULT_PARALLELISM;
     List<DBNNode> selectedNodes = new ArrayList<>();
 
     public SearchDataParams()
@@ -105,6 +108,17 @@ public class SearchDataParams {
         this.maxResults = maxResults;
     }
 
+    /**
+     * Maximum number of tables searched simultaneously in each data source
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     public List<DBNNode> getSelectedNodes() {
         return selectedNodes;
     }
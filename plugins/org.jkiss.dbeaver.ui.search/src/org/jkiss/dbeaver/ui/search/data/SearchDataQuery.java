@@ -24,6 +24,7 @@ import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IEditorReference;
+import org.eclipse.ui.IWorkbenchWindow;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
@@ -36,12 +37,14 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.IResultSetController;
@@ -54,14 +57,26 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
+import java.sql.Types;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SearchDataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchDataQuery.class);
 
+    private static final long POLL_TIMEOUT_MS = 100;
+    // Plain character types. Other string types may be compressed or have special format, so their length can't be checked.
+    private static final Set<String> CHARACTER_TYPE_NAMES = Set.of(
+        "CHAR", "VARCHAR", "NCHAR", "NVARCHAR", "VARCHAR2", "NVARCHAR2", "CHARACTER", "CHARACTER VARYING", "BPCHAR");
+
     private final SearchDataParams params;
     private SearchDataResult searchResult;
+    private final Map<DBSDataContainer, DBDDataFilter> editorFilters = new IdentityHashMap<>();
+    private final AtomicInteger searchedTables = new AtomicInteger();
+    private final AtomicInteger foundObjects = new AtomicInteger();
+    private volatile boolean canceled;
 
     private SearchDataQuery(SearchDataParams params)
     {
@@ -97,10 +112,10 @@ public class SearchDataQuery implements ISearchQuery {
         try {
             String searchString = params.getSearchString();
 
-            //monitor.subTask("Collect tables");
-            Set<DBPDataSource> dataSources = new HashSet<>();
+            // Tables of each data source are searched by separate set of jobs
+            Map<DBPDataSource, Queue<DBSDataContainer>> dataSourceTables = new LinkedHashMap<>();
             for (DBSDataContainer searcher : params.sources) {
-                dataSources.add(searcher.getDataSource());
+                dataSourceTables.computeIfAbsent(searcher.getDataSource(), ds -> new ConcurrentLinkedQueue<>()).add(searcher);
             }
 
             // Search
@@ -108,26 +123,49 @@ public class SearchDataQuery implements ISearchQuery {
 
             DBRProgressMonitor monitor = new DefaultProgressMonitor(m);
 
-            int totalObjects = 0;
+            canceled = false;
+            searchedTables.set(0);
+            foundObjects.set(0);
+            UIUtils.syncExec(this::collectEditorFilters);
 
             monitor.beginTask(
-                "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
+                "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSourceTables.size() + " database(s)",
                 params.sources.size());
+            List<SearchJob> jobs = new ArrayList<>();
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
-                    if (monitor.isCanceled()) {
-                        break;
+                for (Map.Entry<DBPDataSource, Queue<DBSDataContainer>> entry : dataSourceTables.entrySet()) {
+                    boolean isolatedContexts = params.getParallelism() > 1 && !entry.getKey().getContainer().getDriver().isEmbedded();
+                    int jobCount = isolatedContexts ? Math.min(params.getParallelism(), entry.getValue().size()) : 1;
+                    for (int i = 0; i < jobCount; i++) {
+                        SearchJob job = new SearchJob(entry.getKey(), dbnModel, entry.getValue(), isolatedContexts);
+                        jobs.add(job);
+                        job.schedule();
+                    }
+                }
+                int reportedTables = 0;
+                while (!jobs.stream().allMatch(SearchJob::isFinished)) {
+                    if (monitor.isCanceled() && !canceled) {
+                        canceled = true;
+                        // Cancel running queries
+                        jobs.forEach(SearchJob::cancel);
                     }
-                    if (searchDataInContainer(monitor, dbnModel, dataContainer)) {
-                        totalObjects++;
+                    int tables = searchedTables.get();
+                    if (tables > reportedTables) {
+                        monitor.subTask("Searched " + tables + " of " + params.sources.size() + " table(s)");
+                        monitor.worked(tables - reportedTables);
+                        reportedTables = tables;
                     }
-                    monitor.worked(1);
+                    Thread.sleep(POLL_TIMEOUT_MS);
                 }
             } finally {
+                canceled = true;
+                for (SearchJob job : jobs) {
+                    job.join();
+                }
                 monitor.done();
             }
 
-            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects));
+            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, foundObjects.get()));
 
             return Status.OK_STATUS;
         } catch (Exception e) {
@@ -135,7 +173,12 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
-    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer) {
+    private boolean searchDataInContainer(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBNModel dbnModel,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBCExecutionContext executionContext
+    ) {
         if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
             return false;
         }
@@ -146,10 +189,12 @@ public class SearchDataQuery implements ISearchQuery {
             log.warn("Can't find tree node for object \"" + objectName + "\"");
             return false;
         }
-        monitor.subTask("Search in '" + objectName + "'");
         log.debug("Search in '" + objectName + "'");
         SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor);
-        try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName)) {
+        try (DBCSession session = executionContext == null ?
+            DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName) :
+            executionContext.openSession(searchMonitor, DBCExecutionPurpose.UTIL, "Search rows in " + objectName))
+        {
             TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
             try {
                 findRows(session, dataContainer, dataReceiver);
@@ -161,7 +206,9 @@ public class SearchDataQuery implements ISearchQuery {
 
             if (dataReceiver.rowCount > 0) {
                 SearchDataObject object = new SearchDataObject(node, dataReceiver.rowCount, dataReceiver.filter);
-                searchResult.addObjects(Collections.singletonList(object));
+                synchronized (searchResult) {
+                    searchResult.addObjects(Collections.singletonList(object));
+                }
                 return true;
             }
         } catch (DBCException e) {
@@ -227,6 +274,9 @@ public class SearchDataQuery implements ISearchQuery {
                                 }
                             }
                         }
+                        if (!isIntegerValueMatches(attribute, (Number) value)) {
+                            continue;
+                        }
                         break;
                     case CONTENT:
                     case BINARY:
@@ -234,10 +284,14 @@ public class SearchDataQuery implements ISearchQuery {
                             continue;
                         }
                     case STRING:
-                        // Do not check value length. Some columns may be compressed/compacted/have special data type and thus have length < than value length.
-//                        if (attribute.getMaxLength() > 0 && attribute.getMaxLength() < params.searchString.length()) {
-//                            continue;
-//                        }
+                        // Check value length for plain character types only.
+                        // Other columns may be compressed/compacted/have special data type and thus have length < than value length.
+                        if (attribute.getDataKind() == DBPDataKind.STRING && attribute.getMaxLength() > 0 &&
+                            attribute.getMaxLength() < params.searchString.length() &&
+                            CHARACTER_TYPE_NAMES.contains(attribute.getTypeName().toUpperCase(Locale.ENGLISH)))
+                        {
+                            continue;
+                        }
 
                         if (!params.isCaseSensitive() && ArrayUtils.contains(supportedOperators, DBCLogicalOperator.ILIKE)) {
                             operator = DBCLogicalOperator.ILIKE;
@@ -295,35 +349,88 @@ public class SearchDataQuery implements ISearchQuery {
             }
             dataReceiver.filter.setAnyConstraint(true);
             DBCExecutionSource searchSource = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), this);
-            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, -1, -1, 0, 0);
+            // Do not read more rows than needed
+            long maxRows = params.maxResults > 0 ? params.maxResults : -1;
+            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, 0, maxRows, 0, 0);
         } catch (DBException e) {
             throw new DBCException("Error finding rows", e);
         }
     }
 
+    /**
+     * Checks that number may be stored in integer column
+     */
+    private static boolean isIntegerValueMatches(@NotNull DBSEntityAttribute attribute, @NotNull Number value) {
+        long minValue, maxValue;
+        switch (attribute.getTypeID()) {
+            case Types.TINYINT:
+                // May be signed or unsigned
+                minValue = Byte.MIN_VALUE;
+                maxValue = 255;
+                break;
+            case Types.SMALLINT:
+                minValue = Short.MIN_VALUE;
+                maxValue = 65535;
+                break;
+            case Types.INTEGER:
+                minValue = Integer.MIN_VALUE;
+                maxValue = 4294967295L;
+                break;
+            case Types.BIGINT:
+                minValue = Long.MIN_VALUE;
+                maxValue = Long.MAX_VALUE;
+                break;
+            default:
+                return true;
+        }
+        if (value instanceof Integer || value instanceof Long) {
+            return value.longValue() >= minValue && value.longValue() <= maxValue;
+        }
+        if ((value instanceof Double || value instanceof Float) && !Double.isFinite(value.doubleValue())) {
+            // NaN and infinity can't be stored in integer column
+            return false;
+        }
+        // Fractional or too big value
+        try {
+            BigDecimal decimal = value instanceof BigDecimal bd ? bd : new BigDecimal(value.toString());
+            long longValue = decimal.longValueExact();
+            return longValue >= minValue && longValue <= maxValue;
+        } catch (ArithmeticException | NumberFormatException e) {
+            return false;
+        }
+    }
+
     static SearchDataQuery createQuery(SearchDataParams params) throws DBException {
         return new SearchDataQuery(params);
     }
 
-    @Nullable
-    private DBDDataFilter searchDataFilterForContainer(@NotNull DBSDataContainer dataContainer, @NotNull DBRProgressMonitor monitor) {
-        DBDDataFilter dataFilter = null;
-        // First let's search in open editors
-        for (IEditorReference er : UIUtils.getActiveWorkbenchWindow().getActivePage().getEditorReferences()) {
+    /**
+     * Collects data filters of open editors. Must be called in UI thread.
+     */
+    private void collectEditorFilters() {
+        editorFilters.clear();
+        IWorkbenchWindow window = UIUtils.getActiveWorkbenchWindow();
+        if (window == null || window.getActivePage() == null) {
+            return;
+        }
+        for (IEditorReference er : window.getActivePage().getEditorReferences()) {
             IEditorPart editor = er.getEditor(false);
             if (editor instanceof EntityEditor) {
                 IEditorPart pageEditor = ((EntityEditor) editor).getPageEditor(DatabaseDataEditor.class.getName());
                 if (pageEditor != null) {
                     IResultSetController rsc = pageEditor.getAdapter(IResultSetController.class);
-                    if (rsc != null) {
-                        DBSDataContainer rscDataContainer = rsc.getDataContainer();
-                        if (rscDataContainer == dataContainer) {
-                            dataFilter = rsc.getDataFilter();
-                        }
+                    if (rsc != null && rsc.getDataContainer() != null) {
+                        editorFilters.put(rsc.getDataContainer(), rsc.getDataFilter());
                     }
                 }
             }
         }
+    }
+
+    @Nullable
+    private DBDDataFilter searchDataFilterForContainer(@NotNull DBSDataContainer dataContainer, @NotNull DBRProgressMonitor monitor) {
+        // First let's search in open editors
+        DBDDataFilter dataFilter = editorFilters.get(dataContainer);
         if (dataFilter == null) {
             // Now we try to find saved data filters for container
             dataFilter = ResultSetUtils.restoreDataFilter(dataContainer, monitor);
@@ -342,7 +449,92 @@ public class SearchDataQuery implements ISearchQuery {
 
         @Override
         public boolean isCanceled() {
-            return canceled || baseMonitor.isCanceled();
+            return canceled || SearchDataQuery.this.canceled || baseMonitor.isCanceled();
+        }
+    }
+
+    /**
+     * Searches tables of a single data source. Several jobs may share the same queue of tables,
+     * each of them uses its own execution contexts then.
+     */
+    private class SearchJob extends AbstractJob {
+        private final DBNModel dbnModel;
+        private final Queue<DBSDataContainer> tables;
+        private final boolean isolatedContexts;
+        private final Map<DBSInstance, DBCExecutionContext> contexts = new IdentityHashMap<>();
+        private volatile boolean finished;
+
+        SearchJob(@NotNull DBPDataSource dataSource, @NotNull DBNModel dbnModel, @NotNull Queue<DBSDataContainer> tables, boolean isolatedContexts) {
+            super("Search data in " + dataSource.getContainer().getName());
+            this.dbnModel = dbnModel;
+            this.tables = tables;
+            this.isolatedContexts = isolatedContexts;
+            setUser(false);
+            setSystem(true);
+        }
+
+        boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                for (DBSDataContainer dataContainer = tables.poll(); dataContainer != null; dataContainer = tables.poll()) {
+                    if (canceled || monitor.isCanceled()) {
+                        break;
+                    }
+                    try {
+                        if (searchDataInContainer(monitor, dbnModel, dataContainer, getExecutionContext(monitor, dataContainer))) {
+                            foundObjects.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        log.error("Error searching data in container", e);
+                    }
+                    searchedTables.incrementAndGet();
+                }
+            } finally {
+                for (DBCExecutionContext context : contexts.values()) {
+                    if (context != null) {
+                        context.close();
+                    }
+                }
+                contexts.clear();
+                finished = true;
+            }
+            return Status.OK_STATUS;
+        }
+
+        @Override
+        protected void canceling() {
+            canceled = true;
+            super.canceling();
+        }
+
+        /**
+         * Returns isolated context of the container instance.
+         * If it can't be opened then null is returned and default context is used.
+         * Failure is remembered, so the context isn't opened again for each table.
+         */
+        @Nullable
+        private DBCExecutionContext getExecutionContext(@NotNull DBRProgressMonitor monitor, @NotNull DBSDataContainer dataContainer) {
+            if (!isolatedContexts) {
+                return null;
+            }
+            DBSInstance instance = DBUtils.getObjectOwnerInstance(dataContainer);
+            if (instance == null) {
+                return null;
+            }
+            if (!contexts.containsKey(instance)) {
+                DBCExecutionContext context = null;
+                try {
+                    context = instance.openIsolatedContext(monitor, "Data search", DBUtils.getDefaultContext(dataContainer, false));
+                } catch (DBException e) {
+                    log.debug("Error opening data search context, default context will be used", e);
+                }
+                contexts.put(instance, context);
+            }
+            return contexts.get(instance);
         }
     }
 
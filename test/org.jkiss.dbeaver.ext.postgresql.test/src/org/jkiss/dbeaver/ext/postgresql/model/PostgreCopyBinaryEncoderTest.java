@@ -0,0 +1,167 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+public class PostgreCopyBinaryEncoderTest {
+
+    @Test
+    public void testNumericEncoding() throws IOException {
+        // 12345.6789 = [1, 2345, 6789], weight 1
+        assertNumeric(new BigDecimal("12345.6789"), 1, 0x0000, 4, 1, 2345, 6789);
+        // -0.0001 = [1], weight -1
+        assertNumeric(new BigDecimal("-0.0001"), -1, 0x4000, 4, 1);
+        // 100000000 = [1], trailing zero digits are omitted
+        assertNumeric(new BigDecimal("100000000"), 2, 0x0000, 0, 1);
+        // 1E+5 has negative scale
+        assertNumeric(new BigDecimal("1E+5"), 1, 0x0000, 0, 10);
+        assertNumeric(new BigDecimal("0.00"), 0, 0x0000, 2);
+        assertNumeric(new BigDecimal("123456789012345678901234567890.5"), 7, 0x0000, 1, 12, 3456, 7890, 1234, 5678, 9012, 3456, 7890, 5000);
+    }
+
+    @Test
+    public void testRowEncoding() throws IOException, DBCException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PostgreCopyBinaryEncoder encoder = new PostgreCopyBinaryEncoder(buffer);
+        encoder.writeHeader();
+        encoder.startRow(5);
+        encoder.writeValue(PostgreCopyBinaryEncoder.FieldType.INT4, 42L);
+        encoder.writeValue(PostgreCopyBinaryEncoder.FieldType.TIMESTAMP, Timestamp.valueOf("2000-01-02 00:00:00.000001"));
+        encoder.writeValue(PostgreCopyBinaryEncoder.FieldType.UUID, "123e4567-e89b-12d3-a456-426614174000");
+        encoder.writeValue(PostgreCopyBinaryEncoder.FieldType.JSONB, "{}");
+        encoder.writeNull();
+        encoder.writeTrailer();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+        byte[] signature = new byte[11];
+        in.readFully(signature);
+        Assert.assertEquals("PGCOPY\n", new String(signature, 0, 7));
+        Assert.assertEquals(0, in.readInt());
+        Assert.assertEquals(0, in.readInt());
+
+        Assert.assertEquals(5, in.readShort());
+        Assert.assertEquals(4, in.readInt());
+        Assert.assertEquals(42, in.readInt());
+        Assert.assertEquals(8, in.readInt());
+        Assert.assertEquals(86400L * 1000000L + 1, in.readLong());
+        Assert.assertEquals(16, in.readInt());
+        UUID uuid = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        Assert.assertEquals(uuid.getMostSignificantBits(), in.readLong());
+        Assert.assertEquals(uuid.getLeastSignificantBits(), in.readLong());
+        Assert.assertEquals(3, in.readInt());
+        Assert.assertEquals(1, in.readByte());
+        Assert.assertEquals('{', in.readByte());
+        Assert.assertEquals('}', in.readByte());
+        Assert.assertEquals(-1, in.readInt());
+
+        Assert.assertEquals(-1, in.readShort());
+        Assert.assertEquals(0, in.available());
+    }
+
+    @Test
+    public void testIntegerRangeChecks() throws IOException, DBCException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PostgreCopyBinaryEncoder encoder = new PostgreCopyBinaryEncoder(buffer);
+        encoder.writeValue(PostgreCopyBinaryEncoder.FieldType.INT2, 32767);
+        encoder.writeValue(PostgreCopyBinaryEncoder.FieldType.INT4, "-2147483648");
+        encoder.writeValue(PostgreCopyBinaryEncoder.FieldType.INT8, new BigDecimal("12.000"));
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+        Assert.assertEquals(2, in.readInt());
+        Assert.assertEquals(32767, in.readShort());
+        Assert.assertEquals(4, in.readInt());
+        Assert.assertEquals(Integer.MIN_VALUE, in.readInt());
+        Assert.assertEquals(8, in.readInt());
+        Assert.assertEquals(12, in.readLong());
+
+        buffer.reset();
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.INT2, 32768);
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.INT2, "-32769");
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.INT4, 2147483648L);
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.INT4, 1.5);
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.INT8, new BigDecimal("9223372036854775808"));
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.INT8, new BigDecimal("0.1"));
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.INT8, Double.NaN);
+        // Nothing is written for rejected values
+        Assert.assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testBooleanParsing() throws IOException, DBCException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PostgreCopyBinaryEncoder encoder = new PostgreCopyBinaryEncoder(buffer);
+        String[] trueValues = {"true", "TRUE", " t ", "tr", "yes", "Y", "on", "ON", "1"};
+        String[] falseValues = {"false", "f", "fal", "no", "N", "off", "of", "0"};
+        for (String value : trueValues) {
+            encoder.writeValue(PostgreCopyBinaryEncoder.FieldType.BOOL, value);
+        }
+        for (String value : falseValues) {
+            encoder.writeValue(PostgreCopyBinaryEncoder.FieldType.BOOL, value);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+        for (String value : trueValues) {
+            Assert.assertEquals(1, in.readInt());
+            Assert.assertEquals(value, 1, in.readByte());
+        }
+        for (String value : falseValues) {
+            Assert.assertEquals(1, in.readInt());
+            Assert.assertEquals(value, 0, in.readByte());
+        }
+
+        buffer.reset();
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.BOOL, "o");
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.BOOL, "");
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.BOOL, "truex");
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.BOOL, "2");
+        assertOverflow(encoder, PostgreCopyBinaryEncoder.FieldType.BOOL, "maybe");
+        Assert.assertEquals(0, buffer.size());
+    }
+
+    private static void assertOverflow(PostgreCopyBinaryEncoder encoder, PostgreCopyBinaryEncoder.FieldType type, Object value) throws IOException {
+        try {
+            encoder.writeValue(type, value);
+            Assert.fail("Value " + value + " must not fit " + type);
+        } catch (DBCException e) {
+            // expected
+        }
+    }
+
+    private static void assertNumeric(BigDecimal value, int weight, int sign, int scale, int... digits) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PostgreCopyBinaryEncoder.writeNumeric(new DataOutputStream(buffer), value);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+        Assert.assertEquals(digits.length, in.readShort());
+        Assert.assertEquals(weight, in.readShort());
+        Assert.assertEquals(sign, in.readShort() & 0xffff);
+        Assert.assertEquals(scale, in.readShort());
+        for (int digit : digits) {
+            Assert.assertEquals(digit, in.readShort());
+        }
+        Assert.assertEquals(0, in.available());
+    }
+}
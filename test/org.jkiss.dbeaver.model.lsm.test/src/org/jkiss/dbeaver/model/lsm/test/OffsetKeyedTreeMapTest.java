@@ -152,6 +152,48 @@ public class OffsetKeyedTreeMapTest {
         }
     }
 
+    @Test
+    public void testRemovalsThenApplyNegativeOffsets() {
+        Random rnd = new Random(54321);
+        OffsetKeyedTreeMap<Item> treeMap = new OffsetKeyedTreeMap<>();
+        TreeMap<Integer, Item> expected = new TreeMap<>();
+        for (int i = 0; i < 200; i++) {
+            Item item = new Item();
+            int offset = rnd.nextInt(0, 5000);
+            treeMap.put(offset, item);
+            expected.put(offset, item);
+        }
+        for (int i = 0; i < 50; i++) {
+            List<Integer> keys = new ArrayList<>(expected.keySet());
+            int offset = keys.get(rnd.nextInt(keys.size()));
+            treeMap.removeAt(offset);
+            expected.remove(offset);
+        }
+        for (int i = 0; i < 20; i++) {
+            int position = rnd.nextInt(100, 5000);
+            int delta = -rnd.nextInt(1, 100);
+            treeMap.applyOffset(position, delta);
+
+            TreeMap<Integer, Item> shifted = new TreeMap<>(expected.headMap(position + delta));
+            expected.tailMap(position).forEach((k, v) -> shifted.put(k + delta, v));
+            expected = shifted;
+
+            List<Integer> actualKeys = new ArrayList<>();
+            List<Item> actualValues = new ArrayList<>();
+            OffsetKeyedTreeMap.NodesIterator<Item> it = treeMap.nodesIteratorAt(Integer.MIN_VALUE);
+            while (it.next()) {
+                actualKeys.add(it.getCurrOffset());
+                actualValues.add(it.getCurrValue());
+            }
+            Assert.assertEquals(new ArrayList<>(expected.keySet()), actualKeys);
+            Assert.assertEquals(new ArrayList<>(expected.values()), actualValues);
+            Assert.assertEquals(expected.size(), treeMap.size());
+            for (Map.Entry<Integer, Item> entry : expected.entrySet()) {
+                Assert.assertSame(entry.getValue(), treeMap.find(entry.getKey()));
+            }
+        }
+    }
+
     @FunctionalInterface
     private interface ObjObjIntIntConsumer<A, B> {
         void accept(A a, B b, int n, int m);
@@ -18,8 +18,15 @@ package org.jkiss.dbeaver.model.lsm.test;
 
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.tree.Trees;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerParameters;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.SQLStandardAnalyzer;
 import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
 import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
+import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -27,9 +34,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Scanner;
+import java.util.*;
 
 
 @RunWith(MockitoJUnitRunner.class)
@@ -103,4 +108,29 @@ public class ParseSelectStmtTest {
 //            Assert.assertTrue(result.isNoErrors());
         }
     }
+
+    @Test
+    public void testTwoStageAnalysisMatchesFullContextParsing() {
+        var statementsToParse = readStatements(ParseSelectStmtTest.class.getResourceAsStream(_selectStatementsSqlTextResourceName));
+        var parameters = new LSMAnalyzerParameters(Map.of("\"", "\""), false, false, '?', List.of(), false);
+        var analyzer = new SQLStandardAnalyzer(parameters);
+        var ruleNames = Arrays.asList(SQLStandardParser.ruleNames);
+
+        for (String stmtText : statementsToParse) {
+            var ll = new SQLStandardLexer(CharStreams.fromString(stmtText), parameters);
+            var pp = new SQLStandardParser(new CommonTokenStream(ll), parameters);
+            ll.removeErrorListeners();
+            pp.removeErrorListeners();
+            pp.getInterpreter().setPredictionMode(PredictionMode.LL);
+            String expectedTree = Trees.toStringTree(pp.sqlQuery(), ruleNames);
+
+            // analyzer reuses the same lexer and parser for all the statements
+            STMTreeRuleNode tree = analyzer.parseSqlQueryTree(STMSource.fromString(stmtText), new STMSkippingErrorListener());
+            Assert.assertNotNull(tree);
+            Assert.assertEquals(expectedTree, Trees.toStringTree(tree, ruleNames));
+        }
+
+        // incorrect query falls back to the full context parsing with error recovery
+        Assert.assertNotNull(analyzer.parseSqlQueryTree(STMSource.fromString("select from where"), new STMSkippingErrorListener()));
+    }
 }
@@ -18,12 +18,14 @@ package org.jkiss.dbeaver.model;
 
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCRemoteInstance;
 import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
@@ -279,4 +281,27 @@ public class DBUtilsTest {
         Assert.assertNotEquals(dbsObject, mockEntity);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testThreadMetaContext() {
+        DBSInstance instance = Mockito.mock(DBSInstance.class);
+        DBSInstance otherInstance = Mockito.mock(DBSInstance.class);
+        DBCExecutionContext defaultContext = Mockito.mock(DBCExecutionContext.class);
+        DBCExecutionContext otherContext = Mockito.mock(DBCExecutionContext.class);
+        DBCExecutionContext isolatedContext = Mockito.mock(DBCExecutionContext.class);
+        Mockito.when(instance.getDefaultContext(Mockito.any(), Mockito.eq(true))).thenReturn(defaultContext);
+        Mockito.when(otherInstance.getDefaultContext(Mockito.any(), Mockito.eq(true))).thenReturn(otherContext);
+        Mockito.when(isolatedContext.getOwnerInstance()).thenReturn(instance);
+        Mockito.when(isolatedContext.isConnected()).thenReturn(true);
+
+        DBUtils.setThreadMetaContext(isolatedContext);
+        try {
+            Assert.assertSame(isolatedContext, DBUtils.getDefaultContext(instance, true));
+            // Context of other instance is not affected
+            Assert.assertSame(otherContext, DBUtils.getDefaultContext(otherInstance, true));
+        } finally {
+            DBUtils.setThreadMetaContext(null);
+        }
+        Assert.assertSame(defaultContext, DBUtils.getDefaultContext(instance, true));
+    }
+
+}
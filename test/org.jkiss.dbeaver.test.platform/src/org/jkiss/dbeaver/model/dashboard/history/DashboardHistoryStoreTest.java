@@ -0,0 +1,151 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.dashboard.history;
+
+import org.jkiss.dbeaver.model.dashboard.data.DashboardDataset;
+import org.jkiss.dbeaver.model.dashboard.data.DashboardDatasetRow;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+public class DashboardHistoryStoreTest {
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    @Test
+    public void testChunkEncoding() throws IOException {
+        Random random = new Random(1);
+        List<DashboardHistoryPoint> points = new ArrayList<>();
+        long time = 1_700_000_000_000L;
+        double value = 100;
+        for (int i = 0; i < 10000; i++) {
+            // Mostly regular intervals with occasional jitter and gaps
+            time += 1000 + (i % 10 == 0 ? random.nextInt(200) - 100 : 0) + (i % 1000 == 0 ? 3_600_000L : 0);
+            if (i % 3 == 0) {
+                value = i % 100 == 0 ? random.nextDouble() * 1e6 : value + random.nextInt(10);
+            }
+            points.add(new DashboardHistoryPoint(time, value));
+        }
+        points.add(new DashboardHistoryPoint(time, Double.NaN));
+        points.add(new DashboardHistoryPoint(time + 1, -0.0));
+        points.add(new DashboardHistoryPoint(time + Integer.MAX_VALUE * 3L, Double.MAX_VALUE));
+
+        DashboardHistoryChunk chunk = new DashboardHistoryChunk();
+        for (DashboardHistoryPoint point : points) {
+            chunk.append(point.time(), point.value());
+        }
+        Assert.assertTrue("Compressed size " + chunk.getCompressedSize(), chunk.getCompressedSize() < points.size() * 4);
+
+        List<DashboardHistoryPoint> decoded = new ArrayList<>();
+        chunk.readPoints(Long.MIN_VALUE, Long.MAX_VALUE, decoded);
+        assertPointsEqual(points, decoded);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        chunk.write(new DataOutputStream(buffer));
+        DashboardHistoryChunk restored = DashboardHistoryChunk.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+        decoded.clear();
+        restored.readPoints(points.get(100).time(), points.get(200).time(), decoded);
+        assertPointsEqual(points.subList(100, 201), decoded);
+    }
+
+    @Test
+    public void testRollup() {
+        long currentTime = System.currentTimeMillis();
+        long startTime = currentTime - 3 * DAY;
+        DashboardHistorySeries series = new DashboardHistorySeries();
+        for (long time = startTime; time <= currentTime; time += 10_000) {
+            series.addPoint(time, (time / MINUTE) % 2 == 0 ? 10 : 20);
+        }
+        Assert.assertFalse(series.addPoint(startTime, 1));
+
+        // Raw points of the last hour
+        List<DashboardHistoryPoint> points = series.readPoints(currentTime - 60 * MINUTE, currentTime, 1000, currentTime);
+        Assert.assertEquals(361, points.size(), 1);
+
+        // Per-minute averages of the last two days
+        points = series.readPoints(currentTime - 2 * DAY, currentTime, 5000, currentTime);
+        Assert.assertTrue(points.size() > 2800 && points.size() <= 2880);
+        Assert.assertEquals(0, points.get(0).time() % MINUTE);
+        for (DashboardHistoryPoint point : points) {
+            Assert.assertEquals((point.time() / MINUTE) % 2 == 0 ? 10 : 20, point.value(), 0.0001);
+        }
+
+        // Limited point count
+        points = series.readPoints(currentTime - 3 * DAY, currentTime, 100, currentTime);
+        Assert.assertTrue(points.size() <= 100 && points.size() > 50);
+        for (DashboardHistoryPoint point : points) {
+            Assert.assertEquals(15, point.value(), 0.5);
+        }
+    }
+
+    @Test
+    public void testStorePersistence() throws IOException {
+        Path folder = Files.createTempDirectory("dashboard-history");
+        try {
+            long currentTime = System.currentTimeMillis();
+            DashboardHistoryStore store = new DashboardHistoryStore(folder);
+            DashboardDataset dataset = new DashboardDataset(new String[]{"reads", "writes", "name"});
+            for (int i = 100; i > 0; i--) {
+                dataset.addRow(new DashboardDatasetRow(new Date(currentTime - i * 1000L), new Object[]{i, i * 2.5, "text"}));
+            }
+            store.addDataset("ds/dashboard", dataset);
+            // Duplicate rows are ignored
+            store.addDataset("ds/dashboard", dataset);
+            store.close();
+
+            store = new DashboardHistoryStore(folder);
+            Assert.assertNull(store.readDataset("ds/other", currentTime - DAY, currentTime, 1000));
+            DashboardDataset restored = store.readDataset("ds/dashboard", currentTime - DAY, currentTime, 1000);
+            Assert.assertNotNull(restored);
+            Assert.assertArrayEquals(new String[]{"reads", "writes"}, restored.getColumnNames());
+            Assert.assertEquals(100, restored.getRows().size());
+            for (int i = 0; i < 100; i++) {
+                DashboardDatasetRow row = restored.getRows().get(i);
+                Assert.assertEquals(currentTime - (100 - i) * 1000L, row.getTimestamp().getTime());
+                Assert.assertEquals(100.0 - i, (Double) row.getValues()[0], 0);
+                Assert.assertEquals((100.0 - i) * 2.5, (Double) row.getValues()[1], 0);
+            }
+        } finally {
+            try (var files = Files.list(folder)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(folder);
+        }
+    }
+
+    private static void assertPointsEqual(List<DashboardHistoryPoint> expected, List<DashboardHistoryPoint> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).time(), actual.get(i).time());
+            Assert.assertEquals(
+                Double.doubleToRawLongBits(expected.get(i).value()),
+                Double.doubleToRawLongBits(actual.get(i).value()));
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class AggregateSketchesTest {
+
+    @Test
+    public void testDistinctCountEstimate() {
+        for (int distinct : new int[]{10, 1000, 30000, 60000, 200000}) {
+            HyperLogLogSketch sketch = new HyperLogLogSketch();
+            for (int i = 0; i < distinct * 3; i++) {
+                sketch.add("value-" + (i % distinct));
+            }
+            long estimate = sketch.estimate();
+            Assert.assertEquals("Distinct count " + distinct, distinct, estimate, Math.max(1, distinct * 0.03));
+        }
+    }
+
+    @Test
+    public void testDistinctCountMerge() {
+        HyperLogLogSketch sketch1 = new HyperLogLogSketch();
+        HyperLogLogSketch sketch2 = new HyperLogLogSketch();
+        for (long i = 0; i < 100000; i++) {
+            sketch1.add(i);
+            // Half of values are the same
+            sketch2.add(i + 50000);
+        }
+        sketch1.merge(sketch2);
+        Assert.assertEquals(150000, sketch1.estimate(), 150000 * 0.03);
+    }
+
+    @Test
+    public void testQuantileEstimate() {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000000; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, new Random(1));
+        QuantileSketch<Integer> sketch1 = new QuantileSketch<>(Integer::compare);
+        QuantileSketch<Integer> sketch2 = new QuantileSketch<>(Integer::compare);
+        for (int i = 0; i < values.size(); i++) {
+            (i % 2 == 0 ? sketch1 : sketch2).add(values.get(i));
+        }
+        sketch1.merge(sketch2);
+        Assert.assertEquals(values.size(), sketch1.getCount());
+        // Rank error is about 1%
+        Assert.assertEquals(500000, sketch1.getQuantile(0.5), 20000);
+        Assert.assertEquals(900000, sketch1.getQuantile(0.9), 20000);
+        Assert.assertEquals(values.size() - 1, sketch1.getQuantile(1.0), 20000);
+    }
+
+    @Test
+    public void testHeavyHitters() {
+        HeavyHittersSketch sketch = new HeavyHittersSketch(100);
+        Random random = new Random(1);
+        for (int i = 0; i < 100000; i++) {
+            // 10% of values are "frequent", others are random
+            sketch.add(i % 10 == 0 ? "frequent" : "value-" + random.nextInt(100000));
+        }
+        Assert.assertEquals("frequent", sketch.getMostFrequent());
+        long count = sketch.getCount("frequent");
+        Assert.assertTrue(count >= 10000 && count - sketch.getError("frequent") <= 10000);
+
+        HeavyHittersSketch ties = new HeavyHittersSketch();
+        ties.add("b");
+        ties.add("a");
+        ties.add("a");
+        ties.add("b");
+        Assert.assertEquals("b", ties.getMostFrequent());
+    }
+
+    @Test
+    public void testMergeExactFunctions() {
+        List<Object> values = new ArrayList<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            values.add(random.nextInt(10) == 0 ? null : random.nextInt(500));
+        }
+        IAggregateFunctionMergeable[] functions = {
+            new FunctionCount(), new FunctionCountDistinct(), new FunctionCountNulls(), new FunctionSum(),
+            new FunctionAvg(), new FunctionMin(), new FunctionMax(), new FunctionMedian(), new FunctionMode()
+        };
+        for (IAggregateFunctionMergeable function : functions) {
+            IAggregateFunctionMergeable whole = newInstance(function);
+            IAggregateFunctionMergeable part1 = newInstance(function);
+            IAggregateFunctionMergeable part2 = newInstance(function);
+            int count = 0;
+            for (int i = 0; i < values.size(); i++) {
+                if (whole.accumulate(values.get(i), false)) {
+                    count++;
+                }
+                (i < values.size() / 3 ? part1 : part2).accumulate(values.get(i), false);
+            }
+            part1.merge(part2);
+            Assert.assertEquals(function.getClass().getSimpleName(), whole.getResult(count), part1.getResult(count));
+        }
+    }
+
+    @Test
+    public void testApproximateFunctions() {
+        FunctionCountDistinct countDistinct = new FunctionCountDistinct();
+        FunctionMedian median = new FunctionMedian();
+        FunctionMode mode = new FunctionMode();
+        countDistinct.setApproximate(true);
+        median.setApproximate(true);
+        mode.setApproximate(true);
+        Random random = new Random(1);
+        for (int i = 0; i < 200000; i++) {
+            Object value = i % 5 == 0 ? 42 : random.nextInt(100000);
+            countDistinct.accumulate(value, false);
+            median.accumulate(value, false);
+            mode.accumulate(value, false);
+        }
+        Assert.assertTrue(countDistinct.isApproximate());
+        // 160000 random values of 100000 give about 100000 * (1 - e^-1.6) distinct values
+        Assert.assertEquals(79800, ((Number) countDistinct.getResult(0)).doubleValue(), 79800 * 0.03);
+        // 20% of values are 42, so median is at 30% of the rest uniform values
+        Assert.assertEquals(37500, ((Number) median.getResult(0)).doubleValue(), 2000);
+        Assert.assertEquals(42, mode.getResult(0));
+    }
+
+    private static IAggregateFunctionMergeable newInstance(IAggregateFunctionMergeable function) {
+        try {
+            return function.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
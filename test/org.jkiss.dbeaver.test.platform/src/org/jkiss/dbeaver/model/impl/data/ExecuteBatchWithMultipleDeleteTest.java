@@ -0,0 +1,191 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecuteBatchException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class ExecuteBatchWithMultipleDeleteTest {
+
+    private DBCSession session;
+    private DBDValueHandler valueHandler;
+    private DBDAttributeBinding keyAttribute;
+    private List<Integer> multiDeleteKeyCounts;
+    private int singleDeleteCount;
+
+    @Before
+    public void setUp() throws DBCException {
+        session = Mockito.mock(DBCSession.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(session.getProgressMonitor().isCanceled()).thenReturn(false);
+        Mockito.when(session.getDataSource().getInfo().supportsBatchUpdates()).thenReturn(false);
+        valueHandler = Mockito.mock(DBDValueHandler.class);
+        keyAttribute = Mockito.mock(DBDAttributeBinding.class);
+        Mockito.when(keyAttribute.getValueHandler()).thenReturn(valueHandler);
+        multiDeleteKeyCounts = new ArrayList<>();
+        singleDeleteCount = 0;
+    }
+
+    @Test
+    public void testKeysAreDeletedInChunks() throws DBCException {
+        ExecuteBatchWithMultipleDelete batch = makeBatch(new DBSAttributeBase[]{keyAttribute});
+        for (int i = 0; i < 250; i++) {
+            batch.add(new Object[]{i});
+        }
+        batch.add(new Object[]{null});
+
+        DBCStatistics statistics = batch.execute(session, Map.of(DBSDataManipulator.OPTION_USE_MULTI_DELETE, true));
+
+        Assert.assertEquals(List.of(100, 100, 50), multiDeleteKeyCounts);
+        // NULL key is deleted by a separate statement
+        Assert.assertEquals(1, singleDeleteCount);
+        Assert.assertEquals(4, statistics.getStatementsCount());
+        Mockito.verify(valueHandler, Mockito.times(250)).bindValueObject(
+            Mockito.any(), Mockito.any(), Mockito.eq(keyAttribute), Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    public void testRowByRowDeleteWithoutOption() throws DBCException {
+        ExecuteBatchWithMultipleDelete batch = makeBatch(new DBSAttributeBase[]{keyAttribute});
+        for (int i = 0; i < 5; i++) {
+            batch.add(new Object[]{i});
+        }
+
+        batch.execute(session, Collections.emptyMap());
+
+        Assert.assertTrue(multiDeleteKeyCounts.isEmpty());
+        Assert.assertEquals(1, singleDeleteCount);
+    }
+
+    @Test
+    public void testCompositeKeysAreDeletedRowByRow() throws DBCException {
+        ExecuteBatchWithMultipleDelete batch = makeBatch(new DBSAttributeBase[]{keyAttribute, keyAttribute});
+        for (int i = 0; i < 5; i++) {
+            batch.add(new Object[]{i, i});
+        }
+
+        batch.execute(session, Map.of(DBSDataManipulator.OPTION_USE_MULTI_DELETE, true));
+
+        Assert.assertTrue(multiDeleteKeyCounts.isEmpty());
+    }
+
+    @Test
+    public void testStatementIsPreparedOnNullKeyChangeWithoutBatches() throws DBCException {
+        ExecuteBatchWithMultipleDelete batch = makeBatch(new DBSAttributeBase[]{keyAttribute, keyAttribute});
+        batch.add(new Object[]{1, 2});
+        batch.add(new Object[]{3, null});
+        batch.add(new Object[]{4, null});
+        batch.add(new Object[]{5, 6});
+
+        batch.execute(session, Collections.emptyMap());
+
+        // Key criteria with NULL differs, so statement is prepared again for each NULL pattern change
+        Assert.assertEquals(3, singleDeleteCount);
+    }
+
+    @Test
+    public void testFailedBatchRowIsReported() throws DBCException {
+        Mockito.when(session.getDataSource().getInfo().supportsBatchUpdates()).thenReturn(true);
+        ExecuteBatchWithMultipleDelete batch = new ExecuteBatchWithMultipleDelete(new DBSAttributeBase[]{keyAttribute, keyAttribute}, true) {
+            @NotNull
+            @Override
+            protected DBCStatement prepareMultiDeleteStatement(@NotNull DBCSession session, int keyCount, Map<String, Object> options) {
+                throw new IllegalStateException();
+            }
+
+            @NotNull
+            @Override
+            protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
+                DBCStatement statement = makeStatement(1);
+                singleDeleteCount++;
+                if (singleDeleteCount > 1) {
+                    BatchUpdateException batchError = new BatchUpdateException(new int[]{1, Statement.EXECUTE_FAILED, 1});
+                    Mockito.when(statement.executeStatementBatch()).thenThrow(new DBCException("Batch failed", batchError));
+                }
+                return statement;
+            }
+
+            @Override
+            protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) {
+            }
+        };
+        batch.add(new Object[]{1, 1});
+        batch.add(new Object[]{2, null});
+        batch.add(new Object[]{3, null});
+        batch.add(new Object[]{4, null});
+
+        try {
+            batch.execute(session, Collections.emptyMap());
+            Assert.fail("Batch error expected");
+        } catch (DBCExecuteBatchException e) {
+            // Second batch starts at row 1, its second row is failed
+            Assert.assertEquals(2, e.getFailedRowIndex());
+        }
+    }
+
+    private ExecuteBatchWithMultipleDelete makeBatch(DBSAttributeBase[] keyAttributes) {
+        return new ExecuteBatchWithMultipleDelete(keyAttributes, true) {
+            @NotNull
+            @Override
+            protected DBCStatement prepareMultiDeleteStatement(@NotNull DBCSession session, int keyCount, Map<String, Object> options) {
+                multiDeleteKeyCounts.add(keyCount);
+                return makeStatement(keyCount);
+            }
+
+            @NotNull
+            @Override
+            protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) {
+                // Statement is reused for all rows with the same NULL values
+                singleDeleteCount++;
+                return makeStatement(1);
+            }
+
+            @Override
+            protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) {
+            }
+        };
+    }
+
+    private DBCStatement makeStatement(long rowCount) {
+        DBCStatement statement = Mockito.mock(DBCStatement.class);
+        try {
+            Mockito.when(statement.getSession()).thenReturn(session);
+            Mockito.when(statement.getUpdateRowCount()).thenReturn(rowCount);
+        } catch (DBCException e) {
+            throw new IllegalStateException(e);
+        }
+        return statement;
+    }
+}
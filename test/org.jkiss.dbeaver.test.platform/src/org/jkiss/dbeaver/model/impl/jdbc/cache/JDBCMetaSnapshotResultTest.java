@@ -0,0 +1,178 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+public class JDBCMetaSnapshotResultTest {
+
+    private static final String[] COLUMNS = {"TABLE_NAME", "ROW_COUNT", "CREATED", "REMARKS"};
+
+    @Test
+    public void testRecordAndReplay() throws Exception {
+        Timestamp created = new Timestamp(1700000000123L);
+        JDBCMetaSnapshotResult snapshotResult = new JDBCMetaSnapshotResult();
+        ResultSet recording = snapshotResult.recordResultSet(createResultSet(List.of(
+            new Object[]{"ORDERS", 100L, created, null},
+            new Object[]{"USERS", new BigDecimal("25"), created, "Users list"}
+        )));
+        while (recording.next()) {
+            recording.getString("table_name");
+            recording.getLong(2);
+            recording.getTimestamp("CREATED");
+            recording.getString("REMARKS");
+        }
+        recording.close();
+        Assert.assertTrue(snapshotResult.isValid());
+        Assert.assertEquals(2, snapshotResult.getRowCount());
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        snapshotResult.write(new DataOutputStream(buffer));
+        JDBCMetaSnapshotResult loadedResult = JDBCMetaSnapshotResult.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+
+        ResultSet replay = loadedResult.replayResultSet();
+        Assert.assertEquals(4, replay.getMetaData().getColumnCount());
+        Assert.assertEquals("ROW_COUNT", replay.getMetaData().getColumnLabel(2));
+        Assert.assertTrue(replay.next());
+        Assert.assertEquals("ORDERS", replay.getString("TABLE_NAME"));
+        Assert.assertEquals(100, replay.getInt(2));
+        Assert.assertEquals(created, replay.getTimestamp("created"));
+        Assert.assertNull(replay.getString("REMARKS"));
+        Assert.assertTrue(replay.wasNull());
+        Assert.assertTrue(replay.next());
+        Assert.assertEquals(25L, replay.getLong(2));
+        Assert.assertEquals("Users list", replay.getString("REMARKS"));
+        Assert.assertFalse(replay.next());
+        Assert.assertTrue(JDBCMetaSnapshotResult.isReplayComplete(replay));
+    }
+
+    @Test
+    public void testPrimitiveNullRoundTrip() throws Exception {
+        JDBCMetaSnapshotResult snapshotResult = new JDBCMetaSnapshotResult();
+        ResultSet recording = snapshotResult.recordResultSet(createResultSet(List.<Object[]>of(
+            new Object[]{"ORDERS", null, null, null},
+            new Object[]{"USERS", 0L, null, null}
+        )));
+        Assert.assertTrue(recording.next());
+        Assert.assertEquals(0, recording.getInt("ROW_COUNT"));
+        Assert.assertTrue(recording.wasNull());
+        Assert.assertTrue(recording.next());
+        Assert.assertEquals(0L, recording.getLong(2));
+        Assert.assertFalse(recording.wasNull());
+        Assert.assertFalse(recording.next());
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        snapshotResult.write(new DataOutputStream(buffer));
+        JDBCMetaSnapshotResult loadedResult = JDBCMetaSnapshotResult.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+
+        ResultSet replay = loadedResult.replayResultSet();
+        Assert.assertTrue(replay.next());
+        Assert.assertEquals(0, replay.getInt("ROW_COUNT"));
+        Assert.assertTrue(replay.wasNull());
+        Assert.assertEquals(0L, replay.getLong("ROW_COUNT"));
+        Assert.assertTrue(replay.wasNull());
+        Assert.assertTrue(replay.next());
+        Assert.assertEquals(0L, replay.getLong(2));
+        Assert.assertFalse(replay.wasNull());
+        Assert.assertEquals(0, replay.getInt(2));
+        Assert.assertFalse(replay.wasNull());
+        Assert.assertTrue(JDBCMetaSnapshotResult.isReplayComplete(replay));
+    }
+
+    @Test
+    public void testReplayOfNotRecordedValue() throws Exception {
+        JDBCMetaSnapshotResult snapshotResult = new JDBCMetaSnapshotResult();
+        ResultSet recording = snapshotResult.recordResultSet(createResultSet(List.<Object[]>of(
+            new Object[]{"ORDERS", 100L, null, null}
+        )));
+        while (recording.next()) {
+            recording.getString("TABLE_NAME");
+        }
+
+        ResultSet replay = snapshotResult.replayResultSet();
+        Assert.assertTrue(replay.next());
+        Assert.assertEquals("ORDERS", replay.getString("TABLE_NAME"));
+        try {
+            replay.getLong("ROW_COUNT");
+            Assert.fail("Not recorded value was read");
+        } catch (SQLException e) {
+            // Expected
+        }
+        Assert.assertFalse(JDBCMetaSnapshotResult.isReplayComplete(replay));
+    }
+
+    @Test
+    public void testUnsupportedValue() throws Exception {
+        JDBCMetaSnapshotResult snapshotResult = new JDBCMetaSnapshotResult();
+        ResultSet recording = snapshotResult.recordResultSet(createResultSet(List.<Object[]>of(
+            new Object[]{"ORDERS", 100L, null, new Object()}
+        )));
+        while (recording.next()) {
+            recording.getObject("REMARKS");
+        }
+        Assert.assertFalse(snapshotResult.isValid());
+    }
+
+    private static ResultSet createResultSet(List<Object[]> rows) {
+        int[] rowIndex = {-1};
+        boolean[] wasNull = {false};
+        return (ResultSet) Proxy.newProxyInstance(
+            JDBCMetaSnapshotResultTest.class.getClassLoader(),
+            new Class[]{ResultSet.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        return ++rowIndex[0] < rows.size();
+                    case "close":
+                        return null;
+                    case "wasNull":
+                        return wasNull[0];
+                    case "getMetaData":
+                        return Proxy.newProxyInstance(
+                            JDBCMetaSnapshotResultTest.class.getClassLoader(),
+                            new Class[]{java.sql.ResultSetMetaData.class},
+                            (metaProxy, metaMethod, metaArgs) -> switch (metaMethod.getName()) {
+                                case "getColumnCount" -> COLUMNS.length;
+                                case "getColumnLabel" -> COLUMNS[(Integer) metaArgs[0] - 1];
+                                case "getColumnType" -> Types.VARCHAR;
+                                default -> throw new SQLException("Not supported");
+                            });
+                }
+                Object[] row = rows.get(rowIndex[0]);
+                int column = args[0] instanceof Integer index ? index - 1 : List.of(COLUMNS).indexOf(((String) args[0]).toUpperCase());
+                Object value = row[column];
+                wasNull[0] = value == null;
+                return switch (method.getName()) {
+                    case "getString" -> value == null ? null : value.toString();
+                    case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                    case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                    default -> value;
+                };
+            });
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.text.TextUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class SQLCompletionNameIndexTest {
+
+    private static final List<String> NAMES = List.of(
+        "customer", "CUSTOMER_ORDERS", "country", "Address", "orderItems", "order_history", "city", "CUSTOMER"
+    );
+
+    @Test
+    public void testPrefixLookupKeepsChildrenOrder() {
+        List<DBSObject> children = makeObjects(NAMES);
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(children);
+
+        Assert.assertEquals(List.of("customer", "CUSTOMER_ORDERS", "CUSTOMER"), getNames(index.findByPrefix("CUST")));
+        Assert.assertEquals(List.of("customer", "CUSTOMER_ORDERS", "country", "city", "CUSTOMER"), getNames(index.findByPrefix("c")));
+        Assert.assertEquals(List.of("orderItems", "order_history"), getNames(index.findByPrefix("ORDER")));
+        Assert.assertEquals(NAMES, getNames(index.findByPrefix(null)));
+        Assert.assertTrue(index.findByPrefix("z").isEmpty());
+    }
+
+    @Test
+    public void testPrefixLookupMatchesLinearScan() {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            names.add(randomName(random));
+        }
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(makeObjects(names));
+        for (int i = 0; i < 200; i++) {
+            String word = randomName(random);
+            String prefix = word.substring(0, Math.min(word.length(), 1 + random.nextInt(2)));
+            List<String> expected = names.stream()
+                .filter(name -> name.toUpperCase(Locale.ENGLISH).startsWith(prefix.toUpperCase(Locale.ENGLISH)))
+                .collect(Collectors.toList());
+            Assert.assertEquals(expected, getNames(index.findByPrefix(prefix)));
+        }
+    }
+
+    @Test
+    public void testFuzzyLookup() {
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(makeObjects(NAMES));
+
+        List<SQLCompletionNameIndex.Match> matches = index.findFuzzy("ord");
+        Assert.assertEquals(List.of("CUSTOMER_ORDERS", "orderItems", "order_history"), getMatchNames(matches));
+        for (SQLCompletionNameIndex.Match match : matches) {
+            Assert.assertEquals(TextUtils.fuzzyScore(match.object().getName(), "ord"), match.score());
+        }
+        Assert.assertTrue(index.findFuzzy("xyz").isEmpty());
+        Assert.assertEquals(NAMES.size(), index.findFuzzy("").size());
+    }
+
+    @Test
+    public void testCamelHumpMatchesRankHigher() {
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(makeObjects(NAMES));
+
+        Map<String, Integer> scores = new HashMap<>();
+        for (SQLCompletionNameIndex.Match match : index.findFuzzy("co")) {
+            scores.put(match.object().getName(), match.score());
+        }
+        Assert.assertTrue(scores.get("CUSTOMER_ORDERS") > scores.get("country"));
+        Assert.assertTrue(scores.get("CUSTOMER_ORDERS") > scores.get("customer"));
+
+        Assert.assertEquals("CO", SQLCompletionNameIndex.getInitials("CUSTOMER_ORDERS"));
+        Assert.assertEquals("OI", SQLCompletionNameIndex.getInitials("orderItems"));
+        Assert.assertEquals("A", SQLCompletionNameIndex.getInitials("Address"));
+    }
+
+    @Test
+    public void testIndexInvalidation() {
+        List<DBSObject> children = new ArrayList<>(makeObjects(NAMES));
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(children);
+        Assert.assertTrue(index.isValidFor(children));
+        // Parents build a new list on each call
+        Assert.assertTrue(index.isValidFor(new ArrayList<>(children)));
+
+        Assert.assertFalse(index.isValidFor(makeObjects(NAMES)));
+        Mockito.when(children.get(0).getName()).thenReturn("customers");
+        Assert.assertFalse(index.isValidFor(children));
+        Mockito.when(children.get(0).getName()).thenReturn("customer");
+        Assert.assertTrue(index.isValidFor(children));
+
+        children.add(makeObject("cities"));
+        Assert.assertFalse(index.isValidFor(children));
+    }
+
+    @Test
+    public void testIndexIsReusedForNewChildrenList() {
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        Mockito.when(container.getRegistry()).thenReturn(Mockito.mock(DBPDataSourceRegistry.class));
+        DBSObject parent = makeObject("public");
+        List<DBSObject> children = makeObjects(NAMES);
+
+        SQLCompletionNameIndex index = SQLCompletionNameIndex.getIndex(dataSource, parent, new ArrayList<>(children));
+        Assert.assertSame(index, SQLCompletionNameIndex.getIndex(dataSource, parent, new ArrayList<>(children)));
+
+        List<DBSObject> newChildren = new ArrayList<>(children);
+        newChildren.add(makeObject("cities"));
+        SQLCompletionNameIndex newIndex = SQLCompletionNameIndex.getIndex(dataSource, parent, newChildren);
+        Assert.assertNotSame(index, newIndex);
+        Assert.assertEquals(List.of("city", "cities"), getNames(newIndex.findByPrefix("cit")));
+        Assert.assertSame(newIndex, SQLCompletionNameIndex.getIndex(dataSource, parent, new ArrayList<>(newChildren)));
+
+        SQLCompletionNameIndex.invalidate(container);
+        Assert.assertNotSame(newIndex, SQLCompletionNameIndex.getIndex(dataSource, parent, new ArrayList<>(newChildren)));
+    }
+
+    private static String randomName(Random random) {
+        int length = 1 + random.nextInt(10);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            char c = (char) ('a' + random.nextInt(6));
+            name.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+        }
+        return name.toString();
+    }
+
+    private static List<DBSObject> makeObjects(List<String> names) {
+        return names.stream().map(SQLCompletionNameIndexTest::makeObject).collect(Collectors.toList());
+    }
+
+    private static DBSObject makeObject(String name) {
+        DBSObject object = Mockito.mock(DBSObject.class);
+        Mockito.when(object.getName()).thenReturn(name);
+        return object;
+    }
+
+    private static List<String> getNames(List<DBSObject> objects) {
+        return objects.stream().map(DBSObject::getName).collect(Collectors.toList());
+    }
+
+    private static List<String> getMatchNames(List<SQLCompletionNameIndex.Match> matches) {
+        return matches.stream().map(match -> match.object().getName()).collect(Collectors.toList());
+    }
+}
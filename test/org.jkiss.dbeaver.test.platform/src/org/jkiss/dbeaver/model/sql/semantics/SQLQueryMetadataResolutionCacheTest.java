@@ -0,0 +1,72 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.semantics;
+
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SQLQueryMetadataResolutionCacheTest {
+
+    @Test
+    public void testObjectsAreResolvedOnce() {
+        SQLQueryMetadataResolutionCache cache = new SQLQueryMetadataResolutionCache();
+        DBSObject table = Mockito.mock(DBSObject.class);
+        AtomicInteger resolveCount = new AtomicInteger();
+
+        List<String> name = new ArrayList<>(List.of("public", "orders"));
+        Assert.assertSame(table, cache.findObject(name, n -> {
+            resolveCount.incrementAndGet();
+            return table;
+        }));
+        // Key is copied, so the caller may reuse the name list
+        name.set(1, "users");
+        Assert.assertSame(table, cache.findObject(List.of("public", "orders"), n -> {
+            resolveCount.incrementAndGet();
+            return null;
+        }));
+        Assert.assertEquals(1, resolveCount.get());
+    }
+
+    @Test
+    public void testMissingObjectsAreCached() {
+        SQLQueryMetadataResolutionCache cache = new SQLQueryMetadataResolutionCache();
+        AtomicInteger resolveCount = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertNull(cache.findObject(List.of("missing"), n -> {
+                resolveCount.incrementAndGet();
+                return null;
+            }));
+        }
+        Assert.assertEquals(1, resolveCount.get());
+        Assert.assertEquals(1, cache.size());
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        cache.findObject(List.of("missing"), n -> {
+            resolveCount.incrementAndGet();
+            return null;
+        });
+        Assert.assertEquals(2, resolveCount.get());
+    }
+}
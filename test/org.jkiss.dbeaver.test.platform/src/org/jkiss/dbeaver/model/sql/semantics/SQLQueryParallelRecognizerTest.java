@@ -0,0 +1,119 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.semantics;
+
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SQLQueryParallelRecognizerTest {
+
+    @Test
+    public void testResultsAreConsumedInOrder() {
+        DBRProgressMonitor monitor = createMonitor(new AtomicBoolean());
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(i);
+        }
+        Random random = new Random(42);
+        List<Integer> delays = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            delays.add(random.nextInt(5));
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Set<DBRProgressMonitor> taskMonitors = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        List<Integer> consumedIndexes = new ArrayList<>();
+        List<String> results = new ArrayList<>();
+
+        boolean completed = SQLQueryParallelRecognizer.recognize(monitor, "Test analysis", items, 3, (taskMonitor, item) -> {
+            taskMonitors.add(taskMonitor);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delays.get(item));
+            } finally {
+                running.decrementAndGet();
+            }
+            return "query" + item;
+        }, (index, result) -> {
+            consumedIndexes.add(index);
+            results.add(result);
+        });
+
+        Assert.assertTrue(completed);
+        for (int i = 0; i < items.size(); i++) {
+            Assert.assertEquals(i, consumedIndexes.get(i).intValue());
+            Assert.assertEquals("query" + i, results.get(i));
+        }
+        Assert.assertTrue(maxRunning.get() <= 3);
+        // Each worker has its own monitor
+        Assert.assertFalse(taskMonitors.contains(monitor));
+        Assert.assertTrue(taskMonitors.size() <= 3);
+    }
+
+    @Test
+    public void testFailedItemGivesNullResult() {
+        DBRProgressMonitor monitor = createMonitor(new AtomicBoolean());
+        List<String> results = new ArrayList<>();
+
+        boolean completed = SQLQueryParallelRecognizer.recognize(monitor, "Test analysis", List.of(1, 2, 3), 2, (taskMonitor, item) -> {
+            if (item == 2) {
+                throw new IllegalStateException("Broken query");
+            }
+            return "query" + item;
+        }, (index, result) -> results.add(result));
+
+        Assert.assertTrue(completed);
+        Assert.assertEquals(Arrays.asList("query1", null, "query3"), results);
+    }
+
+    @Test
+    public void testCancel() {
+        AtomicBoolean canceled = new AtomicBoolean();
+        DBRProgressMonitor monitor = createMonitor(canceled);
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(i);
+        }
+        AtomicInteger recognizedCount = new AtomicInteger();
+        List<Integer> consumedIndexes = new ArrayList<>();
+
+        boolean completed = SQLQueryParallelRecognizer.recognize(monitor, "Test analysis", items, 2, (taskMonitor, item) -> {
+            recognizedCount.incrementAndGet();
+            Thread.sleep(10);
+            return item;
+        }, (index, result) -> {
+            consumedIndexes.add(index);
+            canceled.set(true);
+        });
+
+        Assert.assertFalse(completed);
+        Assert.assertEquals(List.of(0), consumedIndexes);
+        Assert.assertTrue(recognizedCount.get() < items.size());
+    }
+
+    private static DBRProgressMonitor createMonitor(AtomicBoolean canceled) {
+        DBRProgressMonitor monitor = Mockito.mock(DBRProgressMonitor.class);
+        Mockito.when(monitor.isCanceled()).thenAnswer(invocation -> canceled.get());
+        return monitor;
+    }
+}
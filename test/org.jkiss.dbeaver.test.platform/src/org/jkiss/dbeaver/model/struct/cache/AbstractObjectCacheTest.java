@@ -0,0 +1,231 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AbstractObjectCacheTest {
+
+    @Test
+    public void testLookupAfterModifications() {
+        SimpleObjectCache<DBSObject, DBSObject> cache = new SimpleObjectCache<>();
+        DBSObject table1 = createObject("TABLE1", null);
+        DBSObject table2 = createObject("TABLE2", null);
+        DBSObject table3 = createObject("TABLE3", null);
+        cache.setCache(List.of(table1, table2));
+        Assert.assertSame(table1, cache.getCachedObject("TABLE1"));
+        Assert.assertNull(cache.getCachedObject("TABLE3"));
+
+        cache.cacheObject(table3);
+        Assert.assertSame(table3, cache.getCachedObject("TABLE3"));
+        Assert.assertEquals(3, cache.getCacheSize());
+
+        cache.renameObject(table3, "TABLE3", "TABLE4");
+        Assert.assertNull(cache.getCachedObject("TABLE3"));
+        Assert.assertSame(table3, cache.getCachedObject("TABLE4"));
+
+        cache.removeObject(table1, false);
+        Assert.assertNull(cache.getCachedObject("TABLE1"));
+        Assert.assertEquals(List.of(table2, table3), cache.getCachedObjects());
+        Assert.assertTrue(cache.isFullyCached());
+
+        cache.clearCache();
+        Assert.assertTrue(cache.isEmpty());
+        Assert.assertNull(cache.getCachedObject("TABLE2"));
+    }
+
+    @Test
+    public void testCacheObjects() {
+        SimpleObjectCache<DBSObject, DBSObject> cache = new SimpleObjectCache<>();
+        DBSObject table1 = createObject("TABLE1", null);
+        DBSObject table2 = createObject("TABLE2", null);
+        DBSObject table3 = createObject("TABLE3", null);
+        DBSObject duplicate = createObject("TABLE1", null);
+        cache.cacheObjects(List.of(table1));
+        // Build name map of the current state
+        Assert.assertSame(table1, cache.getCachedObject("TABLE1"));
+
+        cache.cacheObjects(List.of(table2, table3, duplicate));
+        Assert.assertEquals(List.of(table1, table2, table3, duplicate), cache.getCachedObjects());
+        Assert.assertSame(table1, cache.getCachedObject("TABLE1"));
+        Assert.assertSame(table2, cache.getCachedObject("TABLE2"));
+        Assert.assertSame(table3, cache.getCachedObject("TABLE3"));
+        Assert.assertFalse(cache.isFullyCached());
+    }
+
+    @Test
+    public void testCachedObjectsAreSnapshot() {
+        SimpleObjectCache<DBSObject, DBSObject> cache = new SimpleObjectCache<>();
+        DBSObject table1 = createObject("TABLE1", null);
+        DBSObject table2 = createObject("TABLE2", null);
+        List<DBSObject> objects = new ArrayList<>(List.of(table1));
+        cache.setCache(objects);
+        // Modification of source list doesn't affect cache
+        objects.add(table2);
+        List<DBSObject> cachedObjects = cache.getCachedObjects();
+        Assert.assertEquals(1, cachedObjects.size());
+
+        cache.cacheObject(table2);
+        Assert.assertEquals(1, cachedObjects.size());
+        Assert.assertEquals(2, cache.getCachedObjects().size());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> cachedObjects.add(table2));
+    }
+
+    @Test
+    public void testClearChildrenOf() {
+        SimpleObjectCache<DBSObject, DBSObject> cache = new SimpleObjectCache<>();
+        DBSObject parent = Mockito.mock(DBSObject.class);
+        DBSObject table1 = createObject("TABLE1", parent);
+        DBSObject table2 = createObject("TABLE2", null);
+        cache.setCache(List.of(table1, table2));
+        Assert.assertSame(table1, cache.getCachedObject("TABLE1"));
+
+        cache.clearChildrenOf(parent);
+        Assert.assertNull(cache.getCachedObject("TABLE1"));
+        Assert.assertSame(table2, cache.getCachedObject("TABLE2"));
+        Assert.assertFalse(cache.isFullyCached());
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        SimpleObjectCache<DBSObject, DBSObject> cache = new SimpleObjectCache<>();
+        List<DBSObject> tables = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tables.add(createObject("TABLE" + i, null));
+        }
+        List<DBSObject> views = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            views.add(createObject("VIEW" + i, null));
+        }
+        cache.setCache(tables);
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (!stop.get()) {
+                        for (int k = 0; k < tables.size(); k++) {
+                            Assert.assertSame(tables.get(k), cache.getCachedObject("TABLE" + k));
+                        }
+                        Assert.assertTrue(cache.getCacheSize() >= tables.size());
+                    }
+                } catch (Throwable e) {
+                    error.set(e);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (int i = 0; i < 20; i++) {
+            for (DBSObject view : views) {
+                cache.cacheObject(view);
+            }
+            for (DBSObject view : views) {
+                cache.removeObject(view, false);
+            }
+        }
+        stop.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        Assert.assertNull(error.get());
+        Assert.assertEquals(tables, cache.getCachedObjects());
+    }
+
+    @Test
+    public void testMergeCacheCopiesState() {
+        TestObjectCache cache = new TestObjectCache();
+        TestObject table1 = new TestObject("TABLE1", "old comment");
+        TestObject table2 = new TestObject("TABLE2", null);
+        cache.setCache(List.of(table1, table2));
+
+        TestObject newTable1 = new TestObject("TABLE1", "new comment");
+        TestObject newTable3 = new TestObject("TABLE3", null);
+        List<TestObject> keptObjects = cache.mergeAndCopyState(List.of(newTable1, newTable3));
+
+        Assert.assertEquals(List.of(table1), keptObjects);
+        Assert.assertEquals(List.of(table1, newTable3), cache.getCachedObjects());
+        Assert.assertSame(table1, cache.getCachedObject("TABLE1"));
+        Assert.assertEquals("new comment", table1.getDescription());
+        Assert.assertNull(cache.getCachedObject("TABLE2"));
+    }
+
+    @NotNull
+    private static DBSObject createObject(@NotNull String name, DBSObject parent) {
+        DBSObject object = Mockito.mock(DBSObject.class);
+        Mockito.lenient().when(object.getName()).thenReturn(name);
+        Mockito.lenient().when(object.getParentObject()).thenReturn(parent);
+        return object;
+    }
+
+    private static class TestObjectCache extends SimpleObjectCache<DBSObject, TestObject> {
+        List<TestObject> mergeAndCopyState(List<TestObject> objects) {
+            return mergeCache(objects, true);
+        }
+    }
+
+    private static class TestObject implements DBSObject {
+        private final String name;
+        private String description;
+
+        TestObject(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.AsyncOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+public class AsyncOutputStreamTest {
+
+    @Test
+    public void writeAllData() throws IOException {
+        byte[] data = new byte[1024 * 1024 + 17];
+        new Random(1).nextBytes(data);
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (AsyncOutputStream out = new AsyncOutputStream(target, "test", 1000, 2)) {
+            int offset = 0;
+            for (int chunk = 1; offset < data.length; chunk = chunk * 3 % 4999 + 1) {
+                int length = Math.min(chunk, data.length - offset);
+                if (length == 1) {
+                    out.write(data[offset]);
+                } else {
+                    out.write(data, offset, length);
+                }
+                offset += length;
+                out.flush();
+            }
+        }
+        Assert.assertArrayEquals(data, target.toByteArray());
+    }
+
+    @Test
+    public void finishKeepsTargetOpen() throws IOException {
+        CloseTrackingStream target = new CloseTrackingStream();
+        AsyncOutputStream out = new AsyncOutputStream(target, "test");
+        out.write(new byte[]{1, 2, 3});
+        out.finish();
+        Assert.assertEquals(3, target.size());
+        Assert.assertFalse(target.closed);
+        out.close();
+        Assert.assertTrue(target.closed);
+    }
+
+    @Test(timeout = 10000)
+    public void abortStopsWriter() throws IOException {
+        CloseTrackingStream target = new CloseTrackingStream();
+        AsyncOutputStream out = new AsyncOutputStream(target, "test", 10, 1);
+        for (int i = 0; i < 100; i++) {
+            out.write(new byte[10]);
+        }
+        // Returns only after the writer job is stopped
+        out.abort();
+        Assert.assertFalse(target.closed);
+        Assert.assertThrows(IOException.class, () -> out.write(1));
+        // Abort after failed or completed finish is allowed
+        out.abort();
+    }
+
+    @Test(expected = IOException.class)
+    public void reportWriteError() throws IOException {
+        OutputStream target = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk full");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+        try (AsyncOutputStream out = new AsyncOutputStream(target, "test", 10, 1)) {
+            for (int i = 0; i < 1000; i++) {
+                out.write(new byte[10]);
+            }
+        }
+    }
+
+    private static class CloseTrackingStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.importer.CSVMappedReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CSVMappedReaderTest {
+
+    @Test
+    public void readSimpleRecords() throws IOException {
+        List<String[]> records = read("a,b,c\n1,2,3\r\n4,,6", CSVMappedReader.DEFAULT_WINDOW_SIZE);
+        Assert.assertEquals(3, records.size());
+        Assert.assertArrayEquals(new String[]{"a", "b", "c"}, records.get(0));
+        Assert.assertArrayEquals(new String[]{"1", "2", "3"}, records.get(1));
+        Assert.assertArrayEquals(new String[]{"4", "", "6"}, records.get(2));
+    }
+
+    @Test
+    public void readQuotedFields() throws IOException {
+        List<String[]> records = read(
+            "1,\"multi\nline\",\"with, delimiter\"\n2,\"doubled \"\"quote\"\"\",\"escaped \\\" quote\"\n",
+            CSVMappedReader.DEFAULT_WINDOW_SIZE);
+        Assert.assertEquals(2, records.size());
+        Assert.assertArrayEquals(new String[]{"1", "multi\nline", "with, delimiter"}, records.get(0));
+        Assert.assertArrayEquals(new String[]{"2", "doubled \"quote\"", "escaped \" quote"}, records.get(1));
+    }
+
+    @Test
+    public void skipEmptyLinesAndBom() throws IOException {
+        List<String[]> records = read("\uFEFFa,b\n\n\r\nc,d\n\n", CSVMappedReader.DEFAULT_WINDOW_SIZE);
+        Assert.assertEquals(2, records.size());
+        Assert.assertArrayEquals(new String[]{"a", "b"}, records.get(0));
+        Assert.assertArrayEquals(new String[]{"c", "d"}, records.get(1));
+    }
+
+    @Test
+    public void readNonAsciiValues() throws IOException {
+        List<String[]> records = read("\u0442\u0435\u0441\u0442,\"\u00E9t\u00E9\"\n", CSVMappedReader.DEFAULT_WINDOW_SIZE);
+        Assert.assertEquals(1, records.size());
+        Assert.assertArrayEquals(new String[]{"\u0442\u0435\u0441\u0442", "\u00E9t\u00E9"}, records.get(0));
+    }
+
+    @Test
+    public void readBySmallWindows() throws IOException {
+        StringBuilder data = new StringBuilder();
+        List<String[]> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String longValue = "value " + i + "\r\n" + "x".repeat(i % 50);
+            data.append(i).append(",\"").append(longValue).append("\"\r\n");
+            expected.add(new String[]{String.valueOf(i), longValue});
+        }
+        // Window is smaller than some records
+        List<String[]> records = read(data.toString(), 32);
+        Assert.assertEquals(expected.size(), records.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertArrayEquals(expected.get(i), records.get(i));
+        }
+    }
+
+    @Test
+    public void detectUnterminatedQuote() throws IOException {
+        Path file = writeFile("1,\"unterminated\n2,3");
+        try (CSVMappedReader reader = new CSVMappedReader(file, StandardCharsets.UTF_8, ',', '"', '\\')) {
+            Assert.assertTrue(reader.nextRecord());
+            Assert.assertTrue(reader.isPending());
+            Assert.assertFalse(reader.nextRecord());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<String[]> read(String data, long windowSize) throws IOException {
+        Path file = writeFile(data);
+        try (CSVMappedReader reader = new CSVMappedReader(file, StandardCharsets.UTF_8, ',', '"', '\\', windowSize)) {
+            List<String[]> records = new ArrayList<>();
+            while (reader.nextRecord()) {
+                records.add(reader.getFields());
+            }
+            Assert.assertFalse(reader.isPending());
+            return records;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Path writeFile(String data) throws IOException {
+        Path file = Files.createTempFile("dbeaver-test", ".csv");
+        Files.writeString(file, data, StandardCharsets.UTF_8);
+        return file;
+    }
+}
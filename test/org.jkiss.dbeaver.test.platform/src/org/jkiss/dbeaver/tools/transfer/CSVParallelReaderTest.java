@@ -0,0 +1,136 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.importer.CSVParallelReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class CSVParallelReaderTest {
+
+    private static final int CHUNK_SIZE = 100;
+    private static final DBRProgressMonitor MONITOR = new VoidProgressMonitor();
+
+    @Test
+    public void readInOrder() throws DBException, IOException {
+        List<String> expected = generateRecords(1000, "\n");
+        List<String> rows = read(String.join("", expected), true, Integer.MAX_VALUE);
+        Assert.assertEquals(expected, rows);
+    }
+
+    @Test
+    public void readUnordered() throws DBException, IOException {
+        List<String> expected = generateRecords(1000, "\r\n");
+        List<String> rows = read(String.join("", expected), false, Integer.MAX_VALUE);
+        Assert.assertEquals(expected.size(), rows.size());
+        Assert.assertEquals(new HashSet<>(expected), new HashSet<>(rows));
+    }
+
+    @Test
+    public void readLastRecordWithoutLineFeed() throws DBException, IOException {
+        List<String> expected = generateRecords(100, "\n");
+        expected.add("last,\"no line feed\"");
+        List<String> rows = read(String.join("", expected), true, Integer.MAX_VALUE);
+        Assert.assertEquals(expected, rows);
+    }
+
+    @Test
+    public void stopReading() throws DBException, IOException {
+        List<String> expected = generateRecords(1000, "\n");
+        List<String> rows = read(String.join("", expected), true, 10);
+        Assert.assertEquals(expected.subList(0, 10), rows);
+    }
+
+    @Test(expected = IOException.class)
+    public void parserError() throws DBException, IOException {
+        CSVParallelReader reader = new CSVParallelReader(
+            new ByteArrayInputStream(String.join("", generateRecords(100, "\n")).getBytes(StandardCharsets.UTF_8)),
+            '"', '\\', 4, true, CHUNK_SIZE,
+            (data, length, firstChunk) -> {
+                throw new IOException("Test error");
+            });
+        reader.read(MONITOR, row -> true);
+    }
+
+    private static List<String> read(String data, boolean preserveOrder, int maxRows) throws DBException, IOException {
+        List<String> rows = new ArrayList<>();
+        Set<Boolean> firstChunks = new HashSet<>();
+        CSVParallelReader reader = new CSVParallelReader(
+            new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)),
+            '"', '\\', 4, preserveOrder, CHUNK_SIZE,
+            (chunk, length, firstChunk) -> {
+                if (firstChunk && !firstChunks.add(true)) {
+                    throw new IOException("Duplicate first chunk");
+                }
+                return splitRecords(new String(chunk, 0, length, StandardCharsets.UTF_8));
+            });
+        reader.read(MONITOR, row -> {
+            if (rows.size() >= maxRows) {
+                return false;
+            }
+            rows.add((String) row[0]);
+            return true;
+        });
+        return rows;
+    }
+
+    /**
+     * Splits chunk into records. Fails if chunk ends inside quotes, i.e. if chunk boundary was not a record boundary.
+     */
+    private static List<Object[]> splitRecords(String chunk) throws IOException {
+        List<Object[]> records = new ArrayList<>();
+        boolean inQuotes = false;
+        int start = 0;
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == '\n' && !inQuotes) {
+                records.add(new Object[]{chunk.substring(start, i + 1)});
+                start = i + 1;
+            }
+        }
+        if (inQuotes) {
+            throw new IOException("Chunk ends inside quotes");
+        }
+        if (start < chunk.length()) {
+            records.add(new Object[]{chunk.substring(start)});
+        }
+        return records;
+    }
+
+    private static List<String> generateRecords(int count, String lineDelimiter) {
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(i + ",\"multi" + lineDelimiter + "line \"\"value\"\" " + i + "\",\"escaped \\\" quote\"" + lineDelimiter);
+        }
+        return records;
+    }
+}
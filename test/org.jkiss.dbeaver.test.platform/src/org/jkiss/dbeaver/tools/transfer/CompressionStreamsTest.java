@@ -0,0 +1,127 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.compress.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.function.Function;
+
+public class CompressionStreamsTest {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    @Test
+    public void xxHash32() {
+        Assert.assertEquals(0x02CC5D05, XXHash32.hash(new byte[0], 0, 0, 0));
+        Assert.assertEquals(0x32D153FF, XXHash32.hash("abc".getBytes(StandardCharsets.US_ASCII), 0, 3, 0));
+
+        byte[] data = generateText(1000);
+        XXHash32 hash = new XXHash32();
+        for (int i = 0; i < data.length; i += 7) {
+            hash.update(data, i, Math.min(7, data.length - i));
+        }
+        Assert.assertEquals(XXHash32.hash(data, 0, data.length, 0), hash.getValue());
+    }
+
+    @Test
+    public void gzipRoundTrip() throws IOException {
+        for (int threads : new int[]{1, 4}) {
+            byte[] data = generateText(1_000_000);
+            byte[] compressed = compress(out -> new GzipBlockOutputStream(out, BLOCK_SIZE, threads), data);
+            Assert.assertTrue(compressed.length < data.length / 2);
+            Assert.assertEquals(StreamCompressionFormat.GZIP, StreamCompressionFormat.detectFormat(new ByteArrayInputStream(compressed)));
+            Assert.assertArrayEquals(data, decompress(compressed));
+        }
+    }
+
+    @Test
+    public void lz4RoundTrip() throws IOException {
+        for (int threads : new int[]{1, 4}) {
+            byte[] data = generateText(1_000_000);
+            byte[] compressed = compress(out -> new LZ4FrameOutputStream(out, BLOCK_SIZE, threads), data);
+            Assert.assertTrue(compressed.length < data.length / 2);
+            Assert.assertEquals(StreamCompressionFormat.LZ4, StreamCompressionFormat.detectFormat(new ByteArrayInputStream(compressed)));
+            Assert.assertArrayEquals(data, decompress(compressed));
+        }
+    }
+
+    @Test
+    public void lz4IncompressibleData() throws IOException {
+        byte[] data = new byte[BLOCK_SIZE * 3 + 100];
+        new Random(1).nextBytes(data);
+        byte[] compressed = compress(out -> new LZ4FrameOutputStream(out, BLOCK_SIZE, 2), data);
+        Assert.assertArrayEquals(data, decompress(compressed));
+    }
+
+    @Test
+    public void emptyData() throws IOException {
+        Assert.assertArrayEquals(new byte[0], decompress(compress(out -> new GzipBlockOutputStream(out, 2), new byte[0])));
+        Assert.assertArrayEquals(new byte[0], decompress(compress(out -> new LZ4FrameOutputStream(out, 2), new byte[0])));
+    }
+
+    @Test
+    public void estimateCompressedSize() throws IOException {
+        byte[] data = generateText(BLOCK_SIZE * 4);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (BlockCompressorOutputStream out = new GzipBlockOutputStream(target, BLOCK_SIZE, 1)) {
+            out.write(data);
+            out.flush();
+            long estimated = out.estimateCompressedSize(data.length * 2L);
+            Assert.assertTrue(estimated > target.size());
+            Assert.assertTrue(estimated < data.length);
+        }
+    }
+
+    @Test
+    public void detectUncompressedData() throws IOException {
+        Assert.assertNull(StreamCompressionFormat.detectFormat(new BufferedInputStream(new ByteArrayInputStream("a,b\n".getBytes(StandardCharsets.US_ASCII)))));
+        Assert.assertNull(StreamCompressionFormat.detectFormat(new BufferedInputStream(new ByteArrayInputStream(new byte[0]))));
+    }
+
+    private static byte[] compress(Function<OutputStream, OutputStream> factory, byte[] data) throws IOException {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (OutputStream stream = factory.apply(target)) {
+            for (int offset = 0; offset < data.length; offset += 10_000) {
+                stream.write(data, offset, Math.min(10_000, data.length - offset));
+            }
+        }
+        return target.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        InputStream stream = new BufferedInputStream(new ByteArrayInputStream(data));
+        StreamCompressionFormat format = StreamCompressionFormat.detectFormat(stream);
+        Assert.assertNotNull(format);
+        try (InputStream in = format.openInputStream(stream)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] generateText(int size) {
+        Random random = new Random(size);
+        StringBuilder text = new StringBuilder(size);
+        while (text.length() < size) {
+            text.append(random.nextInt(100_000)).append(",\"name ").append(random.nextInt(1000)).append("\",2024-01-").append(random.nextInt(28) + 10).append('\n');
+        }
+        return text.substring(0, size).getBytes(StandardCharsets.US_ASCII);
+    }
+}
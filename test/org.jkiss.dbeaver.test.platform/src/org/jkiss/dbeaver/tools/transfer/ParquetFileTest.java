@@ -0,0 +1,183 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn.LogicalType;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn.PhysicalType;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetCompression;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileReader;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ParquetFileTest {
+
+    private static final List<ParquetColumn> COLUMNS = List.of(
+        new ParquetColumn("id", PhysicalType.INT64, LogicalType.NONE),
+        new ParquetColumn("name", PhysicalType.BYTE_ARRAY, LogicalType.STRING),
+        new ParquetColumn("flag", PhysicalType.BOOLEAN, LogicalType.NONE),
+        new ParquetColumn("ratio", PhysicalType.DOUBLE, LogicalType.NONE),
+        ParquetColumn.decimal("amount", 12, 2),
+        ParquetColumn.decimal("big_amount", 30, 4),
+        new ParquetColumn("created", PhysicalType.INT32, LogicalType.DATE),
+        new ParquetColumn("at_time", PhysicalType.INT64, LogicalType.TIME_MICROS),
+        new ParquetColumn("updated", PhysicalType.INT64, LogicalType.TIMESTAMP_MICROS)
+    );
+
+    @Test
+    public void testRoundTripUncompressed() throws IOException {
+        testRoundTrip(ParquetCompression.UNCOMPRESSED, 0);
+    }
+
+    @Test
+    public void testRoundTripSnappy() throws IOException {
+        testRoundTrip(ParquetCompression.SNAPPY, 0);
+    }
+
+    @Test
+    public void testRoundTripGzip() throws IOException {
+        testRoundTrip(ParquetCompression.GZIP, 0);
+    }
+
+    @Test
+    public void testRoundTripWithSpilledChunks() throws IOException {
+        // Memory limit is less than row group size, so column chunks are moved to temporary files
+        testRoundTrip(ParquetCompression.SNAPPY, 8 * 1024);
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        Path file = Files.createTempFile("dbeaver-test", ".parquet");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                new ParquetFileWriter(out, COLUMNS, ParquetCompression.SNAPPY, 0, 0, null).finish();
+            }
+            try (ParquetFileReader reader = new ParquetFileReader(file)) {
+                Assert.assertEquals(0, reader.getRowCount());
+                Assert.assertEquals(0, reader.getRowGroupCount());
+                Assert.assertEquals(COLUMNS.size(), reader.getColumns().size());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotParquetFile() throws IOException {
+        Path file = Files.createTempFile("dbeaver-test", ".parquet");
+        try {
+            Files.writeString(file, "id,name\n1,test\n");
+            new ParquetFileReader(file).close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testOutOfRangeIntegerIsRejected() throws IOException {
+        ParquetFileWriter writer = new ParquetFileWriter(
+            OutputStream.nullOutputStream(),
+            List.of(new ParquetColumn("id", PhysicalType.INT32, LogicalType.NONE), new ParquetColumn("big_id", PhysicalType.INT64, LogicalType.NONE)),
+            ParquetCompression.UNCOMPRESSED, 0, 0, null);
+        writer.writeRow(new Object[]{Integer.MAX_VALUE, Long.MAX_VALUE});
+        // Unsigned INT and BIGINT values
+        Assert.assertThrows(IOException.class, () -> writer.writeRow(new Object[]{4_294_967_295L, 1L}));
+        Assert.assertThrows(IOException.class, () -> writer.writeRow(new Object[]{1, new BigInteger("18446744073709551615")}));
+    }
+
+    @Test
+    public void testTimestampAdjustedToUTC() throws IOException {
+        List<ParquetColumn> columns = List.of(ParquetColumn.timestamp("created_at", true));
+        OffsetDateTime value = OffsetDateTime.parse("2024-02-03T04:05:06.123456+03:00");
+        Path file = Files.createTempFile("dbeaver-test", ".parquet");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                ParquetFileWriter writer = new ParquetFileWriter(out, columns, ParquetCompression.UNCOMPRESSED, 0, 0, null);
+                writer.writeRow(new Object[]{value});
+                writer.finish();
+            }
+            try (ParquetFileReader reader = new ParquetFileReader(file)) {
+                Assert.assertTrue(reader.getColumns().get(0).isAdjustedToUTC());
+                Timestamp timestamp = (Timestamp) reader.readRowGroup(0).get(0)[0];
+                Assert.assertEquals(value.toInstant(), timestamp.toInstant());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void testRoundTrip(ParquetCompression compression, long memoryLimit) throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            rows.add(new Object[]{
+                (long) i,
+                i % 7 == 0 ? null : "name " + (i % 100),
+                i % 3 == 0,
+                i % 11 == 0 ? null : i / 3.0,
+                new BigDecimal(i).movePointLeft(2),
+                new BigDecimal("12345678901234567890.1234").add(BigDecimal.valueOf(i)),
+                Date.valueOf("2024-01-01"),
+                Time.valueOf("12:34:56"),
+                i % 5 == 0 ? null : Timestamp.valueOf("2024-02-03 04:05:06.123456")
+            });
+        }
+
+        Path file = Files.createTempFile("dbeaver-test", ".parquet");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                // Small row groups and pages to get several of them
+                ParquetFileWriter writer = new ParquetFileWriter(out, COLUMNS, compression, 32 * 1024, 4 * 1024, memoryLimit, "test");
+                for (Object[] row : rows) {
+                    writer.writeRow(row);
+                }
+                writer.finish();
+            }
+            try (ParquetFileReader reader = new ParquetFileReader(file)) {
+                Assert.assertEquals(rows.size(), reader.getRowCount());
+                Assert.assertTrue(reader.getRowGroupCount() > 1);
+                Assert.assertEquals(COLUMNS.size(), reader.getColumns().size());
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    Assert.assertEquals(COLUMNS.get(i).toString(), reader.getColumns().get(i).toString());
+                }
+                List<Object[]> readRows = new ArrayList<>();
+                for (int i = 0; i < reader.getRowGroupCount(); i++) {
+                    readRows.addAll(reader.readRowGroup(i));
+                }
+                Assert.assertEquals(rows.size(), readRows.size());
+                for (int i = 0; i < rows.size(); i++) {
+                    Assert.assertArrayEquals(rows.get(i), readRows.get(i));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
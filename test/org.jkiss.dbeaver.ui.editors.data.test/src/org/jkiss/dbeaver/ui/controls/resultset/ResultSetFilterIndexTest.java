@@ -0,0 +1,160 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.DBCLogicalOperator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ResultSetFilterIndexTest {
+
+    private DBDAttributeBinding idAttribute;
+    private DBDAttributeBinding nameAttribute;
+    private DBDAttributeBinding priceAttribute;
+    private DBDAttributeBinding createdAttribute;
+    private ResultSetFilterIndex index;
+
+    @Before
+    public void setUp() {
+        ResultSetModel model = Mockito.mock(ResultSetModel.class);
+        idAttribute = createAttribute(model, "id", 0, DBPDataKind.NUMERIC);
+        nameAttribute = createAttribute(model, "name", 1, DBPDataKind.STRING);
+        priceAttribute = createAttribute(model, "price", 2, DBPDataKind.NUMERIC);
+        createdAttribute = createAttribute(model, "created", 3, DBPDataKind.DATETIME);
+        Mockito.when(model.getCellValue(Mockito.any(DBDAttributeBinding.class), Mockito.any(ResultSetRow.class)))
+            .thenAnswer(invocation -> {
+                DBDAttributeBinding binding = invocation.getArgument(0);
+                ResultSetRow row = invocation.getArgument(1);
+                return row.getValues()[binding.getOrdinalPosition()];
+            });
+
+        List<ResultSetRow> rows = new ArrayList<>();
+        rows.add(new ResultSetRow(0, new Object[]{1, "Apple", new BigDecimal("10.50"), Timestamp.valueOf("2024-01-01 10:00:00")}));
+        rows.add(new ResultSetRow(1, new Object[]{2L, "apricot", null, Timestamp.valueOf("2024-02-01 10:00:00")}));
+        rows.add(new ResultSetRow(2, new Object[]{3, "Banana", 7, null}));
+        rows.add(new ResultSetRow(3, new Object[]{4, null, new BigDecimal("10.500"), Timestamp.valueOf("2024-03-01 10:00:00")}));
+        rows.add(new ResultSetRow(4, new Object[]{5, "APPLE pie", 3.25, Timestamp.valueOf("2024-02-01 10:00:00")}));
+        index = new ResultSetFilterIndex(model, rows);
+    }
+
+    @Test
+    public void testEquals() {
+        assertFilter(List.of(1), constraint(idAttribute, DBCLogicalOperator.EQUALS, 2));
+        assertFilter(List.of(2), constraint(idAttribute, DBCLogicalOperator.EQUALS, "3"));
+        assertFilter(List.of(0, 3), constraint(priceAttribute, DBCLogicalOperator.EQUALS, 10.5));
+        assertFilter(List.of(1, 4), constraint(createdAttribute, DBCLogicalOperator.EQUALS, Timestamp.valueOf("2024-02-01 10:00:00")));
+        assertFilter(List.of(0, 4), constraint(idAttribute, DBCLogicalOperator.IN, new Object[]{1, 5, 10}));
+        // Nulls never match inequality
+        assertFilter(List.of(2, 4), constraint(priceAttribute, DBCLogicalOperator.NOT_EQUALS, new BigDecimal("10.5")));
+    }
+
+    @Test
+    public void testNulls() {
+        assertFilter(List.of(3), constraint(nameAttribute, DBCLogicalOperator.IS_NULL, null));
+        assertFilter(List.of(0, 1, 2, 4), constraint(nameAttribute, DBCLogicalOperator.IS_NOT_NULL, null));
+        assertFilter(List.of(0, 2, 3, 4), constraint(priceAttribute, DBCLogicalOperator.IS_NOT_NULL, null));
+        // Null argument means IS NULL
+        assertFilter(List.of(1), constraint(priceAttribute, DBCLogicalOperator.EQUALS, null));
+        assertFilter(List.of(1, 2), constraint(priceAttribute, DBCLogicalOperator.IN, new Object[]{null, 7}));
+    }
+
+    @Test
+    public void testRanges() {
+        assertFilter(List.of(0, 3), constraint(priceAttribute, DBCLogicalOperator.GREATER, 7));
+        assertFilter(List.of(0, 2, 3), constraint(priceAttribute, DBCLogicalOperator.GREATER_EQUALS, 7));
+        assertFilter(List.of(2, 4), constraint(priceAttribute, DBCLogicalOperator.LESS, new BigDecimal("10.5")));
+        assertFilter(List.of(0, 2, 3, 4), constraint(priceAttribute, DBCLogicalOperator.LESS_EQUALS, "10.5"));
+        assertFilter(List.of(0, 1), constraint(idAttribute, DBCLogicalOperator.LESS, 3));
+        assertFilter(List.of(1, 3, 4), constraint(createdAttribute, DBCLogicalOperator.GREATER, Timestamp.valueOf("2024-01-01 10:00:00")));
+    }
+
+    @Test
+    public void testStringConditionsAreNotSupported() {
+        // String comparison and pattern matching depend on collation, so they are always evaluated by the server
+        for (DBCLogicalOperator operator : new DBCLogicalOperator[]{
+            DBCLogicalOperator.EQUALS, DBCLogicalOperator.NOT_EQUALS, DBCLogicalOperator.LESS, DBCLogicalOperator.IN,
+            DBCLogicalOperator.LIKE, DBCLogicalOperator.NOT_LIKE, DBCLogicalOperator.ILIKE, DBCLogicalOperator.REGEX})
+        {
+            DBDAttributeConstraint constraint = constraint(nameAttribute, operator, "Apple");
+            Assert.assertFalse(operator.name(), ResultSetFilterIndex.isConditionSupported(constraint, nameAttribute));
+        }
+        // Pattern matching is not supported for any column
+        Assert.assertFalse(ResultSetFilterIndex.isConditionSupported(
+            constraint(idAttribute, DBCLogicalOperator.LIKE, "1%"), idAttribute));
+
+        DBDAttributeConstraint criteria = constraint(idAttribute, DBCLogicalOperator.EQUALS, 1);
+        criteria.setCriteria("= 1");
+        Assert.assertFalse(ResultSetFilterIndex.isConditionSupported(criteria, idAttribute));
+    }
+
+    @Test
+    public void testCombinedConstraints() {
+        DBDDataFilter filter = new DBDDataFilter(List.of(
+            constraint(idAttribute, DBCLogicalOperator.GREATER, 1),
+            constraint(priceAttribute, DBCLogicalOperator.GREATER, 5)
+        ));
+        Assert.assertEquals(List.of(2, 3), getRowNumbers(index.filter(filter)));
+
+        filter.setAnyConstraint(true);
+        Assert.assertEquals(List.of(0, 1, 2, 3, 4), getRowNumbers(index.filter(filter)));
+
+        Assert.assertEquals(List.of(0, 1, 2, 3, 4), getRowNumbers(index.filter(new DBDDataFilter())));
+    }
+
+    private void assertFilter(List<Integer> expectedRows, DBDAttributeConstraint constraint) {
+        Assert.assertTrue(ResultSetFilterIndex.isConditionSupported(constraint, (DBDAttributeBinding) constraint.getAttribute()));
+        List<ResultSetRow> rows = index.filter(new DBDDataFilter(List.of(constraint)));
+        Assert.assertEquals(constraint.getOperator() + " " + Arrays.deepToString(new Object[]{constraint.getValue()}),
+            expectedRows, getRowNumbers(rows));
+    }
+
+    private static List<Integer> getRowNumbers(List<ResultSetRow> rows) {
+        List<Integer> rowNumbers = new ArrayList<>(rows.size());
+        for (ResultSetRow row : rows) {
+            rowNumbers.add(row.getRowNumber());
+        }
+        return rowNumbers;
+    }
+
+    private static DBDAttributeConstraint constraint(DBDAttributeBinding attribute, DBCLogicalOperator operator, Object value) {
+        DBDAttributeConstraint constraint = new DBDAttributeConstraint(attribute, attribute.getOrdinalPosition());
+        constraint.setOperator(operator);
+        constraint.setValue(value);
+        return constraint;
+    }
+
+    private static DBDAttributeBinding createAttribute(ResultSetModel model, String name, int position, DBPDataKind dataKind) {
+        DBDAttributeBinding attribute = Mockito.mock(DBDAttributeBinding.class);
+        Mockito.when(attribute.getName()).thenReturn(name);
+        Mockito.when(attribute.getOrdinalPosition()).thenReturn(position);
+        Mockito.when(attribute.getDataKind()).thenReturn(dataKind);
+        Mockito.when(model.getAttributeBinding(attribute)).thenReturn(attribute);
+        return attribute;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResultSetRowStorageTest {
+
+    private ResultSetRowStorage storage;
+
+    @After
+    public void tearDown() {
+        if (storage != null) {
+            storage.close();
+        }
+    }
+
+    @Test
+    public void testRowsAreEvictedPastBudget() {
+        List<ResultSetRow> rows = createRows(100);
+        storage = new ResultSetRowStorage(getRowSize(rows.get(0)) * 10);
+        storage.addRows(rows);
+
+        Assert.assertNull(rows.get(0).getHeapValues());
+        Assert.assertTrue(rows.get(0).spillOffset >= 0);
+        Assert.assertNotNull(rows.get(99).getHeapValues());
+        int heapRows = 0;
+        for (ResultSetRow row : rows) {
+            if (row.getHeapValues() != null) {
+                heapRows++;
+            }
+        }
+        Assert.assertTrue(heapRows <= 10);
+    }
+
+    @Test
+    public void testSpilledRowsAreReloaded() {
+        List<ResultSetRow> rows = createRows(100);
+        storage = new ResultSetRowStorage(getRowSize(rows.get(0)) * 10);
+        storage.addRows(rows);
+
+        for (int i = 0; i < rows.size(); i++) {
+            Assert.assertArrayEquals(createValues(i), rows.get(i).getValues());
+        }
+        // Reloaded row becomes the most recently used one, the least recently used rows are evicted
+        Assert.assertNotNull(rows.get(99).getHeapValues());
+        Assert.assertNull(rows.get(0).getHeapValues());
+    }
+
+    @Test
+    public void testChangedValueSizeIsEstimated() {
+        List<ResultSetRow> rows = createRows(10);
+        storage = new ResultSetRowStorage(getRowSize(rows.get(0)) * 20);
+        storage.addRows(rows);
+        Assert.assertNotNull(rows.get(0).getHeapValues());
+
+        ResultSetRow row = rows.get(9);
+        int oldSize = row.heapSize;
+        row.setValue(1, "x".repeat(10_000));
+
+        Assert.assertTrue(row.heapSize > oldSize + 10_000);
+        // New value exceeds the budget, so other rows are evicted
+        Assert.assertNull(rows.get(0).getHeapValues());
+        Assert.assertEquals("x".repeat(10_000), row.getValues()[1]);
+    }
+
+    @Test
+    public void testClose() {
+        List<ResultSetRow> rows = createRows(100);
+        storage = new ResultSetRowStorage(getRowSize(rows.get(0)) * 10);
+        storage.addRows(rows);
+        storage.close();
+
+        // Values of rows kept in heap are still available
+        Assert.assertArrayEquals(createValues(99), rows.get(99).getValues());
+        // Spill file is deleted
+        Object[] values = rows.get(0).getValues();
+        Assert.assertTrue(values[0] instanceof DBDValueError);
+    }
+
+    private static List<ResultSetRow> createRows(int count) {
+        List<ResultSetRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new ResultSetRow(i, createValues(i)));
+        }
+        return rows;
+    }
+
+    private static Object[] createValues(int index) {
+        return new Object[]{index, "Row value " + index};
+    }
+
+    private static long getRowSize(ResultSetRow row) {
+        return ResultSetRowStorage.estimateHeapSize(row.getHeapValues());
+    }
+}